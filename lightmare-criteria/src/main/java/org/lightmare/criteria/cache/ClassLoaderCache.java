@@ -0,0 +1,210 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.lightmare.criteria.utils.ObjectUtils;
+
+/**
+ * Bounded (least recently used) cache which keeps separated entries for each
+ * {@link ClassLoader}, class loaders are referenced weakly so entries are
+ * reclaimed together with redeployed modules, also gathers hit / miss
+ * statistics
+ * 
+ * @author Levan Tsinadze
+ *
+ * @param <K>
+ *            key type parameter
+ * @param <V>
+ *            value type parameter
+ */
+public class ClassLoaderCache<K, V> {
+
+    private final int maxSize;
+
+    private final Map<ClassLoader, Map<K, V>> caches = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private static final float LOAD_FACTOR = 0.75F;
+
+    /**
+     * Access ordered {@link java.util.LinkedHashMap} which evicts eldest entry
+     * when size exceeds bound
+     * 
+     * @author Levan Tsinadze
+     *
+     * @param <K>
+     *            key type parameter
+     * @param <V>
+     *            value type parameter
+     */
+    private static class BoundedMap<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private final AtomicLong evictions;
+
+        private BoundedMap(final int maxSize, final AtomicLong evictions) {
+            super(maxSize, LOAD_FACTOR, Boolean.TRUE);
+            this.maxSize = maxSize;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+
+            boolean remove = (size() > maxSize);
+
+            if (remove) {
+                evictions.incrementAndGet();
+            }
+
+            return remove;
+        }
+    }
+
+    public ClassLoaderCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets cache for passed {@link ClassLoader} or initializes new one
+     * 
+     * @param loader
+     * @return {@link java.util.Map} cache for {@link ClassLoader}
+     */
+    private Map<K, V> getCache(ClassLoader loader) {
+        return caches.computeIfAbsent(loader, c -> new BoundedMap<>(maxSize, evictions));
+    }
+
+    /**
+     * Gets value from cache for passed {@link ClassLoader} or initializes it by
+     * passed {@link java.util.function.Function} and caches if it is not
+     * <code>null</code>
+     * 
+     * @param loader
+     * @param key
+     * @param initializer
+     * @return V cached value
+     */
+    public V get(ClassLoader loader, K key, Function<K, V> initializer) {
+
+        V value;
+
+        Map<K, V> cache = getCache(loader);
+        synchronized (cache) {
+            value = cache.get(key);
+        }
+        if (Objects.isNull(value)) {
+            misses.incrementAndGet();
+            value = initializer.apply(key);
+            ObjectUtils.nonNull(value, c -> put(cache, key, c));
+        } else {
+            hits.incrementAndGet();
+        }
+
+        return value;
+    }
+
+    /**
+     * Puts value to passed cache
+     * 
+     * @param cache
+     * @param key
+     * @param value
+     */
+    private void put(Map<K, V> cache, K key, V value) {
+
+        synchronized (cache) {
+            cache.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * Clears cached values for passed {@link ClassLoader}
+     * 
+     * @param loader
+     */
+    public void clear(ClassLoader loader) {
+        caches.remove(loader);
+    }
+
+    /**
+     * Clears all cached values
+     */
+    public void clear() {
+        caches.clear();
+    }
+
+    /**
+     * Gets number of cached values for passed {@link ClassLoader}
+     * 
+     * @param loader
+     * @return <code>int</code> number of cached values
+     */
+    public int size(ClassLoader loader) {
+
+        int size;
+
+        Map<K, V> cache = caches.get(loader);
+        if (Objects.isNull(cache)) {
+            size = 0;
+        } else {
+            synchronized (cache) {
+                size = cache.size();
+            }
+        }
+
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+}
@@ -22,23 +22,35 @@
  */
 package org.lightmare.criteria.cache;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.lightmare.criteria.tuples.QueryTuple;
 import org.lightmare.criteria.utils.ObjectUtils;
 
 /**
- * Caches lambda generated classes with phantom reference and cleans them from
- * cache when they are reclaimed
+ * Caches resolved {@link org.lightmare.criteria.tuples.QueryTuple}s by lambda
+ * generated classes in {@link ClassValue} (identity lookup without key
+ * generation, values are reclaimed together with lambda classes and their
+ * class loaders), also gathers lookup statistics
  * 
  * @author Levan Tsinadze
  *
  */
 public class LambdaCache {
 
-    // Cache for query parts by lambda parameters
-    private static final ConcurrentMap<String, QueryTuple> LAMBDAS = new ConcurrentHashMap<>();
+    // Cache for query parts by lambda classes
+    private static final ClassValue<AtomicReference<QueryTuple>> LAMBDAS = new ClassValue<AtomicReference<QueryTuple>>() {
+
+        @Override
+        protected AtomicReference<QueryTuple> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
+
+    private static final LongAdder HITS = new LongAdder();
+
+    private static final LongAdder MISSES = new LongAdder();
 
     /**
      * Adds passed lambda {@link Class} and
@@ -48,8 +60,7 @@ public class LambdaCache {
      * @param value
      */
     public static void putLambda(Class<?> type, QueryTuple value) {
-        QueryTuple existed = LAMBDAS.putIfAbsent(type.getName(), value);
-        ObjectUtils.equals(value, existed, (x, y) -> LambdaReferences.trace(type));
+        LAMBDAS.get(type).compareAndSet(null, value);
     }
 
     /**
@@ -60,24 +71,33 @@ public class LambdaCache {
      * @param value
      */
     public static void putByInstance(Object lambda, QueryTuple value) {
-        putLambda(lambda.getClass(), value);
+        ObjectUtils.nonNull(value, c -> putLambda(lambda.getClass(), c));
     }
 
     /**
      * Gets {@link org.lightmare.criteria.tuples.QueryTuple} from cache by
-     * passed lambda {@link Class} name as key
+     * passed lambda {@link Class}
      * 
      * @param type
      * @return {@link org.lightmare.criteria.tuples.QueryTuple} for this lambda
      *         {@link Class}
      */
     public static QueryTuple getLambda(Class<?> type) {
-        return LAMBDAS.get(type.getName());
+
+        QueryTuple tuple = LAMBDAS.get(type).get();
+
+        if (tuple == null) {
+            MISSES.increment();
+        } else {
+            HITS.increment();
+        }
+
+        return tuple;
     }
 
     /**
      * Gets {@link org.lightmare.criteria.tuples.QueryTuple} from cache by
-     * lambda {@link Class} name from passed lambda instance as key
+     * lambda {@link Class} from passed lambda instance
      * 
      * @param lambda
      * @return {@link org.lightmare.criteria.tuples.QueryTuple} for this lambda
@@ -94,6 +114,30 @@ public class LambdaCache {
      * @param type
      */
     public static void remove(Class<?> type) {
-        LAMBDAS.remove(type.getName());
+        LAMBDAS.remove(type);
+    }
+
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Gets ratio of cache hits to all lookups
+     * 
+     * @return <code>double</code> hit rate
+     */
+    public static double getHitRate() {
+
+        double rate;
+
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        rate = (lookups == 0L) ? 0D : (double) hits / lookups;
+
+        return rate;
     }
 }
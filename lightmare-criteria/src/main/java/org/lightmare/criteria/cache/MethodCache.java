@@ -22,99 +22,106 @@
  */
 package org.lightmare.criteria.cache;
 
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
+import java.util.function.Function;
 
 import org.lightmare.criteria.lambda.LambdaInfo;
 import org.lightmare.criteria.resolvers.CachedClassReader;
-import org.lightmare.criteria.utils.ObjectUtils;
+import org.lightmare.criteria.tuples.ResolverTuple;
+import org.lightmare.criteria.utils.ClassLoaderUtils;
+import org.lightmare.criteria.utils.StringUtils;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.tree.MethodNode;
 
 /**
- * To cache class lambda methods
+ * To cache resolved entity getters accessed by lambda methods, keeps only slim
+ * data (owner, name and descriptor of accessed getter) per class and per
+ * {@link ClassLoader} in bounded cache
  * 
  * @author Levan Tsinadze
  *
  */
 public class MethodCache {
 
-    // Cache for method instructions
-    private static final ConcurrentMap<String, List<MethodNode>> METHOD_NODES = new ConcurrentHashMap<>();
+    // Default upper bound of cached classes per class loader
+    public static final int DEFAULT_MAX_SIZE = 1024;
 
-    // Flags for method visitors
-    private static final int ZERO_FLAGS = 0;
+    // Cache for resolved method accesses
+    private static final ClassLoaderCache<String, Map<String, ResolverTuple<String>>> METHOD_ACCESSES = new ClassLoaderCache<>(
+            DEFAULT_MAX_SIZE);
+
+    // Flags for class reader (instructions only are needed)
+    private static final int READER_FLAGS = ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
 
     /**
-     * Resolves {@link java.util.List} of
-     * {@link org.objectweb.asm.tree.MethodNode}s from passed class file name
+     * Generates key of method in class by name and descriptor
      * 
-     * @param typeName
-     * @return {@link java.util.List} of
-     *         {@link org.objectweb.asm.tree.MethodNode}
+     * @param name
+     * @param desc
+     * @return {@link String} method key
      */
+    public static String key(String name, String desc) {
+        return StringUtils.concat(name, desc);
+    }
 
-    private static List<MethodNode> resolveMethods(String typeName) {
+    /**
+     * Reads class by name and resolves accessed getters by passed resolver
+     * 
+     * @param typeName
+     * @param resolver
+     * @return {@link java.util.Map} of method keys to accessed getters
+     */
+    private static Map<String, ResolverTuple<String>> resolveMethods(String typeName,
+            Function<ClassNode, Map<String, ResolverTuple<String>>> resolver) {
 
-        List<MethodNode> methods;
+        Map<String, ResolverTuple<String>> accesses;
 
         ClassReader reader = CachedClassReader.get(typeName);
         ClassNode node = new ClassNode(Opcodes.ASM5);
-        reader.accept(node, ZERO_FLAGS);
-        methods = ObjectUtils.cast(node.methods);
+        reader.accept(node, READER_FLAGS);
+        accesses = resolver.apply(node);
 
-        return methods;
+        return accesses;
     }
 
     /**
-     * Initializes and caches {@link java.util.List} of
-     * {@link org.objectweb.asm.tree.MethodNode}s from passed class file name
+     * Gets resolved getter accesses of lambda implementation class from cache
+     * of current {@link Thread}'s context class loader or if absent reads
+     * class, resolves and caches
      * 
-     * @param typeName
-     * @return {@link java.util.List} of
-     *         {@link org.objectweb.asm.tree.MethodNode}s
+     * @param lambda
+     * @param resolver
+     * @return {@link java.util.Map} of method keys to accessed getters
      */
-    private static List<MethodNode> initAndCache(String typeName) {
+    public static Map<String, ResolverTuple<String>> getMethods(LambdaInfo lambda,
+            Function<ClassNode, Map<String, ResolverTuple<String>>> resolver) {
 
-        List<MethodNode> methods = resolveMethods(typeName);
-        METHOD_NODES.putIfAbsent(typeName, methods);
+        Map<String, ResolverTuple<String>> accesses;
 
-        return methods;
+        String typeName = lambda.getImplClass();
+        ClassLoader loader = ClassLoaderUtils.getContextClassLoader();
+        accesses = METHOD_ACCESSES.get(loader, typeName, c -> resolveMethods(c, resolver));
+
+        return accesses;
     }
 
     /**
-     * Gets {@link java.util.List} of resolved
-     * {@link org.objectweb.asm.tree.MethodNode}s from cache by class file name
-     * or if absent resolves and caches
+     * Clears cached data for passed {@link ClassLoader} (e.g. on undeploy)
      * 
-     * @param typeName
-     * @return {@link java.util.List} of
-     *         {@link org.objectweb.asm.tree.MethodNode} methods
+     * @param loader
      */
-    private static List<MethodNode> getMethods(String typeName) {
-        return ObjectUtils.callOrInit(typeName, METHOD_NODES::get, MethodCache::initAndCache);
+    public static void clear(ClassLoader loader) {
+        METHOD_ACCESSES.clear(loader);
     }
 
     /**
-     * Gets {@link java.util.List} of resolved
-     * {@link org.objectweb.asm.tree.MethodNode}s from cache by class file name
-     * from passed {@link org.lightmare.criteria.lambda.LambdaInfo} or if absent
-     * resolves and caches
+     * Gets cache statistics
      * 
-     * @param lambda
-     * @return {@link java.util.List} of
-     *         {@link org.objectweb.asm.tree.MethodNode} methods
+     * @return {@link org.lightmare.criteria.cache.ClassLoaderCache} of resolved
+     *         methods
      */
-    public static List<MethodNode> getMethods(LambdaInfo lambda) {
-
-        List<MethodNode> methods;
-
-        String typeName = lambda.getImplClass();
-        methods = getMethods(typeName);
-
-        return methods;
+    public static ClassLoaderCache<?, ?> getStatistics() {
+        return METHOD_ACCESSES;
     }
 }
@@ -0,0 +1,129 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.config;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Types of entity fields with appropriated {@link java.sql.ResultSet} getters
+ * by column index
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+enum ColumnType {
+
+    LONG(long.class, Long.class, "getLong", ResultSet::getLong),
+
+    INT(int.class, Integer.class, "getInt", ResultSet::getInt),
+
+    SHORT(short.class, Short.class, "getShort", ResultSet::getShort),
+
+    BYTE(byte.class, Byte.class, "getByte", ResultSet::getByte),
+
+    BOOLEAN(boolean.class, Boolean.class, "getBoolean", ResultSet::getBoolean),
+
+    DOUBLE(double.class, Double.class, "getDouble", ResultSet::getDouble),
+
+    FLOAT(float.class, Float.class, "getFloat", ResultSet::getFloat),
+
+    BIG_DECIMAL(BigDecimal.class, BigDecimal.class, "getBigDecimal", ResultSet::getBigDecimal),
+
+    STRING(String.class, String.class, "getString", ResultSet::getString),
+
+    OBJECT(Object.class, Object.class, "getObject", ResultSet::getObject);
+
+    // Type returned by getter
+    final Class<?> primitive;
+
+    // Boxed type of value
+    final Class<?> wrapper;
+
+    // Name of getter method in java.sql.ResultSet
+    final String getter;
+
+    final ColumnGetter function;
+
+    /**
+     * Functional interface for {@link java.sql.ResultSet} value reader by
+     * column index
+     * 
+     * @author Levan Tsinadze
+     *
+     */
+    @FunctionalInterface
+    static interface ColumnGetter {
+
+        Object apply(ResultSet rs, int column) throws SQLException;
+    }
+
+    private ColumnType(final Class<?> primitive, final Class<?> wrapper, final String getter,
+            final ColumnGetter function) {
+        this.primitive = primitive;
+        this.wrapper = wrapper;
+        this.getter = getter;
+        this.function = function;
+    }
+
+    /**
+     * Validates if getter of this type returns primitive value
+     * 
+     * @return <code>boolean</code> validation result
+     */
+    boolean isPrimitive() {
+        return primitive.isPrimitive();
+    }
+
+    /**
+     * Validates if setter and getter of this type can be linked directly
+     * 
+     * @return <code>boolean</code> validation result
+     */
+    boolean isDirect() {
+        return (this != OBJECT);
+    }
+
+    /**
+     * Gets appropriated {@link org.lightmare.criteria.config.ColumnType} for
+     * field type
+     * 
+     * @param type
+     * @return {@link org.lightmare.criteria.config.ColumnType} for type
+     */
+    static ColumnType of(Class<?> type) {
+
+        ColumnType columnType = OBJECT;
+
+        ColumnType[] values = values();
+        for (int i = 0; i < values.length && columnType == OBJECT; i++) {
+            ColumnType value = values[i];
+            if (value.primitive.equals(type) || value.wrapper.equals(type)) {
+                columnType = value;
+            }
+        }
+
+        return columnType;
+    }
+}
@@ -123,6 +123,14 @@ public class DefaultConfiguration {
                 this.function = defineFunction();
             }
 
+            public Field getField() {
+                return field;
+            }
+
+            public String getName() {
+                return name;
+            }
+
             /**
              * Defines function to retrieve data from {@link java.sql.ResultSet}
              * by type
@@ -226,7 +234,7 @@ public class DefaultConfiguration {
             return CollectionUtils.toList(fields, DefaultRetriever::getColumnName);
         }
 
-        private List<FieldType> put(Class<?> type) {
+        private static List<FieldType> put(Class<?> type) {
 
             List<FieldType> columns = ObjectUtils.ifNonNull(type::getDeclaredFields, DefaultRetriever::getColumns,
                     c -> Collections.emptyList());
@@ -235,8 +243,18 @@ public class DefaultConfiguration {
             return columns;
         }
 
-        private List<FieldType> getColumns(Class<?> type) {
-            return ObjectUtils.callOrInit(type, COLUMNS::get, this::put);
+        /**
+         * Gets cached
+         * {@link org.lightmare.criteria.config.DefaultConfiguration.DefaultRetriever.FieldType}
+         * elements for entity {@link Class}
+         * 
+         * @param type
+         * @return {@link java.util.List} of
+         *         {@link org.lightmare.criteria.config.DefaultConfiguration.DefaultRetriever.FieldType}
+         *         elements
+         */
+        static List<FieldType> getColumns(Class<?> type) {
+            return ObjectUtils.callOrInit(type, COLUMNS::get, DefaultRetriever::put);
         }
 
         @Override
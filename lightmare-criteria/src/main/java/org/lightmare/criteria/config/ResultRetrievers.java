@@ -0,0 +1,303 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.config;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.lightmare.criteria.config.Configuration.ResultRetriever;
+import org.lightmare.criteria.config.DefaultConfiguration.DefaultRetriever;
+import org.lightmare.criteria.config.DefaultConfiguration.DefaultRetriever.FieldType;
+import org.lightmare.criteria.utils.ClassUtils;
+import org.lightmare.criteria.utils.CollectionUtils;
+import org.lightmare.criteria.utils.ObjectUtils;
+
+/**
+ * Factory for {@link org.lightmare.criteria.config.Configuration.ResultRetriever}
+ * implementations which resolve column indexes once per
+ * {@link java.sql.ResultSet} and set fields through generated
+ * {@link org.lightmare.criteria.config.RowAccessor} classes
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+public abstract class ResultRetrievers {
+
+    private static final int NOT_EXISTING = 0;
+
+    // Mappings of entity types
+    private static final ClassValue<RowMapping<?>> MAPPINGS = new ClassValue<RowMapping<?>>() {
+
+        @Override
+        protected RowMapping<?> computeValue(Class<?> type) {
+            return new RowMapping<>(type);
+        }
+    };
+
+    /**
+     * Mapping of entity type fields to columns, shared between all queries of
+     * entity type
+     * 
+     * @author Levan Tsinadze
+     *
+     * @param <T>
+     *            entity type parameter
+     */
+    static class RowMapping<T> {
+
+        private final Class<T> type;
+
+        private final FieldType[] fields;
+
+        // Readers by index for each field
+        private final ColumnType[] columnTypes;
+
+        // Positions of fields which are not set by generated accessor
+        private final int[] reflective;
+
+        private final RowAccessor accessor;
+
+        RowMapping(final Class<T> type) {
+
+            this.type = type;
+            List<FieldType> columns = DefaultRetriever.getColumns(type);
+            this.fields = columns.toArray(new FieldType[columns.size()]);
+            this.columnTypes = new ColumnType[fields.length];
+            Method[] setters = new Method[fields.length];
+            boolean generate = RowAccessorGenerator.canGenerate(type);
+            for (int i = CollectionUtils.FIRST; i < fields.length; i++) {
+                FieldType field = fields[i];
+                columnTypes[i] = ColumnType.of(field.type);
+                if (generate && columnTypes[i].isDirect()) {
+                    setters[i] = RowAccessorGenerator.getSetter(type, field.field);
+                }
+            }
+            this.accessor = initAccessor(generate, setters);
+            this.reflective = initReflective(setters);
+        }
+
+        private RowAccessor initAccessor(boolean generate, Method[] setters) {
+
+            RowAccessor generated;
+
+            if (generate) {
+                generated = RowAccessorGenerator.generate(type, setters);
+            } else {
+                generated = null;
+            }
+
+            return generated;
+        }
+
+        /**
+         * Collects positions of fields which are set by reflection and makes
+         * them accessible
+         * 
+         * @param setters
+         * @return <code>int[]</code> positions of fields
+         */
+        private int[] initReflective(Method[] setters) {
+
+            int[] positions = new int[fields.length];
+
+            int size = CollectionUtils.EMPTY;
+            for (int i = CollectionUtils.FIRST; i < fields.length; i++) {
+                if (accessor == null || setters[i] == null) {
+                    Field field = fields[i].field;
+                    field.setAccessible(Boolean.TRUE);
+                    positions[size++] = i;
+                }
+            }
+
+            return Arrays.copyOf(positions, size);
+        }
+
+        /**
+         * Resolves indexes of columns for each field from
+         * {@link java.sql.ResultSetMetaData} by case insensitive labels
+         * 
+         * @param metaData
+         * @return <code>int[]</code> column indexes by field positions
+         * @throws SQLException
+         */
+        int[] resolve(ResultSetMetaData metaData) throws SQLException {
+
+            int[] columns = new int[fields.length];
+
+            Map<String, Integer> indexes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            int count = metaData.getColumnCount();
+            for (int i = count; i > CollectionUtils.EMPTY; i--) {
+                indexes.put(metaData.getColumnLabel(i), i);
+            }
+            for (int i = CollectionUtils.FIRST; i < fields.length; i++) {
+                columns[i] = indexes.getOrDefault(fields[i].name, NOT_EXISTING);
+            }
+
+            return columns;
+        }
+
+        T newInstance() {
+
+            T instance;
+
+            if (accessor == null) {
+                instance = ClassUtils.newInstance(type);
+            } else {
+                instance = ObjectUtils.cast(accessor.newInstance());
+            }
+
+            return instance;
+        }
+
+        /**
+         * Sets values from current row of {@link java.sql.ResultSet} to entity
+         * instance by resolved column indexes
+         * 
+         * @param instance
+         * @param result
+         * @param columns
+         * @throws SQLException
+         */
+        void set(T instance, ResultSet result, int[] columns) throws SQLException {
+
+            if (accessor != null) {
+                accessor.set(instance, result, columns);
+            }
+            for (int position : reflective) {
+                int column = columns[position];
+                if (column > NOT_EXISTING) {
+                    Object value = columnTypes[position].function.apply(result, column);
+                    if (ObjectUtils.notTrue(result.wasNull())) {
+                        ClassUtils.set(fields[position].field, instance, value);
+                    }
+                }
+            }
+        }
+
+        boolean isGenerated() {
+            return (accessor != null);
+        }
+    }
+
+    /**
+     * Implementation of
+     * {@link org.lightmare.criteria.config.Configuration.ResultRetriever} by
+     * column indexes resolved once for each {@link java.sql.ResultSet}
+     * 
+     * @author Levan Tsinadze
+     *
+     * @param <T>
+     *            entity type parameter
+     */
+    private static class IndexedRetriever<T> implements ResultRetriever<T> {
+
+        private final RowMapping<T> mapping;
+
+        private ResultSet result;
+
+        private int[] columns;
+
+        IndexedRetriever(final RowMapping<T> mapping) {
+            this.mapping = mapping;
+        }
+
+        private int[] getColumns(ResultSet rs) throws SQLException {
+
+            if (rs != result) {
+                columns = mapping.resolve(rs.getMetaData());
+                result = rs;
+            }
+
+            return columns;
+        }
+
+        @Override
+        public T readRow(ResultSet rs) throws SQLException {
+
+            T instance;
+
+            int[] indexes = getColumns(rs);
+            instance = mapping.newInstance();
+            mapping.set(instance, rs, indexes);
+
+            return instance;
+        }
+    }
+
+    /**
+     * Gets shared {@link org.lightmare.criteria.config.ResultRetrievers.RowMapping}
+     * for entity {@link Class}
+     * 
+     * @param type
+     * @return {@link org.lightmare.criteria.config.ResultRetrievers.RowMapping}
+     *         for type
+     */
+    static <T> RowMapping<T> getMapping(Class<T> type) {
+        return ObjectUtils.cast(MAPPINGS.get(type));
+    }
+
+    /**
+     * Gets cached
+     * {@link org.lightmare.criteria.config.DefaultConfiguration.DefaultRetriever.FieldType}
+     * elements for entity {@link Class} in declaration order
+     * 
+     * @param type
+     * @return {@link java.util.List} of
+     *         {@link org.lightmare.criteria.config.DefaultConfiguration.DefaultRetriever.FieldType}
+     *         elements
+     */
+    public static List<FieldType> getColumns(Class<?> type) {
+        return DefaultRetriever.getColumns(type);
+    }
+
+    /**
+     * Initializes {@link org.lightmare.criteria.config.Configuration.ResultRetriever}
+     * for passed entity {@link Class}, instance should be used for single
+     * query as it caches column indexes of last {@link java.sql.ResultSet}
+     * 
+     * @param type
+     * @return {@link org.lightmare.criteria.config.Configuration.ResultRetriever}
+     *         for entity type
+     */
+    public static <T> ResultRetriever<T> of(Class<T> type) {
+        return new IndexedRetriever<>(getMapping(type));
+    }
+
+    /**
+     * Validates if fields of passed entity {@link Class} are set through
+     * generated {@link org.lightmare.criteria.config.RowAccessor}
+     * 
+     * @param type
+     * @return <code>boolean</code> validation result
+     */
+    public static boolean isGenerated(Class<?> type) {
+        return getMapping(type).isGenerated();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.config;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Accessor to initialize entity instances and set fields from
+ * {@link java.sql.ResultSet} by column indexes, implementations are generated
+ * for each entity type
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+public interface RowAccessor {
+
+    /**
+     * Creates new entity instance
+     * 
+     * @return {@link Object} entity instance
+     */
+    Object newInstance();
+
+    /**
+     * Sets column values from current row of {@link java.sql.ResultSet} to
+     * entity fields, column index for each field is taken from passed array by
+     * field position and non positive index means that column is absent
+     * 
+     * @param instance
+     * @param result
+     * @param columns
+     * @throws SQLException
+     */
+    void set(Object instance, ResultSet result, int[] columns) throws SQLException;
+}
@@ -0,0 +1,373 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.config;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+
+import org.lightmare.criteria.utils.ClassUtils;
+import org.lightmare.criteria.utils.CollectionUtils;
+import org.lightmare.criteria.utils.StringUtils;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates {@link org.lightmare.criteria.config.RowAccessor} implementations
+ * which instantiate entities and call setters directly instead of reflection
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+abstract class RowAccessorGenerator {
+
+    private static final String ACCESSOR_SUFFIX = "$$RowAccessor";
+
+    private static final char INTERNAL_DELIMITER = '/';
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+
+    private static final String ACCESSOR = Type.getInternalName(RowAccessor.class);
+
+    private static final String RESULT_SET = Type.getInternalName(ResultSet.class);
+
+    private static final String CONSTRUCTOR = "<init>";
+
+    private static final String DEFAULT_DESC = Type.getMethodDescriptor(Type.VOID_TYPE);
+
+    private static final String NEW_INSTANCE = "newInstance";
+
+    private static final String NEW_INSTANCE_DESC = Type.getMethodDescriptor(Type.getType(Object.class));
+
+    private static final String SET = "set";
+
+    private static final String SET_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(Object.class),
+            Type.getType(ResultSet.class), Type.getType(int[].class));
+
+    private static final String WAS_NULL = "wasNull";
+
+    private static final String WAS_NULL_DESC = Type.getMethodDescriptor(Type.BOOLEAN_TYPE);
+
+    private static final String VALUE_OF = "valueOf";
+
+    // Local variable slots of generated set method
+    private static final int INSTANCE = 1;
+
+    private static final int RESULT = 2;
+
+    private static final int COLUMNS = 3;
+
+    private static final int ENTITY = 4;
+
+    private static final int COLUMN = 5;
+
+    private static final int VALUE = 6;
+
+    /**
+     * Class loader for generated accessors, each accessor is defined in own
+     * loader to be collected together with entity {@link Class}
+     * 
+     * @author Levan Tsinadze
+     *
+     */
+    private static class AccessorLoader extends ClassLoader {
+
+        private static final String ACCESSOR_NAME = RowAccessor.class.getName();
+
+        AccessorLoader(final ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+
+            Class<?> type;
+
+            if (ACCESSOR_NAME.equals(name)) {
+                type = RowAccessor.class;
+            } else {
+                type = super.findClass(name);
+            }
+
+            return type;
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, CollectionUtils.FIRST, bytes.length);
+        }
+    }
+
+    /**
+     * Class writer which never loads classes to compute frames, all merged
+     * types of generated code are resolved as {@link Object}
+     * 
+     * @author Levan Tsinadze
+     *
+     */
+    private static class AccessorWriter extends ClassWriter {
+
+        AccessorWriter() {
+            super(ClassWriter.COMPUTE_FRAMES);
+        }
+
+        @Override
+        protected String getCommonSuperClass(String type1, String type2) {
+            return OBJECT;
+        }
+    }
+
+    /**
+     * Validates if entity {@link Class} has public default constructor
+     * 
+     * @param type
+     * @return <code>boolean</code> validation result
+     */
+    private static boolean hasDefaultConstructor(Class<?> type) {
+
+        boolean valid = Boolean.FALSE;
+
+        Constructor<?>[] constructors = type.getConstructors();
+        for (int i = CollectionUtils.FIRST; i < constructors.length && !valid; i++) {
+            valid = (constructors[i].getParameterCount() == CollectionUtils.EMPTY);
+        }
+
+        return valid;
+    }
+
+    /**
+     * Validates if accessor can be generated for entity {@link Class}
+     * 
+     * @param type
+     * @return <code>boolean</code> validation result
+     */
+    static boolean canGenerate(Class<?> type) {
+
+        int modifiers = type.getModifiers();
+
+        return (Modifier.isPublic(modifiers) && !Modifier.isAbstract(modifiers) && hasDefaultConstructor(type));
+    }
+
+    /**
+     * Gets public setter for field which can be called from generated code
+     * 
+     * @param type
+     * @param field
+     * @return {@link java.lang.reflect.Method} setter or <code>null</code>
+     */
+    static Method getSetter(Class<?> type, Field field) {
+
+        Method setter;
+
+        String name = field.getName();
+        String setterName = SET.concat(Character.toUpperCase(name.charAt(CollectionUtils.FIRST))
+                + name.substring(CollectionUtils.SECOND));
+        try {
+            setter = type.getMethod(setterName, field.getType());
+            if (Modifier.isStatic(setter.getModifiers())
+                    || !Modifier.isPublic(setter.getDeclaringClass().getModifiers())) {
+                setter = null;
+            }
+        } catch (NoSuchMethodException ex) {
+            setter = null;
+        }
+
+        return setter;
+    }
+
+    /**
+     * Pushes integer constant to operand stack
+     * 
+     * @param mv
+     * @param value
+     */
+    private static void push(MethodVisitor mv, int value) {
+
+        if (value <= 5) {
+            mv.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private static void generateConstructor(ClassWriter cw) {
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, CONSTRUCTOR, DEFAULT_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, CONSTRUCTOR, DEFAULT_DESC, Boolean.FALSE);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void generateNewInstance(ClassWriter cw, String owner) {
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, NEW_INSTANCE, NEW_INSTANCE_DESC, null, null);
+        mv.visitCode();
+        mv.visitTypeInsn(Opcodes.NEW, owner);
+        mv.visitInsn(Opcodes.DUP);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, owner, CONSTRUCTOR, DEFAULT_DESC, Boolean.FALSE);
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generates code to read column by index and call setter if column value
+     * is not SQL <code>NULL</code>
+     * 
+     * @param mv
+     * @param owner
+     * @param index
+     * @param setter
+     */
+    private static void generateField(MethodVisitor mv, String owner, int index, Method setter) {
+
+        Label skip = new Label();
+        Class<?> fieldType = setter.getParameterTypes()[CollectionUtils.FIRST];
+        ColumnType columnType = ColumnType.of(fieldType);
+        Type valueType = Type.getType(columnType.primitive);
+        // Resolves column index
+        mv.visitVarInsn(Opcodes.ALOAD, COLUMNS);
+        push(mv, index);
+        mv.visitInsn(Opcodes.IALOAD);
+        mv.visitVarInsn(Opcodes.ISTORE, COLUMN);
+        mv.visitVarInsn(Opcodes.ILOAD, COLUMN);
+        mv.visitJumpInsn(Opcodes.IFLE, skip);
+        // Reads value by index
+        mv.visitVarInsn(Opcodes.ALOAD, RESULT);
+        mv.visitVarInsn(Opcodes.ILOAD, COLUMN);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, columnType.getter,
+                Type.getMethodDescriptor(valueType, Type.INT_TYPE), Boolean.TRUE);
+        mv.visitVarInsn(valueType.getOpcode(Opcodes.ISTORE), VALUE);
+        mv.visitVarInsn(Opcodes.ALOAD, RESULT);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RESULT_SET, WAS_NULL, WAS_NULL_DESC, Boolean.TRUE);
+        mv.visitJumpInsn(Opcodes.IFNE, skip);
+        // Sets value to entity
+        mv.visitVarInsn(Opcodes.ALOAD, ENTITY);
+        mv.visitVarInsn(valueType.getOpcode(Opcodes.ILOAD), VALUE);
+        if (columnType.isPrimitive() && !fieldType.isPrimitive()) {
+            Type wrapperType = Type.getType(columnType.wrapper);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, wrapperType.getInternalName(), VALUE_OF,
+                    Type.getMethodDescriptor(wrapperType, valueType), Boolean.FALSE);
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, setter.getName(), Type.getMethodDescriptor(setter),
+                Boolean.FALSE);
+        Type returnType = Type.getReturnType(setter);
+        if (returnType.getSize() == 1) {
+            mv.visitInsn(Opcodes.POP);
+        } else if (returnType.getSize() == 2) {
+            mv.visitInsn(Opcodes.POP2);
+        }
+        mv.visitLabel(skip);
+    }
+
+    private static void generateSet(ClassWriter cw, String owner, Method[] setters) {
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, SET, SET_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, INSTANCE);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+        mv.visitVarInsn(Opcodes.ASTORE, ENTITY);
+        for (int i = CollectionUtils.FIRST; i < setters.length; i++) {
+            Method setter = setters[i];
+            if (setter != null) {
+                generateField(mv, owner, i, setter);
+            }
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Generates bytecode of accessor class
+     * 
+     * @param name
+     * @param type
+     * @param setters
+     * @return <code>byte[]</code> class bytes
+     */
+    private static byte[] toBytes(String name, Class<?> type, Method[] setters) {
+
+        ClassWriter cw = new AccessorWriter();
+
+        String owner = Type.getInternalName(type);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+                name.replace(StringUtils.DOT, INTERNAL_DELIMITER), null, OBJECT,
+                new String[] { ACCESSOR });
+        generateConstructor(cw);
+        generateNewInstance(cw, owner);
+        generateSet(cw, owner, setters);
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    private static ClassLoader getLoader(Class<?> type) {
+
+        ClassLoader loader = type.getClassLoader();
+
+        if (loader == null) {
+            loader = RowAccessor.class.getClassLoader();
+        }
+
+        return loader;
+    }
+
+    /**
+     * Generates and instantiates {@link org.lightmare.criteria.config.RowAccessor}
+     * for entity {@link Class} which calls passed setters by field positions,
+     * <code>null</code> setters are skipped
+     * 
+     * @param type
+     * @param setters
+     * @return {@link org.lightmare.criteria.config.RowAccessor} or
+     *         <code>null</code> if generated class can not be linked
+     */
+    static RowAccessor generate(Class<?> type, Method[] setters) {
+
+        RowAccessor accessor;
+
+        String name = type.getName().concat(ACCESSOR_SUFFIX);
+        byte[] bytes = toBytes(name, type, setters);
+        AccessorLoader loader = new AccessorLoader(getLoader(type));
+        try {
+            Class<?> accessorType = loader.define(name, bytes);
+            accessor = (RowAccessor) ClassUtils.newInstance(accessorType);
+        } catch (LinkageError | SecurityException ex) {
+            accessor = null;
+        }
+
+        return accessor;
+    }
+}
@@ -26,7 +26,6 @@ import java.io.Serializable;
 
 import org.apache.log4j.Logger;
 import org.lightmare.criteria.cache.LambdaCache;
-import org.lightmare.criteria.cache.QueryCache;
 import org.lightmare.criteria.meta.EntityValidator;
 import org.lightmare.criteria.resolvers.FieldResolver;
 import org.lightmare.criteria.tuples.QueryTuple;
@@ -68,41 +67,28 @@ public class LambdaUtils {
         QueryTuple tuple;
 
         tuple = FieldResolver.resolve(lambda);
-        QueryCache.putQuery(lambda, tuple);
         debug(lambda);
 
         return tuple;
     }
 
     /**
-     * Gets appropriated {@link org.lightmare.criteria.tuples.QueryTuple} from
-     * serialized lambda cache or analyzes appropriated lambda expression from
+     * Analyzes appropriated lambda expression from serialized lambda or from
      * compiled class
      * 
      * @param method
-     * @return {@link org.lightmare.criteria.tuples.QueryTuple} from cache
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} from lambda
      */
     private static QueryTuple getByLambda(Serializable method) {
 
         QueryTuple tuple;
 
         LambdaInfo lambda = LambdaReplacements.getReplacement(method);
-        tuple = ObjectUtils.callOrInit(lambda, QueryCache::getQuery, LambdaUtils::resolvefromLambda);
+        tuple = resolvefromLambda(lambda);
 
         return tuple;
     }
 
-    /**
-     * Clones passed {@link org.lightmare.criteria.tuples.QueryTuple} without
-     * throwing an exception
-     * 
-     * @param instance
-     * @return {@link org.lightmare.criteria.tuples.QueryTuple} clone
-     */
-    private static QueryTuple cloneTuple(QueryTuple instance) {
-        return ObjectUtils.applyAndCast(instance, c -> ObjectUtils.applyQuietly(c, QueryTuple::clone));
-    }
-
     /**
      * Resolves and caches {@link org.lightmare.criteria.tuples.QueryTuple} from
      * lambda expression
@@ -131,31 +117,59 @@ public class LambdaUtils {
     }
 
     /**
-     * Sets generic parameters to passed
-     * {@link org.lightmare.criteria.tuples.QueryTuple} by entity {@link Class}
-     * after validation
+     * Initializes generic parameters of passed
+     * {@link org.lightmare.criteria.tuples.QueryTuple} variant by entity
+     * {@link Class}
+     * 
+     * @param type
+     * @param tuple
+     */
+    private static void initGenericType(Class<?> type, QueryTuple tuple) {
+        tuple.setTypeAndName(type);
+        FieldResolver.setGenericData(tuple);
+    }
+
+    /**
+     * Gets variant of passed {@link org.lightmare.criteria.tuples.QueryTuple}
+     * with generic parameters of entity {@link Class} after validation
      * 
      * @param type
      * @param tuple
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} for entity type
      */
-    private static void setGenericType(Class<?> type, QueryTuple tuple) {
+    private static QueryTuple getGenericType(Class<?> type, QueryTuple tuple) {
+
+        QueryTuple generic;
 
         if (EntityValidator.typeMismatched(type, tuple)) {
-            tuple.setTypeAndName(type);
-            FieldResolver.setGenericData(tuple);
+            generic = tuple.specialize(type, LambdaUtils::initGenericType);
+        } else {
+            generic = tuple;
         }
+
+        return generic;
     }
 
     /**
-     * Sets generic parameters to passed
-     * {@link org.lightmare.criteria.tuples.QueryTuple} by entity {@link Class}
-     * instance if it is not <code>null</code>
+     * Gets variant of passed {@link org.lightmare.criteria.tuples.QueryTuple}
+     * with generic parameters of entity {@link Class} if it is not
+     * <code>null</code>, shared tuple itself is never modified
      * 
      * @param type
      * @param tuple
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} for entity type
      */
-    public static void setGenericIfValid(Class<?> type, QueryTuple tuple) {
-        ObjectUtils.nonNull(tuple, c -> setGenericType(type, c));
+    public static QueryTuple getGenericIfValid(Class<?> type, QueryTuple tuple) {
+
+        QueryTuple generic;
+
+        if (tuple == null) {
+            generic = null;
+        } else {
+            generic = getGenericType(type, tuple);
+        }
+
+        return generic;
     }
 
     /**
@@ -163,9 +177,10 @@ public class LambdaUtils {
      * cache or initializes and caches new instance
      * 
      * @param method
-     * @return {@link org.lightmare.criteria.tuples.QueryTuple} from cache
+     * @return shared {@link org.lightmare.criteria.tuples.QueryTuple} from
+     *         cache
      */
     public static QueryTuple getOrInit(Serializable method) {
-        return ObjectUtils.applyNonNull(method, LambdaUtils::getOrInitOriginal, LambdaUtils::cloneTuple);
+        return ObjectUtils.ifIsNotNull(method, LambdaUtils::getOrInitOriginal);
     }
 }
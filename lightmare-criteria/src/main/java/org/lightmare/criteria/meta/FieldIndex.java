@@ -0,0 +1,172 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.meta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+
+import org.apache.log4j.Logger;
+import org.lightmare.criteria.lambda.LambdaInfo;
+import org.lightmare.criteria.utils.ClassLoaderUtils;
+import org.lightmare.criteria.utils.ObjectUtils;
+import org.lightmare.criteria.utils.StringUtils;
+
+/**
+ * Index of entity getter methods to field names generated at build time by
+ * {@link org.lightmare.criteria.meta.FieldIndexProcessor}, lets to resolve
+ * method references without <b><i>bytecode</i></b> analysis
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+public class FieldIndex {
+
+    // Generated index resource
+    public static final String INDEX_RESOURCE = "META-INF/lightmare-criteria/fields.index";
+
+    private static final char METHOD_DELIMITER = '.';
+
+    // Index per class loader (values never reference loaded classes)
+    private static final Map<ClassLoader, Map<String, String>> INDEXES = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
+    private static final Logger LOG = Logger.getLogger(FieldIndex.class);
+
+    /**
+     * Generates index key from method owner internal name, method name and
+     * descriptor
+     * 
+     * @param owner
+     * @param name
+     * @param desc
+     * @return {@link String} index key
+     */
+    public static String key(String owner, String name, String desc) {
+        return StringUtils.concat(owner, METHOD_DELIMITER, name, desc);
+    }
+
+    /**
+     * Reads index entries from resource
+     * 
+     * @param url
+     * @param index
+     */
+    private static void read(URL url, Map<String, String> index) {
+
+        Properties properties = new Properties();
+        try (InputStream stream = url.openStream()) {
+            properties.load(stream);
+            properties.forEach((k, v) -> index.put(k.toString(), v.toString()));
+        } catch (IOException ex) {
+            LOG.error(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Loads all index resources visible from passed {@link ClassLoader}
+     * 
+     * @param loader
+     * @return {@link java.util.Map} of index keys to field names
+     */
+    private static Map<String, String> load(ClassLoader loader) {
+
+        Map<String, String> index = new HashMap<>();
+
+        try {
+            Enumeration<URL> urls = loader.getResources(INDEX_RESOURCE);
+            while (urls.hasMoreElements()) {
+                read(urls.nextElement(), index);
+            }
+        } catch (IOException ex) {
+            LOG.error(ex.getMessage(), ex);
+        }
+
+        return index;
+    }
+
+    /**
+     * Gets index for passed {@link ClassLoader} or loads it on first call
+     * 
+     * @param loader
+     * @return {@link java.util.Map} of index keys to field names
+     */
+    private static Map<String, String> getIndex(ClassLoader loader) {
+
+        Map<String, String> index;
+
+        ClassLoader current = ObjectUtils.thisOrDefault(loader, FieldIndex.class::getClassLoader);
+        index = INDEXES.computeIfAbsent(current, FieldIndex::load);
+
+        return index;
+    }
+
+    /**
+     * Gets indexed field name for method from passed {@link ClassLoader}
+     * 
+     * @param loader
+     * @param owner
+     * @param name
+     * @param desc
+     * @return {@link String} field name or <code>null</code> if method is not
+     *         indexed
+     */
+    public static String getFieldName(ClassLoader loader, String owner, String name, String desc) {
+        Map<String, String> index = getIndex(loader);
+        return index.isEmpty() ? null : index.get(key(owner, name, desc));
+    }
+
+    /**
+     * Gets indexed field name for lambda implementation method from current
+     * {@link Thread}'s context class loader
+     * 
+     * @param lambda
+     * @return {@link String} field name or <code>null</code> if method is not
+     *         indexed
+     */
+    public static String getFieldName(LambdaInfo lambda) {
+
+        String fieldName;
+
+        ClassLoader loader = ClassLoaderUtils.getContextClassLoader();
+        fieldName = getFieldName(loader, lambda.getImplClass(), lambda.getImplMethodName(),
+                lambda.getImplMethodSignature());
+
+        return fieldName;
+    }
+
+    /**
+     * Clears loaded index for passed {@link ClassLoader} (e.g. after redeploy)
+     * 
+     * @param loader
+     */
+    public static void clear(ClassLoader loader) {
+        ObjectUtils.nonNull(loader, INDEXES::remove);
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.meta;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Optional annotation processor which generates
+ * {@link org.lightmare.criteria.meta.FieldIndex#INDEX_RESOURCE} with entity
+ * getter methods mapped to field names, should be added to compiler with
+ * <code>-processor org.lightmare.criteria.meta.FieldIndexProcessor</code>
+ * option (or appropriated build tool configuration)
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+@SupportedAnnotationTypes({ "javax.persistence.Entity", "javax.persistence.MappedSuperclass",
+        "javax.persistence.Embeddable", "org.lightmare.criteria.annotations.DBTable" })
+public class FieldIndexProcessor extends AbstractProcessor {
+
+    // Collected entries of all rounds
+    private final Map<String, String> index = new TreeMap<>();
+
+    private static final String GET = "get";
+
+    private static final char INTERNAL_DELIMITER = '/';
+
+    private static final char PACKAGE_DELIMITER = '.';
+
+    private static final char ENTRY_DELIMITER = '=';
+
+    private static final String ARRAY_PREFIX = "[";
+
+    private static final String OBJECT_PREFIX = "L";
+
+    private static final String OBJECT_SUFFIX = ";";
+
+    private static final String PARAMETERS = "()";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Gets JVM internal name of passed type
+     * 
+     * @param type
+     * @return {@link String} internal name
+     */
+    private String getInternalName(TypeElement type) {
+        Elements elements = processingEnv.getElementUtils();
+        return elements.getBinaryName(type).toString().replace(PACKAGE_DELIMITER, INTERNAL_DELIMITER);
+    }
+
+    /**
+     * Generates JVM descriptor for erased type
+     * 
+     * @param type
+     * @return {@link String} type descriptor
+     */
+    private String getDescriptor(TypeMirror type) {
+
+        String desc;
+
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror erased = types.erasure(type);
+        TypeKind kind = erased.getKind();
+        switch (kind) {
+        case BOOLEAN:
+            desc = "Z";
+            break;
+        case BYTE:
+            desc = "B";
+            break;
+        case CHAR:
+            desc = "C";
+            break;
+        case SHORT:
+            desc = "S";
+            break;
+        case INT:
+            desc = "I";
+            break;
+        case LONG:
+            desc = "J";
+            break;
+        case FLOAT:
+            desc = "F";
+            break;
+        case DOUBLE:
+            desc = "D";
+            break;
+        case ARRAY:
+            desc = ARRAY_PREFIX.concat(getDescriptor(((ArrayType) erased).getComponentType()));
+            break;
+        case DECLARED:
+            TypeElement element = (TypeElement) types.asElement(erased);
+            desc = OBJECT_PREFIX.concat(getInternalName(element)).concat(OBJECT_SUFFIX);
+            break;
+        default:
+            desc = null;
+            break;
+        }
+
+        return desc;
+    }
+
+    /**
+     * Validates if passed method is declared in class (not in interface or
+     * {@link Object})
+     * 
+     * @param method
+     * @return <code>boolean</code> validation result
+     */
+    private static boolean declaredInClass(ExecutableElement method) {
+
+        boolean valid;
+
+        Element owner = method.getEnclosingElement();
+        valid = (owner.getKind() == ElementKind.CLASS
+                && !Object.class.getName().equals(((TypeElement) owner).getQualifiedName().toString()));
+
+        return valid;
+    }
+
+    /**
+     * Validates if passed method is entity getter (same rule as runtime
+     * resolvers use)
+     * 
+     * @param method
+     * @return <code>boolean</code> validation result
+     */
+    private static boolean validGetter(ExecutableElement method) {
+
+        boolean valid;
+
+        String name = method.getSimpleName().toString();
+        valid = (name.startsWith(GET) && name.length() > GET.length() && method.getParameters().isEmpty()
+                && method.getReturnType().getKind() != TypeKind.VOID
+                && !method.getModifiers().contains(Modifier.STATIC) && declaredInClass(method));
+
+        return valid;
+    }
+
+    /**
+     * Adds getter to index for entity type and for declaring type
+     * 
+     * @param type
+     * @param method
+     */
+    private void addGetter(TypeElement type, ExecutableElement method) {
+
+        String desc = getDescriptor(method.getReturnType());
+        if (desc != null) {
+            String name = method.getSimpleName().toString();
+            String methodDesc = PARAMETERS.concat(desc);
+            String fieldName = Introspector.decapitalize(name.substring(GET.length()));
+            TypeElement owner = (TypeElement) method.getEnclosingElement();
+            index.put(FieldIndex.key(getInternalName(type), name, methodDesc), fieldName);
+            index.put(FieldIndex.key(getInternalName(owner), name, methodDesc), fieldName);
+        }
+    }
+
+    /**
+     * Adds all declared and inherited getters of passed type to index
+     * 
+     * @param type
+     */
+    private void addType(TypeElement type) {
+
+        Elements elements = processingEnv.getElementUtils();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (validGetter(method)) {
+                addGetter(type, method);
+            }
+        }
+    }
+
+    /**
+     * Writes collected index to class output
+     */
+    private void writeIndex() {
+
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    FieldIndex.INDEX_RESOURCE);
+            try (Writer writer = resource.openWriter()) {
+                for (Map.Entry<String, String> entry : index.entrySet()) {
+                    writer.append(entry.getKey()).append(ENTRY_DELIMITER).append(entry.getValue()).append('\n');
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, ex.getMessage());
+        }
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        for (TypeElement annotation : annotations) {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                addType(type);
+            }
+        }
+        if (roundEnv.processingOver() && !index.isEmpty()) {
+            writeIndex();
+        }
+
+        return Boolean.FALSE;
+    }
+}
@@ -60,26 +60,22 @@ interface LayerStream<T> {
     String getAlias();
 
     /**
-     * Sets entity alias to passed
-     * {@link org.lightmare.criteria.tuples.QueryTuple} instance
+     * Binds passed {@link org.lightmare.criteria.tuples.QueryTuple} to entity
+     * alias and column name of this stream, returns cached variant instead of
+     * modifying shared instance
      * 
      * @param tuple
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} bound variant
      */
-    default void setAlias(QueryTuple tuple) {
-        String alias = getAlias();
-        tuple.setAlias(alias);
-    }
+    default QueryTuple bind(QueryTuple tuple) {
 
-    /**
-     * Sets column name to passed
-     * {@link org.lightmare.criteria.tuples.QueryTuple} instance
-     * 
-     * @param tuple
-     */
-    default void setColumnName(QueryTuple tuple) {
+        QueryTuple bound;
 
         LayerProvider provider = getLayerProvider();
+        String alias = getAlias();
         String columnName = provider.getColumnName(tuple);
-        tuple.setFieldName(columnName);
+        bound = tuple.bind(alias, columnName);
+
+        return bound;
     }
 }
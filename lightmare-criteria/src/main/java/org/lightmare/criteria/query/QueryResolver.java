@@ -163,9 +163,8 @@ public interface QueryResolver<T> extends LayerStream<T> {
 
         QueryTuple tuple;
 
-        tuple = LambdaUtils.getOrInit(field);
-        setAlias(tuple);
-        setColumnName(tuple);
+        QueryTuple resolved = LambdaUtils.getOrInit(field);
+        tuple = bind(resolved);
 
         return tuple;
     }
@@ -180,10 +179,11 @@ public interface QueryResolver<T> extends LayerStream<T> {
      */
     default QueryTuple compose(Serializable field) {
 
-        QueryTuple tuple = resolve(field);
+        QueryTuple tuple;
 
+        QueryTuple resolved = resolve(field);
         Class<T> type = getEntityType();
-        LambdaUtils.setGenericIfValid(type, tuple);
+        tuple = LambdaUtils.getGenericIfValid(type, resolved);
 
         return tuple;
     }
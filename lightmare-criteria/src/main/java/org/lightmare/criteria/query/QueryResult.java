@@ -22,7 +22,10 @@
  */
 package org.lightmare.criteria.query;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.lightmare.criteria.utils.CollectionUtils;
 
@@ -61,6 +64,50 @@ interface QueryResult<T> {
      */
     int execute();
 
+    /**
+     * Runs generated query and retrieves results as
+     * {@link java.util.stream.Stream} backed by database cursor where layer
+     * supports it, stream should be closed after use
+     * 
+     * @return {@link java.util.stream.Stream} of query results
+     */
+    default Stream<T> toStream() {
+
+        Stream<T> results;
+
+        List<T> list = toList();
+        if (list == null) {
+            results = Stream.empty();
+        } else {
+            results = list.stream();
+        }
+
+        return results;
+    }
+
+    /**
+     * Runs generated query and performs passed action for each result element
+     * with closing of underlying resources
+     * 
+     * @param action
+     */
+    default void forEach(Consumer<? super T> action) {
+
+        try (Stream<T> stream = toStream()) {
+            stream.forEach(action);
+        }
+    }
+
+    /**
+     * Runs generated query and retrieves {@link java.util.Iterator} of results
+     * which releases underlying resources when all elements are read
+     * 
+     * @return {@link java.util.Iterator} of query results
+     */
+    default Iterator<T> iterator() {
+        return toStream().iterator();
+    }
+
     /**
      * Gets first or default value from query results
      * 
@@ -22,9 +22,10 @@
  */
 package org.lightmare.criteria.query.layers;
 
+import java.util.Iterator;
 import java.util.List;
-
-import org.lightmare.criteria.utils.CollectionUtils;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Database abstract layer
@@ -51,7 +52,42 @@ public interface QueryLayer<T> {
     T get();
 
     /**
-     * Gets first or default value from query results
+     * Retrieves result from DB throw layer as {@link java.util.stream.Stream}
+     * which should be closed after use, layers which support cursors read rows
+     * lazily and release resources on close or when all rows are read
+     * 
+     * @return {@link java.util.stream.Stream} of T type elements
+     */
+    default Stream<T> toStream() {
+        return toList().stream();
+    }
+
+    /**
+     * Performs passed action for each element of result and closes underlying
+     * resources
+     * 
+     * @param action
+     */
+    default void forEach(Consumer<? super T> action) {
+
+        try (Stream<T> stream = toStream()) {
+            stream.forEach(action);
+        }
+    }
+
+    /**
+     * Retrieves result as {@link java.util.Iterator}, resources are released
+     * when all elements are read
+     * 
+     * @return {@link java.util.Iterator} of T type elements
+     */
+    default Iterator<T> iterator() {
+        return toStream().iterator();
+    }
+
+    /**
+     * Gets first or default value from query results, reads only first
+     * element from {@link java.util.stream.Stream} of results
      * 
      * @param defaultValue
      * @return T first or default value
@@ -60,8 +96,14 @@ public interface QueryLayer<T> {
 
         T result;
 
-        List<T> results = toList();
-        result = CollectionUtils.getFirst(results, defaultValue);
+        try (Stream<T> stream = toStream()) {
+            Iterator<T> iterator = stream.iterator();
+            if (iterator.hasNext()) {
+                result = iterator.next();
+            } else {
+                result = defaultValue;
+            }
+        }
 
         return result;
     }
@@ -91,6 +91,26 @@ public interface ORMQueryWrapper<T, Q extends LambdaStream<T, ? super Q>> {
      */
     int getMaxResults();
 
+    /**
+     * Sets number of rows fetched from database by single round trip while
+     * results are read through {@link java.util.stream.Stream}
+     * 
+     * @param fetchSize
+     *            number of rows to fetch
+     * @return the same {@link org.lightmare.criteria.query.LambdaStream}
+     *         instance
+     */
+    Q setFetchSize(int fetchSize);
+
+    /**
+     * Gets number of rows fetched from database by single round trip, returns
+     * <code>0</code> if <code>setFetchSize</code> was not applied to the query
+     * object
+     * 
+     * @return <code>int</code> fetch size
+     */
+    int getFetchSize();
+
     // ================================Wrapped=Layer=Elements================//
     /**
      * Gets wrapped {@link org.lightmare.criteria.query.layers.LayerProvider}
@@ -0,0 +1,338 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.query.orm;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+import javax.persistence.EntityManager;
+
+import org.lightmare.criteria.query.layers.LayerProvider;
+import org.lightmare.criteria.query.providers.jdbc.layers.JdbcProvider;
+import org.lightmare.criteria.query.providers.jpa.layers.JpaJdbcQueryLayer;
+import org.lightmare.criteria.query.providers.jpa.layers.JpaProvider;
+import org.lightmare.criteria.tuples.Couple;
+import org.lightmare.criteria.tuples.ParameterTuple;
+import org.lightmare.criteria.utils.CollectionUtils;
+import org.lightmare.criteria.utils.ObjectUtils;
+
+/**
+ * Immutable and thread safe compiled query with generated JPA-QL / SQL text
+ * and parameter slots, parameter values are replaced by
+ * {@link PreparedCriteria#bind(Object...)} without query regeneration
+ * 
+ * @author Levan Tsinadze
+ *
+ * @param <T>
+ *            entity type for generated query
+ */
+public class PreparedCriteria<T> {
+
+    private final Class<T> entityType;
+
+    private final String sql;
+
+    private final List<ParameterTuple> parameters;
+
+    private final Integer maxResult;
+
+    private static final String SLOTS_ERROR = "Expected %s parameter values but found %s";
+
+    private static final String NAME_ERROR = "Unknown query parameter %s";
+
+    private PreparedCriteria(final Class<T> entityType, final String sql, final List<ParameterTuple> parameters,
+            final Integer maxResult) {
+        this.entityType = entityType;
+        this.sql = sql;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.maxResult = maxResult;
+    }
+
+    /**
+     * Initializes {@link org.lightmare.criteria.query.orm.PreparedCriteria}
+     * from generated query text and gathered parameters ordered by appearance
+     * in query
+     * 
+     * @param entityType
+     * @param sql
+     * @param parameters
+     * @param maxResult
+     * @return {@link org.lightmare.criteria.query.orm.PreparedCriteria}
+     *         instance
+     */
+    public static <T> PreparedCriteria<T> of(Class<T> entityType, String sql, Collection<ParameterTuple> parameters,
+            Integer maxResult) {
+
+        PreparedCriteria<T> criteria;
+
+        List<ParameterTuple> slots = new ArrayList<>(parameters);
+        slots.sort(Comparator.comparingInt(ParameterTuple::getCount));
+        criteria = new PreparedCriteria<>(entityType, sql, slots, maxResult);
+
+        return criteria;
+    }
+
+    /**
+     * Copies parameter slot with new value
+     * 
+     * @param slot
+     * @param value
+     * @return {@link org.lightmare.criteria.tuples.ParameterTuple} with new
+     *         value
+     */
+    private static ParameterTuple bind(ParameterTuple slot, Object value) {
+        Couple<String, Integer> key = Couple.of(slot.getName(), slot.getCount());
+        return ParameterTuple.of(key, value, slot.getTemporalType());
+    }
+
+    /**
+     * Generates new {@link org.lightmare.criteria.query.orm.PreparedCriteria}
+     * with passed parameter values in order of their appearance in query
+     * 
+     * @param values
+     * @return {@link org.lightmare.criteria.query.orm.PreparedCriteria} with
+     *         bound parameters
+     */
+    public PreparedCriteria<T> bind(Object... values) {
+
+        PreparedCriteria<T> criteria;
+
+        int length = values == null ? CollectionUtils.EMPTY : values.length;
+        if (ObjectUtils.notEquals(length, parameters.size())) {
+            throw new IllegalArgumentException(String.format(SLOTS_ERROR, parameters.size(), length));
+        }
+        List<ParameterTuple> bound = new ArrayList<>(length);
+        CollectionUtils.forEach(parameters, (i, c) -> bound.add(bind(c, values[i])));
+        criteria = new PreparedCriteria<>(entityType, sql, bound, maxResult);
+
+        return criteria;
+    }
+
+    /**
+     * Generates new {@link org.lightmare.criteria.query.orm.PreparedCriteria}
+     * with passed value for named parameter
+     * 
+     * @param name
+     * @param value
+     * @return {@link org.lightmare.criteria.query.orm.PreparedCriteria} with
+     *         bound parameter
+     */
+    public PreparedCriteria<T> bindParameter(String name, Object value) {
+
+        PreparedCriteria<T> criteria;
+
+        List<ParameterTuple> bound = new ArrayList<>(parameters.size());
+        boolean found = Boolean.FALSE;
+        for (ParameterTuple parameter : parameters) {
+            if (Objects.equals(name, parameter.getName())) {
+                bound.add(bind(parameter, value));
+                found = Boolean.TRUE;
+            } else {
+                bound.add(parameter);
+            }
+        }
+        if (ObjectUtils.notTrue(found)) {
+            throw new IllegalArgumentException(String.format(NAME_ERROR, name));
+        }
+        criteria = new PreparedCriteria<>(entityType, sql, bound, maxResult);
+
+        return criteria;
+    }
+
+    /**
+     * Creates query layer for prepared query text and sets bound parameters
+     * 
+     * @param query
+     * @return {@link org.lightmare.criteria.query.providers.jpa.layers.JpaJdbcQueryLayer}
+     *         with parameters
+     */
+    private <R> JpaJdbcQueryLayer<R> setParameters(JpaJdbcQueryLayer<R> query) {
+
+        ObjectUtils.nonNull(maxResult, query::setMaxResults);
+        parameters.forEach(query::setParameter);
+
+        return query;
+    }
+
+    /**
+     * Creates typed query layer by passed
+     * {@link org.lightmare.criteria.query.layers.LayerProvider}
+     * 
+     * @param provider
+     * @return {@link org.lightmare.criteria.query.providers.jpa.layers.JpaJdbcQueryLayer}
+     *         for entity type
+     */
+    private JpaJdbcQueryLayer<T> initTypedQuery(LayerProvider provider) {
+        JpaJdbcQueryLayer<T> query = ObjectUtils.cast(provider.query(entityType, sql));
+        return setParameters(query);
+    }
+
+    /**
+     * Creates bulk query layer by passed
+     * {@link org.lightmare.criteria.query.layers.LayerProvider}
+     * 
+     * @param provider
+     * @return {@link org.lightmare.criteria.query.providers.jpa.layers.JpaJdbcQueryLayer}
+     *         for bulk modification
+     */
+    private JpaJdbcQueryLayer<?> initBulkQuery(LayerProvider provider) {
+        JpaJdbcQueryLayer<?> query = ObjectUtils.cast(provider.query(sql));
+        return setParameters(query);
+    }
+
+    /**
+     * Runs prepared query by passed
+     * {@link org.lightmare.criteria.query.layers.LayerProvider} and retrieves
+     * result list
+     * 
+     * @param provider
+     * @return {@link java.util.List} of query results
+     */
+    public List<T> toList(LayerProvider provider) {
+        return initTypedQuery(provider).toList();
+    }
+
+    /**
+     * Runs prepared JPA-QL query by passed {@link javax.persistence.EntityManager}
+     * 
+     * @param em
+     * @return {@link java.util.List} of query results
+     */
+    public List<T> toList(EntityManager em) {
+        return toList(new JpaProvider(em));
+    }
+
+    /**
+     * Runs prepared SQL query by passed {@link java.sql.Connection}
+     * 
+     * @param connection
+     * @return {@link java.util.List} of query results
+     */
+    public List<T> toList(Connection connection) {
+        return toList(new JdbcProvider(connection));
+    }
+
+    /**
+     * Runs prepared query by passed
+     * {@link org.lightmare.criteria.query.layers.LayerProvider} and retrieves
+     * single result
+     * 
+     * @param provider
+     * @return T single query result
+     */
+    public T get(LayerProvider provider) {
+        return initTypedQuery(provider).get();
+    }
+
+    /**
+     * Runs prepared JPA-QL query by passed {@link javax.persistence.EntityManager}
+     * and retrieves single result
+     * 
+     * @param em
+     * @return T single query result
+     */
+    public T get(EntityManager em) {
+        return get(new JpaProvider(em));
+    }
+
+    /**
+     * Runs prepared SQL query by passed {@link java.sql.Connection} and
+     * retrieves single result
+     * 
+     * @param connection
+     * @return T single query result
+     */
+    public T get(Connection connection) {
+        return get(new JdbcProvider(connection));
+    }
+
+    /**
+     * Gets first value or <code>null</code> from prepared query results
+     * 
+     * @param provider
+     * @return T first result or <code>null</code>
+     */
+    public T getFirst(LayerProvider provider) {
+        return initTypedQuery(provider).getFirst();
+    }
+
+    /**
+     * Gets first value or <code>null</code> from prepared JPA-QL query results
+     * 
+     * @param em
+     * @return T first result or <code>null</code>
+     */
+    public T getFirst(EntityManager em) {
+        return getFirst(new JpaProvider(em));
+    }
+
+    /**
+     * Executes prepared bulk UPDATE or DELETE query by passed
+     * {@link org.lightmare.criteria.query.layers.LayerProvider}
+     * 
+     * @param provider
+     * @return <code>int</code> number of modified rows
+     */
+    public int execute(LayerProvider provider) {
+        return initBulkQuery(provider).execute();
+    }
+
+    /**
+     * Executes prepared bulk UPDATE or DELETE JPA-QL query by passed
+     * {@link javax.persistence.EntityManager}
+     * 
+     * @param em
+     * @return <code>int</code> number of modified rows
+     */
+    public int execute(EntityManager em) {
+        return execute(new JpaProvider(em));
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Gets parameter slots ordered by appearance in query
+     * 
+     * @return {@link java.util.List} of
+     *         {@link org.lightmare.criteria.tuples.ParameterTuple}s
+     */
+    public List<ParameterTuple> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
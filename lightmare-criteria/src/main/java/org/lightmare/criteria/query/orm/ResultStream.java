@@ -50,4 +50,24 @@ public interface ResultStream<T> {
      * @return {@link Long} element count value
      */
     Long count();
+
+    /**
+     * Generates query text and parameter slots once and compiles them to
+     * immutable {@link org.lightmare.criteria.query.orm.PreparedCriteria}
+     * which is executed with new parameter values without query regeneration
+     * 
+     * @return {@link org.lightmare.criteria.query.orm.PreparedCriteria} for
+     *         generated query
+     */
+    PreparedCriteria<T> prepare();
+
+    /**
+     * Alias of {@link ResultStream#prepare()}
+     * 
+     * @return {@link org.lightmare.criteria.query.orm.PreparedCriteria} for
+     *         generated query
+     */
+    default PreparedCriteria<T> compile() {
+        return prepare();
+    }
 }
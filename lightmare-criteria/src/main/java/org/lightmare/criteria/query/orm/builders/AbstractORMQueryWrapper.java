@@ -26,6 +26,7 @@ import org.lightmare.criteria.query.QueryResolver;
 import org.lightmare.criteria.query.QueryStream;
 import org.lightmare.criteria.query.orm.SQLStream;
 import org.lightmare.criteria.query.providers.jpa.layers.JpaJdbcQueryLayer;
+import org.lightmare.criteria.utils.CollectionUtils;
 import org.lightmare.criteria.utils.ObjectUtils;
 
 /**
@@ -47,7 +48,9 @@ import org.lightmare.criteria.utils.ObjectUtils;
 abstract class AbstractORMQueryWrapper<T, Q extends QueryStream<T, ? super Q>, O extends QueryStream<Object[], ? super O>>
         implements SQLStream<T, Q, O>, QueryResolver<T> {
 
-    private Integer maxResult;
+    protected Integer maxResult;
+
+    protected Integer fetchSize;
 
     @Override
     public Q setMaxResults(int maxResult) {
@@ -63,6 +66,20 @@ abstract class AbstractORMQueryWrapper<T, Q extends QueryStream<T, ? super Q>, O
         return maxResult;
     }
 
+    @Override
+    public Q setFetchSize(int fetchSize) {
+
+        Q stream = stream();
+        this.fetchSize = fetchSize;
+
+        return stream;
+    }
+
+    @Override
+    public int getFetchSize() {
+        return ObjectUtils.thisOrDefault(fetchSize, () -> CollectionUtils.EMPTY);
+    }
+
     /**
      * Sets max results to query
      * 
@@ -80,5 +97,6 @@ abstract class AbstractORMQueryWrapper<T, Q extends QueryStream<T, ? super Q>, O
      */
     protected void setORMConfiguration(JpaJdbcQueryLayer<?> query) {
         putMaxResult(query);
+        ObjectUtils.nonNull(fetchSize, query::setFetchSize);
     }
 }
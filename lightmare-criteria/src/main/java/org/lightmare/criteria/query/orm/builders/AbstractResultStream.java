@@ -24,10 +24,12 @@ package org.lightmare.criteria.query.orm.builders;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.lightmare.criteria.query.QueryStream;
 import org.lightmare.criteria.query.layers.LayerProvider;
 import org.lightmare.criteria.query.layers.QueryLayer;
+import org.lightmare.criteria.query.orm.PreparedCriteria;
 import org.lightmare.criteria.tuples.ParameterTuple;
 
 /**
@@ -85,6 +87,28 @@ abstract class AbstractResultStream<T, Q extends QueryStream<T, ? super Q>, O ex
         return result;
     }
 
+    @Override
+    public Stream<T> toStream() {
+
+        Stream<T> results;
+
+        QueryLayer<T> query = initTypedQuery();
+        results = query.toStream();
+
+        return results;
+    }
+
+    @Override
+    public T firstOrDefault(T defaultValue) {
+
+        T result;
+
+        QueryLayer<T> query = initTypedQuery();
+        result = query.firstOrDefault(defaultValue);
+
+        return result;
+    }
+
     @Override
     public int execute() {
 
@@ -96,6 +120,12 @@ abstract class AbstractResultStream<T, Q extends QueryStream<T, ? super Q>, O ex
         return result;
     }
 
+    @Override
+    public PreparedCriteria<T> prepare() {
+        String sqlText = sql();
+        return PreparedCriteria.of(entityType, sqlText, parameters, maxResult);
+    }
+
     @Override
     public Set<ParameterTuple> getParameters() {
         return parameters;
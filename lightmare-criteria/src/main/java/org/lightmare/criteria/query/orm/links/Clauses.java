@@ -40,6 +40,10 @@ public interface Clauses {
 
     String SET = "set ";
 
+    String INSERT = "insert into ";
+
+    String VALUES = " values ";
+
     String GROUP = " group by ";
 
     String HAVING = "having ";
@@ -25,7 +25,9 @@ package org.lightmare.criteria.query.providers.jdbc;
 import java.sql.Connection;
 
 import org.lightmare.criteria.query.providers.QueryProvider;
+import org.lightmare.criteria.query.providers.jdbc.layers.JdbcBatch;
 import org.lightmare.criteria.query.providers.jdbc.layers.JdbcProvider;
+import org.lightmare.criteria.query.providers.jdbc.layers.StatementCache;
 
 /**
  * Query provider for JDBC layer
@@ -70,4 +72,31 @@ public abstract class JdbcQueryProvider {
     public static <T> JdbcQueryStream<T> select(final Connection connection, Class<T> entityType) {
         return QueryProvider.select(new JdbcProvider(connection), entityType, JdbcQueryStreamBuilder::select);
     }
+
+    /**
+     * Generates batch executor for INSERT, UPDATE and DELETE statements
+     * 
+     * @param connection
+     * @param entityType
+     * @return {@link org.lightmare.criteria.query.providers.jdbc.layers.JdbcBatch}
+     *         for entity type
+     */
+    public static <T> JdbcBatch<T> batch(final Connection connection, Class<T> entityType) {
+        return new JdbcBatch<>(connection, entityType);
+    }
+
+    /**
+     * Enables caching of prepared statements for passed
+     * {@link java.sql.Connection}, queries with same SQL reuse statements
+     * while connection is used, returned cache should be closed before
+     * connection
+     * 
+     * @param connection
+     * @param maxSize
+     * @return {@link org.lightmare.criteria.query.providers.jdbc.layers.StatementCache}
+     *         for connection
+     */
+    public static StatementCache cacheStatements(final Connection connection, int maxSize) {
+        return StatementCache.enable(connection, maxSize);
+    }
 }
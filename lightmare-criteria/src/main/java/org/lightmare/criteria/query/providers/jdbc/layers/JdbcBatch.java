@@ -0,0 +1,401 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.query.providers.jdbc.layers;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.lightmare.criteria.config.DefaultConfiguration.DefaultResolver;
+import org.lightmare.criteria.config.DefaultConfiguration.DefaultRetriever.FieldType;
+import org.lightmare.criteria.config.ResultRetrievers;
+import org.lightmare.criteria.functions.EntityField;
+import org.lightmare.criteria.lambda.LambdaUtils;
+import org.lightmare.criteria.query.orm.links.Clauses;
+import org.lightmare.criteria.query.orm.links.Operators;
+import org.lightmare.criteria.query.orm.links.Parts;
+import org.lightmare.criteria.tuples.QueryTuple;
+import org.lightmare.criteria.utils.ClassUtils;
+import org.lightmare.criteria.utils.CollectionUtils;
+import org.lightmare.criteria.utils.ObjectUtils;
+import org.lightmare.criteria.utils.StringUtils;
+
+/**
+ * Executes single compiled statement for many parameter sets through JDBC
+ * batches, statements are sent to database by
+ * {@link java.sql.PreparedStatement#executeBatch()} for each batch size
+ * parameter sets
+ * 
+ * @author Levan Tsinadze
+ *
+ * @param <T>
+ *            entity type parameter
+ */
+public class JdbcBatch<T> {
+
+    private final Connection connection;
+
+    private final Class<T> type;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    // Default number of parameter sets in single batch
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final char NATURAL_PARAM = '?';
+
+    private static final String SEPARATOR = StringUtils.concat(Parts.COMMA, StringUtils.SPACE);
+
+    /**
+     * Sets values of single parameter set to statement
+     * 
+     * @author Levan Tsinadze
+     *
+     * @param <P>
+     *            parameter set type
+     */
+    @FunctionalInterface
+    private static interface Binder<P> {
+
+        void bind(PreparedStatement statement, P parameters) throws SQLException;
+    }
+
+    public JdbcBatch(final Connection connection, final Class<T> type) {
+        this.connection = connection;
+        this.type = type;
+    }
+
+    /**
+     * Sets number of parameter sets sent to database by single round trip
+     * 
+     * @param batchSize
+     * @return current instance
+     */
+    public JdbcBatch<T> setBatchSize(int batchSize) {
+
+        if (batchSize < CollectionUtils.SINGLETON) {
+            throw new IllegalArgumentException(String.valueOf(batchSize));
+        }
+        this.batchSize = batchSize;
+
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Gets persistent fields of entity type, static fields are skipped
+     * 
+     * @return {@link java.util.List} of fields
+     */
+    private List<FieldType> getColumns() {
+
+        List<FieldType> columns = new ArrayList<>();
+
+        ResultRetrievers.getColumns(type).stream().filter(c -> !Modifier.isStatic(c.getField().getModifiers()))
+                .forEach(c -> {
+                    c.getField().setAccessible(Boolean.TRUE);
+                    columns.add(c);
+                });
+
+        return columns;
+    }
+
+    /**
+     * Gets persistent field for passed getter method reference
+     * 
+     * @param key
+     * @return {@link java.lang.reflect.Field} for getter
+     */
+    private static Field getField(EntityField<?, ?> key) {
+
+        Field field;
+
+        QueryTuple tuple = LambdaUtils.getOrInit(key);
+        field = ObjectUtils.ifIsNotNull(tuple, QueryTuple::getField);
+        if (field == null) {
+            throw new IllegalArgumentException("Could not resolve key field");
+        }
+        field.setAccessible(Boolean.TRUE);
+
+        return field;
+    }
+
+    /**
+     * Sets values of passed fields from entity to statement
+     * 
+     * @param statement
+     * @param entity
+     * @param fields
+     * @throws SQLException
+     */
+    private static void bind(PreparedStatement statement, Object entity, List<Field> fields) throws SQLException {
+
+        int index = CollectionUtils.SINGLETON;
+        for (Field field : fields) {
+            Object value = ClassUtils.get(field, entity);
+            statement.setObject(index++, value);
+        }
+    }
+
+    /**
+     * Sums update counts of executed batch,
+     * {@link java.sql.Statement#SUCCESS_NO_INFO} is returned if driver does not
+     * report counts
+     * 
+     * @param counts
+     * @return <code>int</code> update count of batch
+     */
+    private static int sum(int[] counts) {
+
+        int sum = CollectionUtils.EMPTY;
+
+        for (int i = CollectionUtils.FIRST; i < counts.length && sum >= CollectionUtils.EMPTY; i++) {
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                sum = Statement.SUCCESS_NO_INFO;
+            } else {
+                sum += counts[i];
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Executes collected batch and adds its update count to results
+     * 
+     * @param statement
+     * @param results
+     * @throws SQLException
+     */
+    private static void flush(PreparedStatement statement, List<Integer> results) throws SQLException {
+        int[] counts = statement.executeBatch();
+        results.add(sum(counts));
+    }
+
+    /**
+     * Adds each parameter set to batch and executes it for each batch size
+     * parameter sets
+     * 
+     * @param statement
+     * @param parameters
+     * @param binder
+     * @return {@link java.util.List} of update counts by batches
+     * @throws SQLException
+     */
+    private <P> List<Integer> execute(PreparedStatement statement, Iterable<? extends P> parameters,
+            Binder<P> binder) throws SQLException {
+
+        List<Integer> results = new ArrayList<>();
+
+        int size = CollectionUtils.EMPTY;
+        for (P parameter : parameters) {
+            binder.bind(statement, parameter);
+            statement.addBatch();
+            if (++size == batchSize) {
+                flush(statement, results);
+                size = CollectionUtils.EMPTY;
+            }
+        }
+        if (size > CollectionUtils.EMPTY) {
+            flush(statement, results);
+        }
+
+        return results;
+    }
+
+    /**
+     * Prepares statement from cache if it is enabled for connection and
+     * executes batches for all parameter sets
+     * 
+     * @param sql
+     * @param parameters
+     * @param binder
+     * @return <code>int[]</code> update counts by batches
+     * @throws SQLException
+     */
+    private <P> int[] run(String sql, Iterable<? extends P> parameters, Binder<P> binder) throws SQLException {
+
+        List<Integer> results;
+
+        StatementCache cache = StatementCache.get(connection);
+        if (cache == null) {
+            try (PreparedStatement statement = StatementCache.prepare(connection, sql)) {
+                results = execute(statement, parameters, binder);
+            }
+        } else {
+            PreparedStatement statement = cache.borrow(sql);
+            try {
+                results = execute(statement, parameters, binder);
+            } finally {
+                statement.clearBatch();
+                cache.release(sql, statement);
+            }
+        }
+
+        return results.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Executes batches of statement with entity field values as parameters
+     * 
+     * @param sql
+     * @param entities
+     * @param fields
+     * @return <code>int[]</code> update counts by batches
+     */
+    private int[] run(String sql, Iterable<? extends T> entities, List<Field> fields) {
+        return ObjectUtils.applyQuietly(sql, c -> run(c, entities, (s, e) -> bind(s, e, fields)));
+    }
+
+    /**
+     * Appends columns joined by passed separator
+     * 
+     * @param builder
+     * @param columns
+     * @param separator
+     * @param suffix
+     */
+    private static void appendColumns(StringBuilder builder, List<FieldType> columns, String separator,
+            String suffix) {
+
+        for (int i = CollectionUtils.FIRST; i < columns.size(); i++) {
+            if (i > CollectionUtils.FIRST) {
+                builder.append(separator);
+            }
+            builder.append(columns.get(i).getName()).append(suffix);
+        }
+    }
+
+    /**
+     * Inserts all passed entities by batches of single INSERT statement
+     * 
+     * @param entities
+     * @return <code>int[]</code> update counts by batches
+     */
+    public int[] insert(Iterable<? extends T> entities) {
+
+        int[] counts;
+
+        List<FieldType> columns = getColumns();
+        List<Field> fields = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(Clauses.INSERT);
+        sql.append(JdbcProvider.getTable(type)).append(Operators.OPEN_BRACKET);
+        appendColumns(sql, columns, SEPARATOR, StringUtils.EMPTY);
+        sql.append(Operators.Brackets.CLOSE).append(Clauses.VALUES).append(Operators.Brackets.OPEN);
+        for (int i = CollectionUtils.FIRST; i < columns.size(); i++) {
+            if (i > CollectionUtils.FIRST) {
+                sql.append(SEPARATOR);
+            }
+            sql.append(NATURAL_PARAM);
+            fields.add(columns.get(i).getField());
+        }
+        sql.append(Operators.Brackets.CLOSE);
+        counts = run(sql.toString(), entities, fields);
+
+        return counts;
+    }
+
+    /**
+     * Updates all columns of passed entities by batches of single UPDATE
+     * statement with condition on passed key field
+     * 
+     * @param entities
+     * @param key
+     * @return <code>int[]</code> update counts by batches
+     */
+    public int[] update(Iterable<? extends T> entities, EntityField<T, ?> key) {
+
+        int[] counts;
+
+        Field keyField = getField(key);
+        List<FieldType> columns = getColumns();
+        columns.removeIf(c -> c.getField().equals(keyField));
+        List<Field> fields = new ArrayList<>();
+        columns.forEach(c -> fields.add(c.getField()));
+        fields.add(keyField);
+        StringBuilder sql = new StringBuilder(Clauses.UPDATE);
+        sql.append(StringUtils.SPACE).append(JdbcProvider.getTable(type)).append(StringUtils.SPACE);
+        sql.append(Clauses.SET);
+        appendColumns(sql, columns, SEPARATOR, StringUtils.concat(Operators.EQ, NATURAL_PARAM));
+        sql.append(StringUtils.SPACE).append(Clauses.WHERE).append(DefaultResolver.getColumn(keyField));
+        sql.append(Operators.EQ).append(NATURAL_PARAM);
+        counts = run(sql.toString(), entities, fields);
+
+        return counts;
+    }
+
+    /**
+     * Deletes passed entities by batches of single DELETE statement with
+     * condition on passed key field
+     * 
+     * @param entities
+     * @param key
+     * @return <code>int[]</code> update counts by batches
+     */
+    public int[] delete(Iterable<? extends T> entities, EntityField<T, ?> key) {
+
+        int[] counts;
+
+        Field keyField = getField(key);
+        List<Field> fields = new ArrayList<>();
+        fields.add(keyField);
+        StringBuilder sql = new StringBuilder(Clauses.DELETE);
+        sql.append(Parts.FROM).append(JdbcProvider.getTable(type)).append(StringUtils.SPACE);
+        sql.append(Clauses.WHERE).append(DefaultResolver.getColumn(keyField));
+        sql.append(Operators.EQ).append(NATURAL_PARAM);
+        counts = run(sql.toString(), entities, fields);
+
+        return counts;
+    }
+
+    /**
+     * Executes passed statement with named parameters by batches for each
+     * parameter set, parameters are bound by names
+     * 
+     * @param sql
+     * @param parameters
+     * @return <code>int[]</code> update counts by batches
+     */
+    public int[] execute(String sql, Iterable<? extends Map<String, ?>> parameters) {
+
+        int[] counts;
+
+        NamedSql named = NamedSql.get(type.getClassLoader(), sql);
+        counts = ObjectUtils.applyQuietly(named, c -> run(c.getSql(), parameters, (s, p) -> {
+            for (int i = CollectionUtils.FIRST; i < c.size(); i++) {
+                s.setObject(i + CollectionUtils.SINGLETON, p.get(c.getName(i)));
+            }
+        }));
+
+        return counts;
+    }
+}
@@ -108,12 +108,22 @@ public class JdbcProvider implements LayerProvider {
         return resolver;
     }
 
-    @Override
-    public String getTableName(Class<?> type) {
+    /**
+     * Gets DB table name from entity {@link Class} annotation
+     * 
+     * @param type
+     * @return {@link String} DB table name
+     */
+    static String getTable(Class<?> type) {
         return ObjectUtils.ifNull(() -> type.getAnnotation(DBTable.class), c -> type.getName(),
                 c -> StringUtils.thisOrDefault(c.value(), type::getName));
     }
 
+    @Override
+    public String getTableName(Class<?> type) {
+        return getTable(type);
+    }
+
     /**
      * gets DB column name from {@link java.lang.reflect.Field} annotation
      * 
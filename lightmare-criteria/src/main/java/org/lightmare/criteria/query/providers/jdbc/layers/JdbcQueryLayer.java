@@ -29,19 +29,19 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.stream.Stream;
 
 import javax.persistence.TemporalType;
 
 import org.lightmare.criteria.config.Configuration.ResultRetriever;
-import org.lightmare.criteria.config.DefaultConfiguration.DefaultRetriever;
-import org.lightmare.criteria.query.orm.links.Parts;
+import org.lightmare.criteria.config.ResultRetrievers;
 import org.lightmare.criteria.query.providers.jpa.layers.JpaJdbcQueryLayer;
 import org.lightmare.criteria.tuples.ParameterTuple;
+import org.lightmare.criteria.utils.CollectionUtils;
 import org.lightmare.criteria.utils.ObjectUtils;
-import org.lightmare.criteria.utils.StringUtils;
 
 /**
  * Implementation for JDBC layer
@@ -55,38 +55,23 @@ public class JdbcQueryLayer<T> implements JpaJdbcQueryLayer<T> {
 
     private final Class<T> type;
 
-    private final String sql;
+    private final NamedSql sql;
 
     private final Connection connection;
 
-    private PreparedStatement statement;
+    // Statement cache enabled for connection or null
+    private final StatementCache cache;
 
-    private Map<Integer, ParameterTuple> parameters = new TreeMap<>();
+    private Integer maxResults;
 
-    // Parameter sign
-    private static final String NATURAL_PARAM = "?";
+    private Integer fetchSize;
 
-    private static final int NON_EXISTING = -1;
+    private final Map<String, ParameterTuple> parameters = new HashMap<>();
 
-    /**
-     * Functional interface for JDBC method calls
-     * 
-     * @author Levan Tsinadze
-     *
-     */
-    @FunctionalInterface
-    private static interface JdbcFunction {
+    // Index of first JDBC parameter
+    private static final int FIRST_PARAM = 1;
 
-        /**
-         * Applies query and generates {@link java.sql.PreparedStatement}
-         * instance
-         * 
-         * @param sql
-         * @return {@link java.sql.PreparedStatement} for query
-         * @throws SQLException
-         */
-        PreparedStatement apply(String sql) throws SQLException;
-    }
+    private static final String PARAMETER_ERROR = "Query parameter %s is not set";
 
     /**
      * Supplier for data retrieve
@@ -109,93 +94,136 @@ public class JdbcQueryLayer<T> implements JpaJdbcQueryLayer<T> {
     }
 
     /**
-     * Parameter setter for {@link java.sql.ResultSet} by field type
+     * Function on prepared statement for query execution
      * 
      * @author Levan Tsinadze
      *
-     * @param <T>
-     *            argument type parameter
+     * @param <R>
+     *            result type
      */
     @FunctionalInterface
-    private static interface JdbcConsumer<T> {
+    private static interface JdbcFunction<R> {
 
         /**
-         * Parameters setter for JDBC query
+         * Executes query on prepared statement
          * 
-         * @param t
+         * @param statement
+         * @return R execution result
          * @throws SQLException
          */
-        void accept(T t) throws SQLException;
+        R apply(PreparedStatement statement) throws SQLException;
     }
 
     protected JdbcQueryLayer(final Connection connection, String sql, Class<T> type) {
         this.type = type;
-        this.sql = sql;
+        this.sql = NamedSql.get(type.getClassLoader(), sql);
         this.connection = connection;
+        this.cache = StatementCache.get(connection);
+    }
+
+    private <R> R call(JdbcSupplier<R> supplier) {
+        return ObjectUtils.applyQuietly(supplier, JdbcSupplier::supply);
     }
 
     /**
-     * Replaces named query parameters with JDBC natural parameter symbols
+     * Sets parameter values to {@link java.sql.PreparedStatement} by
+     * positions of names in query
      * 
-     * @param name
-     * @param builder
+     * @param statement
+     * @throws SQLException
+     *             if named parameter of query is not set
      */
-    private void replace(String name, StringBuilder builder) {
-
-        String paramName = StringUtils.concat(Parts.PARAM_PREFIX, name);
-        int size = paramName.length();
-        int index = builder.indexOf(paramName);
-        if (ObjectUtils.notEquals(index, NON_EXISTING)) {
-            int end = index + size;
-            builder.replace(index, end, NATURAL_PARAM);
+    private void bind(PreparedStatement statement) throws SQLException {
+
+        int size = sql.size();
+        for (int i = CollectionUtils.FIRST; i < size; i++) {
+            String name = sql.getName(i);
+            ParameterTuple parameter = parameters.get(name);
+            if (parameter == null) {
+                throw new SQLException(String.format(PARAMETER_ERROR, name));
+            }
+            statement.setObject(i + FIRST_PARAM, parameter.getValue());
         }
     }
 
-    private String replaceParameters() {
-
-        String refined;
-
-        StringBuilder builder = new StringBuilder(sql);
-        parameters.values().forEach(c -> replace(c.getName(), builder));
-        refined = builder.toString();
-
-        return refined;
+    /**
+     * Sets row limit and fetch size to {@link java.sql.PreparedStatement},
+     * both are reset for statements reused from cache
+     * 
+     * @param statement
+     * @throws SQLException
+     */
+    private void configure(PreparedStatement statement) throws SQLException {
+        statement.setMaxRows(ObjectUtils.thisOrDefault(maxResults, () -> CollectionUtils.EMPTY));
+        statement.setFetchSize(ObjectUtils.thisOrDefault(fetchSize, () -> CollectionUtils.EMPTY));
     }
 
-    private static void putParameter(Integer key, ParameterTuple parameter, PreparedStatement statement) {
-        Object value = parameter.getValue();
-        ObjectUtils.acceptQuietly(key, value, statement::setObject);
-    }
+    /**
+     * Releases {@link java.sql.PreparedStatement} after query execution,
+     * returns it to cache if caching is enabled or closes it otherwise
+     * 
+     * @param statement
+     * @throws SQLException
+     */
+    private void release(PreparedStatement statement) throws SQLException {
 
-    private PreparedStatement call(JdbcFunction function) {
-        return ObjectUtils.applyQuietly(function, c -> {
+        if (cache == null) {
+            statement.close();
+        } else {
+            cache.release(sql.getSql(), statement);
+        }
+    }
 
-            PreparedStatement result;
+    /**
+     * Gets {@link java.sql.PreparedStatement} from cache or prepares new one
+     * and sets parameters, row limit and fetch size
+     * 
+     * @return {@link java.sql.PreparedStatement} for query
+     * @throws SQLException
+     */
+    private PreparedStatement prepare() throws SQLException {
 
-            String refined = replaceParameters();
-            result = c.apply(refined);
-            parameters.forEach((k, v) -> putParameter(k, v, result));
+        PreparedStatement statement;
 
-            return result;
-        });
-    }
+        String text = sql.getSql();
+        if (cache == null) {
+            statement = StatementCache.prepare(connection, text);
+        } else {
+            statement = cache.borrow(text);
+        }
 
-    private <P, R> R call(JdbcSupplier<R> supplier) {
-        return ObjectUtils.applyQuietly(supplier, JdbcSupplier::supply);
-    }
+        try {
+            bind(statement);
+            configure(statement);
+        } catch (SQLException | RuntimeException ex) {
+            release(statement);
+            throw ex;
+        }
 
-    private <P> void consume(P value, JdbcConsumer<P> consumer) {
-        ObjectUtils.acceptQuietly(consumer, value, JdbcConsumer::accept);
+        return statement;
     }
 
-    private ResultSet executeQuery() throws SQLException {
+    /**
+     * Prepares statement, executes passed function on it and releases
+     * statement
+     * 
+     * @param function
+     * @return R execution result
+     */
+    private <R> R execute(JdbcFunction<R> function) {
+        return call(() -> {
 
-        ResultSet rs;
+            R result;
 
-        statement = call(connection::prepareStatement);
-        rs = statement.executeQuery();
+            PreparedStatement statement = prepare();
+            try {
+                result = function.apply(statement);
+            } finally {
+                release(statement);
+            }
 
-        return rs;
+            return result;
+        });
     }
 
     /**
@@ -205,15 +233,16 @@ public class JdbcQueryLayer<T> implements JpaJdbcQueryLayer<T> {
      * @return T result
      */
     public T get(ResultRetriever<T> retriever) {
-        return call(() -> {
+        return execute(statement -> {
 
             T result;
 
-            ResultSet rs = executeQuery();
-            if (rs.next()) {
-                result = retriever.readRow(rs);
-            } else {
-                result = null;
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next()) {
+                    result = retriever.readRow(rs);
+                } else {
+                    result = null;
+                }
             }
 
             return result;
@@ -227,27 +256,75 @@ public class JdbcQueryLayer<T> implements JpaJdbcQueryLayer<T> {
      * @return {@link java.util.List} of result
      */
     public List<T> toList(ResultRetriever<T> retriever) {
-        return call(() -> {
+        return execute(statement -> {
 
             List<T> results = new ArrayList<>();
 
-            ResultSet rs = executeQuery();
-            T result;
-            while (rs.next()) {
-                result = retriever.readRow(rs);
-                results.add(result);
+            try (ResultSet rs = statement.executeQuery()) {
+                T result;
+                while (rs.next()) {
+                    result = retriever.readRow(rs);
+                    results.add(result);
+                }
             }
 
             return results;
         });
     }
 
+    /**
+     * Executes query and opens {@link java.util.stream.Stream} on its
+     * {@link java.sql.ResultSet}
+     * 
+     * @param retriever
+     * @return {@link java.util.stream.Stream} of results
+     * @throws SQLException
+     */
+    private Stream<T> openStream(ResultRetriever<T> retriever) throws SQLException {
+
+        Stream<T> results;
+
+        PreparedStatement statement = prepare();
+        try {
+            ResultSet rs = statement.executeQuery();
+            results = ResultSetSpliterator.stream(rs, retriever, () -> release(statement));
+        } catch (SQLException | RuntimeException ex) {
+            release(statement);
+            throw ex;
+        }
+
+        return results;
+    }
+
+    /**
+     * Gets {@link java.util.stream.Stream} of result which reads rows from
+     * forward only {@link java.sql.ResultSet} on demand, stream should be
+     * closed to release {@link java.sql.ResultSet} and statement
+     * 
+     * @param retriever
+     * @return {@link java.util.stream.Stream} of result
+     */
+    public Stream<T> toStream(ResultRetriever<T> retriever) {
+        return call(() -> openStream(retriever));
+    }
+
+    @Override
+    public Stream<T> toStream() {
+
+        Stream<T> results;
+
+        ResultRetriever<T> retriever = ResultRetrievers.of(type);
+        results = toStream(retriever);
+
+        return results;
+    }
+
     @Override
     public List<T> toList() {
 
         List<T> results;
 
-        ResultRetriever<T> retriever = new DefaultRetriever<>(type);
+        ResultRetriever<T> retriever = ResultRetrievers.of(type);
         results = toList(retriever);
 
         return results;
@@ -258,7 +335,7 @@ public class JdbcQueryLayer<T> implements JpaJdbcQueryLayer<T> {
 
         T result;
 
-        ResultRetriever<T> retriever = new DefaultRetriever<>(type);
+        ResultRetriever<T> retriever = ResultRetrievers.of(type);
         result = get(retriever);
 
         return result;
@@ -266,33 +343,46 @@ public class JdbcQueryLayer<T> implements JpaJdbcQueryLayer<T> {
 
     @Override
     public int execute() {
-        return call(statement::getUpdateCount);
+        return execute(PreparedStatement::executeUpdate);
     }
 
     @Override
     public void setParameter(String name, Object value) {
+        parameters.put(name, ParameterTuple.of(name, value, null));
     }
 
     @Override
     public void setParameter(String name, Calendar value, TemporalType temporalType) {
+        parameters.put(name, ParameterTuple.of(name, value, temporalType));
     }
 
     @Override
     public void setParameter(String name, Date value, TemporalType temporalType) {
+        parameters.put(name, ParameterTuple.of(name, value, temporalType));
     }
 
     @Override
     public void setParameter(ParameterTuple tuple) {
-        parameters.put(tuple.getCount(), tuple);
+        parameters.put(tuple.getName(), tuple);
     }
 
     @Override
     public void setMaxResults(int maxResult) {
-        consume(maxResult, statement::setMaxRows);
+        this.maxResults = maxResult;
     }
 
     @Override
     public int getMaxResults() {
-        return call(statement::getMaxRows);
+        return ObjectUtils.thisOrDefault(maxResults, () -> Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public int getFetchSize() {
+        return ObjectUtils.thisOrDefault(fetchSize, () -> CollectionUtils.EMPTY);
     }
 }
@@ -0,0 +1,139 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.query.providers.jdbc.layers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.lightmare.criteria.cache.ClassLoaderCache;
+import org.lightmare.criteria.query.orm.links.Parts;
+import org.lightmare.criteria.utils.StringUtils;
+
+/**
+ * Query with named parameters rewritten to JDBC positional parameters, parsed
+ * once for each query text and cached
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+class NamedSql {
+
+    // Query with positional parameters
+    private final String sql;
+
+    // Parameter names by positions
+    private final String[] names;
+
+    // Maximal number of parsed queries for each class loader
+    private static final int DEFAULT_MAX_SIZE = 512;
+
+    private static final ClassLoaderCache<String, NamedSql> CACHE = new ClassLoaderCache<>(DEFAULT_MAX_SIZE);
+
+    // Parameter sign
+    private static final char NATURAL_PARAM = '?';
+
+    private NamedSql(final String sql, final String[] names) {
+        this.sql = sql;
+        this.names = names;
+    }
+
+    /**
+     * Validates if named parameter starts at passed index of query text
+     * 
+     * @param text
+     * @param index
+     * @return <code>boolean</code> validation result
+     */
+    private static boolean isParameter(String text, int index) {
+
+        int next = index + 1;
+        int previous = index - 1;
+
+        return (text.charAt(index) == Parts.PARAM_PREFIX && next < text.length()
+                && Character.isJavaIdentifierStart(text.charAt(next))
+                && (previous < 0 || text.charAt(previous) != Parts.PARAM_PREFIX));
+    }
+
+    /**
+     * Parses query text in single pass, replaces named parameters with JDBC
+     * positional parameter signs and collects their names by positions,
+     * quoted literals are left unchanged
+     * 
+     * @param text
+     * @return {@link org.lightmare.criteria.query.providers.jdbc.layers.NamedSql}
+     *         instance
+     */
+    static NamedSql parse(String text) {
+
+        int length = text.length();
+        StringBuilder builder = new StringBuilder(length);
+        List<String> parameters = new ArrayList<>();
+        boolean quoted = Boolean.FALSE;
+        int index = 0;
+        while (index < length) {
+            char current = text.charAt(index);
+            if (current == StringUtils.QUOTE) {
+                quoted = !quoted;
+                builder.append(current);
+                index++;
+            } else if (!quoted && isParameter(text, index)) {
+                int end = index + 1;
+                while (end < length && Character.isJavaIdentifierPart(text.charAt(end))) {
+                    end++;
+                }
+                parameters.add(text.substring(index + 1, end));
+                builder.append(NATURAL_PARAM);
+                index = end;
+            } else {
+                builder.append(current);
+                index++;
+            }
+        }
+
+        return new NamedSql(builder.toString(), parameters.toArray(new String[parameters.size()]));
+    }
+
+    /**
+     * Gets parsed query from cache or parses and caches it
+     * 
+     * @param loader
+     * @param text
+     * @return {@link org.lightmare.criteria.query.providers.jdbc.layers.NamedSql}
+     *         instance
+     */
+    static NamedSql get(ClassLoader loader, String text) {
+        return CACHE.get(loader, text, NamedSql::parse);
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    String getName(int position) {
+        return names[position];
+    }
+}
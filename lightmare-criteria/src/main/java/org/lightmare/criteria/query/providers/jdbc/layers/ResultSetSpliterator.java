@@ -0,0 +1,156 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.query.providers.jdbc.layers;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.lightmare.criteria.config.Configuration.ResultRetriever;
+
+/**
+ * Implementation of {@link java.util.Spliterator} which reads rows from
+ * forward only {@link java.sql.ResultSet} on demand and closes it and
+ * releases statement after last row or stream close
+ * 
+ * @author Levan Tsinadze
+ *
+ * @param <T>
+ *            result type parameter
+ */
+class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements AutoCloseable {
+
+    private final ResultSet result;
+
+    private final ResultRetriever<T> retriever;
+
+    private final Release release;
+
+    private boolean closed;
+
+    private static final int CHARACTERISTICS = Spliterator.ORDERED;
+
+    /**
+     * Releases statement of {@link java.sql.ResultSet} after it is closed
+     * 
+     * @author Levan Tsinadze
+     *
+     */
+    @FunctionalInterface
+    static interface Release {
+
+        void release() throws SQLException;
+    }
+
+    private ResultSetSpliterator(final ResultSet result, final ResultRetriever<T> retriever, final Release release) {
+        super(Long.MAX_VALUE, CHARACTERISTICS);
+        this.result = result;
+        this.retriever = retriever;
+        this.release = release;
+    }
+
+    /**
+     * Reads next row from {@link java.sql.ResultSet} and passes it to action
+     * 
+     * @param action
+     * @return <code>boolean</code> if row was read
+     * @throws SQLException
+     */
+    private boolean readRow(Consumer<? super T> action) throws SQLException {
+
+        boolean valid = (!closed && result.next());
+
+        if (valid) {
+            T value = retriever.readRow(result);
+            action.accept(value);
+        } else {
+            close();
+        }
+
+        return valid;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+
+        boolean valid;
+
+        try {
+            valid = readRow(action);
+        } catch (SQLException ex) {
+            closeQuietly();
+            throw new RuntimeException(ex);
+        }
+
+        return valid;
+    }
+
+    @Override
+    public void close() throws SQLException {
+
+        if (!closed) {
+            closed = Boolean.TRUE;
+            try {
+                result.close();
+            } finally {
+                release.release();
+            }
+        }
+    }
+
+    /**
+     * Closes {@link java.sql.ResultSet}, releases statement and wraps errors
+     */
+    private void closeQuietly() {
+
+        try {
+            close();
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Initializes {@link java.util.stream.Stream} of rows of passed
+     * {@link java.sql.ResultSet}, closing of stream closes result and
+     * releases statement
+     * 
+     * @param result
+     * @param retriever
+     * @param release
+     * @return {@link java.util.stream.Stream} of results
+     */
+    static <T> Stream<T> stream(ResultSet result, ResultRetriever<T> retriever, Release release) {
+
+        Stream<T> stream;
+
+        ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(result, retriever, release);
+        stream = StreamSupport.stream(spliterator, Boolean.FALSE).onClose(spliterator::closeQuietly);
+
+        return stream;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.query.providers.jdbc.layers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded (least recently used) cache of {@link java.sql.PreparedStatement}s
+ * for single {@link java.sql.Connection}, so same query executed repeatedly
+ * reuses prepared statement and server side plan. Statement is borrowed from
+ * cache while query runs and returned after, evicted statements are closed.
+ * Cache is optional and should be enabled for connection by
+ * {@link org.lightmare.criteria.query.providers.jdbc.layers.StatementCache#enable(Connection, int)}
+ * and released by {@link #close()} (or
+ * {@link org.lightmare.criteria.query.providers.jdbc.layers.StatementCache#disable(Connection)})
+ * before connection is closed, caches of already closed connections are
+ * released when next cache is enabled
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+public class StatementCache implements AutoCloseable {
+
+    private final Connection connection;
+
+    private final StatementMap statements;
+
+    private long hits;
+
+    private long misses;
+
+    // Enabled caches by connections, cached statements strongly reference
+    // their connection so caches are released explicitly
+    private static final Map<Connection, StatementCache> CACHES = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private static final float LOAD_FACTOR = 0.75F;
+
+    /**
+     * Access ordered {@link java.util.LinkedHashMap} which closes and evicts
+     * eldest statement when size exceeds bound
+     * 
+     * @author Levan Tsinadze
+     *
+     */
+    private static class StatementMap extends LinkedHashMap<String, PreparedStatement> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private StatementMap(final int maxSize) {
+            super(maxSize, LOAD_FACTOR, Boolean.TRUE);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+
+            boolean remove = (size() > maxSize);
+
+            if (remove) {
+                closeQuietly(eldest.getValue());
+            }
+
+            return remove;
+        }
+    }
+
+    private StatementCache(final Connection connection, final int maxSize) {
+        this.connection = connection;
+        this.statements = new StatementMap(maxSize);
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+
+        try {
+            statement.close();
+        } catch (SQLException ex) {
+            // Statement is discarded anyway
+        }
+    }
+
+    /**
+     * Prepares forward only and read only statement for query
+     * 
+     * @param connection
+     * @param sql
+     * @return {@link java.sql.PreparedStatement} instance
+     * @throws SQLException
+     */
+    static PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        return connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    /**
+     * Checks if passed {@link java.sql.Connection} is closed or unusable
+     * 
+     * @param connection
+     * @return <code>boolean</code> validation result
+     */
+    private static boolean isClosed(Connection connection) {
+
+        boolean closed;
+
+        try {
+            closed = connection.isClosed();
+        } catch (SQLException ex) {
+            closed = Boolean.TRUE;
+        }
+
+        return closed;
+    }
+
+    /**
+     * Removes and clears caches of closed connections which were not released
+     * explicitly
+     */
+    private static void purge() {
+
+        Collection<StatementCache> closed = new ArrayList<>();
+        synchronized (CACHES) {
+            Iterator<StatementCache> iterator = CACHES.values().iterator();
+            while (iterator.hasNext()) {
+                StatementCache cache = iterator.next();
+                if (isClosed(cache.connection)) {
+                    iterator.remove();
+                    closed.add(cache);
+                }
+            }
+        }
+        closed.forEach(StatementCache::clear);
+    }
+
+    /**
+     * Enables statement caching for passed {@link java.sql.Connection} or
+     * returns already enabled cache
+     * 
+     * @param connection
+     * @param maxSize
+     * @return {@link org.lightmare.criteria.query.providers.jdbc.layers.StatementCache}
+     *         for connection
+     */
+    public static StatementCache enable(Connection connection, int maxSize) {
+        purge();
+        return CACHES.computeIfAbsent(connection, c -> new StatementCache(c, maxSize));
+    }
+
+    /**
+     * Gets enabled statement cache for passed {@link java.sql.Connection}
+     * 
+     * @param connection
+     * @return {@link org.lightmare.criteria.query.providers.jdbc.layers.StatementCache}
+     *         or <code>null</code> if caching is not enabled
+     */
+    public static StatementCache get(Connection connection) {
+        return CACHES.get(connection);
+    }
+
+    /**
+     * Disables statement caching for passed {@link java.sql.Connection} and
+     * closes cached statements
+     * 
+     * @param connection
+     */
+    public static void disable(Connection connection) {
+
+        StatementCache cache = CACHES.remove(connection);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Takes cached statement for query or prepares new one, statement is
+     * removed from cache until it is released
+     * 
+     * @param sql
+     * @return {@link java.sql.PreparedStatement} for query
+     * @throws SQLException
+     */
+    synchronized PreparedStatement borrow(String sql) throws SQLException {
+
+        PreparedStatement statement = statements.remove(sql);
+
+        if (statement == null || statement.isClosed()) {
+            misses++;
+            statement = prepare(connection, sql);
+        } else {
+            hits++;
+        }
+
+        return statement;
+    }
+
+    /**
+     * Returns statement to cache after query execution
+     * 
+     * @param sql
+     * @param statement
+     * @throws SQLException
+     */
+    synchronized void release(String sql, PreparedStatement statement) throws SQLException {
+
+        statement.clearParameters();
+        PreparedStatement previous = statements.put(sql, statement);
+        if (previous != null && previous != statement) {
+            closeQuietly(previous);
+        }
+    }
+
+    /**
+     * Closes and removes all cached statements
+     */
+    public void clear() {
+
+        Collection<PreparedStatement> cached;
+
+        synchronized (this) {
+            cached = new ArrayList<>(statements.values());
+            statements.clear();
+        }
+        cached.forEach(StatementCache::closeQuietly);
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public void close() {
+        CACHES.remove(connection, this);
+        clear();
+    }
+}
@@ -78,11 +78,10 @@ class JpaEmbeddedStream<S, T> extends JpaSubQueryStream<S, T> {
 
         QueryTuple temp = super.resolve(field);
         if (temp.getEntityType().isAssignableFrom(parent.getEntityType())) {
-            LambdaUtils.setGenericIfValid(parent.getEntityType(), temp);
-            tuple = temp;
+            tuple = LambdaUtils.getGenericIfValid(parent.getEntityType(), temp);
         } else {
-            LambdaUtils.setGenericIfValid(this.entityType, temp);
-            tuple = EmbeddedTuple.of(temp, embeddedName);
+            QueryTuple generic = LambdaUtils.getGenericIfValid(this.entityType, temp);
+            tuple = EmbeddedTuple.of(generic, embeddedName);
         }
 
         return tuple;
@@ -25,6 +25,7 @@ package org.lightmare.criteria.query.providers.jpa;
 import javax.persistence.EntityManager;
 
 import org.lightmare.criteria.query.providers.QueryProvider;
+import org.lightmare.criteria.query.providers.jpa.layers.JpaBatch;
 import org.lightmare.criteria.query.providers.jpa.layers.JpaProvider;
 
 /**
@@ -70,4 +71,16 @@ public abstract class JpaQueryProvider {
     public static <T> JpaQueryStream<T> select(final EntityManager em, Class<T> entityType) {
         return QueryProvider.select(new JpaProvider(em), entityType, JpaQueryStreamBuilder::select);
     }
+
+    /**
+     * Generates batch executor to persist, merge or remove entities
+     * 
+     * @param em
+     * @param entityType
+     * @return {@link org.lightmare.criteria.query.providers.jpa.layers.JpaBatch}
+     *         for entity type
+     */
+    public static <T> JpaBatch<T> batch(final EntityManager em, Class<T> entityType) {
+        return new JpaBatch<>(em);
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.query.providers.jpa.layers;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+
+/**
+ * Configures Hibernate JDBC batching for {@link javax.persistence.EntityManager}
+ * session, this class is loaded only if Hibernate is available
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+abstract class HibernateBatch {
+
+    /**
+     * Sets JDBC batch size to Hibernate session of passed
+     * {@link javax.persistence.EntityManager}
+     * 
+     * @param em
+     * @param batchSize
+     * @return {@link Integer} previous batch size of session
+     */
+    static Integer setBatchSize(EntityManager em, Integer batchSize) {
+
+        Integer previous;
+
+        Session session = em.unwrap(Session.class);
+        previous = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+
+        return previous;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.query.providers.jpa.layers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.persistence.Query;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.query.QueryProducer;
+import org.lightmare.criteria.utils.CollectionUtils;
+import org.lightmare.criteria.utils.ObjectUtils;
+
+/**
+ * Reads JPA query results through Hibernate
+ * {@link org.hibernate.ScrollableResults} forward only cursor, this class is
+ * loaded only if Hibernate is available
+ * 
+ * @author Levan Tsinadze
+ *
+ */
+abstract class HibernateResults {
+
+    // Rows read between evictions of streamed entities from session
+    private static final int DEFAULT_EVICT_SIZE = 100;
+
+    /**
+     * Implementation of {@link java.util.Spliterator} on
+     * {@link org.hibernate.ScrollableResults} which closes cursor after last
+     * row and evicts already streamed entities from session every N rows so
+     * long scrolls do not fill persistence context, entities which were
+     * managed before scrolling started are never evicted
+     * 
+     * @author Levan Tsinadze
+     *
+     * @param <T>
+     *            result type parameter
+     */
+    private static class ScrollableSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final ScrollableResults results;
+
+        private final SessionImplementor session;
+
+        private final int evictSize;
+
+        // Entities managed by session before scrolling
+        private final Set<Object> managed;
+
+        // Rows streamed since last eviction
+        private final List<Object[]> rows;
+
+        private boolean closed;
+
+        ScrollableSpliterator(final ScrollableResults results, final SessionImplementor session, int evictSize,
+                final Set<Object> managed) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.results = results;
+            this.session = session;
+            this.evictSize = evictSize;
+            this.managed = managed;
+            this.rows = new ArrayList<>(evictSize);
+        }
+
+        /**
+         * Evicts passed value from session if it is entity loaded by this
+         * scroll
+         * 
+         * @param value
+         */
+        private void evict(Object value) {
+
+            if (Objects.nonNull(value) && Boolean.FALSE.equals(managed.contains(value))
+                    && Objects.nonNull(session.getPersistenceContext().getEntry(value))) {
+                session.evict(value);
+            }
+        }
+
+        /**
+         * Evicts entities of already streamed rows from session every
+         * configured count of rows
+         * 
+         * @param row
+         */
+        private void evict(Object[] row) {
+
+            if (Objects.nonNull(session)) {
+                rows.add(row);
+                if (rows.size() >= evictSize) {
+                    rows.forEach(columns -> Stream.of(columns).forEach(this::evict));
+                    rows.clear();
+                }
+            }
+        }
+
+        /**
+         * Gets value of current row, single column rows are unwrapped
+         * 
+         * @return T row value
+         */
+        private T getValue() {
+
+            T value;
+
+            Object[] row = results.get();
+            if (row.length == CollectionUtils.SINGLETON) {
+                value = ObjectUtils.cast(row[CollectionUtils.FIRST]);
+            } else {
+                value = ObjectUtils.cast(row);
+            }
+            evict(row);
+
+            return value;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+
+            boolean valid = (!closed && results.next());
+
+            if (valid) {
+                action.accept(getValue());
+            } else {
+                close();
+            }
+
+            return valid;
+        }
+
+        void close() {
+
+            if (!closed) {
+                closed = Boolean.TRUE;
+                results.close();
+            }
+        }
+    }
+
+    /**
+     * Gets stateful session of passed query to evict streamed entities or null
+     * 
+     * @param query
+     * @return {@link org.hibernate.engine.spi.SessionImplementor}
+     */
+    private static SessionImplementor getSession(org.hibernate.query.Query<?> query) {
+
+        SessionImplementor session;
+
+        QueryProducer producer = query.getProducer();
+        if (producer instanceof SessionImplementor) {
+            session = ObjectUtils.cast(producer);
+        } else {
+            session = null;
+        }
+
+        return session;
+    }
+
+    /**
+     * Gets entities managed by passed session before rows are read, these
+     * entities belong to caller and are not evicted
+     * 
+     * @param session
+     * @return {@link java.util.Set} of entity instances
+     */
+    private static Set<Object> getManaged(SessionImplementor session) {
+
+        Set<Object> managed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        if (Objects.nonNull(session)) {
+            Stream.of(session.getPersistenceContext().reentrantSafeEntityEntries()).map(Map.Entry::getKey)
+                    .forEach(managed::add);
+        }
+
+        return managed;
+    }
+
+    /**
+     * Opens forward only cursor for passed {@link javax.persistence.Query} and
+     * wraps it in {@link java.util.stream.Stream} which closes cursor on close
+     * 
+     * @param query
+     * @param fetchSize
+     * @return {@link java.util.stream.Stream} of results
+     */
+    static <T> Stream<T> stream(Query query, Integer fetchSize) {
+
+        Stream<T> stream;
+
+        org.hibernate.query.Query<?> hibernateQuery = query.unwrap(org.hibernate.query.Query.class);
+        ObjectUtils.nonNull(fetchSize, hibernateQuery::setFetchSize);
+        SessionImplementor session = getSession(hibernateQuery);
+        Set<Object> managed = getManaged(session);
+        ScrollableResults results = hibernateQuery.scroll(ScrollMode.FORWARD_ONLY);
+        int evictSize = Math.max(ObjectUtils.thisOrDefault(fetchSize, () -> DEFAULT_EVICT_SIZE),
+                CollectionUtils.SINGLETON);
+        ScrollableSpliterator<T> spliterator = new ScrollableSpliterator<>(results, session, evictSize, managed);
+        stream = StreamSupport.stream(spliterator, Boolean.FALSE).onClose(spliterator::close);
+
+        return stream;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.query.providers.jpa.layers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+
+import org.lightmare.criteria.utils.CollectionUtils;
+
+/**
+ * Persists, merges or removes many entities through
+ * {@link javax.persistence.EntityManager} by batches, persistence context is
+ * flushed and cleared after each batch and Hibernate JDBC batching is enabled
+ * for session if available
+ * 
+ * @author Levan Tsinadze
+ *
+ * @param <T>
+ *            entity type parameter
+ */
+public class JpaBatch<T> {
+
+    private final EntityManager em;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    // Default number of entities flushed by single batch
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    // Hibernate session type to set JDBC batch size
+    private static final String HIBERNATE_SESSION = "org.hibernate.Session";
+
+    private static final boolean HIBERNATE = isHibernate();
+
+    public JpaBatch(final EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * Checks if Hibernate is available to configure JDBC batching
+     * 
+     * @return <code>boolean</code> validation result
+     */
+    private static boolean isHibernate() {
+
+        boolean valid;
+
+        try {
+            Class.forName(HIBERNATE_SESSION, Boolean.FALSE, JpaBatch.class.getClassLoader());
+            valid = Boolean.TRUE;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            valid = Boolean.FALSE;
+        }
+
+        return valid;
+    }
+
+    /**
+     * Sets number of entities flushed to database by single batch
+     * 
+     * @param batchSize
+     * @return current instance
+     */
+    public JpaBatch<T> setBatchSize(int batchSize) {
+
+        if (batchSize < CollectionUtils.SINGLETON) {
+            throw new IllegalArgumentException(String.valueOf(batchSize));
+        }
+        this.batchSize = batchSize;
+
+        return this;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets JDBC batch size to Hibernate session if entity manager is created
+     * by Hibernate
+     * 
+     * @param size
+     * @return {@link Integer} previous batch size
+     */
+    private Integer configure(Integer size) {
+
+        Integer previous;
+
+        try {
+            previous = HibernateBatch.setBatchSize(em, size);
+        } catch (PersistenceException ex) {
+            previous = null;
+        }
+
+        return previous;
+    }
+
+    /**
+     * Flushes and clears persistence context and adds number of flushed
+     * entities to results
+     * 
+     * @param size
+     * @param results
+     */
+    private void flush(int size, List<Integer> results) {
+        em.flush();
+        em.clear();
+        results.add(size);
+    }
+
+    /**
+     * Performs action for each entity and flushes persistence context for
+     * each batch size entities
+     * 
+     * @param entities
+     * @param action
+     * @return {@link java.util.List} of flushed entities counts by batches
+     */
+    private List<Integer> execute(Iterable<? extends T> entities, Consumer<T> action) {
+
+        List<Integer> results = new ArrayList<>();
+
+        int size = CollectionUtils.EMPTY;
+        for (T entity : entities) {
+            action.accept(entity);
+            if (++size == batchSize) {
+                flush(size, results);
+                size = CollectionUtils.EMPTY;
+            }
+        }
+        if (size > CollectionUtils.EMPTY) {
+            flush(size, results);
+        }
+
+        return results;
+    }
+
+    /**
+     * Executes batches with Hibernate JDBC batch size set for session and
+     * restores previous batch size after execution
+     * 
+     * @param entities
+     * @param action
+     * @return <code>int[]</code> flushed entities counts by batches
+     */
+    private int[] run(Iterable<? extends T> entities, Consumer<T> action) {
+
+        List<Integer> results;
+
+        if (HIBERNATE) {
+            Integer previous = configure(batchSize);
+            try {
+                results = execute(entities, action);
+            } finally {
+                configure(previous);
+            }
+        } else {
+            results = execute(entities, action);
+        }
+
+        return results.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Persists passed entities by batches
+     * 
+     * @param entities
+     * @return <code>int[]</code> flushed entities counts by batches
+     */
+    public int[] persist(Iterable<? extends T> entities) {
+        return run(entities, em::persist);
+    }
+
+    /**
+     * Merges passed entities by batches
+     * 
+     * @param entities
+     * @return <code>int[]</code> flushed entities counts by batches
+     */
+    public int[] merge(Iterable<? extends T> entities) {
+        return run(entities, em::merge);
+    }
+
+    /**
+     * Removes passed entities by batches, detached entities are merged
+     * before removal
+     * 
+     * @param entities
+     * @return <code>int[]</code> flushed entities counts by batches
+     */
+    public int[] remove(Iterable<? extends T> entities) {
+        return run(entities, c -> {
+            if (em.contains(c)) {
+                em.remove(c);
+            } else {
+                em.remove(em.merge(c));
+            }
+        });
+    }
+}
@@ -29,6 +29,7 @@ import javax.persistence.TemporalType;
 
 import org.lightmare.criteria.query.layers.QueryLayer;
 import org.lightmare.criteria.tuples.ParameterTuple;
+import org.lightmare.criteria.utils.CollectionUtils;
 
 /**
  * Query lauer for JPA / JDBC queries
@@ -88,4 +89,36 @@ public interface JpaJdbcQueryLayer<T> extends QueryLayer<T> {
      * @return <code>int</code> upper limit for results
      */
     int getMaxResults();
+
+    /**
+     * Sets number of rows fetched from database by single round trip while
+     * results are read through {@link java.util.stream.Stream}
+     * 
+     * @param fetchSize
+     */
+    void setFetchSize(int fetchSize);
+
+    /**
+     * Gets number of rows fetched from database by single round trip
+     * 
+     * @return <code>int</code> fetch size
+     */
+    int getFetchSize();
+
+    /**
+     * Gets first or default value from query results with limit of single row
+     * pushed to database
+     * 
+     * @param defaultValue
+     * @return T first or default value
+     */
+    @Override
+    default T firstOrDefault(T defaultValue) {
+
+        if (getMaxResults() > CollectionUtils.SINGLETON) {
+            setMaxResults(CollectionUtils.SINGLETON);
+        }
+
+        return QueryLayer.super.firstOrDefault(defaultValue);
+    }
 }
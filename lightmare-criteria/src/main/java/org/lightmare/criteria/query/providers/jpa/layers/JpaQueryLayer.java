@@ -26,15 +26,18 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
+import javax.persistence.PersistenceException;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
 import javax.persistence.TypedQuery;
 
 import org.lightmare.criteria.tuples.ParameterTuple;
+import org.lightmare.criteria.utils.CollectionUtils;
 import org.lightmare.criteria.utils.ObjectUtils;
 
 /**
@@ -49,6 +52,13 @@ public class JpaQueryLayer<T> implements JpaJdbcQueryLayer<T>, JpaLayer {
 
     private final Query query;
 
+    private Integer fetchSize;
+
+    // Hibernate query type to read results by cursor
+    private static final String HIBERNATE_QUERY = "org.hibernate.query.Query";
+
+    private static final boolean SCROLLABLE = isScrollable();
+
     public JpaQueryLayer(final EntityManager em, String sql, Class<T> type) {
         query = em.createQuery(sql, type);
     }
@@ -68,6 +78,58 @@ public class JpaQueryLayer<T> implements JpaJdbcQueryLayer<T>, JpaLayer {
         return resuts;
     }
 
+    /**
+     * Checks if Hibernate is available to read results by cursor
+     * 
+     * @return <code>boolean</code> validation result
+     */
+    private static boolean isScrollable() {
+
+        boolean valid;
+
+        try {
+            Class.forName(HIBERNATE_QUERY, Boolean.FALSE, JpaQueryLayer.class.getClassLoader());
+            valid = Boolean.TRUE;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            valid = Boolean.FALSE;
+        }
+
+        return valid;
+    }
+
+    /**
+     * Reads results through Hibernate cursor or falls back to result list if
+     * query is not created by Hibernate
+     * 
+     * @return {@link java.util.stream.Stream} of results
+     */
+    private Stream<T> scroll() {
+
+        Stream<T> results;
+
+        try {
+            results = HibernateResults.stream(query, fetchSize);
+        } catch (PersistenceException ex) {
+            results = toList().stream();
+        }
+
+        return results;
+    }
+
+    @Override
+    public Stream<T> toStream() {
+
+        Stream<T> results;
+
+        if (SCROLLABLE) {
+            results = scroll();
+        } else {
+            results = toList().stream();
+        }
+
+        return results;
+    }
+
     @Override
     public T get() {
 
@@ -139,6 +201,16 @@ public class JpaQueryLayer<T> implements JpaJdbcQueryLayer<T>, JpaLayer {
         return query.getMaxResults();
     }
 
+    @Override
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public int getFetchSize() {
+        return ObjectUtils.thisOrDefault(fetchSize, () -> CollectionUtils.EMPTY);
+    }
+
     @Override
     public void setFirstResult(int startPosition) {
         query.setFirstResult(startPosition);
@@ -28,14 +28,23 @@ import java.util.Collection;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.lightmare.criteria.functions.EntityField;
 import org.lightmare.criteria.query.QueryResolver;
 import org.lightmare.criteria.query.layers.LayerProvider;
+import org.lightmare.criteria.query.orm.links.Parts;
+import org.lightmare.criteria.query.providers.mongo.layers.MongoQueryLayer;
+import org.lightmare.criteria.tuples.QueryTuple;
+import org.lightmare.criteria.utils.CollectionUtils;
+import org.lightmare.criteria.utils.ObjectUtils;
 import org.lightmare.criteria.utils.StringUtils;
 
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
 
 /**
  * Builder of MongoDB queries
@@ -47,19 +56,91 @@ import com.mongodb.client.model.Filters;
  */
 public class MongoEntityStream<T> implements MongoStream<T>, QueryResolver<T> {
 
-    private final LayerProvider provider;
+    private final MongoProvider<?> provider;
 
     private Class<T> entityType;
 
+    private final Operation operation;
+
     private final List<Bson> ands = new ArrayList<>();
 
     private final List<Bson> ors = new ArrayList<>();
 
     private List<Bson> current = ands;
 
-    public MongoEntityStream(final LayerProvider provider, Class<T> entityType) {
+    // Included fields of projection
+    private final List<String> projection = new ArrayList<>();
+
+    private final List<Bson> updates = new ArrayList<>();
+
+    private Integer batchSize;
+
+    // Single character wildcard of LIKE expression
+    private static final char LIKE_CHAR = '_';
+
+    private static final String ANY_CHARS = ".*";
+
+    private static final char ANY_CHAR = '.';
+
+    private static final char BEGIN = '^';
+
+    private static final char END = '$';
+
+    /**
+     * Statement type of stream
+     * 
+     * @author Levan Tsinadze
+     *
+     */
+    private static enum Operation {
+
+        SELECT, UPDATE, DELETE;
+    }
+
+    private MongoEntityStream(final MongoProvider<?> provider, Class<T> entityType, final Operation operation) {
         this.provider = provider;
         this.entityType = entityType;
+        this.operation = operation;
+    }
+
+    public MongoEntityStream(final MongoProvider<?> provider, Class<T> entityType) {
+        this(provider, entityType, Operation.SELECT);
+    }
+
+    /**
+     * Initializes stream for SELECT statements
+     * 
+     * @param provider
+     * @param entityType
+     * @return {@link org.lightmare.criteria.query.providers.mongo.MongoStream}
+     *         with select statement
+     */
+    public static <T> MongoStream<T> select(final MongoProvider<?> provider, Class<T> entityType) {
+        return new MongoEntityStream<>(provider, entityType, Operation.SELECT);
+    }
+
+    /**
+     * Initializes stream for UPDATE statements
+     * 
+     * @param provider
+     * @param entityType
+     * @return {@link org.lightmare.criteria.query.providers.mongo.MongoStream}
+     *         with update statement
+     */
+    public static <T> MongoStream<T> update(final MongoProvider<?> provider, Class<T> entityType) {
+        return new MongoEntityStream<>(provider, entityType, Operation.UPDATE);
+    }
+
+    /**
+     * Initializes stream for DELETE statements
+     * 
+     * @param provider
+     * @param entityType
+     * @return {@link org.lightmare.criteria.query.providers.mongo.MongoStream}
+     *         with delete statement
+     */
+    public static <T> MongoStream<T> delete(final MongoProvider<?> provider, Class<T> entityType) {
+        return new MongoEntityStream<>(provider, entityType, Operation.DELETE);
     }
 
     private void addCondition(Bson condition) {
@@ -82,6 +163,57 @@ public class MongoEntityStream<T> implements MongoStream<T>, QueryResolver<T> {
         return StringUtils.EMPTY;
     }
 
+    /**
+     * Gets document key of resolved field
+     * 
+     * @param tuple
+     * @return {@link String} document key
+     */
+    private String getName(QueryTuple tuple) {
+        return provider.getColumnName(tuple);
+    }
+
+    /**
+     * Appends quoted literal part of LIKE expression to regular expression
+     * and clears it
+     * 
+     * @param regex
+     * @param literal
+     */
+    private static void appendLiteral(StringBuilder regex, StringBuilder literal) {
+
+        if (literal.length() > CollectionUtils.EMPTY) {
+            regex.append(Pattern.quote(literal.toString()));
+            literal.setLength(CollectionUtils.EMPTY);
+        }
+    }
+
+    /**
+     * Converts LIKE expression to anchored regular expression, '%' matches any
+     * characters and '_' matches single character
+     * 
+     * @param value
+     * @return {@link java.util.regex.Pattern} for LIKE expression
+     */
+    private static Pattern toPattern(String value) {
+
+        StringBuilder regex = new StringBuilder();
+        regex.append(BEGIN);
+        StringBuilder literal = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            if (c == Parts.LIKE_SIGN || c == LIKE_CHAR) {
+                appendLiteral(regex, literal);
+                regex.append(c == LIKE_CHAR ? String.valueOf(ANY_CHAR) : ANY_CHARS);
+            } else {
+                literal.append(c);
+            }
+        }
+        appendLiteral(regex, literal);
+        regex.append(END);
+
+        return Pattern.compile(regex.toString());
+    }
+
     /**
      * Applies binary expressions
      * 
@@ -93,7 +225,7 @@ public class MongoEntityStream<T> implements MongoStream<T>, QueryResolver<T> {
      */
     private <V> MongoStream<T> apply(Serializable field, V value, BiFunction<String, V, Bson> function) {
 
-        Bson condition = resolveAndApply(field, value, (t, v) -> function.apply(t.getFieldName(), v));
+        Bson condition = resolveAndApply(field, value, (t, v) -> function.apply(getName(t), v));
         addCondition(condition);
 
         return this;
@@ -109,7 +241,7 @@ public class MongoEntityStream<T> implements MongoStream<T>, QueryResolver<T> {
      */
     private <V> MongoStream<T> apply(Serializable field, Function<String, Bson> function) {
 
-        Bson condition = resolveAndApply(field, t -> function.apply(t.getFieldName()));
+        Bson condition = resolveAndApply(field, t -> function.apply(getName(t)));
         addCondition(condition);
 
         return this;
@@ -151,12 +283,12 @@ public class MongoEntityStream<T> implements MongoStream<T>, QueryResolver<T> {
 
     @Override
     public MongoStream<T> like(EntityField<T, String> field, String value) {
-        return this;
+        return apply(field, toPattern(value), Filters::regex);
     }
 
     @Override
     public MongoStream<T> notLike(EntityField<T, String> field, String value) {
-        return this;
+        return apply(field, toPattern(value), (n, v) -> Filters.not(Filters.regex(n, v)));
     }
 
     @Override
@@ -191,18 +323,107 @@ public class MongoEntityStream<T> implements MongoStream<T>, QueryResolver<T> {
         return this;
     }
 
+    @Override
+    public <F> MongoStream<T> include(EntityField<T, F> field) {
+        resolveAndAccept(field, t -> projection.add(getName(t)));
+        return this;
+    }
+
+    @Override
+    public <F> MongoStream<T> set(EntityField<T, F> field, F value) {
+        resolveAndAccept(field, t -> updates.add(Updates.set(getName(t), value)));
+        return this;
+    }
+
+    @Override
+    public MongoStream<T> setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Combines collected conditions to filter, conditions added after "or"
+     * are alternatives to conjunction of other conditions
+     * 
+     * @return {@link org.bson.conversions.Bson} filter
+     */
+    private Bson getFilter() {
+
+        Bson filter;
+
+        Bson and;
+        if (ands.isEmpty()) {
+            and = new Document();
+        } else if (ands.size() == CollectionUtils.SINGLETON) {
+            and = CollectionUtils.getFirst(ands);
+        } else {
+            and = Filters.and(ands);
+        }
+
+        if (ors.isEmpty()) {
+            filter = and;
+        } else {
+            List<Bson> alternatives = new ArrayList<>();
+            ObjectUtils.valid(ands, CollectionUtils::valid, c -> alternatives.add(and));
+            alternatives.addAll(ors);
+            filter = Filters.or(alternatives);
+        }
+
+        return filter;
+    }
+
+    /**
+     * Initializes query layer with filter, projection, updates and batch size
+     * 
+     * @return {@link org.lightmare.criteria.query.providers.mongo.layers.MongoQueryLayer}
+     *         for query
+     * @throws IllegalStateException
+     *             if UPDATE statement has no field to set
+     */
+    private MongoQueryLayer<T> getLayer() {
+
+        if (operation == Operation.UPDATE && updates.isEmpty()) {
+            throw new IllegalStateException("UPDATE statement has no fields to set");
+        }
+
+        MongoQueryLayer<T> layer = provider.layer(entityType, getFilter());
+
+        layer.setProjection(projection);
+        ObjectUtils.nonNull(batchSize, layer::setBatchSize);
+        if (operation == Operation.UPDATE) {
+            layer.setUpdate(Updates.combine(updates));
+        }
+
+        return layer;
+    }
+
+    @Override
+    public Stream<T> toStream() {
+        return getLayer().toStream();
+    }
+
     @Override
     public List<T> toList() {
-        return null;
+        return getLayer().toList();
     }
 
     @Override
     public T get() {
-        return null;
+        return getLayer().get();
+    }
+
+    @Override
+    public T firstOrDefault(T defaultValue) {
+        return ObjectUtils.thisOrDefault(getLayer().get(), () -> defaultValue);
     }
 
     @Override
     public int execute() {
-        return 0;
+
+        if (operation == Operation.SELECT) {
+            throw new IllegalStateException("Only UPDATE and DELETE statements can be executed");
+        }
+
+        return getLayer().execute();
     }
 }
@@ -58,15 +58,33 @@ public class MongoProvider<T> implements LayerProvider {
         return db;
     }
 
+    /**
+     * Initializes {@link org.lightmare.criteria.query.providers.mongo.layers.MongoQueryLayer}
+     * on collection of entity type with filter
+     * 
+     * @param type
+     * @param filter
+     * @return {@link org.lightmare.criteria.query.providers.mongo.layers.MongoQueryLayer}
+     *         for entity type
+     */
+    public <Q> MongoQueryLayer<Q> layer(Class<Q> type, Bson filter) {
+
+        MongoQueryLayer<Q> query;
+
+        String collectionName = getTableName(type);
+        MongoCollection<Document> collection = db.getCollection(collectionName);
+        query = new MongoQueryLayer<>(collection, filter, type);
+
+        return query;
+    }
+
     @Override
     public <Q> QueryLayer<Q> query(Class<Q> type, Object... params) {
 
         QueryLayer<Q> query;
 
-        String collectionName = getTableName(type);
-        MongoCollection<Document> collection = db.getCollection(collectionName);
         Bson filter = CollectionUtils.getFirstType(params);
-        query = new MongoQueryLayer<>(collection, filter, type);
+        query = layer(type, filter);
 
         return query;
     }
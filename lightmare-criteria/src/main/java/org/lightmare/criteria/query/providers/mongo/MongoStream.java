@@ -22,6 +22,7 @@
  */
 package org.lightmare.criteria.query.providers.mongo;
 
+import org.lightmare.criteria.functions.EntityField;
 import org.lightmare.criteria.query.LambdaStream;
 
 /**
@@ -35,6 +36,35 @@ import org.lightmare.criteria.query.LambdaStream;
  */
 public interface MongoStream<T> extends LambdaStream<T, MongoStream<T>> {
 
+    /**
+     * Adds field to projection of query, only included fields are read from
+     * documents, all entity fields are read if none is included
+     * 
+     * @param field
+     * @return {@link org.lightmare.criteria.query.providers.mongo.MongoStream}
+     *         current instance
+     */
+    <F> MongoStream<T> include(EntityField<T, F> field);
+
+    /**
+     * Sets field value for UPDATE statement
+     * 
+     * @param field
+     * @param value
+     * @return {@link org.lightmare.criteria.query.providers.mongo.MongoStream}
+     *         current instance
+     */
+    <F> MongoStream<T> set(EntityField<T, F> field, F value);
+
+    /**
+     * Sets number of documents read from server by single round trip
+     * 
+     * @param batchSize
+     * @return {@link org.lightmare.criteria.query.providers.mongo.MongoStream}
+     *         current instance
+     */
+    MongoStream<T> setBatchSize(int batchSize);
+
     @Override
     default MongoStream<T> stream() {
         return this;
@@ -43,7 +43,7 @@ public class MongoStreamProvider {
      *         delete statement
      */
     public static <T> MongoStream<T> delete(final MongoDatabase db, Class<T> entityType) {
-        return QueryProvider.delete(new MongoProvider<>(db, entityType), entityType, MongoEntityStream<T>::new);
+        return QueryProvider.delete(new MongoProvider<>(db, entityType), entityType, MongoEntityStream::delete);
     }
 
     /**
@@ -55,7 +55,7 @@ public class MongoStreamProvider {
      *         update statement
      */
     public static <T> MongoStream<T> update(final MongoDatabase db, Class<T> entityType) {
-        return QueryProvider.update(new MongoProvider<>(db, entityType), entityType, MongoEntityStream<T>::new);
+        return QueryProvider.update(new MongoProvider<>(db, entityType), entityType, MongoEntityStream::update);
     }
 
     /**
@@ -67,6 +67,6 @@ public class MongoStreamProvider {
      *         select statement
      */
     public static <T> MongoStream<T> select(final MongoDatabase db, Class<T> entityType) {
-        return QueryProvider.select(new MongoProvider<>(db, entityType), entityType, MongoEntityStream<T>::new);
+        return QueryProvider.select(new MongoProvider<>(db, entityType), entityType, MongoEntityStream::select);
     }
 }
@@ -0,0 +1,154 @@
+/*
+ * Lightmare-criteria, JPA-QL query generator using lambda expressions
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.criteria.query.providers.mongo.layers;
+
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.lightmare.criteria.query.providers.mongo.layers.MongoRetriever.FieldType;
+import org.lightmare.criteria.utils.ClassUtils;
+import org.lightmare.criteria.utils.ObjectUtils;
+
+/**
+ * Implementation of {@link org.bson.codecs.Codec} which reads entity fields
+ * directly from BSON without intermediate {@link org.bson.Document}, field
+ * values are converted by codecs from registry
+ * 
+ * @author Levan Tsinadze
+ *
+ * @param <T>
+ *            entity type parameter
+ */
+public class EntityCodec<T> implements Codec<T> {
+
+    private final Class<T> type;
+
+    private final CodecRegistry registry;
+
+    private final List<FieldType> columns;
+
+    // Fields by document keys
+    private final Map<String, FieldType> fields = new HashMap<>();
+
+    public EntityCodec(final Class<T> type, final CodecRegistry registry) {
+        this.type = type;
+        this.registry = registry;
+        this.columns = MongoRetriever.getColumns(type);
+        this.columns.forEach(c -> {
+            c.field.setAccessible(Boolean.TRUE);
+            fields.put(c.name, c);
+        });
+    }
+
+    /**
+     * Initializes {@link org.bson.codecs.configuration.CodecRegistry} with
+     * entity codec for passed type before codecs of passed registry
+     * 
+     * @param type
+     * @param registry
+     * @return {@link org.bson.codecs.configuration.CodecRegistry} for entity
+     *         type
+     */
+    public static <T> CodecRegistry register(Class<T> type, CodecRegistry registry) {
+        return CodecRegistries.fromRegistries(CodecRegistries.fromCodecs(new EntityCodec<>(type, registry)),
+                registry);
+    }
+
+    /**
+     * Gets codec from registry for field type, primitive types are wrapped
+     * 
+     * @param field
+     * @return {@link org.bson.codecs.Codec} for field
+     */
+    private Codec<Object> getCodec(FieldType field) {
+        Class<?> wrapper = MethodType.methodType(field.type).wrap().returnType();
+        return ObjectUtils.cast(registry.get(wrapper));
+    }
+
+    /**
+     * Reads current value from {@link org.bson.BsonReader} and sets it to
+     * entity field, <code>null</code> values leave field unchanged
+     * 
+     * @param reader
+     * @param context
+     * @param field
+     * @param entity
+     */
+    private void read(BsonReader reader, DecoderContext context, FieldType field, T entity) {
+
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+        } else {
+            Object value = context.decodeWithChildContext(getCodec(field), reader);
+            ClassUtils.set(field.field, entity, value);
+        }
+    }
+
+    @Override
+    public T decode(BsonReader reader, DecoderContext context) {
+
+        T entity = ClassUtils.newInstance(type);
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            FieldType field = fields.get(reader.readName());
+            if (field == null) {
+                reader.skipValue();
+            } else {
+                read(reader, context, field, entity);
+            }
+        }
+        reader.readEndDocument();
+
+        return entity;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, T entity, EncoderContext context) {
+
+        writer.writeStartDocument();
+        for (FieldType field : columns) {
+            Object value = ClassUtils.get(field.field, entity);
+            if (value != null) {
+                writer.writeName(field.name);
+                context.encodeWithChildContext(getCodec(field), writer, value);
+            }
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<T> getEncoderClass() {
+        return type;
+    }
+}
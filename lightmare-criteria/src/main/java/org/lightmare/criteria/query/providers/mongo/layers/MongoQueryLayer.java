@@ -23,21 +23,27 @@
 package org.lightmare.criteria.query.providers.mongo.layers;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.lightmare.criteria.query.layers.QueryLayer;
-import org.lightmare.criteria.query.providers.mongo.layers.MongoRetriever.FieldType;
-import org.lightmare.criteria.utils.ClassUtils;
 import org.lightmare.criteria.utils.CollectionUtils;
 import org.lightmare.criteria.utils.ObjectUtils;
 
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Projections;
 
 /**
- * Layer for MongoDB query
+ * Layer for MongoDB query, entities are decoded from BSON by
+ * {@link org.lightmare.criteria.query.providers.mongo.layers.EntityCodec} and
+ * read lazily through cursor
  * 
  * @author Levan Tsinadze
  *
@@ -52,54 +58,131 @@ public class MongoQueryLayer<T> implements QueryLayer<T> {
 
     private final Class<T> type;
 
+    // Included fields or null for all entity fields
+    private List<String> projection;
+
+    // Update document or null for DELETE
+    private Bson update;
+
+    private Integer batchSize;
+
+    private static final String ID = "_id";
+
     public MongoQueryLayer(final MongoCollection<Document> collection, final Bson filter, final Class<T> type) {
         this.collection = collection;
         this.filter = filter;
         this.type = type;
     }
 
-    private T resolve(Document document) {
-
-        T value = ClassUtils.newInstance(type);
+    public MongoCollection<Document> getCollection() {
+        return collection;
+    }
 
-        List<FieldType> types = MongoRetriever.getColumns(type);
-        types.forEach(c -> c.set(document, value));
+    /**
+     * Sets names of fields to read from documents
+     * 
+     * @param projection
+     */
+    public void setProjection(List<String> projection) {
+        this.projection = projection;
+    }
 
-        return value;
+    /**
+     * Sets update document for UPDATE statements
+     * 
+     * @param update
+     */
+    public void setUpdate(Bson update) {
+        this.update = update;
     }
 
-    public void add(Document document, List<T> results) {
-        T result = resolve(document);
-        ObjectUtils.nonNull(result, results::add);
+    /**
+     * Sets number of documents read from server by single round trip
+     * 
+     * @param batchSize
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
     }
 
-    public MongoCollection<Document> getCollection() {
-        return collection;
+    /**
+     * Gets projection of selected fields or all entity fields if none were
+     * selected, document identifier is excluded if it is not included
+     * 
+     * @return {@link org.bson.conversions.Bson} projection
+     */
+    private Bson getProjection() {
+
+        Bson fields;
+
+        List<String> names;
+        if (CollectionUtils.isEmpty(projection)) {
+            names = new ArrayList<>();
+            MongoRetriever.getColumns(type).forEach(c -> names.add(c.name));
+        } else {
+            names = projection;
+        }
+
+        if (names.contains(ID)) {
+            fields = Projections.include(names);
+        } else {
+            fields = Projections.fields(Projections.include(names), Projections.excludeId());
+        }
+
+        return fields;
     }
 
-    @Override
-    public List<T> toList() {
+    /**
+     * Initializes find query decoding entities by
+     * {@link org.lightmare.criteria.query.providers.mongo.layers.EntityCodec}
+     * 
+     * @return {@link com.mongodb.client.FindIterable} for entity type
+     */
+    private FindIterable<T> find() {
 
-        List<T> results = new ArrayList<>();
+        FindIterable<T> iterable;
 
-        Iterable<Document> items = collection.find(filter);
-        items.forEach(c -> add(c, results));
-        return Collections.emptyList();
+        MongoCollection<T> typed = collection.withDocumentClass(type)
+                .withCodecRegistry(EntityCodec.register(type, collection.getCodecRegistry()));
+        iterable = typed.find(filter).projection(getProjection());
+        ObjectUtils.nonNull(batchSize, iterable::batchSize);
+
+        return iterable;
     }
 
     @Override
-    public T get() {
+    public Stream<T> toStream() {
 
-        T result;
+        Stream<T> results;
 
-        Document document = collection.find(filter).first();
-        result = resolve(document);
+        MongoCursor<T> cursor = find().iterator();
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED);
+        results = StreamSupport.stream(spliterator, Boolean.FALSE).onClose(cursor::close);
 
-        return result;
+        return results;
+    }
+
+    @Override
+    public List<T> toList() {
+        return find().into(new ArrayList<>());
+    }
+
+    @Override
+    public T get() {
+        return find().first();
     }
 
     @Override
     public int execute() {
-        return CollectionUtils.EMPTY;
+
+        long count;
+
+        if (update == null) {
+            count = collection.deleteMany(filter).getDeletedCount();
+        } else {
+            count = collection.updateMany(filter, update).getModifiedCount();
+        }
+
+        return Math.toIntExact(count);
     }
 }
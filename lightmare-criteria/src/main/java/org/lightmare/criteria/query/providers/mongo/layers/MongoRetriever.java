@@ -23,6 +23,7 @@
 package org.lightmare.criteria.query.providers.mongo.layers;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
@@ -68,8 +69,12 @@ public class MongoRetriever {
         }
     }
 
+    private static boolean isPersistent(Field field) {
+        return (ClassUtils.notAnnotated(field, DBTransient.class) && !Modifier.isStatic(field.getModifiers()));
+    }
+
     private static FieldType getColumnName(Field field) {
-        return ObjectUtils.ifIsValid(field, c -> ClassUtils.notAnnotated(c, DBTransient.class), FieldType::new);
+        return ObjectUtils.ifIsValid(field, MongoRetriever::isPersistent, FieldType::new);
     }
 
     private static List<FieldType> getColumns(Field[] fields) {
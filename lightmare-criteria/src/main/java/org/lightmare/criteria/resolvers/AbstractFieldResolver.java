@@ -150,6 +150,27 @@ class AbstractFieldResolver {
         return tuple;
     }
 
+    /**
+     * Resolves {@link org.lightmare.criteria.tuples.QueryTuple} by already
+     * known field name (from generated index)
+     * 
+     * @param owner
+     * @param methodName
+     * @param fieldName
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} for indexed
+     *         field
+     */
+    protected static QueryTuple resolveIndexed(String owner, String methodName, String fieldName) {
+
+        QueryTuple tuple;
+
+        String entityName = resolveEntityName(owner);
+        tuple = QueryTuple.of(entityName, methodName, fieldName);
+        setMetaData(tuple);
+
+        return tuple;
+    }
+
     /**
      * Resolves field name from method descriptor, method name and owner
      * instance
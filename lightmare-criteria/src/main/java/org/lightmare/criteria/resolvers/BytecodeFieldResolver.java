@@ -1,10 +1,16 @@
 package org.lightmare.criteria.resolvers;
 
-import org.lightmare.criteria.tuples.QueryTuple;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.lightmare.criteria.cache.MethodCache;
 import org.lightmare.criteria.tuples.ResolverTuple;
+import org.lightmare.criteria.utils.ClassUtils;
 import org.lightmare.criteria.utils.CollectionUtils;
 import org.lightmare.criteria.utils.ObjectUtils;
 import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.InsnList;
 import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
@@ -20,100 +26,90 @@ import org.objectweb.asm.tree.MethodNode;
 abstract class BytecodeFieldResolver extends AbstractFieldResolver {
 
     /**
-     * Resolves field name from instruction instance
+     * Validates if passed {@link org.objectweb.asm.tree.AbstractInsnNode} is
+     * {@link org.objectweb.asm.tree.MethodInsnNode} instance of entity getter
+     * call
      * 
-     * @param node
-     * @return {@link org.lightmare.criteria.tuples.QueryTuple} for resolved
-     *         field and query part
+     * @param instruction
+     * @return <code>boolean</code> validation result
      */
-    private static QueryTuple resolveFromInstruction(MethodInsnNode node) {
+    private static boolean isGetterCall(AbstractInsnNode instruction) {
 
-        QueryTuple tuple;
+        boolean valid;
 
-        ResolverTuple<String> resolverTyple = ResolverTuple.of(node.desc, node.name, node.owner);
-        tuple = resolveFromTuple(resolverTyple, AbstractFieldResolver::resolveEntityName);
+        if (instruction instanceof MethodInsnNode) {
+            MethodInsnNode node = ObjectUtils.cast(instruction);
+            valid = ClassUtils.validGetter(node.desc, node.name);
+        } else {
+            valid = Boolean.FALSE;
+        }
 
-        return tuple;
+        return valid;
     }
 
     /**
-     * Resolves appropriated {@link org.lightmare.criteria.tuples.QueryTuple}
-     * from instructions
+     * Resolves first entity getter call from instructions
      * 
-     * @param instruction
-     * @return {@link org.lightmare.criteria.tuples.QueryTuple} from instruction
+     * @param instructions
+     * @return {@link org.lightmare.criteria.tuples.ResolverTuple} of getter
+     *         owner, name and descriptor
      */
-    private static QueryTuple resolveValidInsNode(AbstractInsnNode instruction) {
-
-        QueryTuple tuple;
+    private static ResolverTuple<String> resolveFromInstructions(InsnList instructions) {
 
-        MethodInsnNode node = ObjectUtils.cast(instruction);
-        tuple = resolveFromInstruction(node);
+        ResolverTuple<String> access = null;
 
-        return tuple;
-    }
-
-    /**
-     * Validates if passed {@link org.objectweb.asm.tree.AbstractInsnNode} is
-     * {@link org.objectweb.asm.tree.MethodInsnNode} instance
-     * 
-     * @param instruction
-     * @return <code>boolean</code> validation result
-     */
-    private static boolean isInstructionNode(AbstractInsnNode instruction) {
-        return (instruction instanceof MethodInsnNode);
-    }
+        int size = instructions.size();
+        AbstractInsnNode instruction;
+        for (int i = CollectionUtils.FIRST; (i < size && access == null); ++i) {
+            instruction = instructions.get(i);
+            if (isGetterCall(instruction)) {
+                MethodInsnNode node = ObjectUtils.cast(instruction);
+                access = ResolverTuple.of(node.desc, node.name, node.owner);
+            }
+        }
 
-    /**
-     * Validates if passed {@link org.objectweb.asm.tree.AbstractInsnNode} is
-     * instance of {@link org.objectweb.asm.tree.MethodInsnNode} then resolves
-     * appropriated {@link org.lightmare.criteria.tuples.QueryTuple} from it
-     * 
-     * @param instruction
-     * @return {@link org.lightmare.criteria.tuples.QueryTuple} from instruction
-     */
-    private static QueryTuple validateAndResolve(AbstractInsnNode instruction) {
-        return ObjectUtils.ifIsValid(instruction, BytecodeFieldResolver::isInstructionNode,
-                BytecodeFieldResolver::resolveValidInsNode);
+        return access;
     }
 
     /**
-     * Resolves appropriated instructions for field recognition
+     * Resolves entity getter accessed by passed method (method itself if it is
+     * getter or first getter call from instructions)
      * 
-     * @param instructions
-     * @return {@link org.lightmare.criteria.tuples.QueryTuple} for resolved
-     *         field and query part
+     * @param owner
+     * @param methodNode
+     * @return {@link org.lightmare.criteria.tuples.ResolverTuple} of getter
+     *         owner, name and descriptor
      */
-    private static QueryTuple resolveFromInstructions(InsnList instructions) {
+    private static ResolverTuple<String> resolveAccess(String owner, MethodNode methodNode) {
 
-        QueryTuple tuple = null;
+        ResolverTuple<String> access;
 
-        int size = instructions.size();
-        AbstractInsnNode instruction;
-        for (int i = CollectionUtils.FIRST; (i < size && tuple == null); ++i) {
-            instruction = instructions.get(i);
-            tuple = validateAndResolve(instruction);
+        if (ClassUtils.validGetter(methodNode.desc, methodNode.name)) {
+            access = ResolverTuple.of(methodNode.desc, methodNode.name, owner);
+        } else {
+            access = resolveFromInstructions(methodNode.instructions);
         }
 
-        return tuple;
+        return access;
     }
 
     /**
-     * Gets instructions from {@link org.objectweb.asm.tree.MethodNode} and
-     * resolves entity field
+     * Resolves accessed entity getters for each method of passed class, only
+     * these slim data (without instructions) is kept in cache
      * 
-     * @param methodNode
-     * @return {@link org.lightmare.criteria.tuples.QueryTuple} from
-     *         instructions
+     * @param classNode
+     * @return {@link java.util.Map} of method keys to
+     *         {@link org.lightmare.criteria.tuples.ResolverTuple}s of accessed
+     *         getters
      */
-    protected static QueryTuple getAndResolveFromIns(MethodNode methodNode) {
+    protected static Map<String, ResolverTuple<String>> resolveAccesses(ClassNode classNode) {
 
-        QueryTuple tuple;
+        Map<String, ResolverTuple<String>> accesses = new HashMap<>();
 
-        methodNode.visitCode();
-        InsnList instructions = methodNode.instructions;
-        tuple = resolveFromInstructions(instructions);
+        List<MethodNode> methods = ObjectUtils.cast(classNode.methods);
+        methods.forEach(c -> ObjectUtils.nonNull(resolveAccess(classNode.name, c),
+                access -> accesses.put(MethodCache.key(c.name, c.desc), access)));
 
-        return tuple;
+        return accesses;
     }
 }
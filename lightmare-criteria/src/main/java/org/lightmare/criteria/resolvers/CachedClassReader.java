@@ -24,25 +24,22 @@ package org.lightmare.criteria.resolvers;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import org.lightmare.criteria.utils.ClassLoaderUtils;
 import org.lightmare.criteria.utils.ObjectUtils;
 import org.objectweb.asm.ClassReader;
 
 /**
- * Extension of {@link org.objectweb.asm.ClassReader} to cache read classes for
- * multiply and parallel uses
+ * Extension of {@link org.objectweb.asm.ClassReader} to read classes for
+ * <b><i>bytecode</i></b> analysis, read class files are not retained, only
+ * resolved data is cached by {@link org.lightmare.criteria.cache.MethodCache}
+ * per {@link ClassLoader}
  * 
  * @author Levan Tsinadze
  * @see org.objectweb.asm.ClassReader
  */
 public class CachedClassReader extends ClassReader {
 
-    // Cache for class readers
-    private static final ConcurrentMap<String, ClassReader> CLASS_FILES = new ConcurrentHashMap<>();
-
     private CachedClassReader(InputStream is) throws IOException {
         super(is);
     }
@@ -66,28 +63,13 @@ public class CachedClassReader extends ClassReader {
     }
 
     /**
-     * Initializes and caches {@link org.objectweb.asm.ClassReader} by class
-     * name
+     * Reads {@link org.objectweb.asm.ClassReader} by class name from current
+     * {@link Thread}'s context class loader
      * 
      * @param name
      * @return {@link org.objectweb.asm.ClassReader} initialized by class name
      */
-    private static ClassReader initAndCache(String name) {
-
-        ClassReader classReader = ObjectUtils.applyQuietly(name, CachedClassReader::readResource);
-        CLASS_FILES.putIfAbsent(name, classReader);
-
-        return classReader;
-    }
-
-    /**
-     * Gets {@link org.objectweb.asm.ClassReader} from cache or initializes and
-     * caches
-     * 
-     * @param name
-     * @return {@link org.objectweb.asm.ClassReader} tretrieved from cache
-     */
     public static ClassReader get(String name) {
-        return ObjectUtils.callOrInit(name, CLASS_FILES::get, CachedClassReader::initAndCache);
+        return ObjectUtils.applyQuietly(name, CachedClassReader::readResource);
     }
 }
@@ -22,19 +22,16 @@
  */
 package org.lightmare.criteria.resolvers;
 
-import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import org.lightmare.criteria.cache.MethodCache;
 import org.lightmare.criteria.lambda.LambdaInfo;
+import org.lightmare.criteria.meta.FieldIndex;
 import org.lightmare.criteria.tuples.QueryTuple;
 import org.lightmare.criteria.tuples.ResolverTuple;
-import org.lightmare.criteria.utils.CollectionUtils;
 import org.lightmare.criteria.utils.ObjectUtils;
 import org.lightmare.criteria.utils.StringUtils;
-import org.objectweb.asm.Type;
-import org.objectweb.asm.tree.LocalVariableNode;
-import org.objectweb.asm.tree.MethodNode;
 
 /**
  * Resolver class to resolve field and entity name from lambda expression for
@@ -46,163 +43,86 @@ import org.objectweb.asm.tree.MethodNode;
  */
 public class FieldResolver extends DirectFieldResolver {
 
-    private static final String THIS_PT = "this";
-
     // Debug messages
     private static final String DEBUG_MESSAGE_BYT = "Resolved from bytecode";
 
+    private static final String DEBUG_MESSAGE_IND = "Resolved from index";
+
     // Error message
     private static final String UNRESOLVABLE_FIELD_ERROR = "Unresolvable field: ";
 
     /**
-     * Removes semicolons from entity name
-     * 
-     * @param variable
-     * @return {@link String} entity name
-     */
-    private static String clearEntityName(LocalVariableNode variable) {
-        return Type.getType(variable.desc).getClassName();
-    }
-
-    /**
-     * Validates if passed {@link org.objectweb.asm.LocalVariableNode} points to
-     * <code>this</code> object
-     * 
-     * @param variable
-     * @return <code>boolean</code> validation result
-     */
-    private static boolean pointsTo(LocalVariableNode variable) {
-        return THIS_PT.equals(variable.name);
-    }
-
-    /**
-     * Resolves entity name from local variable
-     * 
-     * @param variable
-     * @return {@link String} entity name
-     */
-    private static String resolveEntityName(LocalVariableNode variable) {
-        return ObjectUtils.ifIsValid(variable, FieldResolver::pointsTo, FieldResolver::clearEntityName);
-    }
-
-    /**
-     * Gets entity name from {@link org.objectweb.asm.tree.LocalVariableNode}
-     * retrieved as {@link java.util.List} first element
-     * 
-     * @param variables
-     * @return {@link String} entity name
-     */
-    private static String resolveEntityName(List<LocalVariableNode> variables) {
-
-        String entityName;
-
-        LocalVariableNode variable = CollectionUtils.getFirst(variables);
-        entityName = resolveEntityName(variable);
-
-        return entityName;
-    }
-
-    /**
-     * Gets entity name from {@link org.objectweb.asm.tree.MethodNode} as its
-     * first variable
-     * 
-     * @param node
-     * @return {@link String} entity name
-     */
-    private static String resolveEntityName(MethodNode node) {
-
-        String entityName;
-
-        List<LocalVariableNode> variables = ObjectUtils.cast(node.localVariables);
-        entityName = ObjectUtils.ifIsValid(variables, CollectionUtils::valid, FieldResolver::resolveEntityName);
-
-        return entityName;
-    }
-
-    /**
-     * Resolves field name from {@link org.objectweb.asm.tree.MethodNode}
-     * instance
+     * Resolved field name, getter method name and entity type from lambda
+     * argument by <b><i>bytecode</i></b> analysis
      * 
-     * @param node
+     * @param lambda
      * @return {@link org.lightmare.criteria.tuples.QueryTuple} for resolved
      *         field and query part
      */
-    private static QueryTuple resolveFromMethod(MethodNode node) {
+    private static QueryTuple resolveFromBytecode(LambdaInfo lambda) {
 
         QueryTuple tuple;
 
-        ResolverTuple<MethodNode> resolverTyple = ResolverTuple.of(node.desc, node.name, node);
-        tuple = resolveFromTuple(resolverTyple, FieldResolver::resolveEntityName);
+        Map<String, ResolverTuple<String>> accesses = MethodCache.getMethods(lambda,
+                BytecodeFieldResolver::resolveAccesses);
+        if (Objects.nonNull(accesses)) {
+            String key = MethodCache.key(lambda.getImplMethodName(), lambda.getImplMethodSignature());
+            ResolverTuple<String> access = accesses.get(key);
+            tuple = ObjectUtils.ifIsNotNull(access,
+                    c -> resolveFromTuple(c, AbstractFieldResolver::resolveEntityName));
+            debug(DEBUG_MESSAGE_BYT, tuple);
+        } else {
+            String error = StringUtils.concat(UNRESOLVABLE_FIELD_ERROR, lambda);
+            throw new RuntimeException(error);
+        }
 
         return tuple;
     }
 
     /**
-     * Validates method and signature for field resolver
+     * Resolves field name, getter method name and entity type from index
+     * generated by {@link org.lightmare.criteria.meta.FieldIndexProcessor}
      * 
-     * @param methodNode
      * @param lambda
-     * @return </code>boolean</code> validation result
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} for resolved
+     *         field or <code>null</code> if method is not indexed
      */
-    private static boolean validateMethod(MethodNode methodNode, LambdaInfo lambda) {
-
-        boolean valid;
+    private static QueryTuple resolveFromIndex(LambdaInfo lambda) {
 
-        String lambdaName = lambda.getImplMethodName();
-        String lambdaSignature = lambda.getImplMethodSignature();
-        valid = (Objects.equals(methodNode.name, lambdaName) && Objects.equals(methodNode.desc, lambdaSignature));
+        QueryTuple tuple;
 
-        return valid;
-    }
+        String fieldName = FieldIndex.getFieldName(lambda);
+        tuple = ObjectUtils.ifIsNotNull(fieldName,
+                c -> resolveIndexed(lambda.getImplClass(), lambda.getImplMethodName(), c));
+        debug(DEBUG_MESSAGE_IND, tuple);
 
-    /**
-     * Resolves entity parameters from {@link org.objectweb.asm.tree.MethodNode}
-     * and instructions
-     * 
-     * @param methodNode
-     * @return {@link org.lightmare.criteria.tuples.QueryTuple} from method
-     */
-    private static QueryTuple resolveRecursively(MethodNode methodNode) {
-        return ObjectUtils.callOrInit(methodNode, FieldResolver::resolveFromMethod,
-                FieldResolver::getAndResolveFromIns);
+        return tuple;
     }
 
     /**
      * Resolved field name, getter method name and entity type from lambda
-     * argument by <b><i>bytecode</i></b> analysis
+     * function parameters from {@link org.lightmare.criteria.lambda.LambdaInfo}
+     * or from <b><i> bytecode </i></b> analysis
      * 
      * @param lambda
      * @return {@link org.lightmare.criteria.tuples.QueryTuple} for resolved
      *         field and query part
      */
-    private static QueryTuple resolveFromBytecode(LambdaInfo lambda) {
-
-        QueryTuple tuple;
-
-        List<MethodNode> methods = MethodCache.getMethods(lambda);
-        if (Objects.nonNull(methods)) {
-            MethodNode methodNode = CollectionUtils.getFirstValid(methods, c -> validateMethod(c, lambda));
-            tuple = resolveRecursively(methodNode);
-            debug(DEBUG_MESSAGE_BYT, tuple);
-        } else {
-            String error = StringUtils.concat(UNRESOLVABLE_FIELD_ERROR, lambda);
-            throw new RuntimeException(error);
-        }
-
-        return tuple;
+    private static QueryTuple resolveOriginal(LambdaInfo lambda) {
+        return ObjectUtils.callOrInit(lambda, FieldResolver::resolveDirectly, FieldResolver::resolveFromBytecode);
     }
 
     /**
-     * Resolved field name, getter method name and entity type from lambda
-     * function parameters from {@link org.lightmare.criteria.lambda.LambdaInfo}
-     * or from <b><i> bytecode </i></b> analysis
+     * Resolved field name, getter method name and entity type from generated
+     * index, lambda function parameters or from <b><i> bytecode </i></b>
+     * analysis
      * 
      * @param lambda
      * @return {@link org.lightmare.criteria.tuples.QueryTuple} for resolved
      *         field and query part
      */
     private static QueryTuple chooseAndResolve(LambdaInfo lambda) {
-        return ObjectUtils.callOrInit(lambda, FieldResolver::resolveDirectly, FieldResolver::resolveFromBytecode);
+        return ObjectUtils.callOrInit(lambda, FieldResolver::resolveFromIndex, FieldResolver::resolveOriginal);
     }
 
     /**
@@ -25,6 +25,10 @@ package org.lightmare.criteria.tuples;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -34,7 +38,10 @@ import org.lightmare.criteria.utils.ObjectUtils;
 import org.lightmare.criteria.utils.StringUtils;
 
 /**
- * Query field and entity type container class
+ * Query field and entity type container class, resolved instances are shared
+ * between queries so after resolution they are specialized by alias, column
+ * name and entity type through cached copy-on-write variants instead of being
+ * modified
  * 
  * @author Levan Tsinadze
  *
@@ -65,6 +72,12 @@ public class QueryTuple implements Serializable, Cloneable {
 
     private String alias;
 
+    // Cached variants of this tuple by alias and column name
+    private transient volatile ConcurrentMap<String, ConcurrentMap<String, QueryTuple>> bindings;
+
+    // Cached variants of this tuple by entity type
+    private transient volatile ConcurrentMap<Class<?>, QueryTuple> variants;
+
     private static final String ALIAS_PREFIX = "c";
 
     private static final String FORMATTER = "%s %s %s";
@@ -207,9 +220,153 @@ public class QueryTuple implements Serializable, Cloneable {
         return ObjectUtils.getAndCast(this::getFieldType);
     }
 
+    /**
+     * Copies this tuple without cached variants
+     * 
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} copy
+     */
+    private QueryTuple copy() {
+        return ObjectUtils.applyAndCast(this, c -> ObjectUtils.applyQuietly(c, QueryTuple::clone));
+    }
+
+    /**
+     * Gets or lazily initializes cache of alias and column name variants
+     * 
+     * @return {@link java.util.concurrent.ConcurrentMap} of variants
+     */
+    private ConcurrentMap<String, ConcurrentMap<String, QueryTuple>> getBindings() {
+
+        ConcurrentMap<String, ConcurrentMap<String, QueryTuple>> cache = bindings;
+
+        if (cache == null) {
+            synchronized (this) {
+                cache = bindings;
+                if (cache == null) {
+                    cache = new ConcurrentHashMap<>();
+                    bindings = cache;
+                }
+            }
+        }
+
+        return cache;
+    }
+
+    /**
+     * Gets or lazily initializes cache of entity type variants
+     * 
+     * @return {@link java.util.concurrent.ConcurrentMap} of variants
+     */
+    private ConcurrentMap<Class<?>, QueryTuple> getVariants() {
+
+        ConcurrentMap<Class<?>, QueryTuple> cache = variants;
+
+        if (cache == null) {
+            synchronized (this) {
+                cache = variants;
+                if (cache == null) {
+                    cache = new ConcurrentHashMap<>();
+                    variants = cache;
+                }
+            }
+        }
+
+        return cache;
+    }
+
+    /**
+     * Initializes copy of this tuple with passed alias and column name
+     * 
+     * @param alias
+     * @param columnName
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} variant
+     */
+    private QueryTuple createBinding(String alias, String columnName) {
+
+        QueryTuple tuple = copy();
+
+        tuple.setAlias(alias);
+        tuple.setFieldName(columnName);
+
+        return tuple;
+    }
+
+    /**
+     * Checks if this tuple already has passed alias and column name
+     * 
+     * @param alias
+     * @param columnName
+     * @return <code>boolean</code> validation result
+     */
+    private boolean isBound(String alias, String columnName) {
+        return (Objects.equals(this.alias, alias) && Objects.equals(fieldName, columnName));
+    }
+
+    /**
+     * Gets variant of this tuple with passed alias and column name, returns
+     * this instance if they already match or cached copy otherwise
+     * 
+     * @param alias
+     * @param columnName
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} bound to alias
+     *         and column name
+     */
+    public QueryTuple bind(String alias, String columnName) {
+
+        QueryTuple tuple;
+
+        if (isBound(alias, columnName)) {
+            tuple = this;
+        } else {
+            String aliasKey = Objects.toString(alias, StringUtils.EMPTY);
+            String columnKey = Objects.toString(columnName, StringUtils.EMPTY);
+            ConcurrentMap<String, ConcurrentMap<String, QueryTuple>> cache = getBindings();
+            ConcurrentMap<String, QueryTuple> columns = cache.get(aliasKey);
+            if (columns == null) {
+                columns = cache.computeIfAbsent(aliasKey, c -> new ConcurrentHashMap<>());
+            }
+            tuple = columns.get(columnKey);
+            if (tuple == null) {
+                tuple = columns.computeIfAbsent(columnKey, c -> createBinding(alias, columnName));
+            }
+        }
+
+        return tuple;
+    }
+
+    /**
+     * Gets cached variant of this tuple for passed entity type, variant is
+     * initialized by passed initializer only once
+     * 
+     * @param type
+     * @param initializer
+     * @return {@link org.lightmare.criteria.tuples.QueryTuple} for entity type
+     */
+    public QueryTuple specialize(Class<?> type, BiConsumer<Class<?>, QueryTuple> initializer) {
+
+        QueryTuple tuple;
+
+        ConcurrentMap<Class<?>, QueryTuple> cache = getVariants();
+        tuple = cache.get(type);
+        if (tuple == null) {
+            tuple = cache.computeIfAbsent(type, c -> {
+                QueryTuple variant = copy();
+                initializer.accept(c, variant);
+                return variant;
+            });
+        }
+
+        return tuple;
+    }
+
     @Override
     public Object clone() throws CloneNotSupportedException {
-        return super.clone();
+
+        QueryTuple tuple = (QueryTuple) super.clone();
+
+        tuple.bindings = null;
+        tuple.variants = null;
+
+        return tuple;
     }
 
     @Override
@@ -162,6 +162,17 @@ abstract class AbstractMemberUtils extends AbstractClassUtils {
         ObjectUtils.acceptQuietly(instance, value, field::set);
     }
 
+    /**
+     * Gets value of {@link java.lang.reflect.Field} from object instance
+     * 
+     * @param field
+     * @param instance
+     * @return T field value
+     */
+    public static <T> T get(Field field, Object instance) {
+        return ObjectUtils.cast(ObjectUtils.applyQuietly(instance, field::get));
+    }
+
     /**
      * Common method to invoke {@link java.lang.reflect.Method} with reflection
      *
@@ -0,0 +1,44 @@
+package org.lightmare.criteria.cache;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClassLoaderCacheTest {
+
+    @Test
+    public void boundTest() {
+
+        ClassLoaderCache<String, String> cache = new ClassLoaderCache<>(2);
+        ClassLoader loader = getClass().getClassLoader();
+        Assert.assertEquals("A", cache.get(loader, "a", String::toUpperCase));
+        Assert.assertEquals("B", cache.get(loader, "b", String::toUpperCase));
+        Assert.assertEquals("A", cache.get(loader, "a", c -> null));
+        Assert.assertEquals("C", cache.get(loader, "c", String::toUpperCase));
+        // Least recently used "b" is evicted
+        Assert.assertEquals(2, cache.size(loader));
+        Assert.assertNull(cache.get(loader, "b", c -> null));
+
+        Assert.assertEquals(1L, cache.getHits());
+        Assert.assertEquals(4L, cache.getMisses());
+        Assert.assertEquals(1L, cache.getEvictions());
+    }
+
+    @Test
+    public void classLoaderTest() throws Exception {
+
+        ClassLoaderCache<String, String> cache = new ClassLoaderCache<>(10);
+        ClassLoader loader = getClass().getClassLoader();
+        try (URLClassLoader other = new URLClassLoader(new URL[0], loader)) {
+            cache.get(loader, "type", c -> "first");
+            // Same name from other class loader is not shared
+            Assert.assertEquals("second", cache.get(other, "type", c -> "second"));
+            Assert.assertEquals("first", cache.get(loader, "type", c -> "third"));
+            cache.clear(other);
+            Assert.assertEquals(0, cache.size(other));
+            Assert.assertEquals(1, cache.size(loader));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.lightmare.criteria.config;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.lightmare.criteria.annotations.DBColumn;
+import org.lightmare.criteria.config.Configuration.ResultRetriever;
+
+public class ResultRetrieversTest {
+
+    public static class Account {
+
+        @DBColumn("ACCOUNT_ID")
+        private Long id;
+
+        private int visits;
+
+        private double amount;
+
+        private BigDecimal balance;
+
+        private Boolean active;
+
+        // Set by reflection as there is no setter
+        private String name;
+
+        private Date created;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public int getVisits() {
+            return visits;
+        }
+
+        public void setVisits(int visits) {
+            this.visits = visits;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public Account setAmount(double amount) {
+            this.amount = amount;
+            return this;
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public void setBalance(BigDecimal balance) {
+            this.balance = balance;
+        }
+
+        public Boolean getActive() {
+            return active;
+        }
+
+        public void setActive(Boolean active) {
+            this.active = active;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+
+        public void setCreated(Date created) {
+            this.created = created;
+        }
+    }
+
+    @Test
+    public void readRowTest() throws Exception {
+
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:retrievers");
+                Statement statement = connection.createStatement()) {
+            statement.execute("create table ACCOUNTS (ACCOUNT_ID bigint, VISITS int, AMOUNT double,"
+                    + " BALANCE decimal(10, 2), ACTIVE boolean, NAME varchar(20), CREATED timestamp)");
+            statement.execute("insert into ACCOUNTS values (1, 3, 2.5, 10.25, true, 'first', '2016-01-01 00:00:00')");
+            statement.execute("insert into ACCOUNTS values (null, null, null, null, null, null, null)");
+            Assert.assertTrue(ResultRetrievers.isGenerated(Account.class));
+
+            ResultRetriever<Account> retriever = ResultRetrievers.of(Account.class);
+            try (ResultSet rs = statement.executeQuery(
+                    "select NAME, 1 as EXTRA, created, ACTIVE, BALANCE, AMOUNT, VISITS, ACCOUNT_ID from ACCOUNTS order by ACCOUNT_ID desc")) {
+                Assert.assertTrue(rs.next());
+                Account account = retriever.readRow(rs);
+                Assert.assertEquals(Long.valueOf(1L), account.getId());
+                Assert.assertEquals(3, account.getVisits());
+                Assert.assertEquals(2.5D, account.getAmount(), 0D);
+                Assert.assertEquals(new BigDecimal("10.25"), account.getBalance());
+                Assert.assertEquals(Boolean.TRUE, account.getActive());
+                Assert.assertEquals("first", account.getName());
+                Assert.assertNotNull(account.getCreated());
+
+                Assert.assertTrue(rs.next());
+                account = retriever.readRow(rs);
+                Assert.assertNull(account.getId());
+                Assert.assertEquals(0, account.getVisits());
+                Assert.assertNull(account.getBalance());
+                Assert.assertNull(account.getActive());
+                Assert.assertNull(account.getName());
+                Assert.assertNull(account.getCreated());
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.lightmare.criteria.meta;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.lightmare.criteria.entities.Person;
+import org.lightmare.criteria.functions.EntityField;
+import org.lightmare.criteria.lambda.LambdaInfo;
+import org.lightmare.criteria.lambda.LambdaReplacements;
+import org.lightmare.criteria.resolvers.FieldResolver;
+import org.lightmare.criteria.tuples.QueryTuple;
+
+public class FieldIndexProcessorTest {
+
+    private static final String BASE_SOURCE = "package org.lightmare.criteria.indexed;"
+            + "@javax.persistence.MappedSuperclass public abstract class IndexedBase<T> {"
+            + " private T id; public T getId() { return id; } }";
+
+    private static final String ENTITY_SOURCE = "package org.lightmare.criteria.indexed;"
+            + "@javax.persistence.Entity public class IndexedEntity extends IndexedBase<Long> {"
+            + " private String lastName; private int[] codes;"
+            + " public String getLastName() { return lastName; }"
+            + " public void setLastName(String lastName) { this.lastName = lastName; }"
+            + " public int[] getCodes() { return codes; }"
+            + " public static String getConstant() { return null; } }";
+
+    private static JavaFileObject source(String name, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name + ".java"), JavaFileObject.Kind.SOURCE) {
+
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    private static Properties compile(Path output) throws IOException {
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        List<String> options = Arrays.asList("-proc:only", "-processor", FieldIndexProcessor.class.getName(), "-d",
+                output.toString(), "-classpath", System.getProperty("java.class.path"));
+        List<JavaFileObject> sources = Arrays.asList(source("IndexedBase", BASE_SOURCE),
+                source("IndexedEntity", ENTITY_SOURCE));
+        Assert.assertTrue(compiler.getTask(null, null, null, options, null, sources).call());
+
+        Properties index = new Properties();
+        try (InputStream stream = Files.newInputStream(output.resolve(FieldIndex.INDEX_RESOURCE))) {
+            index.load(stream);
+        }
+
+        return index;
+    }
+
+    @Test
+    public void processorTest() throws IOException {
+
+        Path output = Files.createTempDirectory("criteria-index");
+        Properties index = compile(output);
+        String entity = "org/lightmare/criteria/indexed/IndexedEntity";
+        Assert.assertEquals("lastName", index.get(FieldIndex.key(entity, "getLastName", "()Ljava/lang/String;")));
+        Assert.assertEquals("codes", index.get(FieldIndex.key(entity, "getCodes", "()[I")));
+        Assert.assertEquals("id", index.get(FieldIndex.key(entity, "getId", "()Ljava/lang/Object;")));
+        Assert.assertEquals("id", index.get(FieldIndex.key("org/lightmare/criteria/indexed/IndexedBase", "getId",
+                "()Ljava/lang/Object;")));
+        Assert.assertFalse(index.containsKey(FieldIndex.key(entity, "getConstant", "()Ljava/lang/String;")));
+        Assert.assertFalse(index.containsKey(FieldIndex.key(entity, "getClass", "()Ljava/lang/Class;")));
+
+        URL[] urls = { output.toUri().toURL() };
+        try (URLClassLoader loader = new URLClassLoader(urls, null)) {
+            Assert.assertEquals("codes", FieldIndex.getFieldName(loader, entity, "getCodes", "()[I"));
+            Assert.assertNull(FieldIndex.getFieldName(loader, entity, "getCodes", "()[J"));
+            FieldIndex.clear(loader);
+        }
+    }
+
+    @Test
+    public void resolveTest() throws IOException {
+
+        Path output = Files.createTempDirectory("criteria-index");
+        Path resource = output.resolve(FieldIndex.INDEX_RESOURCE);
+        Files.createDirectories(resource.getParent());
+        String key = FieldIndex.key("org/lightmare/criteria/entities/Person", "getLastName", "()Ljava/lang/String;");
+        Files.write(resource, Arrays.asList(key + "=lastName"));
+
+        EntityField<Person, String> field = Person::getLastName;
+        LambdaInfo lambda = LambdaReplacements.getReplacement(field);
+        Thread thread = Thread.currentThread();
+        ClassLoader parent = thread.getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { output.toUri().toURL() }, parent)) {
+            thread.setContextClassLoader(loader);
+            Assert.assertEquals("lastName", FieldIndex.getFieldName(lambda));
+            QueryTuple tuple = FieldResolver.resolve(lambda);
+            Assert.assertEquals("lastName", tuple.getFieldName());
+            Assert.assertEquals(Person.class, tuple.getEntityType());
+            Assert.assertNotNull(tuple.getField());
+            FieldIndex.clear(loader);
+        } finally {
+            thread.setContextClassLoader(parent);
+            Files.deleteIfExists(resource);
+        }
+    }
+}
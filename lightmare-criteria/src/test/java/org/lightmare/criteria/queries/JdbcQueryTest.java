@@ -1,16 +1,25 @@
 package org.lightmare.criteria.queries;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
 
 import org.hibernate.Session;
 import org.hibernate.internal.SessionImpl;
+import org.junit.Assert;
 import org.junit.Test;
 import org.lightmare.criteria.entities.jdbc.JdbcPerson;
 import org.lightmare.criteria.query.providers.jdbc.JdbcQueryProvider;
 import org.lightmare.criteria.query.providers.jdbc.JdbcQueryStream;
+import org.lightmare.criteria.query.providers.jdbc.layers.JdbcBatch;
+import org.lightmare.criteria.query.providers.jdbc.layers.StatementCache;
 import org.lightmare.criteria.runorder.RunOrder;
 
 public class JdbcQueryTest extends FunctionnalQueryTest {
@@ -78,4 +87,122 @@ public class JdbcQueryTest extends FunctionnalQueryTest {
             em.close();
         }
     }
+
+    @Test
+    @RunOrder(601)
+    public void testStreamSelect() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            em.persist(QueryTest.initPerson());
+            em.flush();
+            Session session = em.unwrap(Session.class);
+            SessionImpl sessionImpl = ((SessionImpl) session);
+            Connection connection = sessionImpl.connection();
+            // ============= Query construction ============== //
+            List<JdbcPerson> persons;
+            try (Stream<JdbcPerson> stream = JdbcQueryProvider.select(connection, JdbcPerson.class).where()
+                    .like(JdbcPerson::getLastName, "lname%").setFetchSize(10).toStream()) {
+                persons = stream.collect(Collectors.toList());
+            }
+            // =============================================//
+            Assert.assertFalse(persons.isEmpty());
+            persons.forEach(c -> Assert.assertNotNull(c.getPersonalNo()));
+            JdbcPerson first = JdbcQueryProvider.select(connection, JdbcPerson.class).where()
+                    .like(JdbcPerson::getLastName, "lname%").getFirst();
+            Assert.assertEquals(persons.get(0).getPersonalNo(), first.getPersonalNo());
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(602)
+    public void testCachedStatements() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            em.persist(QueryTest.initPerson());
+            em.flush();
+            Session session = em.unwrap(Session.class);
+            SessionImpl sessionImpl = ((SessionImpl) session);
+            Connection connection = sessionImpl.connection();
+            try (StatementCache cache = JdbcQueryProvider.cacheStatements(connection, 16)) {
+                // ============= Query construction ============== //
+                List<JdbcPerson> persons = JdbcQueryProvider.select(connection, JdbcPerson.class).where()
+                        .like(JdbcPerson::getLastName, "lname%").toList();
+                List<JdbcPerson> cached = JdbcQueryProvider.select(connection, JdbcPerson.class).where()
+                        .like(JdbcPerson::getLastName, "lname%").toList();
+                List<JdbcPerson> empty = JdbcQueryProvider.select(connection, JdbcPerson.class).where()
+                        .like(JdbcPerson::getLastName, "none%").toList();
+                // =============================================//
+                Assert.assertFalse(persons.isEmpty());
+                Assert.assertEquals(persons.size(), cached.size());
+                Assert.assertTrue(empty.isEmpty());
+                Assert.assertEquals(1, cache.size());
+                Assert.assertEquals(1L, cache.getMisses());
+                Assert.assertEquals(2L, cache.getHits());
+            }
+            Assert.assertNull(StatementCache.get(connection));
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(603)
+    public void testBatch() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            Session session = em.unwrap(Session.class);
+            SessionImpl sessionImpl = ((SessionImpl) session);
+            Connection connection = sessionImpl.connection();
+            List<Map<String, Object>> parameters = new ArrayList<>();
+            List<JdbcPerson> persons = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Map<String, Object> parameter = new HashMap<>();
+                parameter.put("id", Long.valueOf(-1 - i));
+                parameter.put("personalNo", "batch" + i);
+                parameters.add(parameter);
+                JdbcPerson person = new JdbcPerson();
+                person.setPersonalNo("batch" + i);
+                person.setLastName("batched");
+                person.setFirstName("fname");
+                persons.add(person);
+            }
+            // ============= Batch execution ============== //
+            JdbcBatch<JdbcPerson> batch = JdbcQueryProvider.batch(connection, JdbcPerson.class).setBatchSize(2);
+            int[] counts = batch.execute(
+                    "insert into PERSONS.PERSONS (PERSON_ID, PERSONAL_NO) values (:id, :personalNo)", parameters);
+            Assert.assertArrayEquals(new int[] { 2, 2, 1 }, counts);
+            counts = batch.update(persons, JdbcPerson::getPersonalNo);
+            Assert.assertArrayEquals(new int[] { 2, 2, 1 }, counts);
+            List<JdbcPerson> updated = JdbcQueryProvider.select(connection, JdbcPerson.class).where()
+                    .equal(JdbcPerson::getLastName, "batched").toList();
+            Assert.assertEquals(persons.size(), updated.size());
+            counts = batch.setBatchSize(10).delete(persons, JdbcPerson::getPersonalNo);
+            // =============================================//
+            Assert.assertArrayEquals(new int[] { 5 }, counts);
+            Assert.assertNull(JdbcQueryProvider.select(connection, JdbcPerson.class).where()
+                    .equal(JdbcPerson::getLastName, "batched").getFirst());
+        } finally {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            em.close();
+        }
+    }
 }
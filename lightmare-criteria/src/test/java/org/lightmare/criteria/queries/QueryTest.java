@@ -1,636 +1,782 @@
-package org.lightmare.criteria.queries;
-
-import java.util.Arrays;
-import java.util.Date;
-import java.util.List;
-
-import javax.persistence.EntityManager;
-import javax.persistence.EntityTransaction;
-
-import org.junit.Assert;
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.lightmare.criteria.entities.GeneralInfo;
-import org.lightmare.criteria.entities.Person;
-import org.lightmare.criteria.entities.PersonInfo;
-import org.lightmare.criteria.entities.PersonWrapper;
-import org.lightmare.criteria.entities.Phone;
-import org.lightmare.criteria.query.orm.SelectExpression.Select;
-import org.lightmare.criteria.query.providers.jpa.JpaQueryProvider;
-import org.lightmare.criteria.query.providers.jpa.JpaQueryStream;
-import org.lightmare.criteria.runorder.RunOrder;
-import org.lightmare.criteria.runorder.SortedRunner;
-
-@RunWith(SortedRunner.class)
-public class QueryTest extends TestEnviromentConfig {
-
-    private static void rollback(EntityTransaction transaction) {
-
-        if (transaction.isActive()) {
-            transaction.rollback();
-        }
-    }
-
-    @Test
-    @RunOrder(1)
-    public void supplierEntityTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            System.out.println();
-            System.out.println("==========Entity============");
-            JpaQueryStream<Person> stream = createQueryStream(em);
-            System.out.println("===========JPA-QL==========");
-            System.out.println();
-            System.out.println(stream.sql());
-            System.out.println("===========Entity==========");
-            System.out.println();
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(1.5)
-    public void toListAllTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            // ============= Query construction ============== //
-            List<Phone> phones = JpaQueryProvider.select(em, Phone.class).toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            phones.forEach(System.out::println);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2)
-    public void toListByEntityTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            List<Person> persons = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
-                    .startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date).and()
-                    .in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(System.out::println);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.1)
-    public void toListByEntityWhereTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            List<Person> persons = JpaQueryProvider.select(em, Person.class)
-                    .where(s -> s.equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%")
-                            .and().startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date).and()
-                            .in(Person::getPersonId, Arrays.asList(IDENTIFIERS)))
-                    .toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(System.out::println);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.11)
-    public void toListByEntityWhereAndOrTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            List<Person> persons = JpaQueryProvider.select(em, Person.class)
-                    .where(s -> s.equal(Person::getPersonalNo, PERSONAL_NO1)
-                            .and(q -> q.like(Person::getLastName, "lname%"))
-                            .and(q -> q.startsWith(Person::getFirstName, "fname"))
-                            .or(q -> q.ge(Person::getBirthDate, date))
-                            .and(q -> q.in(Person::getPersonId, Arrays.asList(IDENTIFIERS))))
-                    .toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(System.out::println);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.15)
-    public void toListByEntityWhereAndWithOrInTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            List<Person> persons = JpaQueryProvider
-                    .select(em,
-                            Person.class)
-                    .where(s -> s.equal(Person::getPersonalNo, PERSONAL_NO1)
-                            .and(q -> q.like(Person::getLastName, "lname%"))
-                            .and(q -> q.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
-                            .and(q -> q.in(Person::getPersonId, Arrays.asList(IDENTIFIERS))))
-                    .toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(System.out::println);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.3)
-    public void toListBySelectTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            List<Object[]> persons = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
-                    .brackets(stream -> stream.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate,
-                            date))
-                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).selectAll(c -> c
-                            .column(Person::getPersonalNo).column(Person::getFirstName).column(Person::getLastName))
-                    .toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(c -> System.out.println(Arrays.toString(c)));
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.301)
-    public void toListBySelectInWhereTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            List<Object[]> persons = JpaQueryProvider.select(em, Person.class)
-                    .where(q -> q.equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%")
-                            .and(stream -> stream.startsWith(Person::getFirstName, "fname").or()
-                                    .ge(Person::getBirthDate, date))
-                            .in(Person::getPersonId, Arrays.asList(IDENTIFIERS)))
-                    .selectAll(c -> c.column(Person::getPersonalNo).column(Person::getFirstName)
-                            .column(Person::getLastName))
-                    .toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(c -> System.out.println(Arrays.toString(c)));
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.31)
-    public void toListBySelectStringTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            JpaQueryStream<Object[]> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
-                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
-                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS))
-                    .select("select c.personalNo, c.firstName, c.lastName");
-            System.out.println(stream.sql());
-            List<Object[]> persons = stream.toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(c -> System.out.println(Arrays.toString(c)));
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.32)
-    public void toListBySelectWrapperTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            JpaQueryStream<PersonWrapper> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
-                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
-                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS))
-                    .select("select new org.lightmare.criteria.entities.PersonWrapper(c.personalNo, c.lastName, c.firstName)",
-                            PersonWrapper.class);
-            System.out.println(stream.sql());
-            List<PersonWrapper> persons = stream.toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(System.out::println);
-        } catch (Throwable ex) {
-            ex.printStackTrace();
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.33)
-    public void toListBySelectWithClassTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            JpaQueryStream<Object[]> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
-                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
-                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).select(Select.select()
-                            .column(Person::getPersonalNo).column(Person::getLastName).column(Person::getFirstName));
-            System.out.println(stream.sql());
-            List<Object[]> persons = stream.toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(c -> System.out.println(Arrays.toString(c)));
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.34)
-    public void toListBySelectWrapperTypedTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            JpaQueryStream<PersonWrapper> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
-                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
-                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS))
-                    .selectType(PersonWrapper.class, Select.select().column(Person::getPersonalNo)
-                            .column(Person::getLastName).column(Person::getFirstName));
-            System.out.println(stream.sql());
-            List<PersonWrapper> persons = stream.toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(System.out::println);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.35)
-    public void toListBySelectWithConsumerTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            JpaQueryStream<Object[]> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
-                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
-                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).selectAll(s -> s
-                            .column(Person::getPersonalNo).column(Person::getLastName).column(Person::getFirstName));
-            System.out.println(stream.sql());
-            List<Object[]> persons = stream.toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(c -> System.out.println(Arrays.toString(c)));
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.36)
-    public void toListBySelectConsumerTypedTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            JpaQueryStream<PersonWrapper> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
-                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
-                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).selectType(PersonWrapper.class, s -> s
-                            .column(Person::getPersonalNo).column(Person::getLastName).column(Person::getFirstName));
-            System.out.println(stream.sql());
-            List<PersonWrapper> persons = stream.toList();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            persons.forEach(System.out::println);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(2.5)
-    public void countByEntityTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            Date date = getDateValue();
-            // ============= Query construction ============== //
-            Long count = JpaQueryProvider.select(em, Person.class).where().equal(Person::getPersonalNo, PERSONAL_NO1)
-                    .and().like(Person::getLastName, "lname%").and().startsWith(Person::getFirstName, "fname").or()
-                    .ge(Person::getBirthDate, date).and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).count();
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            System.out.format("Counted %s rows in database by query\n", count);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(3)
-    public void updateSetOneByEntityTest() {
-
-        EntityManager em = emf.createEntityManager();
-        EntityTransaction transaction = em.getTransaction();
-        try {
-            Date date = getDateValue();
-            transaction.begin();
-            // ============= Query construction ============== //
-            int rows = JpaQueryProvider.update(em, Person.class).set(Person::getMiddName, "middName")
-                    .where(q -> q.equal(Person::getPersonalNo, PERSONAL_NO1).and()
-                            .like(Person::getLastName, "lname%").and().brackets(b -> b
-                                    .startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date)))
-                    .execute();
-            // =============================================//
-            transaction.commit();
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            System.out.format("updated %s rows\n", rows);
-            Assert.assertEquals("No expected row number was updated", rows, 1);
-        } catch (Throwable ex) {
-            rollback(transaction);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(4)
-    public void updateSetMultiByEntityTest() {
-
-        EntityManager em = emf.createEntityManager();
-        EntityTransaction transaction = em.getTransaction();
-        try {
-            Date newBirthDate = getDateValue(10);
-            Date date = getDateValue();
-            transaction.begin();
-            // ============= Query construction ============== //
-            int rows = JpaQueryProvider.update(em, Person.class).set(Person::getMiddName, "newMiddName")
-                    .set(Person::getBirthDate, newBirthDate).where().equal(Person::getPersonalNo, PERSONAL_NO1).and()
-                    .like(Person::getLastName, "lname%").and().openBracket().startsWith(Person::getFirstName, "fname")
-                    .or().ge(Person::getBirthDate, date).closeBracket().execute();
-            // =============================================//
-            transaction.commit();
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            System.out.format("updated %s rows\n", rows);
-            Assert.assertEquals("No expected row number was updated", rows, 1);
-        } catch (Throwable ex) {
-            rollback(transaction);
-        } finally {
-            em.close();
-        }
-    }
-
-    public static Person initPerson() {
-
-        Person person2 = new Person();
-
-        person2.setPersonalNo(PERSONAL_NO2);
-        person2.setLastName("lname2");
-        person2.setFirstName("fname2");
-        person2.setBirthDate(getDateValue(90));
-        person2.setMiddName("mname2");
-        person2.setEscape(Character.valueOf('_'));
-
-        PersonInfo info2 = new PersonInfo();
-        info2.setCardNumber("200");
-        info2.setNote("note2");
-        person2.setInfo(info2);
-
-        return person2;
-    }
-
-    private void getForUpfate() {
-
-        EntityManager em = emf.createEntityManager();
-        EntityTransaction transaction = em.getTransaction();
-        try {
-            JpaQueryStream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO2).and().like(Person::getLastName, "lname%").and()
-                    .startsWith(Person::getFirstName, "fname");
-            Person person = stream.getFirst();
-            transaction.begin();
-            if (person == null) {
-                Person newPerson = QueryTest.initPerson();
-                em.persist(newPerson);
-                person = newPerson;
-            }
-            transaction.commit();
-        } catch (Throwable ex) {
-            rollback(transaction);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(5)
-    public void deleteByEntityTest() {
-
-        getForUpfate();
-        EntityManager em = emf.createEntityManager();
-        EntityTransaction transaction = em.getTransaction();
-        try {
-            transaction.begin();
-            // ============= Query construction ============== //
-            JpaQueryStream<Person> stream = JpaQueryProvider.delete(em, Person.class).where()
-                    .equal(Person::getPersonalNo, PERSONAL_NO2).and().like(Person::getLastName, "lname%").and()
-                    .startsWith(Person::getFirstName, "fname");
-            int rows = stream.execute();
-            // =============================================//
-            transaction.commit();
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            System.out.format("deleted %s rows\n", rows);
-            Assert.assertEquals("No expected row number was updated", rows, 1);
-        } catch (Throwable ex) {
-            rollback(transaction);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(6)
-    public void cacheTest() {
-        supplierEntityTest();
-        supplierEntityTest();
-    }
-
-    @Test
-    @RunOrder(7)
-    public void selfQueryTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            // ============= Query construction ============== //
-            JpaQueryStream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, Person::getAddrress).equal(Person::getFullName, "fullName")
-                    .like(Person::getFirstName, Person::getFullName).and().startsWith(Person::getLastName, "lname");
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println();
-            System.out.println(stream.sql());
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(8)
-    public void selfQueryResultTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            // ============= Query construction ============== //
-            Person person = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, Person::getAddrress).and()
-                    .like(Person::getLastName, GeneralInfo::getFullName).and().startsWith(Person::getLastName, "lname")
-                    .firstOrDefault(new Person());
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println(person);
-        } catch (Throwable ex) {
-            ex.printStackTrace();
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(9)
-    public void queryLikeFieldTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            // ============= Query construction ============== //
-            JpaQueryStream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, Person::getAddrress).and()
-                    .like(Person::getLastName, GeneralInfo::getFullName, Person::getEscape).and()
-                    .startsWith(Person::getLastName, "lname");
-            String sql = stream.sql();
-            System.out.println(sql);
-            Person person = stream.firstOrDefault(new Person());
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println(person);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(10)
-    public void queryLikeValueTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            // ============= Query construction ============== //
-            JpaQueryStream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, Person::getAddrress).and().like(Person::getLastName, "lname%", 'e')
-                    .and().startsWith(Person::getLastName, "lname");
-            String sql = stream.sql();
-            System.out.println(sql);
-            Person person = stream.firstOrDefault(new Person());
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println(person);
-        } finally {
-            em.close();
-        }
-    }
-
-    @Test
-    @RunOrder(10)
-    public void queryMaxTest() {
-
-        EntityManager em = emf.createEntityManager();
-        try {
-            // ============= Query construction ============== //
-            JpaQueryStream<Long> stream = JpaQueryProvider.select(em, Person.class).where()
-                    .equal(Person::getPersonalNo, Person::getAddrress).and().like(Person::getLastName, "lname%", 'e')
-                    .and().startsWith(Person::getLastName, "lname").max(Person::getPersonId);
-            String sql = stream.sql();
-            System.out.println(sql);
-            Long max = stream.firstOrDefault(Long.valueOf(0));
-            // =============================================//
-            System.out.println();
-            System.out.println("-------Entity----");
-            System.out.println(max);
-        } finally {
-            em.close();
-        }
-    }
-}
+package org.lightmare.criteria.queries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.lightmare.criteria.entities.GeneralInfo;
+import org.lightmare.criteria.entities.Person;
+import org.lightmare.criteria.entities.PersonInfo;
+import org.lightmare.criteria.entities.PersonWrapper;
+import org.lightmare.criteria.entities.Phone;
+import org.lightmare.criteria.query.orm.PreparedCriteria;
+import org.lightmare.criteria.query.orm.SelectExpression.Select;
+import org.lightmare.criteria.query.providers.jpa.JpaQueryProvider;
+import org.lightmare.criteria.query.providers.jpa.JpaQueryStream;
+import org.lightmare.criteria.runorder.RunOrder;
+import org.lightmare.criteria.runorder.SortedRunner;
+
+@RunWith(SortedRunner.class)
+public class QueryTest extends TestEnviromentConfig {
+
+    private static void rollback(EntityTransaction transaction) {
+
+        if (transaction.isActive()) {
+            transaction.rollback();
+        }
+    }
+
+    @Test
+    @RunOrder(1)
+    public void supplierEntityTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            System.out.println();
+            System.out.println("==========Entity============");
+            JpaQueryStream<Person> stream = createQueryStream(em);
+            System.out.println("===========JPA-QL==========");
+            System.out.println();
+            System.out.println(stream.sql());
+            System.out.println("===========Entity==========");
+            System.out.println();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(1.5)
+    public void toListAllTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            // ============= Query construction ============== //
+            List<Phone> phones = JpaQueryProvider.select(em, Phone.class).toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            phones.forEach(System.out::println);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2)
+    public void toListByEntityTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            List<Person> persons = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
+                    .startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date).and()
+                    .in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(System.out::println);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.1)
+    public void toListByEntityWhereTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            List<Person> persons = JpaQueryProvider.select(em, Person.class)
+                    .where(s -> s.equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%")
+                            .and().startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date).and()
+                            .in(Person::getPersonId, Arrays.asList(IDENTIFIERS)))
+                    .toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(System.out::println);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.11)
+    public void toListByEntityWhereAndOrTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            List<Person> persons = JpaQueryProvider.select(em, Person.class)
+                    .where(s -> s.equal(Person::getPersonalNo, PERSONAL_NO1)
+                            .and(q -> q.like(Person::getLastName, "lname%"))
+                            .and(q -> q.startsWith(Person::getFirstName, "fname"))
+                            .or(q -> q.ge(Person::getBirthDate, date))
+                            .and(q -> q.in(Person::getPersonId, Arrays.asList(IDENTIFIERS))))
+                    .toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(System.out::println);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.15)
+    public void toListByEntityWhereAndWithOrInTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            List<Person> persons = JpaQueryProvider
+                    .select(em,
+                            Person.class)
+                    .where(s -> s.equal(Person::getPersonalNo, PERSONAL_NO1)
+                            .and(q -> q.like(Person::getLastName, "lname%"))
+                            .and(q -> q.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
+                            .and(q -> q.in(Person::getPersonId, Arrays.asList(IDENTIFIERS))))
+                    .toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(System.out::println);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.3)
+    public void toListBySelectTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            List<Object[]> persons = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
+                    .brackets(stream -> stream.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate,
+                            date))
+                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).selectAll(c -> c
+                            .column(Person::getPersonalNo).column(Person::getFirstName).column(Person::getLastName))
+                    .toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(c -> System.out.println(Arrays.toString(c)));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.301)
+    public void toListBySelectInWhereTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            List<Object[]> persons = JpaQueryProvider.select(em, Person.class)
+                    .where(q -> q.equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%")
+                            .and(stream -> stream.startsWith(Person::getFirstName, "fname").or()
+                                    .ge(Person::getBirthDate, date))
+                            .in(Person::getPersonId, Arrays.asList(IDENTIFIERS)))
+                    .selectAll(c -> c.column(Person::getPersonalNo).column(Person::getFirstName)
+                            .column(Person::getLastName))
+                    .toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(c -> System.out.println(Arrays.toString(c)));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.31)
+    public void toListBySelectStringTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            JpaQueryStream<Object[]> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
+                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
+                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS))
+                    .select("select c.personalNo, c.firstName, c.lastName");
+            System.out.println(stream.sql());
+            List<Object[]> persons = stream.toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(c -> System.out.println(Arrays.toString(c)));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.32)
+    public void toListBySelectWrapperTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            JpaQueryStream<PersonWrapper> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
+                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
+                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS))
+                    .select("select new org.lightmare.criteria.entities.PersonWrapper(c.personalNo, c.lastName, c.firstName)",
+                            PersonWrapper.class);
+            System.out.println(stream.sql());
+            List<PersonWrapper> persons = stream.toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(System.out::println);
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.33)
+    public void toListBySelectWithClassTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            JpaQueryStream<Object[]> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
+                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
+                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).select(Select.select()
+                            .column(Person::getPersonalNo).column(Person::getLastName).column(Person::getFirstName));
+            System.out.println(stream.sql());
+            List<Object[]> persons = stream.toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(c -> System.out.println(Arrays.toString(c)));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.34)
+    public void toListBySelectWrapperTypedTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            JpaQueryStream<PersonWrapper> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
+                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
+                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS))
+                    .selectType(PersonWrapper.class, Select.select().column(Person::getPersonalNo)
+                            .column(Person::getLastName).column(Person::getFirstName));
+            System.out.println(stream.sql());
+            List<PersonWrapper> persons = stream.toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(System.out::println);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.35)
+    public void toListBySelectWithConsumerTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            JpaQueryStream<Object[]> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
+                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
+                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).selectAll(s -> s
+                            .column(Person::getPersonalNo).column(Person::getLastName).column(Person::getFirstName));
+            System.out.println(stream.sql());
+            List<Object[]> persons = stream.toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(c -> System.out.println(Arrays.toString(c)));
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.36)
+    public void toListBySelectConsumerTypedTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            JpaQueryStream<PersonWrapper> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").and()
+                    .brackets(s -> s.startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date))
+                    .and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).selectType(PersonWrapper.class, s -> s
+                            .column(Person::getPersonalNo).column(Person::getLastName).column(Person::getFirstName));
+            System.out.println(stream.sql());
+            List<PersonWrapper> persons = stream.toList();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            persons.forEach(System.out::println);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(2.5)
+    public void countByEntityTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Date date = getDateValue();
+            // ============= Query construction ============== //
+            Long count = JpaQueryProvider.select(em, Person.class).where().equal(Person::getPersonalNo, PERSONAL_NO1)
+                    .and().like(Person::getLastName, "lname%").and().startsWith(Person::getFirstName, "fname").or()
+                    .ge(Person::getBirthDate, date).and().in(Person::getPersonId, Arrays.asList(IDENTIFIERS)).count();
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            System.out.format("Counted %s rows in database by query\n", count);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(3)
+    public void updateSetOneByEntityTest() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            Date date = getDateValue();
+            transaction.begin();
+            // ============= Query construction ============== //
+            int rows = JpaQueryProvider.update(em, Person.class).set(Person::getMiddName, "middName")
+                    .where(q -> q.equal(Person::getPersonalNo, PERSONAL_NO1).and()
+                            .like(Person::getLastName, "lname%").and().brackets(b -> b
+                                    .startsWith(Person::getFirstName, "fname").or().ge(Person::getBirthDate, date)))
+                    .execute();
+            // =============================================//
+            transaction.commit();
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            System.out.format("updated %s rows\n", rows);
+            Assert.assertEquals("No expected row number was updated", rows, 1);
+        } catch (Throwable ex) {
+            rollback(transaction);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(4)
+    public void updateSetMultiByEntityTest() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            Date newBirthDate = getDateValue(10);
+            Date date = getDateValue();
+            transaction.begin();
+            // ============= Query construction ============== //
+            int rows = JpaQueryProvider.update(em, Person.class).set(Person::getMiddName, "newMiddName")
+                    .set(Person::getBirthDate, newBirthDate).where().equal(Person::getPersonalNo, PERSONAL_NO1).and()
+                    .like(Person::getLastName, "lname%").and().openBracket().startsWith(Person::getFirstName, "fname")
+                    .or().ge(Person::getBirthDate, date).closeBracket().execute();
+            // =============================================//
+            transaction.commit();
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            System.out.format("updated %s rows\n", rows);
+            Assert.assertEquals("No expected row number was updated", rows, 1);
+        } catch (Throwable ex) {
+            rollback(transaction);
+        } finally {
+            em.close();
+        }
+    }
+
+    public static Person initPerson() {
+
+        Person person2 = new Person();
+
+        person2.setPersonalNo(PERSONAL_NO2);
+        person2.setLastName("lname2");
+        person2.setFirstName("fname2");
+        person2.setBirthDate(getDateValue(90));
+        person2.setMiddName("mname2");
+        person2.setEscape(Character.valueOf('_'));
+
+        PersonInfo info2 = new PersonInfo();
+        info2.setCardNumber("200");
+        info2.setNote("note2");
+        person2.setInfo(info2);
+
+        return person2;
+    }
+
+    private void getForUpfate() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            JpaQueryStream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO2).and().like(Person::getLastName, "lname%").and()
+                    .startsWith(Person::getFirstName, "fname");
+            Person person = stream.getFirst();
+            transaction.begin();
+            if (person == null) {
+                Person newPerson = QueryTest.initPerson();
+                em.persist(newPerson);
+                person = newPerson;
+            }
+            transaction.commit();
+        } catch (Throwable ex) {
+            rollback(transaction);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(5)
+    public void deleteByEntityTest() {
+
+        getForUpfate();
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            // ============= Query construction ============== //
+            JpaQueryStream<Person> stream = JpaQueryProvider.delete(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO2).and().like(Person::getLastName, "lname%").and()
+                    .startsWith(Person::getFirstName, "fname");
+            int rows = stream.execute();
+            // =============================================//
+            transaction.commit();
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            System.out.format("deleted %s rows\n", rows);
+            Assert.assertEquals("No expected row number was updated", rows, 1);
+        } catch (Throwable ex) {
+            rollback(transaction);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(6)
+    public void cacheTest() {
+        supplierEntityTest();
+        supplierEntityTest();
+    }
+
+    @Test
+    @RunOrder(7)
+    public void selfQueryTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            // ============= Query construction ============== //
+            JpaQueryStream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, Person::getAddrress).equal(Person::getFullName, "fullName")
+                    .like(Person::getFirstName, Person::getFullName).and().startsWith(Person::getLastName, "lname");
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println();
+            System.out.println(stream.sql());
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(8)
+    public void selfQueryResultTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            // ============= Query construction ============== //
+            Person person = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, Person::getAddrress).and()
+                    .like(Person::getLastName, GeneralInfo::getFullName).and().startsWith(Person::getLastName, "lname")
+                    .firstOrDefault(new Person());
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println(person);
+        } catch (Throwable ex) {
+            ex.printStackTrace();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(9)
+    public void queryLikeFieldTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            // ============= Query construction ============== //
+            JpaQueryStream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, Person::getAddrress).and()
+                    .like(Person::getLastName, GeneralInfo::getFullName, Person::getEscape).and()
+                    .startsWith(Person::getLastName, "lname");
+            String sql = stream.sql();
+            System.out.println(sql);
+            Person person = stream.firstOrDefault(new Person());
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println(person);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(10)
+    public void queryLikeValueTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            // ============= Query construction ============== //
+            JpaQueryStream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, Person::getAddrress).and().like(Person::getLastName, "lname%", 'e')
+                    .and().startsWith(Person::getLastName, "lname");
+            String sql = stream.sql();
+            System.out.println(sql);
+            Person person = stream.firstOrDefault(new Person());
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println(person);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(10)
+    public void queryMaxTest() {
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            // ============= Query construction ============== //
+            JpaQueryStream<Long> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, Person::getAddrress).and().like(Person::getLastName, "lname%", 'e')
+                    .and().startsWith(Person::getLastName, "lname").max(Person::getPersonId);
+            String sql = stream.sql();
+            System.out.println(sql);
+            Long max = stream.firstOrDefault(Long.valueOf(0));
+            // =============================================//
+            System.out.println();
+            System.out.println("-------Entity----");
+            System.out.println(max);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(11)
+    public void preparedCriteriaTest() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            em.persist(QueryTest.initPerson());
+            // ============= Query construction ============== //
+            PreparedCriteria<Person> criteria = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO1).and().like(Person::getLastName, "lname%").prepare();
+            // =============================================//
+            Assert.assertEquals(2, criteria.getParameters().size());
+            List<Person> persons = criteria.bind(PERSONAL_NO2, "lname%").toList(em);
+            List<Person> expected = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO2).and().like(Person::getLastName, "lname%").toList();
+            Assert.assertFalse(persons.isEmpty());
+            Assert.assertEquals(expected, persons);
+            Assert.assertTrue(criteria.bind(PERSONAL_NO2, "none%").toList(em).isEmpty());
+            String lastName = criteria.getParameters().get(1).getName();
+            Assert.assertEquals(persons,
+                    criteria.bind(PERSONAL_NO2, "none%").bindParameter(lastName, "lname%").toList(em));
+            try {
+                criteria.bind(PERSONAL_NO2);
+                Assert.fail("Parameter count should be validated");
+            } catch (IllegalArgumentException ex) {
+                System.out.println(ex.getMessage());
+            }
+        } finally {
+            rollback(transaction);
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(12)
+    public void streamTest() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            em.persist(QueryTest.initPerson());
+            em.persist(QueryTest.initPerson());
+            em.flush();
+            // ============= Query construction ============== //
+            List<Person> expected = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO2).toList();
+            List<Person> persons;
+            try (Stream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO2).setFetchSize(1).toStream()) {
+                persons = stream.collect(Collectors.toList());
+            }
+            // =============================================//
+            Assert.assertTrue(expected.size() > 1);
+            Assert.assertEquals(expected, persons);
+            AtomicInteger count = new AtomicInteger();
+            JpaQueryProvider.select(em, Person.class).where().equal(Person::getPersonalNo, PERSONAL_NO2)
+                    .forEach(c -> count.incrementAndGet());
+            Assert.assertEquals(expected.size(), count.get());
+            Iterator<Person> iterator = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO2).iterator();
+            Assert.assertTrue(iterator.hasNext());
+            Assert.assertEquals(expected.get(0), iterator.next());
+            Assert.assertEquals(expected.get(0), JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO2).getFirst());
+            Assert.assertNull(JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, "none").getFirst());
+        } finally {
+            rollback(transaction);
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(12)
+    public void streamEvictionTest() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            Person person = QueryTest.initPerson();
+            em.persist(person);
+            em.persist(QueryTest.initPerson());
+            em.persist(QueryTest.initPerson());
+            em.flush();
+            em.clear();
+            // Entity managed by caller before streaming
+            Person managed = em.find(Person.class, person.getPersonId());
+            // ============= Query construction ============== //
+            List<Person> persons;
+            try (Stream<Person> stream = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, PERSONAL_NO2).setFetchSize(1).toStream()) {
+                persons = stream.collect(Collectors.toList());
+            }
+            // =============================================//
+            Assert.assertTrue(persons.size() > 2);
+            Assert.assertTrue(persons.contains(managed));
+            for (Person streamed : persons) {
+                Assert.assertEquals(streamed == managed, em.contains(streamed));
+            }
+        } finally {
+            rollback(transaction);
+            em.close();
+        }
+    }
+
+    @Test
+    @RunOrder(13)
+    public void batchTest() {
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            List<Person> persons = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Person person = QueryTest.initPerson();
+                person.setPersonalNo("batch");
+                persons.add(person);
+            }
+            // ============= Batch execution ============== //
+            int[] counts = JpaQueryProvider.batch(em, Person.class).setBatchSize(2).persist(persons);
+            // =============================================//
+            Assert.assertArrayEquals(new int[] { 2, 2, 1 }, counts);
+            List<Person> saved = JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, "batch").toList();
+            Assert.assertEquals(persons.size(), saved.size());
+            counts = JpaQueryProvider.batch(em, Person.class).setBatchSize(3).remove(persons);
+            Assert.assertArrayEquals(new int[] { 3, 2 }, counts);
+            Assert.assertNull(JpaQueryProvider.select(em, Person.class).where()
+                    .equal(Person::getPersonalNo, "batch").getFirst());
+        } finally {
+            rollback(transaction);
+            em.close();
+        }
+    }
+}
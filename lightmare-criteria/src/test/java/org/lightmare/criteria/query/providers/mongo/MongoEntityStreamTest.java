@@ -0,0 +1,44 @@
+package org.lightmare.criteria.query.providers.mongo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+
+public class MongoEntityStreamTest {
+
+    public static class Account {
+
+        private String accountNo;
+
+        private long balance;
+
+        public String getAccountNo() {
+            return accountNo;
+        }
+
+        public long getBalance() {
+            return balance;
+        }
+    }
+
+    @Test
+    public void emptyUpdateTest() {
+
+        MongoClient client = new MongoClient("localhost",
+                MongoClientOptions.builder().serverSelectionTimeout(1).build());
+        try {
+            MongoStream<Account> stream = MongoStreamProvider.update(client.getDatabase("test"), Account.class);
+            try {
+                stream.execute();
+                Assert.fail("UPDATE without fields to set should not be executed");
+            } catch (IllegalStateException ex) {
+                // UPDATE is rejected before it is sent to server
+                Assert.assertNotNull(ex.getMessage());
+            }
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.lightmare.criteria.query.providers.mongo.layers;
+
+import java.util.Date;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.BsonInt32;
+import org.bson.BsonNull;
+import org.bson.BsonObjectId;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.lightmare.criteria.annotations.DBColumn;
+import org.lightmare.criteria.annotations.DBTransient;
+
+import com.mongodb.MongoClient;
+
+public class EntityCodecTest {
+
+    public static class Customer {
+
+        private static final String PREFIX = "customer";
+
+        @DBColumn("customer_no")
+        private String customerNo;
+
+        private long visits;
+
+        private Integer rank;
+
+        private Date created;
+
+        @DBTransient
+        private String note;
+    }
+
+    @Test
+    public void roundTripTest() {
+
+        CodecRegistry registry = EntityCodec.register(Customer.class, MongoClient.getDefaultCodecRegistry());
+        EntityCodec<Customer> codec = new EntityCodec<>(Customer.class, MongoClient.getDefaultCodecRegistry());
+        Assert.assertSame(Customer.class, registry.get(Customer.class).getEncoderClass());
+
+        Customer customer = new Customer();
+        customer.customerNo = Customer.PREFIX + 1;
+        customer.visits = 7L;
+        customer.created = new Date(1000L);
+        customer.note = "transient";
+        BsonDocument document = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(document), customer, EncoderContext.builder().build());
+        Assert.assertEquals("customer1", document.getString("customer_no").getValue());
+        Assert.assertFalse(document.containsKey("rank"));
+        Assert.assertFalse(document.containsKey("note"));
+        Assert.assertFalse(document.containsKey("PREFIX"));
+
+        // Unknown keys are skipped and null values leave fields unset
+        document.put("_id", new BsonObjectId());
+        document.put("rank", BsonNull.VALUE);
+        document.put("extra", new BsonInt32(3));
+        Customer decoded = codec.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+        Assert.assertEquals(customer.customerNo, decoded.customerNo);
+        Assert.assertEquals(customer.visits, decoded.visits);
+        Assert.assertEquals(customer.created, decoded.created);
+        Assert.assertNull(decoded.rank);
+        Assert.assertNull(decoded.note);
+    }
+}
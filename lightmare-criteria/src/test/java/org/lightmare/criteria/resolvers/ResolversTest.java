@@ -2,10 +2,15 @@ package org.lightmare.criteria.resolvers;
 
 import java.util.Date;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.lightmare.criteria.cache.LambdaCache;
+import org.lightmare.criteria.cache.MethodCache;
 import org.lightmare.criteria.entities.Person;
 import org.lightmare.criteria.functions.EntityField;
+import org.lightmare.criteria.lambda.LambdaInfo;
+import org.lightmare.criteria.lambda.LambdaReplacements;
 import org.lightmare.criteria.lambda.LambdaUtils;
 import org.lightmare.criteria.runorder.RunOrder;
 import org.lightmare.criteria.runorder.SortedRunner;
@@ -24,4 +29,59 @@ public class ResolversTest {
         QueryTuple tuple2 = LambdaUtils.getOrInit(field2);
         System.out.format("tuple1 - %s tuple2 - %s\n", tuple1, tuple2);
     }
+
+    @Test
+    @RunOrder(1)
+    public void bytecodeCacheTest() {
+
+        EntityField<Person, String> field = c -> c.getLastName();
+        LambdaInfo lambda = LambdaReplacements.getReplacement(field);
+        long misses = MethodCache.getStatistics().getMisses();
+        QueryTuple tuple1 = FieldResolver.resolve(lambda);
+        QueryTuple tuple2 = FieldResolver.resolve(lambda);
+        Assert.assertEquals("lastName", tuple1.getFieldName());
+        Assert.assertEquals(Person.class, tuple2.getEntityType());
+        Assert.assertTrue(MethodCache.getStatistics().getMisses() <= misses + 1);
+        Assert.assertTrue(MethodCache.getStatistics().getHits() > 0);
+    }
+
+    @Test
+    @RunOrder(2)
+    public void lambdaCacheTest() {
+
+        EntityField<Person, String> field = Person::getFirstName;
+        long hits = LambdaCache.getHits();
+        QueryTuple tuple1 = LambdaUtils.getOrInit(field);
+        QueryTuple tuple2 = LambdaUtils.getOrInit(field);
+        Assert.assertEquals("firstName", tuple1.getFieldName());
+        Assert.assertEquals(tuple1.getFieldName(), tuple2.getFieldName());
+        Assert.assertTrue(LambdaCache.getHits() > hits);
+        Assert.assertTrue(LambdaCache.getHitRate() > 0D);
+    }
+
+    @Test
+    @RunOrder(3)
+    public void sharedTupleTest() {
+
+        EntityField<Person, String> field = Person::getLastName;
+        QueryTuple tuple1 = LambdaUtils.getOrInit(field);
+        QueryTuple tuple2 = LambdaUtils.getOrInit(field);
+        Assert.assertSame(tuple1, tuple2);
+
+        QueryTuple bound1 = tuple1.bind("e", "last_name");
+        QueryTuple bound2 = tuple2.bind("e", "last_name");
+        Assert.assertSame(bound1, bound2);
+        Assert.assertNotSame(tuple1, bound1);
+        Assert.assertEquals("last_name", bound1.getFieldName());
+        Assert.assertEquals("e", bound1.getAlias());
+        Assert.assertEquals("lastName", tuple1.getFieldName());
+        Assert.assertNull(tuple1.getAlias());
+        Assert.assertSame(bound1, bound1.bind("e", "last_name"));
+
+        QueryTuple typed1 = tuple1.specialize(Object.class, (c, t) -> t.setEntityType(c));
+        QueryTuple typed2 = tuple1.specialize(Object.class, (c, t) -> Assert.fail("Variant should be cached"));
+        Assert.assertSame(typed1, typed2);
+        Assert.assertEquals(Object.class, typed1.getEntityType());
+        Assert.assertEquals(Person.class, tuple1.getEntityType());
+    }
 }
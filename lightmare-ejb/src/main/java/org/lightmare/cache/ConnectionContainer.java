@@ -217,20 +217,13 @@ public class ConnectionContainer {
      * Waits until {@link ConnectionSemaphore} is in progress (locked).
      *
      * @param semaphore
+     * @throws IOException
+     *             if bootstrap of connection failed
      */
-    private static void awaitConnection(ConnectionSemaphore semaphore) {
-
-        synchronized (semaphore) {
-            boolean inProgress = checkOnProgress(semaphore);
-            while (inProgress) {
-                try {
-                    semaphore.wait();
-                    inProgress = checkOnProgress(semaphore);
-                } catch (InterruptedException ex) {
-                    inProgress = Boolean.FALSE;
-                    LOG.error(ex.getMessage(), ex);
-                }
-            }
+    private static void awaitConnection(ConnectionSemaphore semaphore) throws IOException {
+
+        if (checkOnProgress(semaphore)) {
+            semaphore.await();
         }
     }
 
@@ -240,8 +233,9 @@ public class ConnectionContainer {
      *
      * @param semaphore
      * @return <code>boolean</code>
+     * @throws IOException
      */
-    private static boolean isInProgress(ConnectionSemaphore semaphore) {
+    private static boolean isInProgress(ConnectionSemaphore semaphore) throws IOException {
 
         boolean inProgress = ObjectUtils.notNull(semaphore);
 
@@ -261,8 +255,9 @@ public class ConnectionContainer {
      *
      * @param jndiName
      * @return <code>boolean</code>
+     * @throws IOException
      */
-    public static boolean isInProgress(String jndiName) {
+    public static boolean isInProgress(String jndiName) throws IOException {
 
         boolean inProgress;
 
@@ -305,7 +300,7 @@ public class ConnectionContainer {
         if (inProgress) {
             inProgress = checkOnProgress(semaphore);
             if (inProgress) {
-                awaitConnection(semaphore);
+                semaphore.await();
             }
             emf = semaphore.getEmf();
         } else {
@@ -402,7 +397,12 @@ public class ConnectionContainer {
         // Removes appropriate connection from cache and JNDI lookup
         ConnectionSemaphore semaphore = CONNECTIONS.get(unitName);
         if (ObjectUtils.notNull(semaphore)) {
-            awaitConnection(semaphore);
+            try {
+                awaitConnection(semaphore);
+            } catch (IOException ex) {
+                // Connection of failed bootstrap is removed anyway
+                LOG.error(ex.getMessage(), ex);
+            }
             closeConnection(semaphore);
         }
     }
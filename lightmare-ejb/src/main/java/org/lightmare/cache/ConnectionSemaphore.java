@@ -22,6 +22,8 @@
  */
 package org.lightmare.cache;
 
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -66,6 +68,15 @@ public class ConnectionSemaphore {
     // Check if needs configure EntityManagerFactory
     private final AtomicBoolean check = new AtomicBoolean();
 
+    // Released when EntityManagerFactory is built and bound or its bootstrap
+    // failed
+    private final CountDownLatch initialization = new CountDownLatch(INITIALIZATION_COUNT);
+
+    // Cause of failed bootstrap
+    private volatile Throwable failure;
+
+    private static final int INITIALIZATION_COUNT = 1;
+
     // Default semaphore capacity
     public static final int MINIMAL_USERS = 1;
 
@@ -132,4 +143,49 @@ public class ConnectionSemaphore {
     public boolean isCheck() {
         return check.getAndSet(Boolean.TRUE);
     }
+
+    /**
+     * Marks connection as initialized and releases threads waiting for it
+     */
+    public void complete() {
+        setInProgress(Boolean.FALSE);
+        initialization.countDown();
+    }
+
+    /**
+     * Marks connection initialization as failed and releases threads waiting
+     * for it
+     *
+     * @param ex
+     */
+    public void fail(Throwable ex) {
+        failure = ex;
+        initialization.countDown();
+    }
+
+    /**
+     * Waits until connection initialization is finished
+     *
+     * @return {@link EntityManagerFactory} for this connection
+     * @throws IOException
+     *             if initialization failed or waiting was interrupted
+     */
+    public EntityManagerFactory await() throws IOException {
+
+        EntityManagerFactory result;
+
+        try {
+            initialization.await();
+        } catch (InterruptedException ex) {
+            throw new IOException(ex);
+        }
+
+        if (failure == null) {
+            result = emf;
+        } else {
+            throw new IOException(failure);
+        }
+
+        return result;
+    }
 }
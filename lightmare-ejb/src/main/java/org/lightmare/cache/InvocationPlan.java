@@ -0,0 +1,105 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.cache;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+import javax.ejb.TransactionAttributeType;
+
+/**
+ * Container class to cache resolved bean {@link Method}, effective
+ * {@link TransactionAttributeType}, filtered interceptors and
+ * {@link MethodHandle} invoker for each proxy {@link Method} of EJB bean
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ * @see org.lightmare.cache.MetaData#getInvocationPlan(Method)
+ * @see org.lightmare.ejb.handlers.InvocationPlanFactory
+ */
+public class InvocationPlan {
+
+    // Real method of EJB bean class
+    private final Method beanMethod;
+
+    // Effective transaction attribute or null for bean managed transactions
+    private final TransactionAttributeType transactionType;
+
+    // Interceptors filtered for appropriated bean method in call order
+    private final InterceptorData[] interceptors;
+
+    // Interceptor methods in the same order as interceptors
+    private final Method[] interceptorMethods;
+
+    // Spread invoker with (Object, Object[])Object type
+    private final MethodHandle invoker;
+
+    public InvocationPlan(final Method beanMethod, final TransactionAttributeType transactionType,
+            final InterceptorData[] interceptors, final Method[] interceptorMethods, final MethodHandle invoker) {
+        this.beanMethod = beanMethod;
+        this.transactionType = transactionType;
+        this.interceptors = interceptors;
+        this.interceptorMethods = interceptorMethods;
+        this.invoker = invoker;
+    }
+
+    public Method getBeanMethod() {
+        return beanMethod;
+    }
+
+    public TransactionAttributeType getTransactionType() {
+        return transactionType;
+    }
+
+    public InterceptorData[] getInterceptors() {
+        return interceptors;
+    }
+
+    public Method[] getInterceptorMethods() {
+        return interceptorMethods;
+    }
+
+    /**
+     * Invokes cached bean {@link Method} on passed bean instance through
+     * {@link MethodHandle} and wraps thrown {@link Throwable} same way as
+     * {@link org.lightmare.utils.reflect.ClassUtils#invoke(Method, Object, Object...)}
+     *
+     * @param bean
+     * @param arguments
+     * @return {@link Object} returned by bean method
+     * @throws IOException
+     */
+    public Object invoke(Object bean, Object[] arguments) throws IOException {
+
+        Object value;
+
+        try {
+            value = (Object) invoker.invokeExact(bean, arguments);
+        } catch (Throwable th) {
+            throw new IOException(th.getMessage(), th);
+        }
+
+        return value;
+    }
+}
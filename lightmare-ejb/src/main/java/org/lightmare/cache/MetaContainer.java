@@ -40,11 +40,14 @@ import org.lightmare.config.Configuration;
 import org.lightmare.deploy.MetaCreator;
 import org.lightmare.ejb.exceptions.BeanInUseException;
 import org.lightmare.ejb.exceptions.BeanNotDeployedException;
+import org.lightmare.ejb.pool.BeanPool;
 import org.lightmare.libraries.LibraryLoader;
+import org.lightmare.remote.rpc.RpcMethods;
 import org.lightmare.rest.providers.RestProvider;
 import org.lightmare.utils.ObjectUtils;
 import org.lightmare.utils.collections.CollectionUtils;
 import org.lightmare.utils.fs.WatchUtils;
+import org.lightmare.utils.fs.codecs.NestedJarHandler;
 import org.lightmare.utils.logging.LogUtils;
 
 /**
@@ -374,7 +377,7 @@ public class MetaContainer {
                 String unitName = connection.getUnitName();
                 ConnectionSemaphore semaphore = connection.getConnection();
                 if (semaphore == null) {
-                    semaphore = ConnectionContainer.getConnection(unitName);
+                    semaphore = ConnectionContainer.getSemaphore(unitName);
                 }
                 // Clears connection from cache
                 if (ObjectUtils.notNull(semaphore) && semaphore.decrementUser() <= ConnectionSemaphore.MINIMAL_USERS) {
@@ -409,6 +412,13 @@ public class MetaContainer {
             if (RestContainer.hasRest()) {
                 RestProvider.remove(metaData.getBeanClass());
             }
+            // Releases methods published to RPC clients
+            RpcMethods.remove(beanName);
+            // Closes bean instance pool
+            BeanPool pool = metaData.getBeanPool();
+            if (ObjectUtils.notNull(pool)) {
+                pool.close();
+            }
             // Clears connection and unloads classes
             clearConnection(metaData);
             ClassLoader loader = metaData.getLoader();
@@ -438,6 +448,8 @@ public class MetaContainer {
             }
             // Clears EJB bean names
             removeBeanNames(url);
+            // Releases cached jar files nested in archive
+            NestedJarHandler.release(url);
         }
 
         return valid;
@@ -23,12 +23,15 @@
 package org.lightmare.cache;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.ejb.TransactionAttributeType;
@@ -37,6 +40,7 @@ import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceUnit;
 
 import org.lightmare.ejb.handlers.BeanHandler;
+import org.lightmare.ejb.pool.BeanPool;
 import org.lightmare.utils.collections.CollectionUtils;
 
 /**
@@ -97,9 +101,21 @@ public class MetaData {
     // Interceptors for appropriated EJB bean
     private Queue<InterceptorData> interceptors;
 
+    // Check if interceptor instances are shared between EJB bean instances
+    private boolean sharedInterceptors;
+
+    // Shared interceptor instances keyed by interceptor class
+    private final ConcurrentMap<Class<?>, Object> interceptorInstances = new ConcurrentHashMap<Class<?>, Object>();
+
     // BeanHandler cache to be cloned at invocation time
     private BeanHandler handler;
 
+    // Pool of bean instances (if pooling is enabled)
+    private BeanPool beanPool;
+
+    // Invocation plans keyed by proxy (interface) method
+    private final ConcurrentMap<Method, InvocationPlan> invocationPlans = new ConcurrentHashMap<Method, InvocationPlan>();
+
     public Class<?> getBeanClass() {
         return beanClass;
     }
@@ -278,6 +294,18 @@ public class MetaData {
         return interceptors;
     }
 
+    public boolean isSharedInterceptors() {
+        return sharedInterceptors;
+    }
+
+    public void setSharedInterceptors(boolean sharedInterceptors) {
+        this.sharedInterceptors = sharedInterceptors;
+    }
+
+    public ConcurrentMap<Class<?>, Object> getInterceptorInstances() {
+        return interceptorInstances;
+    }
+
     public BeanHandler getHandler() {
         return handler;
     }
@@ -285,4 +313,41 @@ public class MetaData {
     public void setHandler(BeanHandler handler) {
         this.handler = handler;
     }
+
+    public BeanPool getBeanPool() {
+        return beanPool;
+    }
+
+    public void setBeanPool(BeanPool beanPool) {
+        this.beanPool = beanPool;
+    }
+
+    /**
+     * Gets cached {@link InvocationPlan} for passed proxy {@link Method}
+     *
+     * @param method
+     * @return {@link InvocationPlan} or null if it is not resolved yet
+     */
+    public InvocationPlan getInvocationPlan(Method method) {
+        return invocationPlans.get(method);
+    }
+
+    /**
+     * Caches {@link InvocationPlan} for passed proxy {@link Method} if it is
+     * not cached yet
+     *
+     * @param method
+     * @param plan
+     * @return {@link InvocationPlan} cached for this method
+     */
+    public InvocationPlan addInvocationPlan(Method method, InvocationPlan plan) {
+
+        InvocationPlan existing = invocationPlans.putIfAbsent(method, plan);
+
+        if (existing == null) {
+            existing = plan;
+        }
+
+        return existing;
+    }
 }
@@ -24,9 +24,12 @@ package org.lightmare.cache;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import org.lightmare.deploy.BeanLoader;
 
@@ -35,7 +38,7 @@ import org.lightmare.deploy.BeanLoader;
  *
  * @author Levan Tsinadze
  * @since 0.0.45
- * @see org.lightmare.deploy.BeanLoader#removeResources(List)
+ * @see org.lightmare.deploy.BeanLoader#removeResources(List, Collection)
  * @see org.lightmare.utils.finalizers.ShutDown
  */
 public class TmpResources {
@@ -43,6 +46,9 @@ public class TmpResources {
     // Cache for all temporal files used at deployment time
     private Set<List<File>> tmpFiles = new HashSet<List<File>>();
 
+    // Deployments which use temporal files
+    private Collection<Future<?>> deployments = new ArrayList<Future<?>>();
+
     /**
      * Caches passed collection of temporal files
      *
@@ -58,17 +64,30 @@ public class TmpResources {
     }
 
     /**
-     * Deletes all temporal files used for deployment
+     * Caches deployment which uses temporal files, files are removed after
+     * this deployment is finished
+     *
+     * @param deployment
+     */
+    public void addDeployment(Future<?> deployment) {
+        deployments.add(deployment);
+    }
+
+    /**
+     * Deletes all temporal files used for deployment after cached deployments
+     * are finished
      *
      * @throws IOException
      */
     public void removeTempFiles() throws IOException {
 
+        Collection<Future<?>> pending = new ArrayList<Future<?>>(deployments);
         for (List<File> files : tmpFiles) {
-            BeanLoader.removeResources(files);
+            BeanLoader.removeResources(files, pending);
         }
-        // Clears temporal files cache
+        // Clears temporal files and deployments cache
         tmpFiles.clear();
+        deployments.clear();
     }
 
     /**
@@ -34,7 +34,7 @@ import javax.transaction.UserTransaction;
  * @see org.lightmare.jpa.jta.BeanTransactions#getTransaction(java.util.Collection)
  * @see org.lightmare.jpa.jta.BeanTransactions#getTransaction(javax.persistence.EntityTransaction...)
  * @see org.lightmare.jpa.jta.BeanTransactions#remove(org.lightmare.ejb.handlers.BeanHandler,
- *      java.lang.reflect.Method)
+ *      org.lightmare.cache.InvocationPlan)
  */
 public class TransactionHolder {
 
@@ -22,6 +22,7 @@
  */
 package org.lightmare.config;
 
+import java.io.File;
 import java.util.Arrays;
 import java.util.HashSet;
 
@@ -57,6 +58,66 @@ public enum ConfigKeys {
 
     CONNECTION_TIMEOUT("timeout", 1000), // Connection timeout
 
+    CALL_TIMEOUT("callTimeout", 0L), // Remote call response timeout in
+                                     // milliseconds (not positive means no
+                                     // timeout)
+
+    RPC_CODEC("rpcCodec", "binary"), // RPC wire protocol codec name
+
+    RPC_POOLED_BUFFERS("rpcPooledBuffers", Boolean.TRUE), // Pooled direct
+                                                          // buffers for RPC
+                                                          // frames
+
+    RPC_EPOLL("rpcEpoll", Boolean.TRUE), // Native epoll transport if available
+
+    RPC_BACKLOG("rpcBacklog", 500), // Pending connections queue size
+
+    TCP_NO_DELAY("tcpNoDelay", Boolean.TRUE), // Disables Nagle's algorithm
+
+    REUSE_PORT("reusePort", Boolean.FALSE), // SO_REUSEPORT (epoll only)
+
+    WRITE_BUFFER_HIGH_WATER_MARK("writeBufferHighWaterMark", 65536), // Bytes
+
+    WRITE_BUFFER_LOW_WATER_MARK("writeBufferLowWaterMark", 32768), // Bytes
+
+    RPC_EXECUTOR_POOL("rpcExecutorPoolSize", 16), // Bean invocation threads
+                                                  // (0 - calls beans on
+                                                  // network threads)
+
+    RPC_EXECUTOR_QUEUE("rpcExecutorQueueSize", 1024), // Pending bean
+                                                      // invocations, further
+                                                      // requests are rejected
+
+    // Deployment properties
+    DEPLOYMENT_POOL("deploymentPoolSize", 0), // Deployment threads (0 -
+                                              // number of processors but
+                                              // not less than 5)
+
+    SCAN_INDEX("scanIndex", Boolean.FALSE), // Caches scanned archive indexes
+
+    // Index directory of current user, files are used only if it is owned by
+    // this user and not writable by others
+    SCAN_INDEX_PATH("scanIndexPath", new File(System.getProperty("java.io.tmpdir"),
+            "lightmare-scan-index-" + System.getProperty("user.name")).getPath()),
+
+    // Bean invocation properties
+    SHARED_INTERCEPTORS("sharedInterceptors", Boolean.FALSE), // Shares
+                                                              // interceptor
+                                                              // instances
+
+    // Stateless bean instance pool properties
+    BEAN_POOL("beanPool", Boolean.FALSE), // Enables bean instance pool
+
+    BEAN_POOL_MIN_SIZE("beanPoolMinSize", 0), // Pre-warmed instances
+
+    BEAN_POOL_MAX_SIZE("beanPoolMaxSize", 64), // Maximum instances
+
+    BEAN_POOL_IDLE_TIMEOUT("beanPoolIdleTimeout", 300000L), // Idle time in
+                                                             // milliseconds
+
+    BEAN_POOL_WAIT_TIMEOUT("beanPoolWaitTimeout", 30000L), // Wait time in
+                                                            // milliseconds
+
     // Configuration key for modules
     MODULES(EJBContainer.MODULES, CollectionUtils.EMPTY_ARRAY), // Sets modules
 
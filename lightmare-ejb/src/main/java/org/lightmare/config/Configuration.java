@@ -537,6 +537,309 @@ public class Configuration extends AbstractConfiguration implements Cloneable {
         setConfigValue(ConfigKeys.WATCH_STATUS.key, watchStatus);
     }
 
+    /**
+     * Checks if interceptor instances are shared between all instances of EJB
+     * bean or are created for each bean instance
+     *
+     * @return <code>boolean</code>
+     */
+    public boolean isSharedInterceptors() {
+
+        boolean answer;
+
+        Object value = getConfigValue(ConfigKeys.SHARED_INTERCEPTORS.key, ConfigKeys.SHARED_INTERCEPTORS.value);
+        answer = ConfigUtils.getBoolean(value);
+
+        return answer;
+    }
+
+    public void setSharedInterceptors(boolean sharedInterceptors) {
+        setConfigValue(ConfigKeys.SHARED_INTERCEPTORS.key, sharedInterceptors);
+    }
+
+    /**
+     * Checks if RPC server and client allocate frames from pooled direct
+     * buffers
+     *
+     * @return <code>boolean</code>
+     */
+    public boolean isRpcPooledBuffers() {
+
+        boolean answer;
+
+        Object value = getConfigValue(ConfigKeys.RPC_POOLED_BUFFERS.key, ConfigKeys.RPC_POOLED_BUFFERS.value);
+        answer = ConfigUtils.getBoolean(value);
+
+        return answer;
+    }
+
+    public void setRpcPooledBuffers(boolean rpcPooledBuffers) {
+        setConfigValue(ConfigKeys.RPC_POOLED_BUFFERS.key, rpcPooledBuffers);
+    }
+
+    /**
+     * Checks if native epoll transport should be used for RPC server and
+     * client when it is available
+     *
+     * @return <code>boolean</code>
+     */
+    public boolean isRpcEpoll() {
+
+        boolean answer;
+
+        Object value = getConfigValue(ConfigKeys.RPC_EPOLL.key, ConfigKeys.RPC_EPOLL.value);
+        answer = ConfigUtils.getBoolean(value);
+
+        return answer;
+    }
+
+    public void setRpcEpoll(boolean rpcEpoll) {
+        setConfigValue(ConfigKeys.RPC_EPOLL.key, rpcEpoll);
+    }
+
+    public int getRpcBacklog() {
+
+        int backlog;
+
+        Object value = getConfigValue(ConfigKeys.RPC_BACKLOG.key);
+        backlog = ConfigUtils.getInt(value, ConfigKeys.RPC_BACKLOG.<Integer> getValue());
+
+        return backlog;
+    }
+
+    public void setRpcBacklog(int backlog) {
+        setConfigValue(ConfigKeys.RPC_BACKLOG.key, backlog);
+    }
+
+    public long getCallTimeout() {
+
+        long timeout;
+
+        Object value = getConfigValue(ConfigKeys.CALL_TIMEOUT.key);
+        timeout = ConfigUtils.getLong(value, ConfigKeys.CALL_TIMEOUT.<Long> getValue());
+
+        return timeout;
+    }
+
+    public void setCallTimeout(long callTimeout) {
+        setConfigValue(ConfigKeys.CALL_TIMEOUT.key, callTimeout);
+    }
+
+    public boolean isTcpNoDelay() {
+
+        boolean answer;
+
+        Object value = getConfigValue(ConfigKeys.TCP_NO_DELAY.key, ConfigKeys.TCP_NO_DELAY.value);
+        answer = ConfigUtils.getBoolean(value);
+
+        return answer;
+    }
+
+    public void setTcpNoDelay(boolean tcpNoDelay) {
+        setConfigValue(ConfigKeys.TCP_NO_DELAY.key, tcpNoDelay);
+    }
+
+    public boolean isReusePort() {
+
+        boolean answer;
+
+        Object value = getConfigValue(ConfigKeys.REUSE_PORT.key, ConfigKeys.REUSE_PORT.value);
+        answer = ConfigUtils.getBoolean(value);
+
+        return answer;
+    }
+
+    public void setReusePort(boolean reusePort) {
+        setConfigValue(ConfigKeys.REUSE_PORT.key, reusePort);
+    }
+
+    public int getWriteBufferHighWaterMark() {
+
+        int mark;
+
+        Object value = getConfigValue(ConfigKeys.WRITE_BUFFER_HIGH_WATER_MARK.key);
+        mark = ConfigUtils.getInt(value, ConfigKeys.WRITE_BUFFER_HIGH_WATER_MARK.<Integer> getValue());
+
+        return mark;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+
+        int mark;
+
+        Object value = getConfigValue(ConfigKeys.WRITE_BUFFER_LOW_WATER_MARK.key);
+        mark = ConfigUtils.getInt(value, ConfigKeys.WRITE_BUFFER_LOW_WATER_MARK.<Integer> getValue());
+
+        return mark;
+    }
+
+    public void setWriteBufferWaterMarks(int lowWaterMark, int highWaterMark) {
+        setConfigValue(ConfigKeys.WRITE_BUFFER_LOW_WATER_MARK.key, lowWaterMark);
+        setConfigValue(ConfigKeys.WRITE_BUFFER_HIGH_WATER_MARK.key, highWaterMark);
+    }
+
+    /**
+     * Gets size of thread pool for bean invocations from RPC requests, zero
+     * means that beans are called on network threads
+     *
+     * @return <code>int</code>
+     */
+    public int getRpcExecutorPoolSize() {
+
+        int size;
+
+        Object value = getConfigValue(ConfigKeys.RPC_EXECUTOR_POOL.key);
+        size = ConfigUtils.getInt(value, ConfigKeys.RPC_EXECUTOR_POOL.<Integer> getValue());
+
+        return size;
+    }
+
+    public void setRpcExecutorPoolSize(int size) {
+        setConfigValue(ConfigKeys.RPC_EXECUTOR_POOL.key, size);
+    }
+
+    public int getRpcExecutorQueueSize() {
+
+        int size;
+
+        Object value = getConfigValue(ConfigKeys.RPC_EXECUTOR_QUEUE.key);
+        size = ConfigUtils.getInt(value, ConfigKeys.RPC_EXECUTOR_QUEUE.<Integer> getValue());
+
+        return size;
+    }
+
+    public void setRpcExecutorQueueSize(int size) {
+        setConfigValue(ConfigKeys.RPC_EXECUTOR_QUEUE.key, size);
+    }
+
+    /**
+     * Gets size of thread pool for parallel deployment of beans, zero means
+     * size by available processors
+     *
+     * @return <code>int</code>
+     */
+    public int getDeploymentPoolSize() {
+
+        int size;
+
+        Object value = getConfigValue(ConfigKeys.DEPLOYMENT_POOL.key);
+        size = ConfigUtils.getInt(value, ConfigKeys.DEPLOYMENT_POOL.<Integer> getValue());
+
+        return size;
+    }
+
+    public void setDeploymentPoolSize(int size) {
+        setConfigValue(ConfigKeys.DEPLOYMENT_POOL.key, size);
+    }
+
+    /**
+     * Checks if scanning results of unchanged archives are cached on disk
+     *
+     * @return <code>boolean</code>
+     */
+    public boolean isScanIndex() {
+
+        boolean answer;
+
+        Object value = getConfigValue(ConfigKeys.SCAN_INDEX.key, ConfigKeys.SCAN_INDEX.value);
+        answer = ConfigUtils.getBoolean(value);
+
+        return answer;
+    }
+
+    public void setScanIndex(boolean scanIndex) {
+        setConfigValue(ConfigKeys.SCAN_INDEX.key, scanIndex);
+    }
+
+    /**
+     * Gets directory where scanning results of archives are cached
+     *
+     * @return {@link String}
+     */
+    public String getScanIndexPath() {
+
+        String path;
+
+        Object value = getConfigValue(ConfigKeys.SCAN_INDEX_PATH.key, ConfigKeys.SCAN_INDEX_PATH.value);
+        path = value.toString();
+
+        return path;
+    }
+
+    public void setScanIndexPath(String path) {
+        setConfigValue(ConfigKeys.SCAN_INDEX_PATH.key, path);
+    }
+
+    public boolean isBeanPool() {
+
+        boolean answer;
+
+        Object value = getConfigValue(ConfigKeys.BEAN_POOL.key, ConfigKeys.BEAN_POOL.value);
+        answer = ConfigUtils.getBoolean(value);
+
+        return answer;
+    }
+
+    public void setBeanPool(boolean beanPool) {
+        setConfigValue(ConfigKeys.BEAN_POOL.key, beanPool);
+    }
+
+    public int getBeanPoolMinSize() {
+
+        int size;
+
+        Object value = getConfigValue(ConfigKeys.BEAN_POOL_MIN_SIZE.key);
+        size = ConfigUtils.getInt(value, ConfigKeys.BEAN_POOL_MIN_SIZE.<Integer> getValue());
+
+        return size;
+    }
+
+    public void setBeanPoolMinSize(int minSize) {
+        setConfigValue(ConfigKeys.BEAN_POOL_MIN_SIZE.key, minSize);
+    }
+
+    public int getBeanPoolMaxSize() {
+
+        int size;
+
+        Object value = getConfigValue(ConfigKeys.BEAN_POOL_MAX_SIZE.key);
+        size = ConfigUtils.getInt(value, ConfigKeys.BEAN_POOL_MAX_SIZE.<Integer> getValue());
+
+        return size;
+    }
+
+    public void setBeanPoolMaxSize(int maxSize) {
+        setConfigValue(ConfigKeys.BEAN_POOL_MAX_SIZE.key, maxSize);
+    }
+
+    public long getBeanPoolIdleTimeout() {
+
+        long timeout;
+
+        Object value = getConfigValue(ConfigKeys.BEAN_POOL_IDLE_TIMEOUT.key);
+        timeout = ConfigUtils.getLong(value, ConfigKeys.BEAN_POOL_IDLE_TIMEOUT.<Long> getValue());
+
+        return timeout;
+    }
+
+    public void setBeanPoolIdleTimeout(long idleTimeout) {
+        setConfigValue(ConfigKeys.BEAN_POOL_IDLE_TIMEOUT.key, idleTimeout);
+    }
+
+    public long getBeanPoolWaitTimeout() {
+
+        long timeout;
+
+        Object value = getConfigValue(ConfigKeys.BEAN_POOL_WAIT_TIMEOUT.key);
+        timeout = ConfigUtils.getLong(value, ConfigKeys.BEAN_POOL_WAIT_TIMEOUT.<Long> getValue());
+
+        return timeout;
+    }
+
+    public void setBeanPoolWaitTimeout(long waitTimeout) {
+        setConfigValue(ConfigKeys.BEAN_POOL_WAIT_TIMEOUT.key, waitTimeout);
+    }
+
     /**
      * Property for persistence configuration
      *
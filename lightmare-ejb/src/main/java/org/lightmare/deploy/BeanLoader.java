@@ -26,6 +26,7 @@ import java.io.File;
 import java.io.IOException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Callable;
@@ -159,13 +160,15 @@ public class BeanLoader {
     }
 
     /**
-     * Creates and starts temporal resources removal process
+     * Creates and starts temporal resources removal process after passed
+     * deployments are finished
      *
      * @param tmpFiles
+     * @param deployments
      */
-    public static void removeResources(List<File> tmpFiles) throws IOException {
+    public static void removeResources(List<File> tmpFiles, Collection<Future<?>> deployments) throws IOException {
 
-        ResourceCleaner cleaner = new ResourceCleaner(tmpFiles);
+        ResourceCleaner cleaner = new ResourceCleaner(tmpFiles, deployments);
         ContextLoaderAction<Boolean> action = new ContextLoaderAction<Boolean>(cleaner);
         Callable<Boolean> privileged = AccessController.doPrivileged(action);
         try {
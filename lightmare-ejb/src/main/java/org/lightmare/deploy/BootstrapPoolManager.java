@@ -0,0 +1,151 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.deploy;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.apache.log4j.Logger;
+import org.lightmare.cache.ConnectionSemaphore;
+import org.lightmare.deploy.deployers.LoaderThreadFactory;
+import org.lightmare.libraries.LibraryLoader;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.logging.LogUtils;
+
+/**
+ * Manager class for {@link EntityManagerFactory} bootstrap of persistence
+ * units in parallel mode, independently of bean deployment threads
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ * @see ConnectionSemaphore#await()
+ */
+public abstract class BootstrapPoolManager {
+
+    // Thread pool for persistence units bootstrap
+    private static ExecutorService BOOTSTRAP_POOL;
+
+    private static final Logger LOG = Logger.getLogger(BootstrapPoolManager.class);
+
+    /**
+     * Task to build {@link EntityManagerFactory} for appropriated
+     * {@link ConnectionSemaphore} with passed {@link ClassLoader} as context
+     * class loader
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class BootstrapTask implements Callable<EntityManagerFactory> {
+
+        private final ConnectionSemaphore semaphore;
+
+        private final Callable<?> initializer;
+
+        private final ClassLoader loader;
+
+        public BootstrapTask(ConnectionSemaphore semaphore, Callable<?> initializer, ClassLoader loader) {
+            this.semaphore = semaphore;
+            this.initializer = initializer;
+            this.loader = loader;
+        }
+
+        @Override
+        public EntityManagerFactory call() throws Exception {
+
+            EntityManagerFactory emf;
+
+            long start = System.currentTimeMillis();
+            ClassLoader current = LibraryLoader.getContextClassLoader();
+            try {
+                LibraryLoader.loadCurrentLibraries(loader);
+                initializer.call();
+                emf = semaphore.getEmf();
+                LogUtils.info(LOG, "Bootstrap of unit %s took %s ms", semaphore.getUnitName(),
+                        (System.currentTimeMillis() - start));
+            } catch (Throwable ex) {
+                LogUtils.error(LOG, ex, "Could not bootstrap unit %s cause %s", semaphore.getUnitName(),
+                        ex.getMessage());
+                // Releases threads waiting for this connection
+                semaphore.fail(ex);
+                throw ex;
+            } finally {
+                LibraryLoader.loadCurrentLibraries(current);
+            }
+
+            return emf;
+        }
+    }
+
+    /**
+     * Gets or creates bootstrap {@link ExecutorService} sized as deployment
+     * pool
+     *
+     * @return {@link ExecutorService} instance
+     */
+    private static synchronized ExecutorService getBootstrapPool() {
+
+        if (BOOTSTRAP_POOL == null || BOOTSTRAP_POOL.isShutdown()) {
+            int size = LoaderPoolManager.getPoolSize();
+            BOOTSTRAP_POOL = Executors.newFixedThreadPool(size, new LoaderThreadFactory());
+        }
+
+        return BOOTSTRAP_POOL;
+    }
+
+    /**
+     * Submits bootstrap of persistence unit for passed
+     * {@link ConnectionSemaphore}, passed initializer should build and set
+     * {@link EntityManagerFactory} to semaphore
+     *
+     * @param semaphore
+     * @param initializer
+     * @param loader
+     * @return {@link Future} completed when unit is bootstrapped
+     */
+    public static Future<EntityManagerFactory> submit(ConnectionSemaphore semaphore, Callable<?> initializer,
+            ClassLoader loader) {
+
+        Future<EntityManagerFactory> future;
+
+        ExecutorService pool = getBootstrapPool();
+        future = pool.submit(new BootstrapTask(semaphore, initializer, loader));
+
+        return future;
+    }
+
+    /**
+     * Shuts down bootstrap {@link ExecutorService} after submitted tasks are
+     * finished
+     */
+    public static synchronized void reload() {
+
+        if (ObjectUtils.notNull(BOOTSTRAP_POOL)) {
+            BOOTSTRAP_POOL.shutdown();
+            BOOTSTRAP_POOL = null;
+        }
+    }
+}
@@ -45,9 +45,12 @@ import org.lightmare.utils.ObjectUtils;
  */
 public abstract class LoaderPoolManager {
 
-    // Amount of deployment thread pool
+    // Minimal amount of deployment thread pool
     private static final int LOADER_POOL_SIZE = 5;
 
+    // Configured amount of deployment thread pool
+    private static volatile int poolSize = defaultPoolSize();
+
     // Lock for pool reopening
     private static final Lock LOCK = new ReentrantLock();
 
@@ -57,6 +60,48 @@ public abstract class LoaderPoolManager {
     // Thread pool for deploying and removal of beans and temporal resources
     private static ExecutorService LOADER_POOL;
 
+    /**
+     * Calculates default size of deployment pool by available processors
+     *
+     * @return <code>int</code> pool size
+     */
+    private static int defaultPoolSize() {
+        return Math.max(LOADER_POOL_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Sets size of deployment thread pool, non positive size sets default
+     * size by available processors, running pool is reopened with new size
+     * after tasks in progress are finished
+     *
+     * @param size
+     * @throws IOException
+     */
+    public static void setPoolSize(int size) throws IOException {
+
+        int validSize;
+
+        if (size > 0) {
+            validSize = size;
+        } else {
+            validSize = defaultPoolSize();
+        }
+
+        if (validSize != poolSize) {
+            poolSize = validSize;
+            reload();
+        }
+    }
+
+    /**
+     * Gets size of deployment thread pool
+     *
+     * @return <code>int</code> pool size
+     */
+    public static int getPoolSize() {
+        return poolSize;
+    }
+
     /**
      * Gets current {@link MetaCreator}'s cached {@link ClassLoader} for threads
      *
@@ -130,7 +175,7 @@ public abstract class LoaderPoolManager {
         ExecutorService pool;
 
         ThreadFactory factory = new LoaderThreadFactory();
-        pool = Executors.newFixedThreadPool(LOADER_POOL_SIZE, factory);
+        pool = Executors.newFixedThreadPool(poolSize, factory);
 
         return pool;
     }
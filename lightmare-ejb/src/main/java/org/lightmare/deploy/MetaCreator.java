@@ -29,10 +29,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -42,8 +46,10 @@ import java.util.concurrent.locks.ReentrantLock;
 import javax.ejb.Local;
 import javax.ejb.Remote;
 import javax.ejb.Stateless;
+import javax.persistence.Entity;
 
 import org.apache.log4j.Logger;
+import org.lightmare.annotations.UnitName;
 import org.lightmare.cache.ArchiveData;
 import org.lightmare.cache.DeployData;
 import org.lightmare.cache.DeploymentDirectory;
@@ -56,6 +62,7 @@ import org.lightmare.deploy.BeanLoader.BeanParameters;
 import org.lightmare.deploy.fs.Watcher;
 import org.lightmare.jndi.JndiManager;
 import org.lightmare.jpa.datasource.Initializer;
+import org.lightmare.jpa.hibernate.internal.PersistenceXmlParserImpl;
 import org.lightmare.jpa.datasource.PoolConfig.PoolProviderType;
 import org.lightmare.libraries.LibraryLoader;
 import org.lightmare.remote.rpc.RPCall;
@@ -103,6 +110,9 @@ public class MetaCreator {
     // Caches deployment data meta information for file URL instance
     private Map<URL, DeployData> realURL;
 
+    // Entity class names scanned for persistence units by archive
+    private final ConcurrentMap<String, List<String>> entityScans = new ConcurrentHashMap<String, List<String>>();
+
     // Class loader for each deployment
     private ClassLoader current;
 
@@ -180,6 +190,10 @@ public class MetaCreator {
         return annotationFinder;
     }
 
+    public ConcurrentMap<String, List<String>> getEntityScans() {
+        return entityScans;
+    }
+
     public Map<String, ArchiveUtils> getAggregateds() {
 
         Map<String, ArchiveUtils> clone = new HashMap<String, ArchiveUtils>();
@@ -274,6 +288,19 @@ public class MetaCreator {
         }
     }
 
+    /**
+     * Awaits for all {@link Future} tasks of beans deployment if it set so by
+     * configuration
+     *
+     * @param futures
+     */
+    private void awaitDeployments(List<Future<String>> futures) {
+
+        for (Future<String> future : futures) {
+            awaitDeployment(future);
+        }
+    }
+
     /**
      * Awaits for {@link CountDownLatch} of deployments
      */
@@ -472,35 +499,138 @@ public class MetaCreator {
      * Starts bean deployment process for bean name
      *
      * @param beanName
+     * @return {@link Future} of bean deployment
      * @throws IOException
      */
-    private void deployBean(String beanName) throws IOException {
+    private Future<String> deployBean(String beanName) throws IOException {
+
+        Future<String> future;
 
         // Initializes and fills BeanParameters class to deploy EJB bean
         BeanLoader.BeanParameters parameters = initDeployParameters(beanName);
-        Future<String> future = BeanLoader.loadBean(parameters);
-        awaitDeployment(future);
+        future = BeanLoader.loadBean(parameters);
         List<File> tmpFiles = parameters.tmpFiles;
         if (CollectionUtils.valid(tmpFiles)) {
             tmpResources.addFile(tmpFiles);
+            tmpResources.addDeployment(future);
         }
+
+        return future;
     }
 
     /**
-     * Deployes passed bean names
+     * Deployes passed bean names, all beans are submitted to deployment pool
+     * at once and awaited afterwards if it set so by configuration
      *
      * @param beanNames
      */
     private void blockAndDeployBeans(Set<String> beanNames) {
 
+        List<Future<String>> futures = new ArrayList<Future<String>>();
         for (String beanName : beanNames) {
             LogUtils.info(LOG, "Deploing bean %s", beanName);
             try {
-                deployBean(beanName);
+                futures.add(deployBean(beanName));
             } catch (IOException ex) {
                 LogUtils.error(LOG, ex, "Could not deploy bean %s cause", beanName, ex.getMessage());
             }
         }
+        awaitDeployments(futures);
+    }
+
+    /**
+     * Collects cached {@link ArchiveData} of passed beans which
+     * {@link ClassLoader} is not initialized yet
+     *
+     * @param beanNames
+     * @return {@link Set} of {@link ArchiveData}
+     */
+    private Set<ArchiveData> getUnloadedArchives(Set<String> beanNames) {
+
+        Set<ArchiveData> unloaded = new LinkedHashSet<ArchiveData>();
+
+        for (String beanName : beanNames) {
+            URL currentURL = classOwnersURL.get(beanName);
+            ArchiveData archiveData = archivesURLs.get(currentURL);
+            if (ObjectUtils.notNull(archiveData) && archiveData.getLoader() == null
+                    && ObjectUtils.notNull(archiveData.getIoUtils())) {
+                unloaded.add(archiveData);
+            }
+        }
+
+        return unloaded;
+    }
+
+    /**
+     * Awaits for {@link ClassLoader} initialization task
+     *
+     * @param future
+     * @throws IOException
+     */
+    private static void awaitLoader(Future<ClassLoader> future) throws IOException {
+
+        try {
+            future.get();
+        } catch (InterruptedException ex) {
+            throw new IOException(ex);
+        } catch (ExecutionException ex) {
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    /**
+     * Initializes {@link ClassLoader}s of archives which contain passed beans
+     * in parallel, each archive is scanned and loaded once before beans
+     * deployment
+     *
+     * @param beanNames
+     * @throws IOException
+     */
+    private void initClassLoaders(Set<String> beanNames) throws IOException {
+
+        List<Future<ClassLoader>> futures = new ArrayList<Future<ClassLoader>>();
+        Set<ArchiveData> unloaded = getUnloadedArchives(beanNames);
+        for (final ArchiveData archiveData : unloaded) {
+            Future<ClassLoader> future = LoaderPoolManager.submit(new Callable<ClassLoader>() {
+
+                @Override
+                public ClassLoader call() throws IOException {
+
+                    ClassLoader loader;
+
+                    // Archive loaders are children of deployment class loader
+                    ClassLoader poolLoader = LibraryLoader.getContextClassLoader();
+                    LibraryLoader.loadCurrentLibraries(current);
+                    try {
+                        loader = initClassLoader(archiveData, archiveData.getIoUtils());
+                    } finally {
+                        LibraryLoader.loadCurrentLibraries(poolLoader);
+                    }
+
+                    return loader;
+                }
+            });
+            futures.add(future);
+        }
+
+        for (Future<ClassLoader> future : futures) {
+            awaitLoader(future);
+        }
+    }
+
+    /**
+     * Logs time of deployment stage started at passed time
+     *
+     * @param stage
+     * @param start
+     * @return <code>long</code> current time
+     */
+    private static long logStage(String stage, long start) {
+
+        long end = System.currentTimeMillis();
+        LogUtils.info(LOG, "Deployment stage %s took %s ms", stage, (end - start));
+
+        return end;
     }
 
     /**
@@ -517,12 +647,16 @@ public class MetaCreator {
      *
      * @param beanNames
      */
-    private void deployBeans(Set<String> beanNames) {
+    private void deployBeans(Set<String> beanNames) throws IOException {
 
+        long start = System.currentTimeMillis();
+        initClassLoaders(beanNames);
+        start = logStage("class loaders", start);
         blocker = new CountDownLatch(beanNames.size());
         blockAndDeployBeans(beanNames);
         // Locks until deployments are finished
         awaitDeployments();
+        start = logStage("beans", start);
         realoadRestServer();
         // Process post deployment procedures
         boolean hotDeployment = configuration.isHotDeployment();
@@ -531,6 +665,7 @@ public class MetaCreator {
             Watcher.startWatch();
             watchStatus = Boolean.TRUE;
         }
+        logStage("post deployment", start);
     }
 
     /**
@@ -588,6 +723,14 @@ public class MetaCreator {
         annotationFinder.setScanFieldAnnotations(Boolean.FALSE);
         annotationFinder.setScanParameterAnnotations(Boolean.FALSE);
         annotationFinder.setScanMethodAnnotations(Boolean.FALSE);
+        // Only beans and entities are looked up from scanned index
+        annotationFinder.setWantedAnnotations(Stateless.class.getName(), Entity.class.getName(),
+                UnitName.class.getName());
+        annotationFinder.setParallelism(LoaderPoolManager.getPoolSize());
+        // Unchanged archives are not scanned again
+        if (configuration.isScanIndex()) {
+            annotationFinder.setIndexDirectory(new File(configuration.getScanIndexPath()));
+        }
         annotationFinder.scanArchives(fullArchives);
         beanNames = annotationFinder.getAnnotationIndex().get(Stateless.class.getName());
         classOwnersURL = annotationFinder.getClassOwnersURLs();
@@ -605,14 +748,19 @@ public class MetaCreator {
     private void deploy(URL[] archives) throws IOException {
 
         configure(archives);
+        // Sizes deployment pool by configuration
+        LoaderPoolManager.setPoolSize(configuration.getDeploymentPoolSize());
         // Starts RPC server if configured as remote and server
         readRemoteProperties();
         // Loads libraries from specified path
         initLibraries();
         // Gets and caches class loader
         initClassLoader(archives);
+        long start = System.currentTimeMillis();
         Set<String> beanNames = readBeanNames(archives);
+        start = logStage("scan", start);
         Initializer.initializeDataSources(configuration);
+        logStage("data sources", start);
         if (CollectionUtils.valid(beanNames)) {
             deployBeans(beanNames);
         }
@@ -771,6 +919,9 @@ public class MetaCreator {
             classOwnersURL.clear();
             classOwnersURL = null;
         }
+        // Entity scan results and parsed persistence.xml files
+        entityScans.clear();
+        PersistenceXmlParserImpl.clearCache();
         // Configuration
         configuration = null;
     }
@@ -1035,6 +1186,69 @@ public class MetaCreator {
             return this;
         }
 
+        /**
+         * Sets boolean checker to share interceptor instances between all
+         * instances of EJB bean instead of creating them per bean instance
+         *
+         * @param sharedInterceptors
+         * @return {@link Builder}
+         */
+        public Builder setSharedInterceptors(boolean sharedInterceptors) {
+            creator.configuration.setSharedInterceptors(sharedInterceptors);
+            return this;
+        }
+
+        /**
+         * Sets boolean checker to pool stateless EJB bean instances
+         *
+         * @param beanPool
+         * @return {@link Builder}
+         */
+        public Builder setBeanPool(boolean beanPool) {
+            creator.configuration.setBeanPool(beanPool);
+            return this;
+        }
+
+        /**
+         * Sets minimal and maximal sizes of stateless EJB bean instance pool
+         *
+         * @param minSize
+         * @param maxSize
+         * @return {@link Builder}
+         */
+        public Builder setBeanPoolSize(int minSize, int maxSize) {
+            creator.configuration.setBeanPoolMinSize(minSize);
+            creator.configuration.setBeanPoolMaxSize(maxSize);
+            return this;
+        }
+
+        /**
+         * Sets idle time (in milliseconds) after which pooled bean instances
+         * are evicted and wait time (in milliseconds) for free instance
+         *
+         * @param idleTimeout
+         * @param waitTimeout
+         * @return {@link Builder}
+         */
+        public Builder setBeanPoolTimeouts(long idleTimeout, long waitTimeout) {
+            creator.configuration.setBeanPoolIdleTimeout(idleTimeout);
+            creator.configuration.setBeanPoolWaitTimeout(waitTimeout);
+            return this;
+        }
+
+        /**
+         * Sets amount of threads which deploy beans and initialize class
+         * loaders in parallel, non positive value means amount of available
+         * processors
+         *
+         * @param deploymentPoolSize
+         * @return {@link Builder}
+         */
+        public Builder setDeploymentPoolSize(int deploymentPoolSize) {
+            creator.configuration.setDeploymentPoolSize(deploymentPoolSize);
+            return this;
+        }
+
         /**
          * Sets boolean checker to block deployment processes
          *
@@ -1167,6 +1381,43 @@ public class MetaCreator {
             return this;
         }
 
+        /**
+         * Sets if native epoll transport is used for RPC server when it is
+         * available
+         *
+         * @param rpcEpoll
+         * @return {@link Builder}
+         */
+        public Builder setRpcEpoll(boolean rpcEpoll) {
+            creator.configuration.setRpcEpoll(rpcEpoll);
+            return this;
+        }
+
+        /**
+         * Sets amount of threads which call beans for RPC requests (zero to
+         * call beans on network threads)
+         *
+         * @param size
+         * @return {@link Builder}
+         */
+        public Builder setRpcExecutorThreads(int size) {
+            creator.configuration.setRpcExecutorPoolSize(size);
+            return this;
+        }
+
+        /**
+         * Sets low and high write buffer water marks (in bytes) of RPC
+         * connections
+         *
+         * @param lowWaterMark
+         * @param highWaterMark
+         * @return {@link Builder}
+         */
+        public Builder setWriteBufferWaterMarks(int lowWaterMark, int highWaterMark) {
+            creator.configuration.setWriteBufferWaterMarks(lowWaterMark, highWaterMark);
+            return this;
+        }
+
         /**
          * Adds deploy file path to application with boolean checker if file is
          * directory to scan this directory for deployment files list
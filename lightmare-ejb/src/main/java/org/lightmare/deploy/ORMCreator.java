@@ -25,10 +25,13 @@ package org.lightmare.deploy;
 import java.io.IOException;
 import java.net.URL;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.persistence.Entity;
 
@@ -37,6 +40,7 @@ import org.lightmare.config.Configuration;
 import org.lightmare.jpa.JpaManager;
 import org.lightmare.scannotation.AnnotationFinder;
 import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.StringUtils;
 import org.lightmare.utils.collections.CollectionUtils;
 import org.lightmare.utils.fs.codecs.ArchiveUtils;
 import org.lightmare.utils.reflect.ClassUtils;
@@ -48,12 +52,15 @@ import org.lightmare.utils.reflect.ClassUtils;
  * @since 0.0.80
  * @see org.lightmare.jpa.JpaManager
  */
-public class ORMCreator {
+public class ORMCreator implements Callable<Boolean> {
 
     private Map<String, ArchiveUtils> aggregateds;
 
     private AnnotationFinder annotationFinder;
 
+    // Entity class names shared between units of the same archive
+    private ConcurrentMap<String, List<String>> entityScans;
+
     private String unitName;
 
     private String beanName;
@@ -66,6 +73,7 @@ public class ORMCreator {
         Map<String, ArchiveUtils> aggregateds = creator.getAggregateds();
         this.aggregateds = new WeakHashMap<String, ArchiveUtils>(aggregateds);
         this.annotationFinder = creator.getAnnotationFinder();
+        this.entityScans = creator.getEntityScans();
     }
 
     /**
@@ -101,11 +109,12 @@ public class ORMCreator {
 
         String fileNameForEntity;
         boolean toBeRemoved;
-        for (String entityName : classSet) {
-            fileNameForEntity = classOwnersFiles.get(entityName);
+        Iterator<String> iterator = classSet.iterator();
+        while (iterator.hasNext()) {
+            fileNameForEntity = classOwnersFiles.get(iterator.next());
             toBeRemoved = ObjectUtils.notNullNotEquals(fileNameForEntity, fileNameForBean);
             if (toBeRemoved) {
-                classSet.remove(entityName);
+                iterator.remove();
             }
         }
     }
@@ -153,20 +162,22 @@ public class ORMCreator {
     }
 
     /**
-     * Gets entity class names from scanning
+     * Gets copy of entity class names from scanning, scanned index is shared
+     * and is not modified
      *
      * @return
      */
     private Set<String> scanEntities() {
 
-        Set<String> classSet;
+        Set<String> classSet = new HashSet<String>();
 
         Map<String, Set<String>> annotationIndex = annotationFinder.getAnnotationIndex();
-        classSet = annotationIndex.get(Entity.class.getName());
+        Set<String> entities = annotationIndex.get(Entity.class.getName());
+        if (CollectionUtils.valid(entities)) {
+            classSet.addAll(entities);
+        }
         String annotatedUnitName = configClone.getAnnotatedUnitName();
-        if (annotatedUnitName == null) {
-            classSet = annotationIndex.get(Entity.class.getName());
-        } else if (annotatedUnitName.equals(unitName)) {
+        if (ObjectUtils.notNull(annotatedUnitName) && annotatedUnitName.equals(unitName)) {
             Set<String> unitNamedSet = annotationIndex.get(UnitName.class.getName());
             // Intersects entities with unit name annotated classes
             classSet.retainAll(unitNamedSet);
@@ -205,11 +216,48 @@ public class ORMCreator {
     private void scanEntities(ArchiveUtils ioUtils, Map<String, String> classOwnersFiles, JpaManager.Builder builder)
             throws IOException {
 
-        Set<String> classSet = scanAndFilterEntities(ioUtils, classOwnersFiles);
-        List<String> classes = filterEntities(classSet);
+        String key = getScanKey(ioUtils, classOwnersFiles);
+        List<String> classes = entityScans.get(key);
+        if (classes == null) {
+            Set<String> classSet = scanAndFilterEntities(ioUtils, classOwnersFiles);
+            classes = filterEntities(classSet);
+            entityScans.putIfAbsent(key, classes);
+        }
         builder.setClasses(classes);
     }
 
+    /**
+     * Generates key of entity scan results, units of the same archive share
+     * scan results unless entities are filtered by unit name
+     *
+     * @param ioUtils
+     * @param classOwnersFiles
+     * @return {@link String} key for entity scan results
+     */
+    private String getScanKey(ArchiveUtils ioUtils, Map<String, String> classOwnersFiles) {
+
+        String key;
+
+        String fileNameForBean = null;
+        if (ObjectUtils.notNull(ioUtils)) {
+            fileNameForBean = classOwnersFiles.get(beanName);
+        }
+
+        if (fileNameForBean == null) {
+            fileNameForBean = StringUtils.EMPTY_STRING;
+        }
+
+        String annotatedUnitName = configClone.getAnnotatedUnitName();
+        if (annotatedUnitName == null) {
+            key = fileNameForBean;
+        } else {
+            key = StringUtils.concat(fileNameForBean, StringUtils.HYPHEN, annotatedUnitName, StringUtils.HYPHEN,
+                    unitName);
+        }
+
+        return key;
+    }
+
     /**
      * Adds JAR file {@link URL} to cache for read and deployment
      *
@@ -262,6 +310,14 @@ public class ORMCreator {
         builder.configure(configClone).setClassLoader(loader).build().create(unitName);
     }
 
+    @Override
+    public Boolean call() throws IOException {
+
+        configureConnection();
+
+        return Boolean.TRUE;
+    }
+
     /**
      * Instantiates {@link ORMCreator} with parameters
      *
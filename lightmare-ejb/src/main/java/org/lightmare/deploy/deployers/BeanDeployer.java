@@ -22,7 +22,6 @@
  */
 package org.lightmare.deploy.deployers;
 
-import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AccessibleObject;
@@ -36,6 +35,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.annotation.Resource;
 import javax.ejb.EJB;
@@ -48,6 +49,7 @@ import javax.ejb.TransactionManagementType;
 import javax.interceptor.AroundInvoke;
 import javax.interceptor.Interceptor;
 import javax.interceptor.Interceptors;
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.PersistenceContext;
 import javax.persistence.PersistenceUnit;
 
@@ -62,10 +64,13 @@ import org.lightmare.cache.MetaContainer;
 import org.lightmare.cache.MetaData;
 import org.lightmare.config.Configuration;
 import org.lightmare.deploy.BeanLoader.BeanParameters;
+import org.lightmare.deploy.BootstrapPoolManager;
 import org.lightmare.deploy.LoaderPoolManager;
 import org.lightmare.deploy.MetaCreator;
 import org.lightmare.deploy.ORMCreator;
 import org.lightmare.ejb.exceptions.BeanInUseException;
+import org.lightmare.ejb.handlers.InvocationPlanFactory;
+import org.lightmare.ejb.pool.BeanPool;
 import org.lightmare.libraries.LibraryLoader;
 import org.lightmare.rest.providers.RestProvider;
 import org.lightmare.utils.ObjectUtils;
@@ -95,8 +100,6 @@ public class BeanDeployer implements Callable<String> {
 
     private ClassLoader loader;
 
-    private List<File> tmpFiles;
-
     private MetaData metaData;
 
     private final CountDownLatch blocker;
@@ -105,6 +108,9 @@ public class BeanDeployer implements Callable<String> {
 
     private List<Field> unitFields;
 
+    // Connections which are bootstrapped for this bean
+    private List<Future<EntityManagerFactory>> bootstraps;
+
     private DeployData deployData;
 
     private boolean chekcWatch;
@@ -132,7 +138,6 @@ public class BeanDeployer implements Callable<String> {
         this.beanName = parameters.beanName;
         this.className = parameters.className;
         this.loader = parameters.loader;
-        this.tmpFiles = parameters.tmpFiles;
         this.metaData = parameters.metaData;
         this.blocker = parameters.blocker;
         this.deployData = parameters.deployData;
@@ -154,35 +159,61 @@ public class BeanDeployer implements Callable<String> {
     }
 
     /**
-     * Initializes {@link ORMCreator} instance and connection for EJB module
+     * Initializes {@link ORMCreator} instance for connection of EJB module
      *
      * @param semaphore
-     * @throws IOException
+     * @return {@link ORMCreator} instance
      */
-    private void initOrmCreator(ConnectionSemaphore semaphore) throws IOException {
-
-        ORMCreator orm = new ORMCreator.Builder(creator).setUnitName(semaphore.getUnitName()).setBeanName(beanName)
+    private ORMCreator initOrmCreator(ConnectionSemaphore semaphore) {
+        return new ORMCreator.Builder(creator).setUnitName(semaphore.getUnitName()).setBeanName(beanName)
                 .setClassLoader(loader).setConfiguration(configuration).build();
-        orm.configureConnection();
     }
 
     /**
-     * Locks {@link ConnectionSemaphore} if needed for connection processing
+     * Submits {@link ORMCreator} of connection to bootstrap pool if this bean
+     * is first one which uses this connection
      *
      * @param semaphore
-     * @param unitName
-     * @param jndiName
+     */
+    private void lockSemaphore(ConnectionSemaphore semaphore) {
+
+        if (Boolean.FALSE.equals(semaphore.isCheck())) {
+            ORMCreator orm = initOrmCreator(semaphore);
+            Future<EntityManagerFactory> bootstrap = BootstrapPoolManager.submit(semaphore, orm, loader);
+            addBootstrap(bootstrap);
+        }
+    }
+
+    /**
+     * Caches bootstrap {@link Future} of connection initialized for this bean
+     *
+     * @param bootstrap
+     */
+    private void addBootstrap(Future<EntityManagerFactory> bootstrap) {
+
+        if (bootstraps == null) {
+            bootstraps = new ArrayList<Future<EntityManagerFactory>>();
+        }
+
+        bootstraps.add(bootstrap);
+    }
+
+    /**
+     * Waits until all connections bootstrapped for this bean are initialized
+     *
      * @throws IOException
      */
-    private void lockSemaphore(ConnectionSemaphore semaphore) throws IOException {
-
-        synchronized (semaphore) {
-            if (Boolean.FALSE.equals(semaphore.isCheck())) {
-                try {
-                    initOrmCreator(semaphore);
-                } finally {
-                    semaphore.notifyAll();
+    private void awaitBootstraps() throws IOException {
+
+        if (CollectionUtils.valid(bootstraps)) {
+            try {
+                for (Future<EntityManagerFactory> bootstrap : bootstraps) {
+                    bootstrap.get();
                 }
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            } catch (ExecutionException ex) {
+                throw new IOException(ex.getCause());
             }
         }
     }
@@ -462,7 +493,7 @@ public class BeanDeployer implements Callable<String> {
         Method interceptorMethod;
         for (int i = CollectionUtils.FIRST_INDEX; i < length; i++) {
             interceptorClass = interceptorClasses[i];
-            interceptorMethods = ClassUtils.getAnnotatedMethods(beanClass, AroundInvoke.class);
+            interceptorMethods = ClassUtils.getAnnotatedMethods(interceptorClass, AroundInvoke.class);
             interceptorMethod = CollectionUtils.getFirst(interceptorMethods);
             InterceptorData data = new InterceptorData();
             data.setBeanClass(beanClass);
@@ -499,6 +530,10 @@ public class BeanDeployer implements Callable<String> {
      */
     private void identifyInterceptors(Class<?> beanClass) throws IOException {
 
+        if (ObjectUtils.notNull(configuration)) {
+            metaData.setSharedInterceptors(configuration.isSharedInterceptors());
+        }
+
         Interceptors interceptors = beanClass.getAnnotation(Interceptors.class);
         if (ObjectUtils.notNull(interceptors)) {
             cacheInterceptors(interceptors, beanClass);
@@ -600,6 +635,35 @@ public class BeanDeployer implements Callable<String> {
         }
     }
 
+    /**
+     * Creates {@link BeanPool} for deployed bean if pooling is enabled by
+     * configuration
+     *
+     * @param beanEjbName
+     */
+    private void createBeanPool(String beanEjbName) {
+
+        if (ObjectUtils.notNull(configuration) && configuration.isBeanPool()) {
+            BeanPool pool = new BeanPool(beanEjbName, metaData, configuration.getBeanPoolMinSize(),
+                    configuration.getBeanPoolMaxSize(), configuration.getBeanPoolIdleTimeout(),
+                    configuration.getBeanPoolWaitTimeout());
+            pool.start();
+            metaData.setBeanPool(pool);
+        }
+    }
+
+    /**
+     * Creates minimal amount of pooled bean instances after bean and it's
+     * persistence units are deployed
+     */
+    private void prewarmBeanPool() {
+
+        BeanPool pool = metaData.getBeanPool();
+        if (ObjectUtils.notNull(pool)) {
+            pool.prewarm();
+        }
+    }
+
     /**
      * Loads and caches bean {@link Class} by name
      *
@@ -619,7 +683,12 @@ public class BeanDeployer implements Callable<String> {
             createMeta(beanClass);
             indentifyInterfaces(beanClass);
             identifyInterceptors(beanClass);
+            InvocationPlanFactory.prepare(metaData);
+            createBeanPool(beanEjbName);
+            // Units are bootstrapped in parallel with bean processing
+            awaitBootstraps();
             metaData.setInProgress(Boolean.FALSE);
+            prewarmBeanPool();
         } catch (IOException ex) {
             releaseBlocker();
             throw ex;
@@ -657,44 +726,6 @@ public class BeanDeployer implements Callable<String> {
         return deployed;
     }
 
-    /**
-     * Deploys EJB bean from extracted EAR or JAR file
-     *
-     * @return {@link String} EJB bean name
-     */
-    private String deployExtracted() {
-
-        String deployed;
-
-        synchronized (tmpFiles) {
-            try {
-                deployed = deployFile();
-            } finally {
-                tmpFiles.notifyAll();
-            }
-        }
-
-        return deployed;
-    }
-
-    /**
-     * Deploys EJB bean from extracted EAR file or JAR file
-     *
-     * @return {@link String} EJB bean name
-     */
-    private String deployBean() {
-
-        String deployed;
-
-        if (ObjectUtils.notNull(tmpFiles)) {
-            deployed = deployExtracted();
-        } else {
-            deployed = deployFile();
-        }
-
-        return deployed;
-    }
-
     /**
      * Deploys EJB bean from extracted EAR file or JAR file
      *
@@ -706,7 +737,7 @@ public class BeanDeployer implements Callable<String> {
 
         synchronized (metaData) {
             try {
-                deployed = deployBean();
+                deployed = deployFile();
             } catch (Exception ex) {
                 LOG.error(ex.getMessage(), ex);
                 deployed = null;
@@ -23,8 +23,11 @@
 package org.lightmare.deploy.deployers;
 
 import java.io.File;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 import org.lightmare.deploy.LoaderPoolManager;
@@ -42,21 +45,42 @@ public class ResourceCleaner implements Callable<Boolean> {
 
     private List<File> tmpFiles;
 
+    // Deployments which use temporal files
+    private Collection<Future<?>> deployments;
+
     private static final Logger LOG = Logger.getLogger(ResourceCleaner.class);
 
-    public ResourceCleaner(List<File> tmpFiles) {
+    public ResourceCleaner(List<File> tmpFiles, Collection<Future<?>> deployments) {
         this.tmpFiles = tmpFiles;
+        this.deployments = deployments;
+    }
+
+    /**
+     * Waits until deployment is finished, failed deployments are logged by
+     * deployers
+     *
+     * @param deployment
+     * @throws InterruptedException
+     */
+    private static void await(Future<?> deployment) throws InterruptedException {
+
+        try {
+            deployment.get();
+        } catch (ExecutionException ex) {
+            LOG.debug(ex.getMessage(), ex);
+        }
     }
 
     /**
-     * Removes temporal resources after deploy {@link Thread} notifies
+     * Removes temporal resources after all deployments which use them are
+     * finished
      *
      * @throws InterruptedException
      */
     private void clearTmpData() throws InterruptedException {
 
-        synchronized (tmpFiles) {
-            tmpFiles.wait();
+        for (Future<?> deployment : deployments) {
+            await(deployment);
         }
 
         for (File tmpFile : tmpFiles) {
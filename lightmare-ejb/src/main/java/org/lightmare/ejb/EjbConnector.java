@@ -41,8 +41,10 @@ import org.lightmare.config.Configuration;
 import org.lightmare.ejb.handlers.BeanHandler;
 import org.lightmare.ejb.handlers.BeanHandlerFactory;
 import org.lightmare.ejb.handlers.BeanLocalHandlerFactory;
+import org.lightmare.ejb.handlers.PooledBeanHandler;
 import org.lightmare.ejb.handlers.RestHandler;
 import org.lightmare.ejb.handlers.RestHandlerFactory;
+import org.lightmare.ejb.pool.BeanPool;
 import org.lightmare.libraries.LibraryLoader;
 import org.lightmare.utils.ObjectUtils;
 import org.lightmare.utils.StringUtils;
@@ -144,6 +146,30 @@ public class EjbConnector {
         return handler;
     }
 
+    /**
+     * Creates {@link InvocationHandler} which uses pooled bean instances if
+     * {@link BeanPool} is configured for bean or
+     * dedicated bean instance otherwise
+     *
+     * @param metaData
+     * @return {@link InvocationHandler}
+     * @throws IOException
+     */
+    public InvocationHandler getInvocationHandler(MetaData metaData) throws IOException {
+
+        InvocationHandler handler;
+
+        BeanPool pool = metaData.getBeanPool();
+        if (pool == null) {
+            handler = getBeanHandler(metaData);
+        } else {
+            setEntityManagerFactories(metaData);
+            handler = new PooledBeanHandler(pool);
+        }
+
+        return handler;
+    }
+
     /**
      * Validates and get application {@link ClassLoader} instance
      *
@@ -269,7 +295,7 @@ public class EjbConnector {
 
         T beanInstance;
 
-        InvocationHandler handler = getBeanHandler(metaData);
+        InvocationHandler handler = getInvocationHandler(metaData);
         Class<?>[] interfaces = setInterfaces(metaData);
         Class<T>[] typedInterfaces = ObjectUtils.cast(interfaces);
         ClassLoader loader = metaData.getLoader();
@@ -296,11 +322,11 @@ public class EjbConnector {
         if (Configuration.isServer()) {
             MetaData metaData = getMeta(beanName);
             setInterfaces(metaData);
-            handler = getBeanHandler(metaData);
+            handler = getInvocationHandler(metaData);
             loader = metaData.getLoader();
         } else {
             if (rpcArgs.length == RpcUtils.RPC_ARGS_LENGTH) {
-                handler = BeanLocalHandlerFactory.get(rpcArgs);
+                handler = BeanLocalHandlerFactory.get(beanName, rpcArgs);
                 loader = null;
             } else {
                 throw new IOException(RpcUtils.RPC_ARGS_ERROR);
@@ -312,6 +338,35 @@ public class EjbConnector {
         return beanInstance;
     }
 
+    /**
+     * Creates client side implementation of remote bean interface which calls
+     * methods returning {@link java.util.concurrent.Future} asynchronously
+     * (results are {@link org.lightmare.remote.rpc.RpcFuture}s completed from
+     * network event loop) and waits for other methods, each call is failed
+     * after passed timeout (in milliseconds)
+     *
+     * @param beanName
+     * @param interfaceClass
+     * @param timeout
+     * @param rpcArgs
+     * @return <code>T</code> implementation of bean interface
+     * @throws IOException
+     */
+    public <T> T connectToBeanAsync(String beanName, Class<T> interfaceClass, long timeout, Object... rpcArgs)
+            throws IOException {
+
+        T beanInstance;
+
+        if (rpcArgs.length == RpcUtils.RPC_ARGS_LENGTH) {
+            InvocationHandler handler = BeanLocalHandlerFactory.get(beanName, timeout, rpcArgs);
+            beanInstance = instatiateBean(interfaceClass, handler, null);
+        } else {
+            throw new IOException(RpcUtils.RPC_ARGS_ERROR);
+        }
+
+        return beanInstance;
+    }
+
     /**
      * Creates custom implementation of bean {@link Class} by class name and its
      * {@link Proxy} interface name
@@ -26,8 +26,10 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
@@ -36,6 +38,7 @@ import javax.transaction.UserTransaction;
 
 import org.lightmare.cache.ConnectionData;
 import org.lightmare.cache.InjectionData;
+import org.lightmare.cache.InvocationPlan;
 import org.lightmare.cache.MetaContainer;
 import org.lightmare.cache.MetaData;
 import org.lightmare.ejb.EjbConnector;
@@ -57,9 +60,6 @@ public class BeanHandler implements InvocationHandler, Cloneable {
     // EJB bean instance
     private Object bean;
 
-    // EJB bean class
-    private final Class<?> beanClass;
-
     // Bean's field with Resource annotation
     private final Field transactionField;
 
@@ -70,18 +70,21 @@ public class BeanHandler implements InvocationHandler, Cloneable {
     private final Collection<InjectionData> injectionDatas;
 
     // Interceptor handler for given bean instance
-    private final InterceptorHandler interceptorHandel;
+    private InterceptorHandler interceptorHandel;
 
     // EJB meta data for given bean instance
     private final MetaData metaData;
 
+    // Lazy EntityManager handlers reused by calls of given bean instance
+    private Map<ConnectionData, LazyEntityManagerHandler> lazyHandlers;
+
     protected BeanHandler(final MetaData metaData) {
-        this.beanClass = metaData.getBeanClass();
         this.transactionField = metaData.getTransactionField();
         this.connectionDatas = metaData.getConnections();
         this.injectionDatas = metaData.getInjects();
         this.interceptorHandel = new InterceptorHandler(metaData);
         this.metaData = metaData;
+        this.lazyHandlers = new HashMap<ConnectionData, LazyEntityManagerHandler>();
     }
 
     public MetaData getMetaData() {
@@ -112,18 +115,6 @@ public class BeanHandler implements InvocationHandler, Cloneable {
         ClassUtils.setFieldValue(field, bean, value);
     }
 
-    /**
-     * Invokes passed bean {@link Method} for handlers EJB bean instance
-     *
-     * @param method
-     * @param arguments
-     * @return {@link Object}
-     * @throws IOException
-     */
-    private Object invokeMethod(Method method, Object... arguments) throws IOException {
-        return ClassUtils.invoke(method, bean, arguments);
-    }
-
     /**
      * Sets {@link EntityManager} as handlers EJB beans's annotated
      * {@link Field} value
@@ -262,96 +253,77 @@ public class BeanHandler implements InvocationHandler, Cloneable {
     }
 
     /**
-     * Initializes {@link EntityManager} end sets appropriated field
-     *
-     * @param emf
-     * @param unitField
-     * @return {@link EntityManager}
-     * @throws IOException
-     */
-    private EntityManager createEntityManager(EntityManagerFactory emf, Field unitField) throws IOException {
-
-        EntityManager em = emf.createEntityManager();
-
-        if (ObjectUtils.notNull(unitField)) {
-            setFieldValue(unitField, emf);
-        }
-
-        return em;
-    }
-
-    /**
-     * Creates {@link EntityManager} if passed {@link EntityManagerFactory} is
-     * not null
+     * Creates lazy {@link EntityManager} once per {@link EntityManagerFactory}
+     * and sets appropriated fields if passed {@link ConnectionData} has
+     * {@link EntityManagerFactory}, on next calls reuses created proxy
      *
-     * @return {@link EntityManager}
+     * @param connection
+     * @param plan
      * @throws IOException
      */
-    private EntityManager createEntityManager(ConnectionData connection) throws IOException {
-
-        EntityManager em;
+    private void setEntityManager(ConnectionData connection, InvocationPlan plan) throws IOException {
 
         EntityManagerFactory emf = connection.getEmf();
-        Field connectionField = connection.getConnectionField();
-        Field unitField = connection.getUnitField();
         if (ObjectUtils.notNull(emf)) {
-            em = createEntityManager(emf, unitField);
-            setConnection(connectionField, em);
-        } else {
-            em = null;
+            LazyEntityManagerHandler lazyHandler = lazyHandlers.get(connection);
+            if (lazyHandler == null || ObjectUtils.notEquals(emf, lazyHandler.getEmf())) {
+                Field unitField = connection.getUnitField();
+                if (ObjectUtils.notNull(unitField)) {
+                    setFieldValue(unitField, emf);
+                }
+                // Real EntityManager is created and enlisted at first use
+                lazyHandler = LazyEntityManagerHandler.create(this, emf);
+                Field connectionField = connection.getConnectionField();
+                setConnection(connectionField, lazyHandler.getProxy());
+                lazyHandlers.put(connection, lazyHandler);
+            }
+            lazyHandler.attach(plan);
         }
-
-        return em;
     }
 
     /**
-     * Initializes and creates collection of {@link EntityManager}s for EJB bean
+     * Sets lazy {@link EntityManager}s as bean's appropriate {@link Field}
+     * values
      *
-     * @return {@link Collection} of {@link EntityManager}s
+     * @param plan
      * @throws IOException
      */
-    private Collection<EntityManager> initEntityManagers() throws IOException {
-
-        Collection<EntityManager> ems = new ArrayList<EntityManager>();
+    private void setEntityManagers(InvocationPlan plan) throws IOException {
 
-        for (ConnectionData connection : connectionDatas) {
-            EntityManager em = createEntityManager(connection);
-            ems.add(em);
+        if (CollectionUtils.valid(connectionDatas)) {
+            for (ConnectionData connection : connectionDatas) {
+                setEntityManager(connection, plan);
+            }
         }
-
-        return ems;
     }
 
     /**
-     * Creates {@link EntityManager}s to set as bean's appropriate {@link Field}
-     * values
+     * Enlists {@link EntityManager} created at first use in current
+     * transaction
      *
-     * @return {@link Collection}<code><EntityManager></code>
-     * @throws IOException
+     * @param plan
+     * @param em
      */
-    private Collection<EntityManager> createEntityManagers() throws IOException {
-
-        Collection<EntityManager> ems;
+    protected void enlistEntityManager(InvocationPlan plan, EntityManager em) {
 
-        if (CollectionUtils.valid(connectionDatas)) {
-            ems = initEntityManagers();
+        Collection<EntityManager> ems = Collections.singletonList(em);
+        if (transactionField == null) {
+            BeanTransactions.enlistEntityManagers(plan, ems);
         } else {
-            ems = null;
+            getTransaction(ems);
         }
-
-        return ems;
     }
 
     /**
      * Commits and / or closes appropriated transaction
      *
-     * @param method
+     * @param plan
      * @throws IOException
      */
-    private void closeTransaction(Method method) throws IOException {
+    private void closeTransaction(InvocationPlan plan) throws IOException {
 
         if (transactionField == null) {
-            BeanTransactions.commitTransaction(this, method);
+            BeanTransactions.commitTransaction(this, plan);
         } else {
             BeanTransactions.closeEntityManagers();
         }
@@ -361,36 +333,35 @@ public class BeanHandler implements InvocationHandler, Cloneable {
      * Closes {@link EntityManager} if there is not
      * {@link javax.annotation.Resource} annotation in current bean
      *
-     * @param transaction
-     * @param em
+     * @param plan
      * @throws IOException
      */
-    private void close(Method method) throws IOException {
+    private void close(InvocationPlan plan) throws IOException {
 
         try {
-            if (ObjectUtils.notNull(method)) {
-                closeTransaction(method);
+            if (ObjectUtils.notNull(plan)) {
+                closeTransaction(plan);
             }
         } finally {
-            BeanTransactions.remove(this, method);
+            BeanTransactions.remove(this, plan);
         }
     }
 
     /**
      * Discards transaction in case of {@link Throwable} is thrown at passed
-     * {@link Method} execution time
+     * {@link InvocationPlan}'s method execution time
      *
-     * @param method
+     * @param plan
      * @throws IOException
      */
-    private void rollback(Method method) throws IOException {
+    private void rollback(InvocationPlan plan) throws IOException {
 
         try {
-            if (ObjectUtils.notNull(method)) {
-                BeanTransactions.rollbackTransaction(this, method);
+            if (ObjectUtils.notNull(plan)) {
+                BeanTransactions.rollbackTransaction(this, plan);
             }
         } catch (Throwable th) {
-            close(method);
+            close(plan);
             throw new IOException(th);
         }
     }
@@ -398,14 +369,15 @@ public class BeanHandler implements InvocationHandler, Cloneable {
     /**
      * Adds transaction field
      *
-     * @param ems
-     * @param method
+     * @param plan
      * @throws IOException
      */
-    private void addTransactionField(final Collection<EntityManager> ems, final Method method) throws IOException {
+    private void addTransactionField(final InvocationPlan plan) throws IOException {
 
+        // EntityManagers are enlisted lazily at first use
+        Collection<EntityManager> ems = Collections.emptyList();
         if (transactionField == null) {
-            BeanTransactions.addTransaction(this, method, ems);
+            BeanTransactions.addTransaction(this, plan, ems);
         } else {
             setTransactionField(ems);
         }
@@ -414,20 +386,19 @@ public class BeanHandler implements InvocationHandler, Cloneable {
     /**
      * Invokes method surrounded with {@link UserTransaction} begin and commit
      *
-     * @param em
-     * @param method
+     * @param plan
      * @param arguments
      * @return Object
      * @throws IOException
      */
-    private Object invokeBeanMethod(final Collection<EntityManager> ems, final Method method, Object[] arguments)
-            throws IOException {
+    private Object invokeBeanMethod(final InvocationPlan plan, Object[] arguments) throws IOException {
 
-        addTransactionField(ems, method);
+        setEntityManagers(plan);
+        addTransactionField(plan);
         // Calls interceptors for this method or bean instance
-        Object[] intercepteds = interceptorHandel.callInterceptors(method, arguments);
+        Object[] intercepteds = interceptorHandel.callInterceptors(plan, arguments);
         // Calls for bean method with "intercepted" parameters
-        Object value = invokeMethod(method, intercepteds);
+        Object value = plan.invoke(bean, intercepteds);
 
         return value;
     }
@@ -437,19 +408,16 @@ public class BeanHandler implements InvocationHandler, Cloneable {
 
         Object value;
 
-        Collection<EntityManager> ems = createEntityManagers();
-        Method realMethod = null;
+        InvocationPlan plan = null;
         try {
-            String methodName = method.getName();
-            Class<?>[] parameterTypes = method.getParameterTypes();
-            // Gets real method of bean class
-            realMethod = ClassUtils.getDeclaredMethod(beanClass, methodName, parameterTypes);
-            value = invokeBeanMethod(ems, realMethod, arguments);
+            // Gets resolved real method of bean class and its attributes
+            plan = InvocationPlanFactory.get(metaData, method);
+            value = invokeBeanMethod(plan, arguments);
         } catch (Throwable th) {
-            rollback(realMethod);
+            rollback(plan);
             throw th;
         } finally {
-            close(realMethod);
+            close(plan);
         }
 
         return value;
@@ -457,6 +425,13 @@ public class BeanHandler implements InvocationHandler, Cloneable {
 
     @Override
     protected Object clone() throws CloneNotSupportedException {
-        return super.clone();
+
+        BeanHandler cloneHandler = (BeanHandler) super.clone();
+        // Each bean instance keeps its own interceptor instances
+        cloneHandler.interceptorHandel = new InterceptorHandler(metaData);
+        // and its own lazy EntityManager proxies
+        cloneHandler.lazyHandlers = new HashMap<ConnectionData, LazyEntityManagerHandler>();
+
+        return cloneHandler;
     }
 }
@@ -25,6 +25,7 @@ package org.lightmare.ejb.handlers;
 import java.io.IOException;
 
 import org.lightmare.cache.MetaData;
+import org.lightmare.utils.reflect.ClassUtils;
 
 /**
  * Factory class to initialize / clone {@link BeanHandler} instance
@@ -104,4 +105,23 @@ public class BeanHandlerFactory {
 
         return cloneHandler;
     }
+
+    /**
+     * Instantiates new EJB bean for passed {@link MetaData} and initializes
+     * {@link BeanHandler} for it
+     *
+     * @param metaData
+     * @return {@link BeanHandler}
+     * @throws IOException
+     */
+    public static BeanHandler create(MetaData metaData) throws IOException {
+
+        BeanHandler handler;
+
+        Class<?> beanClass = metaData.getBeanClass();
+        Object bean = ClassUtils.instantiate(beanClass);
+        handler = get(metaData, bean);
+
+        return handler;
+    }
 }
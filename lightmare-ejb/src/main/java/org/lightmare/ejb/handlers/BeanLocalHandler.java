@@ -36,16 +36,37 @@ import org.lightmare.utils.remote.RpcUtils;
  */
 public class BeanLocalHandler implements InvocationHandler {
 
+    // Name of remote bean
+    private String beanName;
+
     // Instance of RPC caller
     private RPCall rpCall;
 
-    protected BeanLocalHandler(RPCall rpCall) {
+    // Timeout of each remote call in milliseconds
+    private long timeout;
+
+    protected BeanLocalHandler(String beanName, RPCall rpCall, long timeout) {
+        this.beanName = beanName;
         this.rpCall = rpCall;
+        this.timeout = timeout;
     }
 
+    /**
+     * Calls remote method asynchronously if it returns
+     * {@link java.util.concurrent.Future} (as {@link javax.ejb.Asynchronous}
+     * bean methods do) or waits for response otherwise
+     */
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        Object value = RpcUtils.callRemoteMethod(proxy, method, args, rpCall);
+
+        Object value;
+
+        if (RpcUtils.isAsync(method)) {
+            value = RpcUtils.callRemoteMethodAsync(beanName, method, args, rpCall, timeout);
+        } else {
+            value = RpcUtils.callRemoteMethod(beanName, method, args, rpCall, timeout);
+        }
+
         return value;
     }
 }
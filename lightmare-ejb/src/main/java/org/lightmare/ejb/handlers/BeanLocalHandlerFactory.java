@@ -72,18 +72,33 @@ public class BeanLocalHandlerFactory {
     }
 
     /**
-     * Creates {@link BeanLocalHandler} instance with host and port arguments
+     * Creates {@link BeanLocalHandler} instance for bean with passed name, host
+     * and port arguments and timeout (in milliseconds) for each remote call
      *
+     * @param beanName
+     * @param timeout
      * @param rpcArgs
      * @return {@link BeanLocalHandler}
      */
-    public static BeanLocalHandler get(Object... rpcArgs) {
+    public static BeanLocalHandler get(String beanName, long timeout, Object... rpcArgs) {
 
         BeanLocalHandler handler;
 
         RPCall call = createRPCall(rpcArgs);
-        handler = new BeanLocalHandler(call);
+        handler = new BeanLocalHandler(beanName, call, timeout);
 
         return handler;
     }
+
+    /**
+     * Creates {@link BeanLocalHandler} instance for bean with passed name, host
+     * and port arguments and configured timeout
+     *
+     * @param beanName
+     * @param rpcArgs
+     * @return {@link BeanLocalHandler}
+     */
+    public static BeanLocalHandler get(String beanName, Object... rpcArgs) {
+        return get(beanName, RPCall.getTimeout(), rpcArgs);
+    }
 }
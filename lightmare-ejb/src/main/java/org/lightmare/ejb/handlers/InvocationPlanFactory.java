@@ -0,0 +1,238 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.ejb.handlers;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.ejb.TransactionAttributeType;
+
+import org.apache.log4j.Logger;
+import org.lightmare.cache.InterceptorData;
+import org.lightmare.cache.InvocationPlan;
+import org.lightmare.cache.MetaData;
+import org.lightmare.jpa.jta.BeanTransactions;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.collections.CollectionUtils;
+import org.lightmare.utils.logging.LogUtils;
+import org.lightmare.utils.reflect.ClassUtils;
+
+/**
+ * Factory class to resolve and cache {@link InvocationPlan} for each proxy
+ * {@link Method} of EJB bean at deploy time or at first call
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class InvocationPlanFactory {
+
+    private static final String NOT_RESOLVED_MESSAGE = "Could not resolve invocation plan for %s cause %s";
+
+    private static final Logger LOG = Logger.getLogger(InvocationPlanFactory.class);
+
+    /**
+     * Checks if passed {@link InterceptorData} is valid for specified bean
+     * {@link Method} call
+     *
+     * @param interceptor
+     * @param beanMethod
+     * @return <code>boolean</code>
+     */
+    private static boolean checkInterceptor(InterceptorData interceptor, Method beanMethod) {
+
+        boolean valid;
+
+        Method interceptedMethod = interceptor.getBeanMethod();
+        if (ObjectUtils.notNull(interceptedMethod)) {
+            valid = interceptedMethod.equals(beanMethod);
+        } else {
+            valid = Boolean.TRUE;
+        }
+
+        return valid;
+    }
+
+    /**
+     * Filters bean's {@link InterceptorData} collection for passed bean
+     * {@link Method}
+     *
+     * @param metaData
+     * @param beanMethod
+     * @return array of {@link InterceptorData} in call order
+     */
+    private static InterceptorData[] filterInterceptors(MetaData metaData, Method beanMethod) {
+
+        InterceptorData[] interceptors;
+
+        Collection<InterceptorData> interceptorDatas = metaData.getInterceptors();
+        if (CollectionUtils.valid(interceptorDatas)) {
+            List<InterceptorData> filtered = new ArrayList<InterceptorData>();
+            for (InterceptorData interceptor : interceptorDatas) {
+                if (checkInterceptor(interceptor, beanMethod)) {
+                    filtered.add(interceptor);
+                }
+            }
+            interceptors = CollectionUtils.toArray(filtered, InterceptorData.class);
+        } else {
+            interceptors = CollectionUtils.emptyArray(InterceptorData.class);
+        }
+
+        return interceptors;
+    }
+
+    /**
+     * Collects interceptor {@link Method}s of passed filtered chain and makes
+     * them accessible once to avoid accessible flag switching at call time
+     *
+     * @param interceptors
+     * @return array of interceptor {@link Method}s
+     */
+    private static Method[] getInterceptorMethods(InterceptorData[] interceptors) {
+
+        Method[] methods = new Method[interceptors.length];
+
+        Method method;
+        for (int i = CollectionUtils.FIRST_INDEX; i < interceptors.length; i++) {
+            method = interceptors[i].getInterceptorMethod();
+            if (ObjectUtils.notNull(method) && Boolean.FALSE.equals(method.isAccessible())) {
+                method.setAccessible(Boolean.TRUE);
+            }
+            methods[i] = method;
+        }
+
+        return methods;
+    }
+
+    /**
+     * Creates {@link MethodHandle} with (Object, Object[])Object type for
+     * passed bean {@link Method}
+     *
+     * @param beanMethod
+     * @return {@link MethodHandle} invoker
+     * @throws IOException
+     */
+    private static MethodHandle createInvoker(Method beanMethod) throws IOException {
+
+        MethodHandle invoker;
+
+        int parametersCount = beanMethod.getParameterTypes().length;
+        try {
+            // Resolved method is own copy so accessible flag is not shared
+            beanMethod.setAccessible(Boolean.TRUE);
+            MethodHandle handle = MethodHandles.lookup().unreflect(beanMethod).asFixedArity();
+            MethodType genericType = MethodType.genericMethodType(parametersCount + 1);
+            invoker = handle.asType(genericType).asSpreader(Object[].class, parametersCount);
+        } catch (IllegalAccessException ex) {
+            throw new IOException(ex);
+        }
+
+        return invoker;
+    }
+
+    /**
+     * Resolves bean {@link Method}, transaction attribute, interceptors and
+     * invoker for passed proxy {@link Method}
+     *
+     * @param metaData
+     * @param method
+     * @return {@link InvocationPlan}
+     * @throws IOException
+     */
+    private static InvocationPlan create(MetaData metaData, Method method) throws IOException {
+
+        InvocationPlan plan;
+
+        Class<?> beanClass = metaData.getBeanClass();
+        String methodName = method.getName();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Method beanMethod = ClassUtils.getDeclaredMethod(beanClass, methodName, parameterTypes);
+        TransactionAttributeType type = BeanTransactions.getTransactionType(metaData, beanMethod);
+        InterceptorData[] interceptors = filterInterceptors(metaData, beanMethod);
+        Method[] interceptorMethods = getInterceptorMethods(interceptors);
+        MethodHandle invoker = createInvoker(beanMethod);
+        plan = new InvocationPlan(beanMethod, type, interceptors, interceptorMethods, invoker);
+
+        return plan;
+    }
+
+    /**
+     * Gets cached {@link InvocationPlan} for passed proxy {@link Method} or
+     * resolves and caches it if it is first call of this method
+     *
+     * @param metaData
+     * @param method
+     * @return {@link InvocationPlan}
+     * @throws IOException
+     */
+    public static InvocationPlan get(MetaData metaData, Method method) throws IOException {
+
+        InvocationPlan plan = metaData.getInvocationPlan(method);
+
+        if (plan == null) {
+            plan = create(metaData, method);
+            plan = metaData.addInvocationPlan(method, plan);
+        }
+
+        return plan;
+    }
+
+    /**
+     * Resolves and caches {@link InvocationPlan}s for each method of passed
+     * interfaces
+     *
+     * @param metaData
+     * @param interfaces
+     */
+    private static void prepare(MetaData metaData, Class<?>[] interfaces) {
+
+        if (CollectionUtils.valid(interfaces)) {
+            for (Class<?> interfaceClass : interfaces) {
+                for (Method method : interfaceClass.getMethods()) {
+                    try {
+                        get(metaData, method);
+                    } catch (IOException ex) {
+                        // Unresolved methods will fail at call time as before
+                        LogUtils.debug(LOG, ex, NOT_RESOLVED_MESSAGE, method, ex.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves and caches {@link InvocationPlan}s for all local and remote
+     * interface methods of deployed EJB bean
+     *
+     * @param metaData
+     */
+    public static void prepare(MetaData metaData) {
+        prepare(metaData, metaData.getLocalInterfaces());
+        prepare(metaData, metaData.getRemoteInterfaces());
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.ejb.handlers;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.lightmare.cache.InvocationPlan;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.StringUtils;
+import org.lightmare.utils.collections.CollectionUtils;
+
+/**
+ * Implementation of {@link InvocationHandler} for {@link EntityManager} proxy
+ * which is set to EJB bean's {@link javax.persistence.PersistenceContext}
+ * annotated fields. Real {@link EntityManager} is created and enlisted in
+ * current {@link javax.transaction.UserTransaction} only on first use, so bean
+ * methods which do not access database do not open sessions
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class LazyEntityManagerHandler implements InvocationHandler {
+
+    private final BeanHandler handler;
+
+    private final EntityManagerFactory emf;
+
+    // Plan of current bean method call
+    private InvocationPlan plan;
+
+    // Real EntityManager created on first use
+    private EntityManager em;
+
+    // Proxy instance served by this handler
+    private EntityManager proxy;
+
+    // Methods which are served without creation of EntityManager
+    private static final String CLOSE = "close";
+
+    private static final String IS_OPEN = "isOpen";
+
+    private static final String GET_FACTORY = "getEntityManagerFactory";
+
+    private static final String EQUALS = "equals";
+
+    private static final String HASH_CODE = "hashCode";
+
+    private static final String TO_STRING = "toString";
+
+    private static final Class<?>[] INTERFACES = { EntityManager.class };
+
+    private LazyEntityManagerHandler(BeanHandler handler, EntityManagerFactory emf) {
+        this.handler = handler;
+        this.emf = emf;
+    }
+
+    /**
+     * Creates reusable handler with lazy {@link EntityManager} proxy for
+     * passed {@link EntityManagerFactory}
+     *
+     * @param handler
+     * @param emf
+     * @return {@link LazyEntityManagerHandler}
+     */
+    public static LazyEntityManagerHandler create(BeanHandler handler, EntityManagerFactory emf) {
+
+        LazyEntityManagerHandler lazyHandler = new LazyEntityManagerHandler(handler, emf);
+        ClassLoader loader = EntityManager.class.getClassLoader();
+        Object instance = Proxy.newProxyInstance(loader, INTERFACES, lazyHandler);
+        lazyHandler.proxy = ObjectUtils.cast(instance, EntityManager.class);
+
+        return lazyHandler;
+    }
+
+    /**
+     * Creates lazy {@link EntityManager} proxy for passed
+     * {@link EntityManagerFactory}
+     *
+     * @param handler
+     * @param plan
+     * @param emf
+     * @return {@link EntityManager}
+     */
+    public static EntityManager get(BeanHandler handler, InvocationPlan plan, EntityManagerFactory emf) {
+
+        LazyEntityManagerHandler lazyHandler = create(handler, emf);
+        lazyHandler.attach(plan);
+
+        return lazyHandler.getProxy();
+    }
+
+    /**
+     * Binds this handler to new bean method call, real {@link EntityManager}
+     * of previous call (if any) is already closed by transaction
+     *
+     * @param plan
+     */
+    public void attach(InvocationPlan plan) {
+        this.plan = plan;
+        this.em = null;
+    }
+
+    public EntityManager getProxy() {
+        return proxy;
+    }
+
+    public EntityManagerFactory getEmf() {
+        return emf;
+    }
+
+    public boolean isCreated() {
+        return ObjectUtils.notNull(em);
+    }
+
+    /**
+     * Creates real {@link EntityManager} and enlists it in current transaction
+     * if it is not created yet
+     *
+     * @return {@link EntityManager}
+     * @throws IOException
+     */
+    private EntityManager getEntityManager() throws IOException {
+
+        if (em == null) {
+            em = emf.createEntityManager();
+            handler.enlistEntityManager(plan, em);
+        }
+
+        return em;
+    }
+
+    /**
+     * Checks if passed method is declared by {@link Object} class
+     *
+     * @param name
+     * @return <code>boolean</code>
+     */
+    private static boolean isObjectMethod(String name) {
+        return EQUALS.equals(name) || HASH_CODE.equals(name) || TO_STRING.equals(name);
+    }
+
+    /**
+     * Serves {@link Object} methods on proxy instance itself
+     *
+     * @param proxy
+     * @param name
+     * @param arguments
+     * @return {@link Object}
+     */
+    private Object invokeObjectMethod(Object proxy, String name, Object[] arguments) {
+
+        Object value;
+
+        if (EQUALS.equals(name)) {
+            value = (proxy == arguments[CollectionUtils.FIRST_INDEX]);
+        } else if (HASH_CODE.equals(name)) {
+            value = System.identityHashCode(proxy);
+        } else {
+            value = StringUtils.concat(LazyEntityManagerHandler.class.getSimpleName(), StringUtils.SPACE, em);
+        }
+
+        return value;
+    }
+
+    /**
+     * Serves methods which do not need real {@link EntityManager} instance
+     * while it is not created yet
+     *
+     * @param method
+     * @param arguments
+     * @return {@link Object}
+     * @throws Throwable
+     */
+    private Object invokeDeferred(Method method, Object[] arguments) throws Throwable {
+
+        Object value;
+
+        String name = method.getName();
+        if (CLOSE.equals(name)) {
+            value = null;
+        } else if (IS_OPEN.equals(name)) {
+            value = Boolean.TRUE;
+        } else if (GET_FACTORY.equals(name)) {
+            value = emf;
+        } else {
+            value = invokeEntityManager(getEntityManager(), method, arguments);
+        }
+
+        return value;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+
+        Object value;
+
+        String name = method.getName();
+        if (isObjectMethod(name)) {
+            value = invokeObjectMethod(proxy, name, arguments);
+        } else if (isCreated()) {
+            value = invokeEntityManager(em, method, arguments);
+        } else {
+            value = invokeDeferred(method, arguments);
+        }
+
+        return value;
+    }
+
+    /**
+     * Invokes method on real {@link EntityManager} and unwraps
+     * {@link InvocationTargetException}
+     *
+     * @param target
+     * @param method
+     * @param arguments
+     * @return {@link Object}
+     * @throws Throwable
+     */
+    private static Object invokeEntityManager(EntityManager target, Method method, Object[] arguments)
+            throws Throwable {
+
+        Object value;
+
+        try {
+            value = method.invoke(target, arguments);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.ejb.handlers;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+import org.lightmare.ejb.pool.BeanPool;
+import org.lightmare.ejb.pool.PooledBean;
+
+/**
+ * Implementation of {@link InvocationHandler} which borrows bean instance from
+ * {@link BeanPool} for each call and returns it after invocation
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class PooledBeanHandler implements InvocationHandler {
+
+    private final BeanPool pool;
+
+    public PooledBeanHandler(BeanPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] arguments) throws Throwable {
+
+        Object value;
+
+        PooledBean pooled = pool.borrow();
+        try {
+            value = pooled.getHandler().invoke(proxy, method, arguments);
+        } finally {
+            pool.release(pooled);
+        }
+
+        return value;
+    }
+}
@@ -3,15 +3,14 @@ package org.lightmare.ejb.interceptors;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.interceptor.InvocationContext;
 
 import org.lightmare.cache.InterceptorData;
+import org.lightmare.cache.InvocationPlan;
 import org.lightmare.cache.MetaData;
-import org.lightmare.utils.ObjectUtils;
 import org.lightmare.utils.collections.CollectionUtils;
 import org.lightmare.utils.reflect.ClassUtils;
 
@@ -26,6 +25,10 @@ public class InterceptorHandler {
     // Interceptors for given bean instance
     private final Collection<InterceptorData> interceptorDatas;
 
+    // Interceptor instances keyed by interceptor class (per bean instance or
+    // shared for all bean instances)
+    private final ConcurrentMap<Class<?>, Object> interceptorInstances;
+
     /**
      * Constructor with {@link MetaData} to set {@link InterceptorData}
      * parameters
@@ -33,88 +36,75 @@ public class InterceptorHandler {
      * @param metaData
      */
     public InterceptorHandler(MetaData metaData) {
+
         this.interceptorDatas = metaData.getInterceptors();
+
+        if (CollectionUtils.invalid(interceptorDatas)) {
+            interceptorInstances = null;
+        } else if (metaData.isSharedInterceptors()) {
+            interceptorInstances = metaData.getInterceptorInstances();
+        } else {
+            interceptorInstances = new ConcurrentHashMap<Class<?>, Object>();
+        }
     }
 
     /**
-     * Fills {@link Queue} of methods and targets for specified bean
-     * {@link Method} and {@link InterceptorData} object
+     * Gets cached or creates interceptor instance for passed
+     * {@link InterceptorData} object
      *
      * @param interceptorData
-     * @param methods
-     * @param targets
+     * @return {@link Object} interceptor instance
      * @throws IOException
      */
-    private void fillInterceptor(InterceptorData interceptorData, Queue<Method> methods, Queue<Object> targets)
-            throws IOException {
+    private Object getInterceptor(InterceptorData interceptorData) throws IOException {
 
         Class<?> interceptorClass = interceptorData.getInterceptorClass();
-        Object interceptor = ClassUtils.instantiate(interceptorClass);
-        Method method = interceptorData.getInterceptorMethod();
-        methods.offer(method);
-        targets.offer(interceptor);
-    }
+        Object interceptor = interceptorInstances.get(interceptorClass);
 
-    /**
-     * Fills {@link Queue} of methods and targets for specified bean
-     * {@link Method} and {@link InterceptorData}'s collection
-     *
-     * @param method
-     * @param methods
-     * @param targets
-     * @throws IOException
-     */
-    private void fillInterceptors(Method method, Queue<Method> methods, Queue<Object> targets) throws IOException {
-
-        Iterator<InterceptorData> interceptors = interceptorDatas.iterator();
-        InterceptorData interceptor;
-        boolean valid;
-        while (interceptors.hasNext()) {
-            interceptor = interceptors.next();
-            valid = checkInterceptor(interceptor, method);
-            if (valid) {
-                fillInterceptor(interceptor, methods, targets);
+        if (interceptor == null) {
+            interceptor = ClassUtils.instantiate(interceptorClass);
+            Object existing = interceptorInstances.putIfAbsent(interceptorClass, interceptor);
+            if (existing != null) {
+                interceptor = existing;
             }
         }
+
+        return interceptor;
     }
 
     /**
-     * Checks if current {@link javax.interceptor.Interceptors} data is valid
-     * for specified {@link Method} call
+     * Fills array of targets for already filtered {@link InterceptorData}
+     * chain
      *
-     * @param interceptor
-     * @param method
-     * @return <code>boolean</code>
+     * @param interceptors
+     * @return array of interceptor instances
+     * @throws IOException
      */
-    private boolean checkInterceptor(InterceptorData interceptor, Method method) {
+    private Object[] getTargets(InterceptorData[] interceptors) throws IOException {
 
-        boolean valid;
+        Object[] targets = new Object[interceptors.length];
 
-        Method beanMethod = interceptor.getBeanMethod();
-        if (ObjectUtils.notNull(beanMethod)) {
-            valid = beanMethod.equals(method);
-        } else {
-            valid = Boolean.TRUE;
+        for (int i = CollectionUtils.FIRST_INDEX; i < interceptors.length; i++) {
+            targets[i] = getInterceptor(interceptors[i]);
         }
 
-        return valid;
+        return targets;
     }
 
     /**
      * Initializes and invokes {@link InvocationContext} implementation
      *
-     * @param method
+     * @param plan
      * @param parameters
      * @return Array of {@link Object} parameters for intercepted method
      * @throws IOException
      */
-    private Object[] callInterceptorContext(Method method, Object[] parameters) throws IOException {
+    private Object[] callInterceptorContext(InvocationPlan plan, Object[] parameters) throws IOException {
 
         Object[] intercepteds;
 
-        Queue<Method> methods = new LinkedList<Method>();
-        Queue<Object> targets = new LinkedList<Object>();
-        fillInterceptors(method, methods, targets);
+        Method[] methods = plan.getInterceptorMethods();
+        Object[] targets = getTargets(plan.getInterceptors());
         // Initializes invocation context
         InvocationContext context = new InvocationContextImpl(methods, targets, parameters);
         try {
@@ -131,16 +121,16 @@ public class InterceptorHandler {
      * Invokes first method from {@link javax.interceptor.Interceptors}
      * annotated data
      *
-     * @param method
+     * @param plan
      * @param parameters
      * @throws IOException
      */
-    public Object[] callInterceptors(Method method, Object[] parameters) throws IOException {
+    public Object[] callInterceptors(InvocationPlan plan, Object[] parameters) throws IOException {
 
         Object[] intercepteds;
 
-        if (CollectionUtils.valid(interceptorDatas)) {
-            intercepteds = callInterceptorContext(method, parameters);
+        if (CollectionUtils.valid(interceptorDatas) && CollectionUtils.valid(plan.getInterceptors())) {
+            intercepteds = callInterceptorContext(plan, parameters);
         } else {
             intercepteds = parameters;
         }
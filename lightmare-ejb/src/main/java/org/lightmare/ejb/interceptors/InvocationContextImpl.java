@@ -24,9 +24,7 @@ package org.lightmare.ejb.interceptors;
 
 import java.lang.reflect.Method;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.Queue;
 
 import javax.ejb.Timer;
 import javax.interceptor.InvocationContext;
@@ -43,61 +41,88 @@ import org.lightmare.utils.reflect.ClassUtils;
 public class InvocationContextImpl implements InvocationContext {
 
     // Caches methods in order for proceed calls
-    private Queue<Method> methods = new LinkedList<Method>();
+    private final Method[] methods;
+
+    // Caches object in order to proceed method calls in chain
+    private final Object[] targets;
+
+    // Index of next method and target to proceed
+    private int position;
 
     // Parameters for intercepted method
     private Object[] parameters;
 
-    // Caches object in order to proceed method calls in chain
-    private Queue<Object> targets = new LinkedList<Object>();
-
-    // Cached context data
-    private Map<String, Object> contextData = new HashMap<String, Object>();
+    // Cached context data (initialized at first access)
+    private Map<String, Object> contextData;
 
     // Timer instance
     private Timer timer;
 
     /**
-     * Constructor with {@link Queue} of called {@link Method}s, {@link Queue}
-     * of EJB target {@link Object}s and {@link Object} array of called
-     * {@link Method}s parameters
+     * Constructor with array of called {@link Method}s, array of EJB target
+     * {@link Object}s and {@link Object} array of called {@link Method}s
+     * parameters
      *
      * @param methods
      * @param targets
      * @param parameters
      */
-    public InvocationContextImpl(Queue<Method> methods, Queue<Object> targets, Object[] parameters) {
+    public InvocationContextImpl(Method[] methods, Object[] targets, Object[] parameters) {
         this.methods = methods;
         this.targets = targets;
         this.parameters = parameters;
     }
 
     /**
-     * Constructor with {@link Queue} of called {@link Method}s, {@link Queue}
-     * of EJB target {@link Object}s, {@link Object} array of called
-     * {@link Method}s parameters and {@link Timer} instance
+     * Constructor with array of called {@link Method}s, array of EJB target
+     * {@link Object}s, {@link Object} array of called {@link Method}s
+     * parameters and {@link Timer} instance
      *
      * @param methods
      * @param targets
      * @param parameters
      * @param timer
      */
-    public InvocationContextImpl(Queue<Method> methods, Queue<Object> targets, Object[] parameters, Timer timer) {
+    public InvocationContextImpl(Method[] methods, Object[] targets, Object[] parameters, Timer timer) {
         this(methods, targets, parameters);
         this.timer = timer;
     }
 
+    /**
+     * Checks if there are methods and targets to proceed
+     *
+     * @return <code>boolean</code>
+     */
+    private boolean hasNext() {
+        return position < methods.length && position < targets.length;
+    }
+
     @Override
     public Object getTarget() {
 
-        Object target = targets.peek();
+        Object target;
+
+        if (hasNext()) {
+            target = targets[position];
+        } else {
+            target = null;
+        }
 
         return target;
     }
 
     @Override
     public Method getMethod() {
-        return methods.peek();
+
+        Method method;
+
+        if (hasNext()) {
+            method = methods[position];
+        } else {
+            method = null;
+        }
+
+        return method;
     }
 
     @Override
@@ -112,6 +137,11 @@ public class InvocationContextImpl implements InvocationContext {
 
     @Override
     public Map<String, Object> getContextData() {
+
+        if (contextData == null) {
+            contextData = new HashMap<String, Object>();
+        }
+
         return contextData;
     }
 
@@ -126,10 +156,11 @@ public class InvocationContextImpl implements InvocationContext {
 
         Object value;
 
-        Method method = methods.poll();
-        Object target = targets.poll();
+        Method method = getMethod();
+        Object target = getTarget();
         if (ObjectUtils.notNull(method) && ObjectUtils.notNull(target)) {
-            value = ClassUtils.invokePrivate(method, target, this);
+            position++;
+            value = ClassUtils.invoke(method, target, this);
         } else {
             value = null;
         }
@@ -0,0 +1,440 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.ejb.pool;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ejb.ConcurrentAccessTimeoutException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+import org.lightmare.cache.MetaData;
+import org.lightmare.ejb.handlers.BeanHandler;
+import org.lightmare.ejb.handlers.BeanHandlerFactory;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.concurrent.ThreadFactoryUtil;
+import org.lightmare.utils.logging.LogUtils;
+
+/**
+ * Bounded pool of {@link javax.ejb.Stateless} bean instances (with their
+ * {@link BeanHandler}s) which are reused between invocations instead of
+ * instantiating and injecting new bean for each lookup. Idle instances are
+ * kept in LIFO order to reuse warm ones and instances idle longer than
+ * configured timeout are evicted down to minimal pool size
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class BeanPool implements BeanPoolMXBean {
+
+    // Bean EJB name
+    private final String beanName;
+
+    private final MetaData metaData;
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    // Idle time in milliseconds before instance eviction
+    private final long idleTimeout;
+
+    // Time in milliseconds to wait for free instance
+    private final long waitTimeout;
+
+    // Permits for borrowed instances
+    private final Semaphore permits;
+
+    // Idle instances, most recently released first
+    private final ConcurrentLinkedDeque<PooledBean> idles = new ConcurrentLinkedDeque<PooledBean>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private final AtomicLong waitCount = new AtomicLong();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    private volatile boolean closed;
+
+    private ScheduledFuture<?> eviction;
+
+    private ObjectName objectName;
+
+    // JMX object name format for pools
+    private static final String OBJECT_NAME_FORMAT = "org.lightmare:type=BeanPool,name=%s";
+
+    // JMX object name format for pools of beans with same name
+    private static final String INSTANCE_NAME_FORMAT = "org.lightmare:type=BeanPool,name=%s,instance=%s";
+
+    // Minimal period for idle eviction task in milliseconds
+    private static final long MIN_EVICTION_PERIOD = 1000L;
+
+    private static final int EVICTION_PERIOD_DIVIDER = 2;
+
+    private static final String EVICTION_THREAD_NAME = "bean-pool-evictor";
+
+    private static final String TIMEOUT_MESSAGE = "Could not get instance of bean %s in %s milliseconds";
+
+    // Shared scheduler for idle instances eviction of all pools
+    private static final ScheduledExecutorService EVICTOR = Executors
+            .newSingleThreadScheduledExecutor(new ThreadFactoryUtil(EVICTION_THREAD_NAME, Thread.MIN_PRIORITY,
+                    Boolean.TRUE));
+
+    private static final Logger LOG = Logger.getLogger(BeanPool.class);
+
+    /**
+     * Task to evict instances which are idle longer than configured timeout
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private class EvictionTask implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                evict();
+            } catch (Throwable th) {
+                LogUtils.error(LOG, th, "Could not evict instances of bean %s", beanName);
+            }
+        }
+    }
+
+    public BeanPool(String beanName, MetaData metaData, int minSize, int maxSize, long idleTimeout,
+            long waitTimeout) {
+
+        this.beanName = beanName;
+        this.metaData = metaData;
+        this.maxSize = Math.max(maxSize, 1);
+        this.minSize = Math.min(Math.max(minSize, 0), this.maxSize);
+        this.idleTimeout = idleTimeout;
+        this.waitTimeout = waitTimeout;
+        this.permits = new Semaphore(this.maxSize, Boolean.TRUE);
+    }
+
+    /**
+     * Schedules idle instances eviction and registers pool in JMX
+     */
+    public void start() {
+
+        if (idleTimeout > 0) {
+            long period = Math.max(idleTimeout / EVICTION_PERIOD_DIVIDER, MIN_EVICTION_PERIOD);
+            eviction = EVICTOR.scheduleWithFixedDelay(new EvictionTask(), period, period, TimeUnit.MILLISECONDS);
+        }
+
+        register();
+    }
+
+    /**
+     * Generates JMX object name for this pool which is not registered yet,
+     * pools of beans with same names (e.g. from other deployments) get
+     * instance number
+     *
+     * @param server
+     * @return {@link ObjectName}
+     * @throws JMException
+     */
+    private ObjectName createName(MBeanServer server) throws JMException {
+
+        String quoted = ObjectName.quote(beanName);
+        ObjectName name = new ObjectName(String.format(OBJECT_NAME_FORMAT, quoted));
+        int instance = 0;
+        while (server.isRegistered(name)) {
+            name = new ObjectName(String.format(INSTANCE_NAME_FORMAT, quoted, ++instance));
+        }
+
+        return name;
+    }
+
+    /**
+     * Registers this pool as platform MBean
+     */
+    private void register() {
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = createName(server);
+            server.registerMBean(this, name);
+            objectName = name;
+        } catch (JMException ex) {
+            LogUtils.error(LOG, ex, "Could not register pool of bean %s", beanName);
+        }
+    }
+
+    /**
+     * Removes this pool from platform MBean server
+     */
+    private void unregister() {
+
+        if (ObjectUtils.notNull(objectName)) {
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException ex) {
+                LogUtils.error(LOG, ex, "Could not unregister pool of bean %s", beanName);
+            }
+        }
+    }
+
+    /**
+     * Instantiates and configures new bean instance
+     *
+     * @return {@link PooledBean}
+     * @throws IOException
+     */
+    private PooledBean create() throws IOException {
+
+        PooledBean pooled;
+
+        BeanHandler handler = BeanHandlerFactory.create(metaData);
+        pooled = new PooledBean(handler);
+        size.incrementAndGet();
+        createdCount.incrementAndGet();
+
+        return pooled;
+    }
+
+    /**
+     * Adds instance to head of idle instances
+     *
+     * @param pooled
+     */
+    private void offer(PooledBean pooled) {
+        idles.offerFirst(pooled);
+        idleCount.incrementAndGet();
+    }
+
+    /**
+     * Removes instance from idle instances and destroys it if it was not
+     * removed already (e.g. by concurrent closing of pool)
+     *
+     * @param pooled
+     */
+    private void destroy(PooledBean pooled) {
+
+        if (idles.removeFirstOccurrence(pooled)) {
+            idleCount.decrementAndGet();
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Acquires permit for bean instance or waits for configured timeout
+     *
+     * @throws ConcurrentAccessTimeoutException
+     */
+    private void acquire() {
+
+        if (Boolean.FALSE.equals(permits.tryAcquire())) {
+            waitCount.incrementAndGet();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(waitTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                acquired = Boolean.FALSE;
+            }
+
+            if (Boolean.FALSE.equals(acquired)) {
+                timeoutCount.incrementAndGet();
+                throw new ConcurrentAccessTimeoutException(LogUtils.logMessage(TIMEOUT_MESSAGE, beanName,
+                        waitTimeout));
+            }
+        }
+    }
+
+    @Override
+    public void prewarm() {
+
+        try {
+            while (size.get() < minSize && permits.tryAcquire()) {
+                try {
+                    offer(create());
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (IOException ex) {
+            LogUtils.error(LOG, ex, "Could not prewarm pool of bean %s", beanName);
+        }
+    }
+
+    /**
+     * Gets idle or creates new bean instance, blocks for configured time if
+     * all instances are in use
+     *
+     * @return {@link PooledBean}
+     * @throws IOException
+     */
+    public PooledBean borrow() throws IOException {
+
+        PooledBean pooled;
+
+        if (closed) {
+            throw new IOException(LogUtils.logMessage("Pool of bean %s is closed", beanName));
+        }
+
+        acquire();
+        pooled = idles.pollFirst();
+        if (pooled == null) {
+            try {
+                pooled = create();
+            } catch (IOException ex) {
+                permits.release();
+                throw ex;
+            }
+        } else {
+            idleCount.decrementAndGet();
+        }
+
+        return pooled;
+    }
+
+    /**
+     * Returns borrowed instance to pool
+     *
+     * @param pooled
+     */
+    public void release(PooledBean pooled) {
+
+        if (closed) {
+            size.decrementAndGet();
+        } else {
+            pooled.touch();
+            offer(pooled);
+            // Pool could be closed and drained while instance was returned
+            if (closed) {
+                destroy(pooled);
+            }
+        }
+
+        permits.release();
+    }
+
+    /**
+     * Evicts instances idle longer than configured timeout while pool size is
+     * greater than minimal size
+     */
+    protected void evict() {
+
+        long expiration = System.currentTimeMillis() - idleTimeout;
+        PooledBean oldest = idles.peekLast();
+        while (ObjectUtils.notNull(oldest) && oldest.getLastUsed() < expiration && size.get() > minSize) {
+            if (idles.removeLastOccurrence(oldest)) {
+                idleCount.decrementAndGet();
+                size.decrementAndGet();
+                evictedCount.incrementAndGet();
+            }
+            oldest = idles.peekLast();
+        }
+    }
+
+    /**
+     * Stops eviction, clears idle instances and unregisters pool from JMX
+     */
+    public void close() {
+
+        closed = Boolean.TRUE;
+        if (ObjectUtils.notNull(eviction)) {
+            eviction.cancel(Boolean.FALSE);
+        }
+
+        PooledBean pooled = idles.pollFirst();
+        while (ObjectUtils.notNull(pooled)) {
+            idleCount.decrementAndGet();
+            size.decrementAndGet();
+            pooled = idles.pollFirst();
+        }
+
+        unregister();
+    }
+
+    @Override
+    public String getBeanName() {
+        return beanName;
+    }
+
+    @Override
+    public int getMinSize() {
+        return minSize;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int getSize() {
+        return size.get();
+    }
+
+    @Override
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    @Override
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    @Override
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    @Override
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+}
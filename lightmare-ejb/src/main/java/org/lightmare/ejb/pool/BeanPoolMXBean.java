@@ -0,0 +1,64 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.ejb.pool;
+
+/**
+ * Management interface for {@link BeanPool} to monitor pooled
+ * {@link javax.ejb.Stateless} bean instances through JMX
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public interface BeanPoolMXBean {
+
+    String getBeanName();
+
+    int getMinSize();
+
+    int getMaxSize();
+
+    /**
+     * Gets count of live (idle and borrowed) bean instances
+     *
+     * @return <code>int</code>
+     */
+    int getSize();
+
+    int getIdleCount();
+
+    int getActiveCount();
+
+    long getCreatedCount();
+
+    long getEvictedCount();
+
+    long getWaitCount();
+
+    long getTimeoutCount();
+
+    /**
+     * Creates bean instances until pool contains at least minimal size of
+     * instances
+     */
+    void prewarm();
+}
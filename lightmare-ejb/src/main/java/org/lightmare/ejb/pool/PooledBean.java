@@ -20,33 +20,36 @@
  * 51 Franklin Street, Fifth Floor
  * Boston, MA  02110-1301  USA
  */
-package org.lightmare.criteria.cache;
+package org.lightmare.ejb.pool;
 
-import java.lang.ref.PhantomReference;
-import java.lang.ref.ReferenceQueue;
-
-import org.lightmare.criteria.utils.ObjectUtils;
+import org.lightmare.ejb.handlers.BeanHandler;
 
 /**
- * Implementation of {@link java.lang.ref.PhantomReference} for tracking lambda
- * generated classes and cache removal strategy
- * 
- * @author Levan Tsinadze
+ * Holder of pooled {@link BeanHandler} with it's last release time
  *
+ * @author Levan Tsinadze
+ * @since 0.1.5
  */
-public class LambdaReference extends PhantomReference<Class<?>> {
+public class PooledBean {
+
+    private final BeanHandler handler;
 
-    public LambdaReference(Class<?> referent, ReferenceQueue<? super Class<?>> queue) {
-        super(referent, queue);
+    private volatile long lastUsed;
+
+    protected PooledBean(BeanHandler handler) {
+        this.handler = handler;
+        this.lastUsed = System.currentTimeMillis();
+    }
+
+    public BeanHandler getHandler() {
+        return handler;
     }
 
-    @Override
-    public void clear() {
+    public long getLastUsed() {
+        return lastUsed;
+    }
 
-        try {
-            ObjectUtils.ifNotNull(this::get, LambdaCache::remove);
-        } finally {
-            super.clear();
-        }
+    protected void touch() {
+        this.lastUsed = System.currentTimeMillis();
     }
 }
@@ -107,7 +107,11 @@ public class LightmareContext extends MemoryContext implements Cleanable {
         // Checks if it is request for entity manager
         String name = NamingUtils.formatJpaJndiName(jndiName);
         // Checks if connection is in progress and waits for finish
-        ConnectionContainer.isInProgress(name);
+        try {
+            ConnectionContainer.isInProgress(name);
+        } catch (IOException ex) {
+            throw new NamingException(ex.getMessage());
+        }
 
         // Gets EntityManagerFactory from parent
         Object candidate = super.lookup(jndiName);
@@ -457,8 +457,8 @@ public class JpaManager {
         if (semaphore.isInProgress()) {
             EntityManagerFactory emf = createEntityManagerFactory(unitName);
             semaphore.setEmf(emf);
-            semaphore.setInProgress(Boolean.FALSE);
             bindJndiName(semaphore);
+            semaphore.complete();
         } else if (semaphore.getEmf() == null) {
             String errorMessage = String.format(NOT_IN_PROG_ERROR, unitName);
             throw new IOException(errorMessage);
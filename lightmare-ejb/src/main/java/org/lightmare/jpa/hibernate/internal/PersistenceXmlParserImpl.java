@@ -30,6 +30,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.persistence.PersistenceException;
 import javax.persistence.spi.PersistenceUnitTransactionType;
@@ -59,6 +61,7 @@ import org.lightmare.jpa.hibernate.jpa.PersistenceDescriptorUtils;
 import org.lightmare.utils.ObjectUtils;
 import org.lightmare.utils.StringUtils;
 import org.lightmare.utils.collections.CollectionUtils;
+import org.lightmare.utils.fs.codecs.NestedJarHandler;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -83,6 +86,9 @@ public class PersistenceXmlParserImpl extends PersistenceXmlParser {
     // Default path of persistence.xml file
     private static final String RESOURCE_PATH = "META-INF/persistence.xml";
 
+    // Parsed and validated persistence.xml files shared between units
+    private static final ConcurrentMap<String, Document> DOCUMENTS = new ConcurrentHashMap<String, Document>();
+
     private final ClassLoaderService classLoaderService;
     private final PersistenceUnitTransactionType defaultTransactionType;
 
@@ -155,7 +161,45 @@ public class PersistenceXmlParserImpl extends PersistenceXmlParser {
 	LOG.tracef("Attempting to parse persistence.xml file : %s",
 		xmlUrl.toExternalForm());
 
-	final Document doc = loadUrl(xmlUrl);
+	final Document doc = loadCachedUrl(xmlUrl);
+	final List<ParsedPersistenceXmlDescriptor> persistenceUnits;
+	// DOM is not thread safe even for reading
+	synchronized (doc) {
+	    persistenceUnits = parsePersistenceXml(doc, xmlUrl, integration);
+	}
+
+	return persistenceUnits;
+    }
+
+    /**
+     * Gets root {@link URL} of persistence unit, for persistence.xml from jar
+     * nested in ear file it is {@link URL} of nested jar
+     * 
+     * @param xmlUrl
+     * @param shortPath
+     * @return {@link URL}
+     */
+    private static URL getRootUrl(URL xmlUrl, String shortPath) {
+
+	URL rootUrl;
+
+	if (NestedJarHandler.isNested(xmlUrl)) {
+	    try {
+		rootUrl = NestedJarHandler.getJarURL(xmlUrl);
+	    } catch (IOException ex) {
+		throw new IllegalArgumentException(ex);
+	    }
+	} else {
+	    rootUrl = ArchiveHelper.getJarURLFromURLEntry(xmlUrl, shortPath);
+	}
+
+	return rootUrl;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private List<ParsedPersistenceXmlDescriptor> parsePersistenceXml(
+	    Document doc, URL xmlUrl, Map integration) {
+
 	final Element top = doc.getDocumentElement();
 
 	final List<ParsedPersistenceXmlDescriptor> persistenceUnits = new ArrayList<ParsedPersistenceXmlDescriptor>();
@@ -176,8 +220,7 @@ public class PersistenceXmlParserImpl extends PersistenceXmlParser {
 		    // Decides whether is needed to scan archives
 		    final URL puRootUrl;
 		    if (MetaConfig.isScanArchives(metaConfig)) {
-			puRootUrl = ArchiveHelper.getJarURLFromURLEntry(xmlUrl,
-				shortPath);
+			puRootUrl = getRootUrl(xmlUrl, shortPath);
 		    } else {
 			puRootUrl = xmlUrl;
 		    }
@@ -386,6 +429,37 @@ public class PersistenceXmlParserImpl extends PersistenceXmlParser {
 	}
     }
 
+    /**
+     * Loads and validates persistence.xml file once for all units which use
+     * it
+     * 
+     * @param xmlUrl
+     * @return {@link Document} of persistence.xml file
+     */
+    private Document loadCachedUrl(URL xmlUrl) {
+
+	Document document;
+
+	String key = xmlUrl.toExternalForm();
+	document = DOCUMENTS.get(key);
+	if (document == null) {
+	    document = loadUrl(xmlUrl);
+	    Document existing = DOCUMENTS.putIfAbsent(key, document);
+	    if (ObjectUtils.notNull(existing)) {
+		document = existing;
+	    }
+	}
+
+	return document;
+    }
+
+    /**
+     * Clears cache of parsed persistence.xml files
+     */
+    public static void clearCache() {
+	DOCUMENTS.clear();
+    }
+
     private Document loadUrl(URL xmlUrl) {
 	final String resourceName = xmlUrl.toExternalForm();
 	try {
@@ -36,6 +36,7 @@ import javax.persistence.EntityTransaction;
 import javax.transaction.SystemException;
 import javax.transaction.UserTransaction;
 
+import org.lightmare.cache.InvocationPlan;
 import org.lightmare.cache.MetaData;
 import org.lightmare.cache.TransactionHolder;
 import org.lightmare.ejb.handlers.BeanHandler;
@@ -183,6 +184,38 @@ public class BeanTransactions {
         return type;
     }
 
+    /**
+     * Gets cached {@link TransactionAttributeType} from passed
+     * {@link InvocationPlan}
+     *
+     * @param plan
+     * @return {@link TransactionAttributeType}
+     */
+    private static TransactionAttributeType getTransactionType(InvocationPlan plan) {
+
+        TransactionAttributeType type;
+
+        if (plan == null) {
+            type = null;
+        } else {
+            type = plan.getTransactionType();
+        }
+
+        return type;
+    }
+
+    /**
+     * Checks if passed {@link TransactionAttributeType} begins or joins
+     * transaction scope which should be visible for nested calls even before
+     * any {@link EntityManager} is created
+     *
+     * @param type
+     * @return <code>boolean</code>
+     */
+    private static boolean isScopedType(TransactionAttributeType type) {
+        return type.equals(TransactionAttributeType.REQUIRED) || type.equals(TransactionAttributeType.REQUIRES_NEW);
+    }
+
     /**
      * Gets status of passed transaction by {@link UserTransaction#getStatus()}
      * method call
@@ -262,6 +295,30 @@ public class BeanTransactions {
         return entityTransactions;
     }
 
+    /**
+     * Enlists passed {@link EntityManager}s in {@link UserTransaction} by
+     * {@link TransactionAttribute} annotation
+     *
+     * @param type
+     * @param transaction
+     * @param ems
+     */
+    private static void enlistEntityManagers(TransactionAttributeType type, UserTransaction transaction,
+            Collection<EntityManager> ems) {
+
+        Collection<TransactionData> entityTransactions;
+
+        if (TransactionManager.isFreeType(type)) {
+            TransactionManager.addFreeEntityManagers(transaction, ems);
+        } else if (type.equals(TransactionAttributeType.REQUIRES_NEW)) {
+            entityTransactions = getEntityTransactions(ems);
+            TransactionManager.addReqNewTransactions(transaction, entityTransactions);
+        } else {
+            entityTransactions = getEntityTransactions(ems);
+            TransactionManager.addEntityTransactions(transaction, entityTransactions);
+        }
+    }
+
     /**
      * Decides whether create or join {@link UserTransaction} by
      * {@link TransactionAttribute} annotation
@@ -275,38 +332,28 @@ public class BeanTransactions {
     private static void addTransaction(BeanHandler handler, TransactionAttributeType type, UserTransaction transaction,
             Collection<EntityManager> ems) throws IOException {
 
-        Collection<TransactionData> entityTransactions;
         TransactionManager.addCaller(transaction, handler);
 
-        if (type.equals(TransactionAttributeType.NOT_SUPPORTED)) {
-            TransactionManager.addFreeEntityManagers(transaction, ems);
-        } else if (type.equals(TransactionAttributeType.REQUIRED)) {
-            entityTransactions = getEntityTransactions(ems);
-            TransactionManager.addEntityTransactions(transaction, entityTransactions);
-        } else if (type.equals(TransactionAttributeType.REQUIRES_NEW)) {
-            entityTransactions = getEntityTransactions(ems);
-            TransactionManager.addReqNewTransactions(transaction, entityTransactions);
-        } else if (type.equals(TransactionAttributeType.MANDATORY)) {
+        if (type.equals(TransactionAttributeType.MANDATORY)) {
             int status = getStatus(transaction);
             if (status == UserTransactionFactory.INACTIVE_TRANSACTION_STATE) {
                 TransactionManager.addEntityManagers(transaction, ems);
                 throw new EJBException(MANDATORY_ERROR);
-            } else {
-                entityTransactions = getEntityTransactions(ems);
-                TransactionManager.addEntityTransactions(transaction, entityTransactions);
             }
         } else if (type.equals(TransactionAttributeType.NEVER)) {
-            try {
-                int status = getStatus(transaction);
-                if (status > UserTransactionFactory.INACTIVE_TRANSACTION_STATE) {
-                    throw new EJBException(NEVER_ERROR);
-                }
-            } finally {
+            int status = getStatus(transaction);
+            if (status > UserTransactionFactory.INACTIVE_TRANSACTION_STATE) {
                 TransactionManager.addFreeEntityManagers(transaction, ems);
+                throw new EJBException(NEVER_ERROR);
             }
-        } else if (type.equals(TransactionAttributeType.SUPPORTS)) {
-            entityTransactions = getEntityTransactions(ems);
-            TransactionManager.addEntityTransactions(transaction, entityTransactions);
+        }
+
+        if (isScopedType(type)) {
+            TransactionManager.beginScope(transaction);
+        }
+
+        if (CollectionUtils.valid(ems)) {
+            enlistEntityManagers(type, transaction, ems);
         }
     }
 
@@ -316,17 +363,16 @@ public class BeanTransactions {
      * annotation
      *
      * @param handler
-     * @param method
+     * @param plan
      * @param ems
      * @throws IOException
      */
-    public static TransactionAttributeType addTransaction(BeanHandler handler, Method method,
+    public static TransactionAttributeType addTransaction(BeanHandler handler, InvocationPlan plan,
             Collection<EntityManager> ems) throws IOException {
 
         TransactionAttributeType type;
 
-        MetaData metaData = handler.getMetaData();
-        type = getTransactionType(metaData, method);
+        type = getTransactionType(plan);
         UserTransaction transaction = getTransaction();
 
         if (ObjectUtils.notNull(type)) {
@@ -338,6 +384,26 @@ public class BeanTransactions {
         return type;
     }
 
+    /**
+     * Enlists lazily created {@link EntityManager}s in current
+     * {@link UserTransaction} by {@link TransactionAttribute} annotation of
+     * passed {@link InvocationPlan}'s method
+     *
+     * @param plan
+     * @param ems
+     */
+    public static void enlistEntityManagers(InvocationPlan plan, Collection<EntityManager> ems) {
+
+        TransactionAttributeType type = getTransactionType(plan);
+        UserTransaction transaction = getTransaction();
+
+        if (ObjectUtils.notNull(type)) {
+            enlistEntityManagers(type, transaction, ems);
+        } else {
+            TransactionManager.addEntityManagers(transaction, ems);
+        }
+    }
+
     /**
      * Rollbacks passed {@link UserTransaction} by
      * {@link TransactionAttributeType} distinguishes only
@@ -366,12 +432,12 @@ public class BeanTransactions {
      * implementation by {@link TransactionAttribute} annotation
      *
      * @param handler
-     * @param method
+     * @param plan
      * @throws IOException
      */
-    public static void rollbackTransaction(BeanHandler handler, Method method) throws IOException {
+    public static void rollbackTransaction(BeanHandler handler, InvocationPlan plan) throws IOException {
 
-        TransactionAttributeType type = getTransactionType(handler.getMetaData(), method);
+        TransactionAttributeType type = getTransactionType(plan);
         if (ObjectUtils.notNull(type)) {
             rollbackTransaction(type);
         } else {
@@ -435,12 +501,12 @@ public class BeanTransactions {
      * {@link TransactionAttribute} annotation
      *
      * @param handler
-     * @param method
+     * @param plan
      * @throws IOException
      */
-    public static void commitTransaction(BeanHandler handler, Method method) throws IOException {
+    public static void commitTransaction(BeanHandler handler, InvocationPlan plan) throws IOException {
 
-        TransactionAttributeType type = getTransactionType(handler.getMetaData(), method);
+        TransactionAttributeType type = getTransactionType(plan);
         if (ObjectUtils.notNull(type)) {
             commitTransaction(type, handler);
         } else {
@@ -471,6 +537,10 @@ public class BeanTransactions {
         UserTransaction transaction = TransactionHolder.getTransaction();
 
         if (ObjectUtils.notNull(transaction)) {
+            if (isScopedType(type)) {
+                TransactionManager.endScope(transaction);
+            }
+
             if (type.equals(TransactionAttributeType.REQUIRES_NEW)) {
                 TransactionManager.closeReqNewEntityManagers(transaction);
             } else if (TransactionManager.isFreeType(type)) {
@@ -492,11 +562,11 @@ public class BeanTransactions {
      * is first in EJB injection method chain
      *
      * @param handler
-     * @param method
+     * @param plan
      */
-    public static void remove(BeanHandler handler, Method method) {
+    public static void remove(BeanHandler handler, InvocationPlan plan) {
 
-        TransactionAttributeType type = getTransactionType(handler.getMetaData(), method);
+        TransactionAttributeType type = getTransactionType(plan);
         if (ObjectUtils.notNull(type)) {
             remove(handler, type);
         } else {
@@ -263,6 +263,34 @@ public class TransactionManager {
         }
     }
 
+    /**
+     * Marks begin of transaction scope in passed {@link UserTransaction}
+     * instance
+     *
+     * @param userTransaction
+     */
+    protected static void beginScope(UserTransaction userTransaction) {
+
+        if (userTransaction instanceof UserTransactionImpl) {
+            UserTransactionImpl transaction = ObjectUtils.cast(userTransaction, UserTransactionImpl.class);
+            transaction.beginScope();
+        }
+    }
+
+    /**
+     * Marks end of transaction scope in passed {@link UserTransaction}
+     * instance
+     *
+     * @param userTransaction
+     */
+    protected static void endScope(UserTransaction userTransaction) {
+
+        if (userTransaction instanceof UserTransactionImpl) {
+            UserTransactionImpl transaction = ObjectUtils.cast(userTransaction, UserTransactionImpl.class);
+            transaction.endScope();
+        }
+    }
+
     /**
      * Checks if passed {@link BeanHandler} is first caller / beginner of passed
      * {@link UserTransaction} instance
@@ -68,6 +68,10 @@ public class UserTransactionImpl implements UserTransaction {
     // Object which first called this (UserTransaction) instance
     private Object caller;
 
+    // Count of container managed transaction scopes entered by current thread
+    // whether or not EntityManager was created in them
+    private int scopes;
+
     // Denotes active transaction
     private static int ACTIVE = 1;
 
@@ -435,7 +439,7 @@ public class UserTransactionImpl implements UserTransaction {
     @Override
     public int getStatus() throws SystemException {
 
-        int active = INACTIVE;
+        int active = scopes > INACTIVE ? ACTIVE : INACTIVE;
 
         if (CollectionUtils.valid(transactions)) {
             for (EntityTransaction transaction : transactions) {
@@ -484,6 +488,24 @@ public class UserTransactionImpl implements UserTransaction {
         return caller;
     }
 
+    /**
+     * Marks begin of container managed transaction scope even if no
+     * {@link EntityManager} is enlisted in it yet
+     */
+    public void beginScope() {
+        scopes++;
+    }
+
+    /**
+     * Marks end of container managed transaction scope
+     */
+    public void endScope() {
+
+        if (scopes > INACTIVE) {
+            scopes--;
+        }
+    }
+
     /**
      * Closes all cached {@link EntityManager} instances
      */
@@ -0,0 +1,464 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.remote.codecs;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.lightmare.libraries.LibraryLoader;
+import org.lightmare.remote.rcp.wrappers.RcpWrapper;
+import org.lightmare.remote.rpc.wrappers.RpcWrapper;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.collections.CollectionUtils;
+import org.lightmare.utils.logging.LogUtils;
+import org.lightmare.utils.reflect.ClassUtils;
+import org.lightmare.utils.remote.RpcUtils;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Compact binary implementation of {@link RpcCodec} which writes names as
+ * UTF-8 strings, common value types (<code>null</code>, {@link String},
+ * primitive wrappers, <code>byte</code>[] and {@link Object}[]) with one byte
+ * tags and falls back to java native serialization only for other types
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class BinaryRpcCodec implements RpcCodec {
+
+    public static final byte VERSION = 2;
+
+    private static final String NAME = "binary";
+
+    // Length of absent (null) array or string
+    private static final int NULL_LENGTH = -1;
+
+    private static final int TRUE_VALUE = 1;
+
+    private static final int FALSE_VALUE = 0;
+
+    // Value type tags
+    private static final byte NULL = 0;
+
+    private static final byte STRING = 1;
+
+    private static final byte INTEGER = 2;
+
+    private static final byte LONG = 3;
+
+    private static final byte BOOLEAN = 4;
+
+    private static final byte DOUBLE = 5;
+
+    private static final byte FLOAT = 6;
+
+    private static final byte SHORT = 7;
+
+    private static final byte BYTE = 8;
+
+    private static final byte CHARACTER = 9;
+
+    private static final byte BYTES = 10;
+
+    private static final byte ARRAY = 11;
+
+    private static final byte SERIALIZED = 12;
+
+    private static final String UNKNOWN_TAG_ERROR = "Unknown value tag %s";
+
+    // Primitive types by name (can not be loaded by Class.forName)
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+
+    static {
+        Class<?>[] primitives = { boolean.class, byte.class, char.class, short.class, int.class, long.class,
+                float.class, double.class, void.class };
+        for (Class<?> primitive : primitives) {
+            PRIMITIVES.put(primitive.getName(), primitive);
+        }
+    }
+
+    @Override
+    public byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Writes length prefixed UTF-8 string
+     *
+     * @param value
+     * @param buffer
+     */
+    protected static void writeString(String value, ByteBuf buffer) {
+        RpcCodecs.writeString(value, buffer);
+    }
+
+    /**
+     * Reads length prefixed UTF-8 string
+     *
+     * @param buffer
+     * @return {@link String}
+     */
+    protected static String readString(ByteBuf buffer) {
+        return RpcCodecs.readString(buffer);
+    }
+
+    /**
+     * Writes class name
+     *
+     * @param type
+     * @param buffer
+     */
+    private static void writeClass(Class<?> type, ByteBuf buffer) {
+
+        if (type == null) {
+            writeString(null, buffer);
+        } else {
+            writeString(type.getName(), buffer);
+        }
+    }
+
+    /**
+     * Reads class name and loads class
+     *
+     * @param buffer
+     * @return {@link Class}
+     * @throws IOException
+     */
+    private static Class<?> readClass(ByteBuf buffer) throws IOException {
+
+        Class<?> type;
+
+        String name = readString(buffer);
+        if (name == null) {
+            type = null;
+        } else {
+            type = PRIMITIVES.get(name);
+            if (type == null) {
+                ClassLoader loader = LibraryLoader.getContextClassLoader();
+                type = ClassUtils.classForName(name, Boolean.FALSE, loader);
+            }
+        }
+
+        return type;
+    }
+
+    /**
+     * Writes array of class names
+     *
+     * @param types
+     * @param buffer
+     */
+    private static void writeClasses(Class<?>[] types, ByteBuf buffer) {
+
+        if (types == null) {
+            buffer.writeInt(NULL_LENGTH);
+        } else {
+            buffer.writeInt(types.length);
+            for (Class<?> type : types) {
+                writeClass(type, buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads array of classes
+     *
+     * @param buffer
+     * @return {@link Class}[]
+     * @throws IOException
+     */
+    private static Class<?>[] readClasses(ByteBuf buffer) throws IOException {
+
+        Class<?>[] types;
+
+        int length = buffer.readInt();
+        if (length == NULL_LENGTH) {
+            types = null;
+        } else {
+            types = new Class<?>[length];
+            for (int i = CollectionUtils.FIRST_INDEX; i < length; i++) {
+                types[i] = readClass(buffer);
+            }
+        }
+
+        return types;
+    }
+
+    /**
+     * Writes array of values
+     *
+     * @param values
+     * @param buffer
+     * @throws IOException
+     */
+    protected static void writeValues(Object[] values, ByteBuf buffer) throws IOException {
+
+        if (values == null) {
+            buffer.writeInt(NULL_LENGTH);
+        } else {
+            buffer.writeInt(values.length);
+            for (Object value : values) {
+                writeValue(value, buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads array of values
+     *
+     * @param buffer
+     * @return {@link Object}[]
+     * @throws IOException
+     */
+    protected static Object[] readValues(ByteBuf buffer) throws IOException {
+
+        Object[] values;
+
+        int length = buffer.readInt();
+        if (length == NULL_LENGTH) {
+            values = null;
+        } else {
+            values = new Object[length];
+            for (int i = CollectionUtils.FIRST_INDEX; i < length; i++) {
+                values[i] = readValue(buffer);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Writes number values with type tag
+     *
+     * @param value
+     * @param buffer
+     * @return <code>boolean</code> true if value was written
+     */
+    private static boolean writeNumber(Object value, ByteBuf buffer) {
+
+        boolean written = Boolean.TRUE;
+
+        Class<?> type = value.getClass();
+        if (type == Integer.class) {
+            buffer.writeByte(INTEGER);
+            buffer.writeInt((Integer) value);
+        } else if (type == Long.class) {
+            buffer.writeByte(LONG);
+            buffer.writeLong((Long) value);
+        } else if (type == Double.class) {
+            buffer.writeByte(DOUBLE);
+            buffer.writeDouble((Double) value);
+        } else if (type == Float.class) {
+            buffer.writeByte(FLOAT);
+            buffer.writeFloat((Float) value);
+        } else if (type == Short.class) {
+            buffer.writeByte(SHORT);
+            buffer.writeShort((Short) value);
+        } else if (type == Byte.class) {
+            buffer.writeByte(BYTE);
+            buffer.writeByte((Byte) value);
+        } else {
+            written = Boolean.FALSE;
+        }
+
+        return written;
+    }
+
+    /**
+     * Writes value with type tag
+     *
+     * @param value
+     * @param buffer
+     * @throws IOException
+     */
+    protected static void writeValue(Object value, ByteBuf buffer) throws IOException {
+
+        if (value == null) {
+            buffer.writeByte(NULL);
+        } else if (value instanceof String) {
+            buffer.writeByte(STRING);
+            writeString((String) value, buffer);
+        } else if (value instanceof Boolean) {
+            buffer.writeByte(BOOLEAN);
+            buffer.writeByte(((Boolean) value) ? TRUE_VALUE : FALSE_VALUE);
+        } else if (value instanceof Character) {
+            buffer.writeByte(CHARACTER);
+            buffer.writeChar((Character) value);
+        } else if (value instanceof byte[]) {
+            byte[] data = ObjectUtils.cast(value, byte[].class);
+            buffer.writeByte(BYTES);
+            buffer.writeInt(data.length);
+            buffer.writeBytes(data);
+        } else if (value.getClass() == Object[].class) {
+            buffer.writeByte(ARRAY);
+            writeValues((Object[]) value, buffer);
+        } else if (Boolean.FALSE.equals(writeNumber(value, buffer))) {
+            buffer.writeByte(SERIALIZED);
+            RpcCodecs.writeObject(value, buffer);
+        }
+    }
+
+    /**
+     * Reads length prefixed bytes
+     *
+     * @param buffer
+     * @return <code>byte</code>[]
+     */
+    private static byte[] readBytes(ByteBuf buffer) {
+
+        int length = buffer.readInt();
+        byte[] data = new byte[length];
+        buffer.readBytes(data);
+
+        return data;
+    }
+
+    /**
+     * Reads value by type tag
+     *
+     * @param buffer
+     * @return {@link Object}
+     * @throws IOException
+     */
+    protected static Object readValue(ByteBuf buffer) throws IOException {
+
+        Object value;
+
+        byte tag = buffer.readByte();
+        switch (tag) {
+        case NULL:
+            value = null;
+            break;
+        case STRING:
+            value = readString(buffer);
+            break;
+        case INTEGER:
+            value = buffer.readInt();
+            break;
+        case LONG:
+            value = buffer.readLong();
+            break;
+        case BOOLEAN:
+            value = buffer.readByte() > FALSE_VALUE;
+            break;
+        case DOUBLE:
+            value = buffer.readDouble();
+            break;
+        case FLOAT:
+            value = buffer.readFloat();
+            break;
+        case SHORT:
+            value = buffer.readShort();
+            break;
+        case BYTE:
+            value = buffer.readByte();
+            break;
+        case CHARACTER:
+            value = buffer.readChar();
+            break;
+        case BYTES:
+            value = readBytes(buffer);
+            break;
+        case ARRAY:
+            value = readValues(buffer);
+            break;
+        case SERIALIZED:
+            value = RpcCodecs.readObject(buffer);
+            break;
+        default:
+            throw new IOException(LogUtils.logMessage(UNKNOWN_TAG_ERROR, tag));
+        }
+
+        return value;
+    }
+
+    @Override
+    public void encodeRequest(RpcWrapper wrapper, ByteBuf buffer) throws IOException {
+
+        int methodId = wrapper.getMethodId();
+        buffer.writeLong(wrapper.getId());
+        buffer.writeInt(methodId);
+        // Method resolved by handshake is sent only by identifier
+        if (methodId > RpcUtils.UNRESOLVED_METHOD_ID) {
+            writeValues(wrapper.getParams(), buffer);
+        } else if (methodId == RpcUtils.HANDSHAKE_METHOD_ID) {
+            writeString(wrapper.getBeanName(), buffer);
+        } else {
+            writeString(wrapper.getBeanName(), buffer);
+            writeString(wrapper.getMethodName(), buffer);
+            writeClasses(wrapper.getParamTypes(), buffer);
+            writeClass(wrapper.getInterfaceClass(), buffer);
+            writeValues(wrapper.getParams(), buffer);
+        }
+    }
+
+    @Override
+    public RpcWrapper decodeRequest(ByteBuf buffer) throws IOException {
+
+        RpcWrapper wrapper = new RpcWrapper();
+
+        wrapper.setId(buffer.readLong());
+        int methodId = buffer.readInt();
+        wrapper.setMethodId(methodId);
+        if (methodId > RpcUtils.UNRESOLVED_METHOD_ID) {
+            wrapper.setParams(readValues(buffer));
+        } else if (methodId == RpcUtils.HANDSHAKE_METHOD_ID) {
+            wrapper.setBeanName(readString(buffer));
+        } else {
+            wrapper.setBeanName(readString(buffer));
+            wrapper.setMethodName(readString(buffer));
+            wrapper.setParamTypes(readClasses(buffer));
+            wrapper.setInterfaceClass(readClass(buffer));
+            wrapper.setParams(readValues(buffer));
+        }
+
+        return wrapper;
+    }
+
+    @Override
+    public void encodeResponse(RcpWrapper wrapper, ByteBuf buffer) throws IOException {
+
+        buffer.writeLong(wrapper.getId());
+        buffer.writeByte(wrapper.isValid() ? TRUE_VALUE : FALSE_VALUE);
+        writeValue(wrapper.getValue(), buffer);
+    }
+
+    @Override
+    public RcpWrapper decodeResponse(ByteBuf buffer) throws IOException {
+
+        RcpWrapper wrapper = new RcpWrapper();
+
+        wrapper.setId(buffer.readLong());
+        wrapper.setValid(buffer.readByte() > FALSE_VALUE);
+        wrapper.setValue(readValue(buffer));
+
+        return wrapper;
+    }
+}
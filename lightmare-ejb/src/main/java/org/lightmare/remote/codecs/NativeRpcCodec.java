@@ -0,0 +1,142 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.remote.codecs;
+
+import java.io.IOException;
+
+import org.lightmare.remote.rcp.wrappers.RcpWrapper;
+import org.lightmare.remote.rpc.wrappers.RpcWrapper;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.collections.CollectionUtils;
+import org.lightmare.utils.remote.RpcUtils;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Implementation of {@link RpcCodec} with java native serialization of each
+ * request section (legacy wire format) streamed directly to and from frame
+ * buffer
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class NativeRpcCodec implements RpcCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final String NAME = "native";
+
+    private static final int TRUE_VALUE = 1;
+
+    private static final int FALSE_VALUE = 0;
+
+    @Override
+    public byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Reads and de-serializes length prefixed section from buffer
+     *
+     * @param buffer
+     * @return <code>T</code>
+     * @throws IOException
+     */
+    private static <T> T readObject(ByteBuf buffer) throws IOException {
+
+        T value;
+
+        Object raw = RpcCodecs.readObject(buffer);
+        value = ObjectUtils.cast(raw);
+
+        return value;
+    }
+
+    @Override
+    public void encodeRequest(RpcWrapper wrapper, ByteBuf buffer) throws IOException {
+
+        int methodId = wrapper.getMethodId();
+        buffer.writeLong(wrapper.getId());
+        buffer.writeInt(methodId);
+        // Method resolved by handshake is sent only by identifier
+        if (methodId > RpcUtils.UNRESOLVED_METHOD_ID) {
+            RpcCodecs.writeObject(wrapper.getParams(), buffer);
+        } else if (methodId == RpcUtils.HANDSHAKE_METHOD_ID) {
+            RpcCodecs.writeString(wrapper.getBeanName(), buffer);
+        } else {
+            RpcCodecs.writeString(wrapper.getBeanName(), buffer);
+            RpcCodecs.writeObject(wrapper.getMethodName(), buffer);
+            RpcCodecs.writeObject(wrapper.getParamTypes(), buffer);
+            RpcCodecs.writeObject(wrapper.getInterfaceClass(), buffer);
+            RpcCodecs.writeObject(wrapper.getParams(), buffer);
+        }
+    }
+
+    @Override
+    public RpcWrapper decodeRequest(ByteBuf buffer) throws IOException {
+
+        RpcWrapper wrapper = new RpcWrapper();
+
+        wrapper.setId(buffer.readLong());
+        int methodId = buffer.readInt();
+        wrapper.setMethodId(methodId);
+        if (methodId > RpcUtils.UNRESOLVED_METHOD_ID) {
+            wrapper.setParams(NativeRpcCodec.<Object[]> readObject(buffer));
+        } else if (methodId == RpcUtils.HANDSHAKE_METHOD_ID) {
+            wrapper.setBeanName(RpcCodecs.readString(buffer));
+        } else {
+            wrapper.setBeanName(RpcCodecs.readString(buffer));
+            wrapper.setMethodName(NativeRpcCodec.<String> readObject(buffer));
+            wrapper.setParamTypes(NativeRpcCodec.<Class<?>[]> readObject(buffer));
+            wrapper.setInterfaceClass(NativeRpcCodec.<Class<?>> readObject(buffer));
+            wrapper.setParams(NativeRpcCodec.<Object[]> readObject(buffer));
+        }
+
+        return wrapper;
+    }
+
+    @Override
+    public void encodeResponse(RcpWrapper wrapper, ByteBuf buffer) throws IOException {
+
+        buffer.writeLong(wrapper.getId());
+        buffer.writeByte(wrapper.isValid() ? TRUE_VALUE : FALSE_VALUE);
+        RpcCodecs.writeObject(wrapper.getValue(), buffer);
+    }
+
+    @Override
+    public RcpWrapper decodeResponse(ByteBuf buffer) throws IOException {
+
+        RcpWrapper wrapper = new RcpWrapper();
+
+        wrapper.setId(buffer.readLong());
+        wrapper.setValid(buffer.readByte() > CollectionUtils.EMPTY_ARRAY_LENGTH);
+        wrapper.setValue(readObject(buffer));
+
+        return wrapper;
+    }
+}
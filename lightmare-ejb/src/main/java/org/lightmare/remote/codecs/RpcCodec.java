@@ -0,0 +1,93 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.remote.codecs;
+
+import java.io.IOException;
+
+import org.lightmare.remote.rcp.wrappers.RcpWrapper;
+import org.lightmare.remote.rpc.wrappers.RpcWrapper;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Service provider interface for RPC wire protocol body serialization.
+ * Implementations are identified by version byte written in each frame, so
+ * server answers with same codec as request was encoded; additional codecs
+ * are registered in {@link RpcCodecs} or found by
+ * {@link java.util.ServiceLoader}
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public interface RpcCodec {
+
+    /**
+     * Version byte written in each frame encoded with this codec
+     *
+     * @return <code>byte</code>
+     */
+    byte getVersion();
+
+    /**
+     * Name of codec for configuration
+     *
+     * @return {@link String}
+     */
+    String getName();
+
+    /**
+     * Writes RPC request to buffer
+     *
+     * @param wrapper
+     * @param buffer
+     * @throws IOException
+     */
+    void encodeRequest(RpcWrapper wrapper, ByteBuf buffer) throws IOException;
+
+    /**
+     * Reads RPC request from frame body
+     *
+     * @param buffer
+     * @return {@link RpcWrapper}
+     * @throws IOException
+     */
+    RpcWrapper decodeRequest(ByteBuf buffer) throws IOException;
+
+    /**
+     * Writes RPC response to buffer
+     *
+     * @param wrapper
+     * @param buffer
+     * @throws IOException
+     */
+    void encodeResponse(RcpWrapper wrapper, ByteBuf buffer) throws IOException;
+
+    /**
+     * Reads RPC response from frame body
+     *
+     * @param buffer
+     * @return {@link RcpWrapper}
+     * @throws IOException
+     */
+    RcpWrapper decodeResponse(ByteBuf buffer) throws IOException;
+}
@@ -0,0 +1,361 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.remote.codecs;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import org.apache.log4j.Logger;
+import org.lightmare.config.Configuration;
+import org.lightmare.utils.io.serialization.NativeSerializer;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.StringUtils;
+import org.lightmare.utils.logging.LogUtils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+/**
+ * Registry of {@link RpcCodec} implementations by version byte and frame
+ * utilities for RPC wire protocol. Each frame is written as
+ * <code>[int length][byte version][body]</code> where length covers version
+ * and body
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class RpcCodecs {
+
+    // Codecs by version byte
+    private static final RpcCodec[] CODECS = new RpcCodec[Byte.MAX_VALUE + 1];
+
+    // Codec of last decoded frame on channel (server answers with it)
+    public static final AttributeKey<RpcCodec> CHANNEL_CODEC = AttributeKey.valueOf("lightmare.rpcCodec");
+
+    public static final Charset CHARSET = Charset.forName("UTF-8");
+
+    // Frame length and version sizes
+    public static final int LENGTH_SIZE = 4;
+
+    public static final int VERSION_SIZE = 1;
+
+    public static final int HEADER_SIZE = LENGTH_SIZE + VERSION_SIZE;
+
+    // Length of null value in length prefixed sections
+    public static final int NULL_LENGTH = -1;
+
+    private static final String UNKNOWN_VERSION_ERROR = "Unknown RPC codec version %s";
+
+    private static final String UNKNOWN_NAME_ERROR = "Unknown RPC codec %s";
+
+    private static final Logger LOG = Logger.getLogger(RpcCodecs.class);
+
+    // Codec used to encode requests
+    private static volatile RpcCodec defaultCodec;
+
+    static {
+        register(new NativeRpcCodec());
+        register(new BinaryRpcCodec());
+        defaultCodec = CODECS[BinaryRpcCodec.VERSION];
+        loadProviders();
+    }
+
+    /**
+     * Registers codecs from {@link ServiceLoader} providers
+     */
+    private static void loadProviders() {
+
+        try {
+            Iterator<RpcCodec> providers = ServiceLoader.load(RpcCodec.class).iterator();
+            while (providers.hasNext()) {
+                register(providers.next());
+            }
+        } catch (ServiceConfigurationError ex) {
+            LogUtils.error(LOG, ex, "Could not load RPC codecs %s", ex.getMessage());
+        }
+    }
+
+    /**
+     * Registers {@link RpcCodec} for it's version
+     *
+     * @param codec
+     */
+    public static void register(RpcCodec codec) {
+        CODECS[codec.getVersion()] = codec;
+    }
+
+    /**
+     * Gets {@link RpcCodec} by version byte
+     *
+     * @param version
+     * @return {@link RpcCodec}
+     * @throws IOException
+     */
+    public static RpcCodec get(byte version) throws IOException {
+
+        RpcCodec codec;
+
+        if (version < 0) {
+            codec = null;
+        } else {
+            codec = CODECS[version];
+        }
+
+        if (codec == null) {
+            throw new IOException(LogUtils.logMessage(UNKNOWN_VERSION_ERROR, version));
+        }
+
+        return codec;
+    }
+
+    /**
+     * Gets {@link RpcCodec} by name
+     *
+     * @param name
+     * @return {@link RpcCodec}
+     * @throws IOException
+     */
+    public static RpcCodec get(String name) throws IOException {
+
+        RpcCodec codec = null;
+
+        for (int i = 0; i < CODECS.length && codec == null; i++) {
+            if (ObjectUtils.notNull(CODECS[i]) && CODECS[i].getName().equals(name)) {
+                codec = CODECS[i];
+            }
+        }
+
+        if (codec == null) {
+            throw new IOException(LogUtils.logMessage(UNKNOWN_NAME_ERROR, name));
+        }
+
+        return codec;
+    }
+
+    public static RpcCodec getDefault() {
+        return defaultCodec;
+    }
+
+    public static void setDefault(RpcCodec codec) {
+        defaultCodec = codec;
+    }
+
+    /**
+     * Sets default codec by name if it is valid
+     *
+     * @param name
+     * @throws IOException
+     */
+    public static void setDefault(String name) throws IOException {
+
+        if (StringUtils.valid(name)) {
+            defaultCodec = get(name);
+        }
+    }
+
+    /**
+     * Gets codec of passed channel or default codec
+     *
+     * @param channel
+     * @return {@link RpcCodec}
+     */
+    public static RpcCodec get(Channel channel) {
+
+        RpcCodec codec = channel.attr(CHANNEL_CODEC).get();
+
+        if (codec == null) {
+            codec = defaultCodec;
+        }
+
+        return codec;
+    }
+
+    /**
+     * Gets {@link ByteBufAllocator} for RPC channels, pooled allocator of
+     * direct buffers is used by default
+     *
+     * @param config
+     * @return {@link ByteBufAllocator}
+     */
+    public static ByteBufAllocator getAllocator(Configuration config) {
+
+        ByteBufAllocator allocator;
+
+        if (config.isRpcPooledBuffers()) {
+            allocator = PooledByteBufAllocator.DEFAULT;
+        } else {
+            allocator = UnpooledByteBufAllocator.DEFAULT;
+        }
+
+        return allocator;
+    }
+
+    /**
+     * Writes length prefixed UTF-8 string encoded by Netty's cached
+     * {@link java.nio.charset.CharsetEncoder} to pooled buffer
+     *
+     * @param value
+     * @param buffer
+     */
+    public static void writeString(CharSequence value, ByteBuf buffer) {
+
+        if (value == null) {
+            buffer.writeInt(NULL_LENGTH);
+        } else {
+            CharBuffer chars = CharBuffer.wrap(value);
+            ByteBuf encoded = ByteBufUtil.encodeString(buffer.alloc(), chars, CHARSET);
+            try {
+                buffer.writeInt(encoded.readableBytes());
+                buffer.writeBytes(encoded);
+            } finally {
+                encoded.release();
+            }
+        }
+    }
+
+    /**
+     * Reads length prefixed UTF-8 string
+     *
+     * @param buffer
+     * @return {@link String}
+     */
+    public static String readString(ByteBuf buffer) {
+
+        String value;
+
+        int length = buffer.readInt();
+        if (length == NULL_LENGTH) {
+            value = null;
+        } else {
+            value = buffer.toString(buffer.readerIndex(), length, CHARSET);
+            buffer.skipBytes(length);
+        }
+
+        return value;
+    }
+
+    /**
+     * Writes length prefixed java native serialization of value streaming it
+     * directly to buffer
+     *
+     * @param value
+     * @param buffer
+     * @throws IOException
+     */
+    public static void writeObject(Object value, ByteBuf buffer) throws IOException {
+
+        int lengthIndex = buffer.writerIndex();
+        buffer.writeInt(NULL_LENGTH);
+        NativeSerializer.serialize(value, new ByteBufOutputStream(buffer));
+        buffer.setInt(lengthIndex, buffer.writerIndex() - lengthIndex - LENGTH_SIZE);
+    }
+
+    /**
+     * Reads length prefixed java native serialization of value streaming it
+     * directly from buffer
+     *
+     * @param buffer
+     * @return {@link Object}
+     * @throws IOException
+     */
+    public static Object readObject(ByteBuf buffer) throws IOException {
+
+        Object value;
+
+        int length = buffer.readInt();
+        int endIndex = buffer.readerIndex() + length;
+        try {
+            value = NativeSerializer.deserialize(new ByteBufInputStream(buffer, length));
+        } finally {
+            buffer.readerIndex(endIndex);
+        }
+
+        return value;
+    }
+
+    /**
+     * Writes frame header and reserves length field, returns index of length
+     * to be set by {@link RpcCodecs#endFrame(ByteBuf, int)}
+     *
+     * @param codec
+     * @param buffer
+     * @return <code>int</code> length index
+     */
+    public static int startFrame(RpcCodec codec, ByteBuf buffer) {
+
+        int lengthIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        buffer.writeByte(codec.getVersion());
+
+        return lengthIndex;
+    }
+
+    /**
+     * Sets frame length after body is written
+     *
+     * @param buffer
+     * @param lengthIndex
+     */
+    public static void endFrame(ByteBuf buffer, int lengthIndex) {
+        int length = buffer.writerIndex() - lengthIndex - LENGTH_SIZE;
+        buffer.setInt(lengthIndex, length);
+    }
+
+    /**
+     * Reads frame from buffer if it is completely received
+     *
+     * @param buffer
+     * @return {@link ByteBuf} frame (version and body) or null if frame is not
+     *         completely received
+     */
+    public static ByteBuf readFrame(ByteBuf buffer) {
+
+        ByteBuf frame;
+
+        if (buffer.readableBytes() < HEADER_SIZE) {
+            frame = null;
+        } else {
+            int readerIndex = buffer.readerIndex();
+            int length = buffer.getInt(readerIndex);
+            if (buffer.readableBytes() < LENGTH_SIZE + length) {
+                frame = null;
+            } else {
+                buffer.skipBytes(LENGTH_SIZE);
+                frame = buffer.readSlice(length);
+            }
+        }
+
+        return frame;
+    }
+}
@@ -22,101 +22,96 @@
  */
 package org.lightmare.remote.rcp;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.log4j.Logger;
 import org.lightmare.remote.rcp.wrappers.RcpWrapper;
-import org.lightmare.remote.rpc.wrappers.RpcWrapper;
 import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.logging.LogUtils;
 
-import antlr.debug.MessageEvent;
-import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.concurrent.Promise;
 
 /**
- * Handler @see {@link ChannelInboundHandlerAdapter} for RPC response
+ * Handler @see {@link ChannelInboundHandlerAdapter} for RPC responses which
+ * completes pending calls by request identifier, so that many calls are
+ * multiplexed over one connection
  * 
  * @author Levan Tsinadze
  * @since 0.0.21-SNAPSHOT
  */
 public class RcpHandler extends ChannelInboundHandlerAdapter {
 
-    // Responses queue
-    private BlockingQueue<RcpWrapper> answer;
+    // Pending calls by request identifier
+    private final ConcurrentMap<Long, Promise<RcpWrapper>> pendings = new ConcurrentHashMap<Long, Promise<RcpWrapper>>();
+
+    private static final String CLOSED_ERROR = "Connection closed before response was received";
+
+    private static final Logger LOG = Logger.getLogger(RcpHandler.class);
 
     /**
-     * Implementation for {@link ChannelFutureListener} for remote procedure
-     * call
-     * 
-     * @author Levan Tsinadze
+     * Registers pending call for passed request identifier
      * 
+     * @param id
+     * @param promise
      */
-    protected static class ResponseListener implements ChannelFutureListener {
-
-        private final BlockingQueue<RcpWrapper> answer;
-
-        private final MessageEvent ev;
+    public void register(long id, Promise<RcpWrapper> promise) {
+        pendings.put(id, promise);
+    }
 
-        public ResponseListener(final BlockingQueue<RcpWrapper> answer, final MessageEvent ev) {
-            this.answer = answer;
-            this.ev = ev;
-        }
+    /**
+     * Removes pending call (after time out or cancellation)
+     * 
+     * @param id
+     */
+    public void unregister(long id) {
+        pendings.remove(id);
+    }
 
-        @Override
-        public void operationComplete(ChannelFuture future) throws Exception {
+    /**
+     * Fails all pending calls with passed cause
+     * 
+     * @param cause
+     */
+    private void failAll(Throwable cause) {
 
-            RcpWrapper rcpWrapper = ObjectUtils.cast(ev.getSource(), RcpWrapper.class);
-            boolean offered = answer.offer(rcpWrapper);
-            assert offered;
+        Collection<Long> ids = pendings.keySet();
+        for (Long id : ids) {
+            Promise<RcpWrapper> promise = pendings.remove(id);
+            if (ObjectUtils.notNull(promise)) {
+                promise.tryFailure(cause);
+            }
         }
     }
 
-    public RcpHandler() {
-        answer = new LinkedBlockingQueue<RcpWrapper>();
-    }
-
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
 
-        try {
-            RcpWrapper wrapper = ObjectUtils.cast(msg, RcpWrapper.class);
-            boolean offered = answer.offer(wrapper);
-            assert offered;
-        } finally {
-            ctx.close();
+        RcpWrapper wrapper = ObjectUtils.cast(msg, RcpWrapper.class);
+        Promise<RcpWrapper> promise = pendings.remove(wrapper.getId());
+        if (ObjectUtils.notNull(promise)) {
+            promise.trySuccess(wrapper);
+        } else {
+            LogUtils.debug(LOG, "Response for unknown request %s", wrapper.getId());
         }
     }
 
     @Override
-    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
 
-        cause.printStackTrace();
-        ctx.close();
+        failAll(new IOException(CLOSED_ERROR));
+        super.channelInactive(ctx);
     }
 
-    /**
-     * Gets {@link RpcWrapper} after waiting
-     * 
-     * @return {@link RpcWrapper}
-     */
-    public RcpWrapper getWrapper() {
-
-        RcpWrapper responce;
-
-        boolean interrupted = Boolean.TRUE;
-        for (;;) {
-            try {
-                responce = answer.take();
-                if (interrupted) {
-                    Thread.currentThread().interrupt();
-                }
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
 
-                return responce;
-            } catch (InterruptedException ex) {
-                interrupted = Boolean.FALSE;
-            }
-        }
+        LOG.error(cause.getMessage(), cause);
+        failAll(cause);
+        ctx.close();
     }
 }
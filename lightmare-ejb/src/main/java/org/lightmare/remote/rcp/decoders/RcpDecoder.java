@@ -25,10 +25,10 @@ package org.lightmare.remote.rcp.decoders;
 import java.io.IOException;
 import java.util.List;
 
+import org.lightmare.remote.codecs.RpcCodec;
+import org.lightmare.remote.codecs.RpcCodecs;
 import org.lightmare.remote.rcp.wrappers.RcpWrapper;
-import org.lightmare.utils.collections.CollectionUtils;
-import org.lightmare.utils.io.serialization.NativeSerializer;
-import org.lightmare.utils.remote.RpcUtils;
+import org.lightmare.utils.ObjectUtils;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -37,44 +37,22 @@ import io.netty.handler.codec.ByteToMessageDecoder;
 /**
  * Decoder (extends {@link ByteToMessageDecoder}) class @see
  * <a href="http://static.netty.io/3.6/guide/">io.netty</a> for response on
- * <a href="io.netty"/>netty></a> RCP returns {@link RcpWrapper}
+ * <a href="io.netty"/>netty></a> RCP returns {@link RcpWrapper} decoded with
+ * {@link RpcCodec} of frame's version
  * 
  * @author Levan Tsinadze
  * @since 0.0.21-SNAPSHOT
  */
 public class RcpDecoder extends ByteToMessageDecoder {
 
-    /**
-     * Decodes if data is enough in buffer
-     * 
-     * @param buffer
-     * @param out
-     * @throws IOException
-     */
-    private void decode(ByteBuf buffer, List<Object> out) throws IOException {
-
-        boolean valid = buffer.readByte() > CollectionUtils.EMPTY_ARRAY_LENGTH;
-        int dataSize = buffer.readInt();
-        if (buffer.readableBytes() < dataSize) {
-            buffer.resetReaderIndex();
-        } else {
-            byte[] data = new byte[dataSize];
-            Object value = NativeSerializer.deserialize(data);
-            RcpWrapper rcp = new RcpWrapper();
-            rcp.setValid(valid);
-            rcp.setValue(value);
-            out.add(rcp);
-        }
-    }
-
     @Override
     protected void decode(ChannelHandlerContext context, ByteBuf buffer, List<Object> out) throws IOException {
 
-        int validSize = RpcUtils.INT_SIZE + RpcUtils.BYTE_SIZE;
-        if (buffer.readableBytes() < validSize) {
-            buffer.resetReaderIndex();
-        } else {
-            decode(buffer, out);
+        ByteBuf frame = RpcCodecs.readFrame(buffer);
+        if (ObjectUtils.notNull(frame)) {
+            RpcCodec codec = RpcCodecs.get(frame.readByte());
+            RcpWrapper wrapper = codec.decodeResponse(frame);
+            out.add(wrapper);
         }
     }
 }
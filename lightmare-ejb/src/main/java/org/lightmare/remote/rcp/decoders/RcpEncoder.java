@@ -24,10 +24,10 @@ package org.lightmare.remote.rcp.decoders;
 
 import java.io.IOException;
 
+import org.lightmare.remote.codecs.RpcCodec;
+import org.lightmare.remote.codecs.RpcCodecs;
 import org.lightmare.remote.rcp.wrappers.RcpWrapper;
 import org.lightmare.utils.ObjectUtils;
-import org.lightmare.utils.io.serialization.NativeSerializer;
-import org.lightmare.utils.remote.RpcUtils;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -37,58 +37,30 @@ import io.netty.channel.ChannelPromise;
 /**
  * Encoder (extends {@link ChannelOutboundHandlerAdapter}) class @see
  * <a href="http://static.netty.io/3.6/guide/">io.netty</a> for serialize
- * {@link RcpWrapper} <a href="io.netty"/>netty></a> RPC server response
+ * {@link RcpWrapper} <a href="io.netty"/>netty></a> RPC server response with
+ * {@link RpcCodec} of request
  * 
  * @author Levan Tsinadze
  * @since 0.0.21-SNAPSHOT
  */
 public class RcpEncoder extends ChannelOutboundHandlerAdapter {
 
-    /**
-     * Translates boolean to numeric value
-     * 
-     * @author Levan Tsinadze
-     * @since 0.0.84-SNAPSHOT
-     */
-    protected static enum BooleanNumber {
-
-        TRUE(1), FALSE(0);
-
-        private final int value;
-
-        private BooleanNumber(int value) {
-            this.value = value;
-        }
-
-        public static int getValue(boolean key) {
-
-            int num;
-
-            if (key) {
-                num = TRUE.value;
-            } else {
-                num = FALSE.value;
-            }
-
-            return num;
-        }
-    }
-
     @Override
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws IOException {
 
         RcpWrapper wrapper = ObjectUtils.cast(msg, RcpWrapper.class);
-        boolean valid = wrapper.isValid();
-        int validNum = BooleanNumber.getValue(valid);
-        Object value = wrapper.getValue();
-        byte[] valueBt = NativeSerializer.serialize(value);
-        int valueSize = valueBt.length;
-        int protSize = (RpcUtils.INT_SIZE + RpcUtils.BYTE_SIZE + valueSize);
-        ByteBuf buffer = ctx.alloc().buffer(protSize);
-        buffer.writeInt(valueSize);
-        buffer.writeByte(validNum);
-        buffer.writeBytes(valueBt);
+        RpcCodec codec = RpcCodecs.get(ctx.channel());
+
+        ByteBuf buffer = ctx.alloc().ioBuffer();
+        try {
+            int lengthIndex = RpcCodecs.startFrame(codec, buffer);
+            codec.encodeResponse(wrapper, buffer);
+            RpcCodecs.endFrame(buffer, lengthIndex);
+        } catch (IOException ex) {
+            buffer.release();
+            throw ex;
+        }
 
-        ctx.write(buffer);
+        ctx.write(buffer, promise);
     }
 }
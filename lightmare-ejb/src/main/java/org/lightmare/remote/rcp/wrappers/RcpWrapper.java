@@ -30,10 +30,21 @@ package org.lightmare.remote.rcp.wrappers;
  */
 public class RcpWrapper {
 
+    // Identifier of request which this response belongs to
+    private long id;
+
     private boolean valid;
 
     private Object value;
 
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
     public boolean isValid() {
         return valid;
     }
@@ -23,49 +23,79 @@
 package org.lightmare.remote.rpc;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.log4j.Logger;
 import org.lightmare.config.ConfigKeys;
 import org.lightmare.config.Configuration;
+import org.lightmare.remote.codecs.RpcCodecs;
 import org.lightmare.remote.rcp.RcpHandler;
 import org.lightmare.remote.rcp.decoders.RcpDecoder;
 import org.lightmare.remote.rcp.wrappers.RcpWrapper;
 import org.lightmare.remote.rpc.decoders.RpcEncoder;
 import org.lightmare.remote.rpc.wrappers.RpcWrapper;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.StringUtils;
 import org.lightmare.utils.concurrent.ThreadFactoryUtil;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.Future;
 
 /**
- * Client class to produce remote procedure call
+ * Client class to produce remote procedure call over keep-alive connection
+ * shared by all callers of same host and port
  * 
  * @author Levan Tsinadze
  * @since 0.0.21-SNAPSHOT
  */
 public class RPCall {
 
-    private String host;
+    private final String host;
 
-    private int port;
+    private final int port;
 
-    private RcpHandler handler;
+    // Key of connection in cache
+    private final String address;
 
-    private static int timeout;
+    // Timeout to establish connection in milliseconds
+    private static int connectionTimeout;
+
+    // Default timeout to wait for response of each call in milliseconds
+    private static long timeout;
 
     private static int workerPoolSize;
 
     private static EventLoopGroup worker;
 
+    // Client configuration for transport and channel options
+    private static Configuration configuration;
+
+    // Keep-alive connections by host and port
+    private static final ConcurrentMap<String, RpcConnection> CONNECTIONS = new ConcurrentHashMap<String, RpcConnection>();
+
+    // Lock for connection initialization
+    private static final Lock LOCK = new ReentrantLock();
+
     private static final int ONE_PRIORITY = 1;
 
+    private static final Logger LOG = Logger.getLogger(RPCall.class);
+
     private static final int ZERO_TIMEOUT = 0;
 
+    private static final char ADDRESS_DELIMITER = ':';
+
     /**
      * Implementation of {@link ChannelInitializer} on {@link SocketChannel} for
      * RPC service client
@@ -90,9 +120,49 @@ public class RPCall {
         }
     }
 
+    /**
+     * Removes closed connection from cache
+     * 
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    protected static class CloseListener implements ChannelFutureListener {
+
+        private final String address;
+
+        private final RpcConnection connection;
+
+        public CloseListener(String address, RpcConnection connection) {
+            this.address = address;
+            this.connection = connection;
+        }
+
+        @Override
+        public void operationComplete(ChannelFuture future) {
+            CONNECTIONS.remove(address, connection);
+        }
+    }
+
     public RPCall(String host, int port) {
         this.host = host;
         this.port = port;
+        this.address = StringUtils.concat(host, ADDRESS_DELIMITER, port);
+    }
+
+    /**
+     * Sets configured {@link org.lightmare.remote.codecs.RpcCodec} to encode
+     * requests
+     * 
+     * @param config
+     */
+    private static void setCodec(Configuration config) {
+
+        String codecName = config.getStringValue(ConfigKeys.RPC_CODEC.key);
+        try {
+            RpcCodecs.setDefault(codecName);
+        } catch (IOException ex) {
+            LOG.error(ex.getMessage(), ex);
+        }
     }
 
     /**
@@ -104,59 +174,189 @@ public class RPCall {
 
         if (worker == null) {
             workerPoolSize = config.getIntValue(ConfigKeys.WORKER_POOL.key);
-            timeout = config.getIntValue(ConfigKeys.CONNECTION_TIMEOUT.key);
-            worker = new NioEventLoopGroup(workerPoolSize,
+            connectionTimeout = config.getIntValue(ConfigKeys.CONNECTION_TIMEOUT.key);
+            timeout = config.getCallTimeout();
+            setCodec(config);
+            configuration = config;
+            worker = RpcTransport.createEventLoopGroup(config, workerPoolSize,
                     new ThreadFactoryUtil("netty-worker-thread", (Thread.MAX_PRIORITY - ONE_PRIORITY)));
         }
     }
 
+    /**
+     * Gets configured response timeout of remote calls in milliseconds (not
+     * positive value means no timeout)
+     * 
+     * @return <code>long</code>
+     */
+    public static long getTimeout() {
+        return timeout;
+    }
+
     /**
      * Prepares {@link Bootstrap} for RPC service client connection
      * 
+     * @param handler
      * @return {@link Bootstrap}
      */
-    private Bootstrap getBootstrap() {
+    private static Bootstrap getBootstrap(RcpHandler handler) {
 
         Bootstrap bootstrap = new Bootstrap();
 
         bootstrap.group(worker);
-        bootstrap.channel(NioSocketChannel.class);
-        bootstrap.option(ChannelOption.SO_KEEPALIVE, Boolean.TRUE);
+        RpcTransport.configure(bootstrap, configuration);
 
-        if (timeout > ZERO_TIMEOUT) {
-            bootstrap.option(ChannelOption.SO_TIMEOUT, timeout);
+        if (connectionTimeout > ZERO_TIMEOUT) {
+            bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectionTimeout);
         }
 
-        handler = new RcpHandler();
         bootstrap.handler(new ChannelInitializerImpl(handler));
 
         return bootstrap;
     }
 
     /**
-     * Calls RPC service for passed {@link RcpWrapper} instance
+     * Opens new connection to RPC server
+     * 
+     * @return {@link RpcConnection}
+     * @throws IOException
+     */
+    private RpcConnection connect() throws IOException {
+
+        RpcConnection connection;
+
+        RcpHandler handler = new RcpHandler();
+        Bootstrap bootstrap = getBootstrap(handler);
+        ChannelFuture future = bootstrap.connect(host, port);
+        try {
+            future.await();
+        } catch (InterruptedException ex) {
+            throw new IOException(ex);
+        }
+
+        if (future.isSuccess()) {
+            Channel channel = future.channel();
+            connection = new RpcConnection(channel, handler);
+            channel.closeFuture().addListener(new CloseListener(address, connection));
+        } else {
+            throw new IOException(future.cause());
+        }
+
+        return connection;
+    }
+
+    /**
+     * Gets cached active or opens new connection to RPC server
+     * 
+     * @return {@link RpcConnection}
+     * @throws IOException
+     */
+    private RpcConnection getConnection() throws IOException {
+
+        RpcConnection connection = CONNECTIONS.get(address);
+
+        if (connection == null || Boolean.FALSE.equals(connection.isActive())) {
+            LOCK.lock();
+            try {
+                connection = CONNECTIONS.get(address);
+                if (connection == null || Boolean.FALSE.equals(connection.isActive())) {
+                    connection = connect();
+                    CONNECTIONS.put(address, connection);
+                }
+            } finally {
+                LOCK.unlock();
+            }
+        }
+
+        return connection;
+    }
+
+    /**
+     * Calls RPC service asynchronously for passed {@link RpcWrapper} instance,
+     * returned {@link RpcFuture} is completed from network event loop, method
+     * is sent by identifier if it was published by server handshake
+     * 
+     * @param wrapper
+     * @param callTimeout
+     *            timeout in milliseconds (not positive value means no timeout)
+     * @return {@link RpcFuture}
+     * @throws IOException
+     */
+    public <V> RpcFuture<V> callAsync(RpcWrapper wrapper, long callTimeout) throws IOException {
+
+        RpcFuture<V> future;
+
+        RpcConnection connection = getConnection();
+        Future<RcpWrapper> response = connection.call(wrapper, callTimeout);
+        future = new RpcFuture<V>(response);
+
+        return future;
+    }
+
+    /**
+     * Calls RPC service asynchronously for passed {@link RpcWrapper} instance
+     * with configured timeout
+     * 
+     * @param wrapper
+     * @return {@link RpcFuture}
+     * @throws IOException
+     */
+    public <V> RpcFuture<V> callAsync(RpcWrapper wrapper) throws IOException {
+        return callAsync(wrapper, timeout);
+    }
+
+    /**
+     * Calls RPC service for passed {@link RpcWrapper} instance and waits for
+     * response
      * 
      * @param wrapper
+     * @param callTimeout
      * @return {@link Object}
      * @throws IOException
      */
-    public Object call(RpcWrapper wrapper) throws IOException {
+    public Object call(RpcWrapper wrapper, long callTimeout) throws IOException {
 
         Object value;
 
+        RpcFuture<Object> future = callAsync(wrapper, callTimeout);
         try {
-            Bootstrap bootstrap = getBootstrap();
-            try {
-                ChannelFuture future = bootstrap.connect(host, port).sync();
-                future.channel().closeFuture().sync();
-            } catch (InterruptedException ex) {
-                throw new IOException(ex);
-            }
-            value = handler.getWrapper();
-        } finally {
-            worker.shutdownGracefully();
+            value = future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(Boolean.FALSE);
+            throw new IOException(ex);
+        } catch (ExecutionException ex) {
+            throw new IOException(ex.getCause());
         }
 
         return value;
     }
+
+    /**
+     * Calls RPC service for passed {@link RpcWrapper} instance and waits for
+     * response with configured timeout
+     * 
+     * @param wrapper
+     * @return {@link Object}
+     * @throws IOException
+     */
+    public Object call(RpcWrapper wrapper) throws IOException {
+        return call(wrapper, timeout);
+    }
+
+    /**
+     * Closes all cached connections and shuts down client event loop
+     */
+    public static void shutdown() {
+
+        Collection<RpcConnection> connections = CONNECTIONS.values();
+        for (RpcConnection connection : connections) {
+            connection.close();
+        }
+        CONNECTIONS.clear();
+
+        if (ObjectUtils.notNull(worker)) {
+            worker.shutdownGracefully();
+            worker = null;
+        }
+    }
 }
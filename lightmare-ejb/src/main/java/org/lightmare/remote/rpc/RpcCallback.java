@@ -0,0 +1,51 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.remote.rpc;
+
+/**
+ * Callback for asynchronous remote EJB bean method call, it is notified from
+ * network event loop thread so implementations should not block
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ *
+ * @param <V>
+ *            result type
+ */
+public interface RpcCallback<V> {
+
+    /**
+     * Called when remote method returned value
+     *
+     * @param value
+     */
+    void completed(V value);
+
+    /**
+     * Called when remote method thrown exception, call was timed out or
+     * connection failed
+     *
+     * @param cause
+     */
+    void failed(Throwable cause);
+}
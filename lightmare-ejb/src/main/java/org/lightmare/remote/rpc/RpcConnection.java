@@ -0,0 +1,418 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.remote.rpc;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.lightmare.remote.rcp.RcpHandler;
+import org.lightmare.remote.rcp.wrappers.RcpWrapper;
+import org.lightmare.remote.rpc.wrappers.RpcWrapper;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.collections.CollectionUtils;
+import org.lightmare.utils.logging.LogUtils;
+import org.lightmare.utils.remote.RpcUtils;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.DefaultPromise;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * Keep-alive client connection to RPC server which multiplexes concurrent
+ * calls by request identifiers
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class RpcConnection {
+
+    private final Channel channel;
+
+    private final RcpHandler handler;
+
+    // Generator of request identifiers
+    private final AtomicLong ids = new AtomicLong();
+
+    // Method identifiers published by server handshake (by bean name and
+    // method signature)
+    private final ConcurrentMap<String, Integer> methodIds = new ConcurrentHashMap<String, Integer>();
+
+    // Handshake responses by bean name, first calls of bean wait for them
+    private final ConcurrentMap<String, Future<RcpWrapper>> handshakes = new ConcurrentHashMap<String, Future<RcpWrapper>>();
+
+    private static final long ZERO_TIMEOUT = 0L;
+
+    private static final char KEY_DELIMITER = '#';
+
+    private static final String TIMEOUT_ERROR = "Remote call timed out after %s milliseconds";
+
+    private static final String HANDSHAKE_ERROR = "Could not resolve methods of bean %s, full requests are sent";
+
+    private static final Logger LOG = Logger.getLogger(RpcConnection.class);
+
+    /**
+     * Fails call promise if request could not be written
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private class WriteListener implements ChannelFutureListener {
+
+        private final long id;
+
+        private final Promise<RcpWrapper> promise;
+
+        public WriteListener(long id, Promise<RcpWrapper> promise) {
+            this.id = id;
+            this.promise = promise;
+        }
+
+        @Override
+        public void operationComplete(ChannelFuture future) {
+
+            if (Boolean.FALSE.equals(future.isSuccess())) {
+                handler.unregister(id);
+                promise.tryFailure(future.cause());
+            }
+        }
+    }
+
+    /**
+     * Removes pending call and cancels it's timeout task after promise is
+     * completed or cancelled
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private class CompletionListener implements GenericFutureListener<Future<RcpWrapper>> {
+
+        private final long id;
+
+        private ScheduledFuture<?> timeoutTask;
+
+        public CompletionListener(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void operationComplete(Future<RcpWrapper> future) {
+
+            handler.unregister(id);
+            if (ObjectUtils.notNull(timeoutTask)) {
+                timeoutTask.cancel(Boolean.FALSE);
+            }
+        }
+    }
+
+    /**
+     * Fails pending call after timeout
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class TimeoutTask implements Runnable {
+
+        private final Promise<RcpWrapper> promise;
+
+        private final long timeout;
+
+        public TimeoutTask(Promise<RcpWrapper> promise, long timeout) {
+            this.promise = promise;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public void run() {
+            String message = LogUtils.logMessage(TIMEOUT_ERROR, timeout);
+            promise.tryFailure(new TimeoutException(message));
+        }
+    }
+
+    /**
+     * Caches method identifiers from handshake response, on failure calls of
+     * bean are sent with full method description
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private class HandshakeListener implements GenericFutureListener<Future<RcpWrapper>> {
+
+        private final String beanName;
+
+        public HandshakeListener(String beanName) {
+            this.beanName = beanName;
+        }
+
+        @Override
+        public void operationComplete(Future<RcpWrapper> future) {
+
+            if (future.isSuccess()) {
+                RcpWrapper response = future.getNow();
+                if (response.isValid()) {
+                    Object[] table = ObjectUtils.cast(response.getValue());
+                    addMethodIds(beanName, table);
+                } else {
+                    LogUtils.error(LOG, HANDSHAKE_ERROR, beanName);
+                }
+            } else {
+                LogUtils.error(LOG, future.cause(), HANDSHAKE_ERROR, beanName);
+            }
+        }
+    }
+
+    /**
+     * Sends call after handshake of it's bean is completed (successfully or
+     * not) without blocking caller or network event loop
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private class HandshakeCallListener implements GenericFutureListener<Future<RcpWrapper>> {
+
+        private final RpcWrapper wrapper;
+
+        private final long timeout;
+
+        private final Promise<RcpWrapper> promise;
+
+        public HandshakeCallListener(RpcWrapper wrapper, long timeout, Promise<RcpWrapper> promise) {
+            this.wrapper = wrapper;
+            this.timeout = timeout;
+            this.promise = promise;
+        }
+
+        @Override
+        public void operationComplete(Future<RcpWrapper> handshake) {
+
+            if (Boolean.FALSE.equals(promise.isDone())) {
+                resolve(wrapper);
+                Future<RcpWrapper> response = send(wrapper, timeout);
+                response.addListener(new RelayListener(promise));
+                promise.addListener(new CancelListener(response));
+            }
+        }
+    }
+
+    /**
+     * Completes call promise with result of sent request
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class RelayListener implements GenericFutureListener<Future<RcpWrapper>> {
+
+        private final Promise<RcpWrapper> promise;
+
+        public RelayListener(Promise<RcpWrapper> promise) {
+            this.promise = promise;
+        }
+
+        @Override
+        public void operationComplete(Future<RcpWrapper> future) {
+
+            if (future.isSuccess()) {
+                promise.trySuccess(future.getNow());
+            } else {
+                promise.tryFailure(future.cause());
+            }
+        }
+    }
+
+    /**
+     * Cancels sent request if call promise was cancelled
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class CancelListener implements GenericFutureListener<Future<RcpWrapper>> {
+
+        private final Future<RcpWrapper> response;
+
+        public CancelListener(Future<RcpWrapper> response) {
+            this.response = response;
+        }
+
+        @Override
+        public void operationComplete(Future<RcpWrapper> future) {
+
+            if (future.isCancelled()) {
+                response.cancel(Boolean.FALSE);
+            }
+        }
+    }
+
+    public RpcConnection(Channel channel, RcpHandler handler) {
+        this.channel = channel;
+        this.handler = handler;
+    }
+
+    public boolean isActive() {
+        return channel.isActive();
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Sends request over this connection and returns {@link Future} of
+     * response which fails with {@link TimeoutException} if response does not
+     * arrive in passed timeout (in milliseconds, not positive value means no
+     * timeout)
+     *
+     * @param wrapper
+     * @param timeout
+     * @return {@link Future} of {@link RcpWrapper}
+     */
+    public Future<RcpWrapper> send(RpcWrapper wrapper, long timeout) {
+
+        EventLoop eventLoop = channel.eventLoop();
+        Promise<RcpWrapper> promise = new DefaultPromise<RcpWrapper>(eventLoop);
+
+        long id = ids.incrementAndGet();
+        wrapper.setId(id);
+        handler.register(id, promise);
+        CompletionListener completion = new CompletionListener(id);
+        if (timeout > ZERO_TIMEOUT) {
+            completion.timeoutTask = eventLoop.schedule(new TimeoutTask(promise, timeout), timeout,
+                    TimeUnit.MILLISECONDS);
+        }
+        promise.addListener(completion);
+        ChannelFuture future = channel.writeAndFlush(wrapper);
+        future.addListener(new WriteListener(id, promise));
+
+        return promise;
+    }
+
+    private static String getKey(String beanName, String signature) {
+        return beanName + KEY_DELIMITER + signature;
+    }
+
+    /**
+     * Adds method identifiers from handshake response (signature, identifier
+     * pairs) to cache
+     *
+     * @param beanName
+     * @param table
+     */
+    private void addMethodIds(String beanName, Object[] table) {
+
+        for (int i = CollectionUtils.FIRST_INDEX; i < table.length - 1; i += 2) {
+            String signature = ObjectUtils.cast(table[i]);
+            Integer methodId = ObjectUtils.cast(table[i + 1]);
+            methodIds.put(getKey(beanName, signature), methodId);
+        }
+    }
+
+    /**
+     * Requests table of bean methods from server once per bean, method
+     * identifiers are cached by {@link HandshakeListener} when response
+     * arrives
+     *
+     * @param beanName
+     * @param timeout
+     * @return {@link Future} of handshake response
+     */
+    private Future<RcpWrapper> handshake(String beanName, long timeout) {
+
+        Future<RcpWrapper> handshake = handshakes.get(beanName);
+
+        if (handshake == null) {
+            EventLoop eventLoop = channel.eventLoop();
+            Promise<RcpWrapper> promise = new DefaultPromise<RcpWrapper>(eventLoop);
+            // Listener caching method identifiers is added before any call
+            // listener
+            promise.addListener(new HandshakeListener(beanName));
+            handshake = handshakes.putIfAbsent(beanName, promise);
+            if (handshake == null) {
+                handshake = promise;
+                RpcWrapper wrapper = new RpcWrapper();
+                wrapper.setMethodId(RpcUtils.HANDSHAKE_METHOD_ID);
+                wrapper.setBeanName(beanName);
+                send(wrapper, timeout).addListener(new RelayListener(promise));
+            }
+        }
+
+        return handshake;
+    }
+
+    /**
+     * Sets identifier of called method to request if it is published by
+     * server
+     *
+     * @param wrapper
+     */
+    private void resolve(RpcWrapper wrapper) {
+
+        String signature = RpcUtils.getSignature(wrapper.getMethodName(), wrapper.getParamTypes());
+        Integer methodId = methodIds.get(getKey(wrapper.getBeanName(), signature));
+        if (ObjectUtils.notNull(methodId)) {
+            wrapper.setMethodId(methodId);
+        }
+    }
+
+    /**
+     * Sends call over this connection, handshake for bean is done once on
+     * first call over this connection and calls which arrive before it's
+     * response are sent from handshake listener, so method never blocks
+     *
+     * @param wrapper
+     * @param timeout
+     *            timeout in milliseconds of handshake and of call response
+     *            (not positive value means no timeout)
+     * @return {@link Future} of {@link RcpWrapper}
+     */
+    public Future<RcpWrapper> call(RpcWrapper wrapper, long timeout) {
+
+        Future<RcpWrapper> response;
+
+        Future<RcpWrapper> handshake = handshake(wrapper.getBeanName(), timeout);
+        if (handshake.isDone()) {
+            resolve(wrapper);
+            response = send(wrapper, timeout);
+        } else {
+            Promise<RcpWrapper> promise = new DefaultPromise<RcpWrapper>(channel.eventLoop());
+            handshake.addListener(new HandshakeCallListener(wrapper, timeout, promise));
+            response = promise;
+        }
+
+        return response;
+    }
+
+    /**
+     * Closes connection, pending calls are failed by {@link RcpHandler}
+     */
+    public void close() {
+        channel.close();
+    }
+}
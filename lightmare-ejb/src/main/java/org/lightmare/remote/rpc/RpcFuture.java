@@ -0,0 +1,154 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.remote.rpc;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.lightmare.remote.rcp.wrappers.RcpWrapper;
+import org.lightmare.utils.ObjectUtils;
+
+import io.netty.util.concurrent.GenericFutureListener;
+
+/**
+ * Implementation of {@link Future} for asynchronous remote EJB bean method
+ * call which is completed from network event loop when response arrives, fails
+ * after configured timeout and supports cancellation and {@link RpcCallback}
+ * listeners
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ *
+ * @param <V>
+ *            result type
+ */
+public class RpcFuture<V> implements Future<V> {
+
+    private final io.netty.util.concurrent.Future<RcpWrapper> future;
+
+    /**
+     * Notifies {@link RpcCallback} when call is completed
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private class CallbackListener implements GenericFutureListener<io.netty.util.concurrent.Future<RcpWrapper>> {
+
+        private final RpcCallback<V> callback;
+
+        public CallbackListener(RpcCallback<V> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void operationComplete(io.netty.util.concurrent.Future<RcpWrapper> completed) {
+
+            if (completed.isSuccess()) {
+                try {
+                    V value = getValue(completed.getNow());
+                    callback.completed(value);
+                } catch (ExecutionException ex) {
+                    callback.failed(ex.getCause());
+                }
+            } else {
+                callback.failed(completed.cause());
+            }
+        }
+    }
+
+    public RpcFuture(io.netty.util.concurrent.Future<RcpWrapper> future) {
+        this.future = future;
+    }
+
+    /**
+     * Gets value from RPC response or throws returned error
+     *
+     * @param response
+     * @return <code>V</code>
+     * @throws ExecutionException
+     */
+    private V getValue(RcpWrapper response) throws ExecutionException {
+
+        V value;
+
+        Object raw = response.getValue();
+        if (Boolean.FALSE.equals(response.isValid()) && raw instanceof Throwable) {
+            Throwable cause = ObjectUtils.cast(raw, Throwable.class);
+            throw new ExecutionException(cause);
+        }
+        value = ObjectUtils.cast(raw);
+
+        return value;
+    }
+
+    /**
+     * Adds {@link RpcCallback} which is called when remote call completes (or
+     * immediately if it is already completed)
+     *
+     * @param callback
+     * @return {@link RpcFuture} this instance
+     */
+    public RpcFuture<V> addCallback(RpcCallback<V> callback) {
+        future.addListener(new CallbackListener(callback));
+        return this;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return future.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return future.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException {
+
+        V value;
+
+        RcpWrapper response = future.get();
+        value = getValue(response);
+
+        return value;
+    }
+
+    @Override
+    public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+
+        V value;
+
+        RcpWrapper response = future.get(timeout, unit);
+        value = getValue(response);
+
+        return value;
+    }
+}
@@ -23,11 +23,14 @@
 package org.lightmare.remote.rpc;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.log4j.Logger;
 import org.lightmare.remote.rcp.wrappers.RcpWrapper;
 import org.lightmare.remote.rpc.wrappers.RpcWrapper;
 import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.logging.LogUtils;
 import org.lightmare.utils.remote.RpcUtils;
 
 import io.netty.channel.ChannelFuture;
@@ -43,37 +46,137 @@ import io.netty.channel.ChannelInboundHandlerAdapter;
  */
 public class RpcHandler extends ChannelInboundHandlerAdapter {
 
+    // Executor for bean invocations (null to call beans on network thread)
+    private final ExecutorService executor;
+
+    private static final String RESPONSE_ERROR = "Could not send response of request %s";
+
+    private static final String REJECTION_ERROR = "Request %s is rejected, bean executor is overloaded";
+
     private static final Logger LOG = Logger.getLogger(RpcHandler.class);
 
-    @Override
-    public void channelRead(final ChannelHandlerContext ctx, Object msg) throws IOException {
+    /**
+     * Sends error response for request if it's response could not be written
+     * (e.g. value is not serializable) so caller does not wait for it
+     * forever, closes connection if error response is not written either
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class ResponseListener implements ChannelFutureListener {
 
-        RpcWrapper wrapper = ObjectUtils.cast(msg, RpcWrapper.class);
+        private final ChannelHandlerContext ctx;
 
-        RcpWrapper rcp = new RcpWrapper();
-        Object value;
-        try {
-            value = RpcUtils.callBeanMethod(wrapper);
-            rcp.setValid(Boolean.TRUE);
-        } catch (Exception ex) {
-            LOG.error(ex.getMessage(), ex);
-            value = ex;
+        private final long id;
+
+        public ResponseListener(ChannelHandlerContext ctx, long id) {
+            this.ctx = ctx;
+            this.id = id;
         }
 
-        rcp.setValue(value);
+        @Override
+        public void operationComplete(ChannelFuture future) {
 
-        final ChannelFuture future = ctx.writeAndFlush(rcp);
+            if (Boolean.FALSE.equals(future.isSuccess())) {
+                String message = LogUtils.logMessage(RESPONSE_ERROR, id);
+                LOG.error(message, future.cause());
+                writeError(ctx, id, new IOException(message)).addListener(CLOSE_ON_FAILURE);
+            }
+        }
+    }
 
-        future.addListener(new ChannelFutureListener() {
-            @Override
-            public void operationComplete(ChannelFuture lisFuture) {
+    /**
+     * Calls bean method for request and writes response to channel
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class InvocationTask implements Runnable {
 
-                try {
-                    assert (future == lisFuture);
-                } finally {
-                    ctx.close();
-                }
+        private final ChannelHandlerContext ctx;
+
+        private final RpcWrapper wrapper;
+
+        public InvocationTask(ChannelHandlerContext ctx, RpcWrapper wrapper) {
+            this.ctx = ctx;
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public void run() {
+
+            RcpWrapper rcp = new RcpWrapper();
+            Object value;
+            try {
+                value = RpcUtils.callBeanMethod(wrapper);
+                rcp.setValid(Boolean.TRUE);
+            } catch (Exception ex) {
+                LOG.error(ex.getMessage(), ex);
+                value = ex;
             }
-        });
+
+            rcp.setId(wrapper.getId());
+            rcp.setValue(value);
+            // Connection is kept alive for next calls
+            ctx.writeAndFlush(rcp).addListener(new ResponseListener(ctx, wrapper.getId()));
+        }
+    }
+
+    /**
+     * Writes error response for request with passed identifier
+     *
+     * @param ctx
+     * @param id
+     * @param error
+     * @return {@link ChannelFuture} of write
+     */
+    private static ChannelFuture writeError(ChannelHandlerContext ctx, long id, Exception error) {
+
+        RcpWrapper rcp = new RcpWrapper();
+        rcp.setId(id);
+        rcp.setValid(Boolean.FALSE);
+        rcp.setValue(error);
+
+        return ctx.writeAndFlush(rcp);
+    }
+
+    public RpcHandler() {
+        this(null);
+    }
+
+    public RpcHandler(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Calls bean method on executor threads so slow beans do not stall other
+     * connections of same event loop, or on network thread if executor is not
+     * configured, request rejected by overloaded executor gets error response
+     * and connection is kept open for other calls
+     */
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+
+        RpcWrapper wrapper = ObjectUtils.cast(msg, RpcWrapper.class);
+        InvocationTask task = new InvocationTask(ctx, wrapper);
+        if (executor == null) {
+            task.run();
+        } else {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException ex) {
+                String message = LogUtils.logMessage(REJECTION_ERROR, wrapper.getId());
+                LOG.warn(message, ex);
+                writeError(ctx, wrapper.getId(), new IOException(message)).addListener(
+                        ChannelFutureListener.CLOSE_ON_FAILURE);
+            }
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+
+        LOG.error(cause.getMessage(), cause);
+        ctx.close();
     }
 }
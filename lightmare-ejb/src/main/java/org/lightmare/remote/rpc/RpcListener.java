@@ -25,22 +25,21 @@ package org.lightmare.remote.rpc;
 import java.net.Inet4Address;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.log4j.Logger;
 import org.lightmare.config.ConfigKeys;
 import org.lightmare.config.Configuration;
 import org.lightmare.remote.rcp.decoders.RcpEncoder;
 import org.lightmare.remote.rpc.decoders.RpcDecoder;
+import org.lightmare.utils.ObjectUtils;
 import org.lightmare.utils.concurrent.ThreadFactoryUtil;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 
 /**
  * Registers and starts RPC server @see <a href="netty.io"/>netty.io</a>
@@ -56,9 +55,12 @@ public class RpcListener {
     // Worker pool for Netty server
     private static EventLoopGroup worker;
 
+    // Pool for bean invocations
+    private static ExecutorService executor;
+
     private static final String BOSS_THREAD_NAME = "netty-boss-thread";
 
-    private static final String WORKER_THREAD_NAME = "netty-boss-thread";
+    private static final String WORKER_THREAD_NAME = "netty-worker-thread";
 
     private static final int WORKER_THEAD_PRIORITY = Thread.MAX_PRIORITY - 1;
 
@@ -78,20 +80,24 @@ public class RpcListener {
 
             RcpEncoder rcpEncoder = new RcpEncoder();
             RpcDecoder rpcDecoder = new RpcDecoder();
-            RpcHandler rpcHandler = new RpcHandler();
+            RpcHandler rpcHandler = new RpcHandler(executor);
             ch.pipeline().addLast(rcpEncoder, rpcDecoder, rpcHandler);
         }
     }
 
     /**
-     * Set boss and worker thread pools size from configuration
+     * Set boss and worker thread pools size and bean invocation pool from
+     * configuration
      */
     private static void setNettyPools(Configuration config) {
 
         Integer bossCount = config.getIntValue(ConfigKeys.BOSS_POOL.key);
         Integer workerCount = config.getIntValue(ConfigKeys.WORKER_POOL.key);
-        boss = new NioEventLoopGroup(bossCount, new ThreadFactoryUtil(BOSS_THREAD_NAME, Thread.MAX_PRIORITY));
-        worker = new NioEventLoopGroup(workerCount, new ThreadFactoryUtil(WORKER_THREAD_NAME, WORKER_THEAD_PRIORITY));
+        boss = RpcTransport.createEventLoopGroup(config, bossCount,
+                new ThreadFactoryUtil(BOSS_THREAD_NAME, Thread.MAX_PRIORITY));
+        worker = RpcTransport.createEventLoopGroup(config, workerCount,
+                new ThreadFactoryUtil(WORKER_THREAD_NAME, WORKER_THEAD_PRIORITY));
+        executor = RpcTransport.createExecutor(config);
     }
 
     /**
@@ -104,16 +110,13 @@ public class RpcListener {
 
         try {
             ServerBootstrap bootstrap = new ServerBootstrap();
-            bootstrap.group(boss, worker).channel(NioServerSocketChannel.class)
-                    .childHandler(new ChannelInitializerImpl());
-            // Sets server options
-            bootstrap.option(ChannelOption.SO_BACKLOG, 500);
-            bootstrap.childOption(ChannelOption.SO_KEEPALIVE, Boolean.TRUE);
-            bootstrap.childOption(ChannelOption.SO_TIMEOUT, config.getIntValue(ConfigKeys.CONNECTION_TIMEOUT.key));
+            bootstrap.group(boss, worker).childHandler(new ChannelInitializerImpl());
+            // Sets transport and server options
+            RpcTransport.configure(bootstrap, config);
             // Initializes and sets address
             InetSocketAddress address = new InetSocketAddress(
-                    Inet4Address.getByName(config.getStringValue("listening_ip")),
-                    config.getIntValue("listening_port"));
+                    Inet4Address.getByName(config.getStringValue(ConfigKeys.IP_ADDRESS.key)),
+                    config.getIntValue(ConfigKeys.PORT.key));
             ChannelFuture future = bootstrap.bind(address).sync();
             LOG.info(future);
         } catch (UnknownHostException ex) {
@@ -122,4 +125,25 @@ public class RpcListener {
             LOG.error(ex.getMessage(), ex);
         }
     }
+
+    /**
+     * Stops RPC server network and bean invocation pools
+     */
+    public static void stopServer() {
+
+        if (ObjectUtils.notNull(boss)) {
+            boss.shutdownGracefully();
+            boss = null;
+        }
+
+        if (ObjectUtils.notNull(worker)) {
+            worker.shutdownGracefully();
+            worker = null;
+        }
+
+        if (ObjectUtils.notNull(executor)) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
 }
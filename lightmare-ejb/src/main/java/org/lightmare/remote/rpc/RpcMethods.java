@@ -0,0 +1,274 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.remote.rpc;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.lightmare.cache.MetaContainer;
+import org.lightmare.cache.MetaData;
+import org.lightmare.ejb.EjbConnector;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.logging.LogUtils;
+import org.lightmare.utils.remote.RpcUtils;
+
+/**
+ * Server side table of bean methods published to RPC clients by handshake,
+ * clients send numeric identifier and parameters of method instead of bean,
+ * method, parameter type and interface names on each call
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class RpcMethods {
+
+    // Generator of method identifiers (identifiers are never reused)
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    // Method identifiers by bean name and method signature
+    private static final ConcurrentMap<String, Integer> KEYS = new ConcurrentHashMap<String, Integer>();
+
+    // Resolved bean methods by identifiers
+    private static final ConcurrentMap<Integer, RpcMethod> METHODS = new ConcurrentHashMap<Integer, RpcMethod>();
+
+    // Connector to create invocation handlers of published beans
+    private static final EjbConnector CONNECTOR = new EjbConnector();
+
+    private static final char KEY_DELIMITER = '#';
+
+    private static final String UNKNOWN_METHOD_ERROR = "Unknown remote method identifier %s";
+
+    private static final String METHOD_NOT_FOUND_ERROR = "Method %s is not published by bean %s";
+
+    /**
+     * Resolved bean method with {@link MetaData} of bean deployment it was
+     * resolved for
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class RpcMethod {
+
+        private final String beanName;
+
+        private final String signature;
+
+        private final MetaData metaData;
+
+        private final Method method;
+
+        // Handler borrowing bean instances from pool, cached for all calls of
+        // this method
+        private volatile InvocationHandler handler;
+
+        public RpcMethod(String beanName, String signature, MetaData metaData, Method method) {
+            this.beanName = beanName;
+            this.signature = signature;
+            this.metaData = metaData;
+            this.method = method;
+        }
+    }
+
+    private static String getKey(String beanName, String signature) {
+        return beanName + KEY_DELIMITER + signature;
+    }
+
+    /**
+     * Gets or generates identifier for bean method
+     *
+     * @param beanName
+     * @param signature
+     * @return {@link Integer} method identifier
+     */
+    private static Integer getId(String beanName, String signature) {
+
+        Integer id;
+
+        String key = getKey(beanName, signature);
+        id = KEYS.get(key);
+        if (id == null) {
+            Integer generated = IDS.incrementAndGet();
+            id = KEYS.putIfAbsent(key, generated);
+            if (id == null) {
+                id = generated;
+            }
+        }
+
+        return id;
+    }
+
+    /**
+     * Adds public methods of passed interfaces to method table
+     *
+     * @param beanName
+     * @param metaData
+     * @param interfaces
+     * @param signatures
+     * @param table
+     */
+    private static void addMethods(String beanName, MetaData metaData, Class<?>[] interfaces, Set<String> signatures,
+            List<Object> table) {
+
+        if (ObjectUtils.notNull(interfaces)) {
+            for (Class<?> interfaceClass : interfaces) {
+                for (Method method : interfaceClass.getMethods()) {
+                    String signature = RpcUtils.getSignature(method);
+                    if (signatures.add(signature)) {
+                        Integer id = getId(beanName, signature);
+                        METHODS.put(id, new RpcMethod(beanName, signature, metaData, method));
+                        table.add(signature);
+                        table.add(id);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves remote and local interface methods of deployed bean and returns
+     * table of method signatures and identifiers (as signature, identifier
+     * pairs) for handshake response
+     *
+     * @param beanName
+     * @return {@link Object}[] method table
+     * @throws IOException
+     */
+    public static Object[] describe(String beanName) throws IOException {
+
+        Object[] table;
+
+        MetaData metaData = MetaContainer.getSyncMetaData(beanName);
+        Set<String> signatures = new HashSet<String>();
+        List<Object> methods = new ArrayList<Object>();
+        addMethods(beanName, metaData, metaData.getRemoteInterfaces(), signatures, methods);
+        addMethods(beanName, metaData, metaData.getLocalInterfaces(), signatures, methods);
+        table = methods.toArray();
+
+        return table;
+    }
+
+    /**
+     * Gets resolved method by identifier and resolves it again if bean was
+     * re-deployed after method was published
+     *
+     * @param methodId
+     * @return {@link RpcMethod}
+     * @throws IOException
+     */
+    private static RpcMethod getMethod(int methodId) throws IOException {
+
+        RpcMethod rpcMethod;
+
+        Integer id = Integer.valueOf(methodId);
+        rpcMethod = METHODS.get(id);
+        if (rpcMethod == null) {
+            throw new IOException(LogUtils.logMessage(UNKNOWN_METHOD_ERROR, methodId));
+        }
+        MetaData metaData = MetaContainer.getSyncMetaData(rpcMethod.beanName);
+        if (metaData != rpcMethod.metaData) {
+            describe(rpcMethod.beanName);
+            rpcMethod = METHODS.get(id);
+            if (rpcMethod.metaData != metaData) {
+                throw new IOException(
+                        LogUtils.logMessage(METHOD_NOT_FOUND_ERROR, rpcMethod.signature, rpcMethod.beanName));
+            }
+        }
+
+        return rpcMethod;
+    }
+
+    /**
+     * Gets {@link InvocationHandler} for resolved method, handler which
+     * borrows instances from {@link org.lightmare.ejb.pool.BeanPool} is
+     * created once and cached in method table entry, without pool each call
+     * needs dedicated bean instance
+     *
+     * @param rpcMethod
+     * @return {@link InvocationHandler}
+     * @throws IOException
+     */
+    private static InvocationHandler getHandler(RpcMethod rpcMethod) throws IOException {
+
+        InvocationHandler handler = rpcMethod.handler;
+
+        if (handler == null) {
+            MetaData metaData = rpcMethod.metaData;
+            handler = CONNECTOR.getInvocationHandler(metaData);
+            if (ObjectUtils.notNull(metaData.getBeanPool())) {
+                rpcMethod.handler = handler;
+            }
+        }
+
+        return handler;
+    }
+
+    /**
+     * Calls bean method by identifier published in handshake
+     *
+     * @param methodId
+     * @param params
+     * @return {@link Object} value returned from method
+     * @throws IOException
+     */
+    public static Object invoke(int methodId, Object[] params) throws IOException {
+
+        Object value;
+
+        RpcMethod rpcMethod = getMethod(methodId);
+        InvocationHandler handler = getHandler(rpcMethod);
+        try {
+            value = handler.invoke(null, rpcMethod.method, params);
+        } catch (IOException ex) {
+            throw ex;
+        } catch (Throwable th) {
+            throw new IOException(th);
+        }
+
+        return value;
+    }
+
+    /**
+     * Releases resolved methods of un-deployed bean (identifiers are kept and
+     * methods are resolved again on first call after re-deployment)
+     *
+     * @param beanName
+     */
+    public static void remove(String beanName) {
+
+        for (Map.Entry<Integer, RpcMethod> entry : METHODS.entrySet()) {
+            RpcMethod rpcMethod = entry.getValue();
+            if (rpcMethod.beanName.equals(beanName)) {
+                entry.setValue(new RpcMethod(beanName, rpcMethod.signature, null, null));
+            }
+        }
+    }
+}
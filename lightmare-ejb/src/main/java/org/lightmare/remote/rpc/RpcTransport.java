@@ -0,0 +1,215 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.remote.rpc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.lightmare.config.Configuration;
+import org.lightmare.remote.codecs.RpcCodecs;
+import org.lightmare.utils.concurrent.ThreadFactoryUtil;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+/**
+ * Utility class to choose Netty transport (native epoll on Linux if it is
+ * available and enabled or NIO otherwise) and to apply configured channel
+ * options for RPC server and client
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class RpcTransport {
+
+    private static final String EXECUTOR_THREAD_NAME = "rpc-executor-thread";
+
+    private static final long EXECUTOR_KEEP_ALIVE = 60L;
+
+    private static final int ZERO_SIZE = 0;
+
+    private static final int MIN_QUEUE_SIZE = 1;
+
+    // Default high water mark of Netty channels
+    private static final int DEFAULT_HIGH_WATER_MARK = 64 * 1024;
+
+    /**
+     * Checks if native epoll transport should be used
+     *
+     * @param config
+     * @return <code>boolean</code>
+     */
+    public static boolean isEpoll(Configuration config) {
+        return config.isRpcEpoll() && Epoll.isAvailable();
+    }
+
+    /**
+     * Creates {@link EventLoopGroup} of configured transport
+     *
+     * @param config
+     * @param size
+     * @param threadFactory
+     * @return {@link EventLoopGroup}
+     */
+    public static EventLoopGroup createEventLoopGroup(Configuration config, int size, ThreadFactory threadFactory) {
+
+        EventLoopGroup group;
+
+        if (isEpoll(config)) {
+            group = new EpollEventLoopGroup(size, threadFactory);
+        } else {
+            group = new NioEventLoopGroup(size, threadFactory);
+        }
+
+        return group;
+    }
+
+    /**
+     * Gets write buffer water mark options in order they can be applied,
+     * channel rejects low mark above current high mark and high mark below
+     * current low mark
+     *
+     * @param config
+     * @return {@link List} of {@link ChannelOption}s
+     */
+    private static List<ChannelOption<Integer>> getWaterMarkOptions(Configuration config) {
+
+        List<ChannelOption<Integer>> options = new ArrayList<ChannelOption<Integer>>();
+
+        if (config.getWriteBufferLowWaterMark() > DEFAULT_HIGH_WATER_MARK) {
+            options.add(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK);
+            options.add(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK);
+        } else {
+            options.add(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK);
+            options.add(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK);
+        }
+
+        return options;
+    }
+
+    private static Integer getWaterMark(ChannelOption<Integer> option, Configuration config) {
+
+        Integer mark;
+
+        if (option == ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK) {
+            mark = config.getWriteBufferHighWaterMark();
+        } else {
+            mark = config.getWriteBufferLowWaterMark();
+        }
+
+        return mark;
+    }
+
+    /**
+     * Sets configured transport channel type and options to RPC server
+     * {@link ServerBootstrap}
+     *
+     * @param bootstrap
+     * @param config
+     */
+    public static void configure(ServerBootstrap bootstrap, Configuration config) {
+
+        if (isEpoll(config)) {
+            bootstrap.channel(EpollServerSocketChannel.class);
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, config.isReusePort());
+        } else {
+            bootstrap.channel(NioServerSocketChannel.class);
+        }
+        ByteBufAllocator allocator = RpcCodecs.getAllocator(config);
+        bootstrap.option(ChannelOption.SO_BACKLOG, config.getRpcBacklog());
+        bootstrap.option(ChannelOption.ALLOCATOR, allocator);
+        bootstrap.childOption(ChannelOption.ALLOCATOR, allocator);
+        bootstrap.childOption(ChannelOption.SO_KEEPALIVE, Boolean.TRUE);
+        bootstrap.childOption(ChannelOption.TCP_NODELAY, config.isTcpNoDelay());
+        for (ChannelOption<Integer> option : getWaterMarkOptions(config)) {
+            bootstrap.childOption(option, getWaterMark(option, config));
+        }
+    }
+
+    /**
+     * Sets configured transport channel type and options to RPC client
+     * {@link Bootstrap}
+     *
+     * @param bootstrap
+     * @param config
+     */
+    public static void configure(Bootstrap bootstrap, Configuration config) {
+
+        if (isEpoll(config)) {
+            bootstrap.channel(EpollSocketChannel.class);
+        } else {
+            bootstrap.channel(NioSocketChannel.class);
+        }
+        bootstrap.option(ChannelOption.ALLOCATOR, RpcCodecs.getAllocator(config));
+        bootstrap.option(ChannelOption.SO_KEEPALIVE, Boolean.TRUE);
+        bootstrap.option(ChannelOption.TCP_NODELAY, config.isTcpNoDelay());
+        for (ChannelOption<Integer> option : getWaterMarkOptions(config)) {
+            bootstrap.option(option, getWaterMark(option, config));
+        }
+    }
+
+    /**
+     * Creates {@link ExecutorService} for bean invocations from RPC requests
+     * or returns null if beans should be called on network threads, pending
+     * invocations are bounded by configured queue size and requests over it
+     * are rejected with {@link java.util.concurrent.RejectedExecutionException}
+     *
+     * @param config
+     * @return {@link ExecutorService}
+     */
+    public static ExecutorService createExecutor(Configuration config) {
+
+        ExecutorService executor;
+
+        int size = config.getRpcExecutorPoolSize();
+        if (size > ZERO_SIZE) {
+            int queueSize = Math.max(config.getRpcExecutorQueueSize(), MIN_QUEUE_SIZE);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, EXECUTOR_KEEP_ALIVE, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(queueSize),
+                    new ThreadFactoryUtil(EXECUTOR_THREAD_NAME, Thread.NORM_PRIORITY),
+                    new ThreadPoolExecutor.AbortPolicy());
+            pool.allowCoreThreadTimeOut(Boolean.TRUE);
+            executor = pool;
+        } else {
+            executor = null;
+        }
+
+        return executor;
+    }
+}
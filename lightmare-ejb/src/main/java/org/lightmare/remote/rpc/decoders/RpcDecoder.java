@@ -25,16 +25,19 @@ package org.lightmare.remote.rpc.decoders;
 import java.io.IOException;
 import java.util.List;
 
+import org.lightmare.remote.codecs.RpcCodec;
+import org.lightmare.remote.codecs.RpcCodecs;
 import org.lightmare.remote.rpc.wrappers.RpcWrapper;
-import org.lightmare.utils.io.serialization.NativeSerializer;
-import org.lightmare.utils.remote.RpcUtils;
+import org.lightmare.utils.ObjectUtils;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 
 /**
- * Decoder class for Netty remote procedure call
+ * Decoder class for Netty remote procedure call, reads request frame with
+ * {@link RpcCodec} of frame's version and keeps it on channel to encode
+ * response
  *
  * @author Levan Tsinadze
  * @since 0.0.21-SNAPSHOT
@@ -44,53 +47,12 @@ public class RpcDecoder extends ByteToMessageDecoder {
     @Override
     protected void decode(ChannelHandlerContext context, ByteBuf buffer, List<Object> out) throws IOException {
 
-        if (buffer.readableBytes() < RpcUtils.PROTOCOL_SIZE) {
-            buffer.resetReaderIndex();
-            return;
+        ByteBuf frame = RpcCodecs.readFrame(buffer);
+        if (ObjectUtils.notNull(frame)) {
+            RpcCodec codec = RpcCodecs.get(frame.readByte());
+            context.channel().attr(RpcCodecs.CHANNEL_CODEC).set(codec);
+            RpcWrapper wrapper = codec.decodeRequest(frame);
+            out.add(wrapper);
         }
-
-        int beanNameSize = buffer.readInt();
-        int methodSize = buffer.readInt();
-        int paramTypesSize = buffer.readInt();
-        int classSize = buffer.readInt();
-        int paramArraySize = buffer.readInt();
-
-        int paramsSize = beanNameSize + methodSize + classSize + paramArraySize;
-
-        if (buffer.readableBytes() < paramsSize) {
-            buffer.resetReaderIndex();
-            return;
-        }
-
-        byte[] beanNameBt = new byte[beanNameSize];
-        buffer.readBytes(beanNameBt);
-
-        byte[] methodBt = new byte[methodSize];
-        buffer.readBytes(methodBt);
-
-        byte[] paramTypesBt = new byte[paramTypesSize];
-        buffer.readBytes(paramTypesBt);
-
-        byte[] classBt = new byte[classSize];
-        buffer.readBytes(classBt);
-
-        byte[] paramBt = new byte[paramArraySize];
-        buffer.readBytes(paramBt);
-
-        RpcWrapper wrapper = new RpcWrapper();
-
-        String beanName = new String(beanNameBt);
-        String methodName = (String) NativeSerializer.deserialize(methodBt);
-        Class<?>[] paramTypes = (Class<?>[]) NativeSerializer.deserialize(paramTypesBt);
-        Class<?> interfaceClass = (Class<?>) NativeSerializer.deserialize(classBt);
-        Object[] params = (Object[]) NativeSerializer.deserialize(paramBt);
-
-        wrapper.setBeanName(beanName);
-        wrapper.setMethodName(methodName);
-        wrapper.setParamTypes(paramTypes);
-        wrapper.setInterfaceClass(interfaceClass);
-        wrapper.setParams(params);
-
-        out.add(wrapper);
     }
 }
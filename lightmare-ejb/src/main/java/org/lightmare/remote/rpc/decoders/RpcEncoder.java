@@ -24,10 +24,10 @@ package org.lightmare.remote.rpc.decoders;
 
 import java.io.IOException;
 
+import org.lightmare.remote.codecs.RpcCodec;
+import org.lightmare.remote.codecs.RpcCodecs;
 import org.lightmare.remote.rpc.wrappers.RpcWrapper;
 import org.lightmare.utils.ObjectUtils;
-import org.lightmare.utils.io.serialization.NativeSerializer;
-import org.lightmare.utils.remote.RpcUtils;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -35,7 +35,8 @@ import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
 
 /**
- * Encoder class for Netty remote procedure call
+ * Encoder class for Netty remote procedure call, writes request frame with
+ * default {@link RpcCodec}
  *
  * @author Levan Tsinadze
  * @since 0.0.21-SNAPSHOT
@@ -46,36 +47,18 @@ public class RpcEncoder extends ChannelOutboundHandlerAdapter {
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws IOException {
 
         RpcWrapper wrapper = ObjectUtils.cast(msg, RpcWrapper.class);
+        RpcCodec codec = RpcCodecs.getDefault();
 
-        String beanName = wrapper.getBeanName();
-        String methodName = wrapper.getMethodName();
-        Class<?>[] paramTypes = wrapper.getParamTypes();
-        Class<?> interfaceClass = wrapper.getInterfaceClass();
-        Object[] params = wrapper.getParams();
+        ByteBuf buffer = ctx.alloc().ioBuffer();
+        try {
+            int lengthIndex = RpcCodecs.startFrame(codec, buffer);
+            codec.encodeRequest(wrapper, buffer);
+            RpcCodecs.endFrame(buffer, lengthIndex);
+        } catch (IOException ex) {
+            buffer.release();
+            throw ex;
+        }
 
-        byte[] beanNameBt = beanName.getBytes("UTF8");
-        byte[] beanMethodBt = NativeSerializer.serialize(methodName);
-        byte[] paramTypesBt = NativeSerializer.serialize(paramTypes);
-        byte[] interfaceClassBt = NativeSerializer.serialize(interfaceClass);
-        byte[] paramBt = NativeSerializer.serialize(params);
-
-        int paramsSize = RpcUtils.PROTOCOL_SIZE + beanNameBt.length + beanMethodBt.length + paramTypesBt.length
-                + interfaceClassBt.length + paramBt.length;
-
-        ByteBuf buffer = ctx.alloc().buffer(paramsSize);
-
-        buffer.writeInt(beanNameBt.length);
-        buffer.writeInt(beanMethodBt.length);
-        buffer.writeInt(paramTypesBt.length);
-        buffer.writeInt(interfaceClassBt.length);
-        buffer.writeInt(paramBt.length);
-
-        buffer.writeBytes(beanNameBt);
-        buffer.writeBytes(beanMethodBt);
-        buffer.writeBytes(paramTypesBt);
-        buffer.writeBytes(interfaceClassBt);
-        buffer.writeBytes(paramBt);
-
-        ctx.write(buffer);
+        ctx.write(buffer, promise);
     }
 }
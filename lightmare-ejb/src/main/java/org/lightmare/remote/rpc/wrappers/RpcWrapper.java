@@ -30,6 +30,12 @@ package org.lightmare.remote.rpc.wrappers;
  */
 public class RpcWrapper {
 
+    // Request identifier to multiplex calls over one connection
+    private long id;
+
+    // Identifier of bean method published by server handshake
+    private int methodId;
+
     private String beanName;
 
     private String methodName;
@@ -43,6 +49,22 @@ public class RpcWrapper {
     public RpcWrapper() {
     }
 
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getMethodId() {
+        return methodId;
+    }
+
+    public void setMethodId(int methodId) {
+        this.methodId = methodId;
+    }
+
     public String getBeanName() {
         return beanName;
     }
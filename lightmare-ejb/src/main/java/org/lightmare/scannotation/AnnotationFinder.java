@@ -22,15 +22,27 @@
  */
 package org.lightmare.scannotation;
 
-import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.HashSet;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Inflater;
 
 import org.apache.log4j.Logger;
 import org.lightmare.utils.ObjectUtils;
@@ -49,7 +61,10 @@ import javassist.bytecode.annotation.Annotation;
 
 /**
  * Extension of {@link org.scannotation.AnnotationDB} for saving Map<
- * {@link String}, {@link URL}> of class name and {@link URL} for its archive
+ * {@link String}, {@link URL}> of class name and {@link URL} for its archive,
+ * scans archives and their entries in parallel (archive files are read
+ * through memory mapped buffers) and optionally skips classes which are not
+ * annotated by wanted annotations
  * 
  * @author Levan Tsinadze
  * @since 0.0.18-SNAPSHOT
@@ -59,24 +74,76 @@ public class AnnotationFinder extends AnnotationDB {
     private static final long serialVersionUID = 1L;
 
     // To store which class in which URL is found
-    protected Map<String, URL> classOwnersURLs = new WeakHashMap<String, URL>();
+    protected ConcurrentMap<String, URL> classOwnersURLs = new ConcurrentHashMap<String, URL>();
 
     // To store which class in which File is found
-    protected Map<String, String> classOwnersFiles = new WeakHashMap<String, String>();
+    protected ConcurrentMap<String, String> classOwnersFiles = new ConcurrentHashMap<String, String>();
+
+    // Filters classes by annotations in constant pool
+    private transient ConstantPoolFilter poolFilter;
+
+    // Names of wanted annotations
+    private transient String[] wantedAnnotations;
+
+    // Amount of scanning threads
+    private transient int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // Directory of cached scanning results
+    private transient File indexDirectory;
+
+    // Cached scanning results of archives
+    private transient ScanIndex scanIndex;
+
+    // Annotated classes found in archives which are being indexed
+    private transient Map<URL, Map<String, Set<String>>> archiveIndexes = new ConcurrentHashMap<URL, Map<String, Set<String>>>();
+
+    // Maximal amount of class files scanned by one task without forking
+    private static final int ENTRIES_THRESHOLD = 64;
 
     // File separator and extension characters
     private static final char FILE_EXTENTION_DELIM = '.';
 
     private static final char FILE_SEPARATOR_CHAR = '/';
 
+    private static final String FILE_PROTOCOL = "file";
+
     // Log messages
     private static String SCANNING_STARTED_MESSAGE = "Started scanning for archives on @Stateless annotation";
     private static String SCANNING_FINISHED_MESSAGE = "Finished scanning for archives on @Stateless annotation";
     private static final String SCANNING_URL_MESSAGE = "Scanning URL ";
     private static final String FINISHED_URL_MESSAGE = "Finished URL scanning ";
+    private static final String INDEXED_URL_MESSAGE = "Loaded cached scan index for URL ";
 
     private static final Logger LOG = Logger.getLogger(AnnotationFinder.class);
 
+    /**
+     * Carries {@link IOException} thrown from scanning task through
+     * {@link ForkJoinPool} to caller thread
+     * 
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class ScanException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public ScanException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    {
+        // Indexes are filled from scanning threads
+        annotationIndex = new ConcurrentHashMap<String, Set<String>>();
+        implementsIndex = new ConcurrentHashMap<String, Set<String>>();
+        classIndex = new ConcurrentHashMap<String, Set<String>>();
+    }
+
     /**
      * Filters java archive files
      * 
@@ -106,6 +173,392 @@ public class AnnotationFinder extends AnnotationDB {
         }
     }
 
+    /**
+     * Source of class file content
+     * 
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static interface ClassSource {
+
+        /**
+         * Reads class file content
+         * 
+         * @param inflater
+         *            {@link Inflater} of current thread for compressed
+         *            entries
+         * @return <code>byte[]</code> class file content
+         * @throws IOException
+         */
+        byte[] read(Inflater inflater) throws IOException;
+    }
+
+    /**
+     * Class file entry in memory mapped archive
+     * 
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class EntrySource implements ClassSource {
+
+        private final MappedArchive archive;
+
+        private final MappedArchive.Entry entry;
+
+        public EntrySource(MappedArchive archive, MappedArchive.Entry entry) {
+            this.archive = archive;
+            this.entry = entry;
+        }
+
+        @Override
+        public byte[] read(Inflater inflater) throws IOException {
+            return archive.read(entry, inflater);
+        }
+    }
+
+    /**
+     * Class file in directory
+     * 
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class FileSource implements ClassSource {
+
+        private final File file;
+
+        public FileSource(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public byte[] read(Inflater inflater) throws IOException {
+            return Files.readAllBytes(file.toPath());
+        }
+    }
+
+    /**
+     * Scans range of class files in parallel, ranges larger than
+     * {@link AnnotationFinder#ENTRIES_THRESHOLD} are split between threads
+     * 
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private class EntriesTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<ClassSource> sources;
+
+        private final int from;
+
+        private final int to;
+
+        private final URL url;
+
+        public EntriesTask(List<ClassSource> sources, int from, int to, URL url) {
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+            this.url = url;
+        }
+
+        /**
+         * Scans all class files of range in current thread
+         * 
+         * @throws IOException
+         */
+        private void scanRange() throws IOException {
+
+            Inflater inflater = new Inflater(Boolean.TRUE);
+            try {
+                for (int i = from; i < to; i++) {
+                    scanClass(sources.get(i).read(inflater), url);
+                }
+            } finally {
+                inflater.end();
+            }
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= ENTRIES_THRESHOLD) {
+                try {
+                    scanRange();
+                } catch (IOException ex) {
+                    throw new ScanException(ex);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new EntriesTask(sources, from, middle, url), new EntriesTask(sources, middle, to, url));
+            }
+        }
+    }
+
+    /**
+     * Scans archive or directory, archives from local file system are read
+     * through memory mapped buffers
+     * 
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private class ArchiveTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final URL url;
+
+        public ArchiveTask(URL url) {
+            this.url = url;
+        }
+
+        /**
+         * Scans class files from passed sources in parallel
+         * 
+         * @param sources
+         */
+        private void scanSources(List<ClassSource> sources) {
+            new EntriesTask(sources, CollectionUtils.FIRST_INDEX, sources.size(), url).invoke();
+        }
+
+        /**
+         * Scans memory mapped archive
+         * 
+         * @param archive
+         * @throws IOException
+         */
+        private void scanArchive(MappedArchive archive) throws IOException {
+
+            try {
+                Filter filter = new ArchiveFilter();
+                List<ClassSource> sources = new ArrayList<ClassSource>();
+                for (MappedArchive.Entry entry : archive.getEntries()) {
+                    if (filter.accepts(entry.name)) {
+                        sources.add(new EntrySource(archive, entry));
+                    }
+                }
+                scanSources(sources);
+            } finally {
+                archive.close();
+            }
+        }
+
+        /**
+         * Loads annotated classes of archive from index or scans archive and
+         * caches it's annotated classes if it is not indexed yet
+         *
+         * @param archive
+         * @throws IOException
+         */
+        private void scanIndexed(MappedArchive archive) throws IOException {
+
+            long size = archive.getSize();
+            long checksum = archive.getChecksum();
+            Map<String, Set<String>> classes = scanIndex.load(size, checksum);
+            if (classes == null) {
+                classes = new ConcurrentHashMap<String, Set<String>>();
+                archiveIndexes.put(url, classes);
+                try {
+                    scanArchive(archive);
+                } finally {
+                    archiveIndexes.remove(url);
+                }
+                scanIndex.store(size, checksum, classes);
+            } else {
+                archive.close();
+                LOG.info(StringUtils.concat(INDEXED_URL_MESSAGE, url));
+                index(classes, url);
+            }
+        }
+
+        /**
+         * Collects class files from directory recursively
+         * 
+         * @param directory
+         * @param path
+         * @param filter
+         * @param sources
+         */
+        private void collectFiles(File directory, String path, Filter filter, List<ClassSource> sources) {
+
+            File[] files = directory.listFiles();
+            if (ObjectUtils.notNull(files)) {
+                for (File file : files) {
+                    String name = StringUtils.concat(path, file.getName());
+                    if (file.isDirectory()) {
+                        collectFiles(file, StringUtils.concat(name, FILE_SEPARATOR_CHAR), filter, sources);
+                    } else if (filter.accepts(name)) {
+                        sources.add(new FileSource(file));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Scans class files from directory
+         * 
+         * @param directory
+         */
+        private void scanDirectory(File directory) {
+
+            List<ClassSource> sources = new ArrayList<ClassSource>();
+            collectFiles(directory, StringUtils.EMPTY_STRING, new ArchiveFilter(), sources);
+            scanSources(sources);
+        }
+
+        /**
+         * Scans archive {@link URL} which can not be mapped by streams
+         * 
+         * @throws IOException
+         */
+        private void scanStreams() throws IOException {
+
+            StreamIterator it = IteratorFactory.create(url, new ArchiveFilter());
+            InputStream stream = it.next();
+            while (ObjectUtils.notNull(stream)) {
+                scanClass(stream, url);
+                stream = it.next();
+            }
+        }
+
+        /**
+         * Scans archive by it's location
+         * 
+         * @throws IOException
+         */
+        private void scan() throws IOException {
+
+            File file = toFile(url);
+            if (ObjectUtils.notNull(file) && file.isDirectory()) {
+                scanDirectory(file);
+            } else {
+                MappedArchive archive = null;
+                if (ObjectUtils.notNull(file) && file.isFile()) {
+                    archive = MappedArchive.open(file);
+                }
+                if (archive == null) {
+                    scanStreams();
+                } else if (scanIndex == null) {
+                    scanArchive(archive);
+                } else {
+                    scanIndexed(archive);
+                }
+            }
+        }
+
+        @Override
+        protected void compute() {
+
+            LOG.info(StringUtils.concat(SCANNING_URL_MESSAGE, url));
+            try {
+                scan();
+            } catch (IOException ex) {
+                throw new ScanException(ex);
+            }
+            LOG.info(StringUtils.concat(FINISHED_URL_MESSAGE, url));
+        }
+    }
+
+    /**
+     * Gets local {@link File} for passed {@link URL} or <code>null</code> if
+     * it is not local file system resource
+     * 
+     * @param url
+     * @return {@link File}
+     */
+    private static File toFile(URL url) {
+
+        File file;
+
+        if (FILE_PROTOCOL.equals(url.getProtocol())) {
+            try {
+                file = new File(url.toURI());
+            } catch (URISyntaxException ex) {
+                file = new File(url.getFile());
+            }
+        } else {
+            file = null;
+        }
+
+        return file;
+    }
+
+    /**
+     * Sets names of annotations classes should be indexed for, classes which
+     * constant pool does not contain any of them are skipped without parsing
+     * 
+     * @param annotationNames
+     */
+    public void setWantedAnnotations(String... annotationNames) {
+
+        if (CollectionUtils.valid(annotationNames)) {
+            wantedAnnotations = annotationNames.clone();
+            Arrays.sort(wantedAnnotations);
+            poolFilter = new ConstantPoolFilter(Arrays.asList(annotationNames));
+        } else {
+            wantedAnnotations = null;
+            poolFilter = null;
+        }
+    }
+
+    /**
+     * Sets directory where annotated classes of scanned archive files are
+     * cached, archives which are not changed since they were indexed are not
+     * scanned again (only class annotations are cached so directories and
+     * method, field or parameter annotations scanning are not indexed)
+     *
+     * @param indexDirectory
+     */
+    public void setIndexDirectory(File indexDirectory) {
+        this.indexDirectory = indexDirectory;
+    }
+
+    /**
+     * Sets amount of threads which scan archives in parallel
+     * 
+     * @param parallelism
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Generates text of scanning options which cached index depends on
+     *
+     * @return {@link String}
+     */
+    private String getSignature() {
+
+        StringBuilder signature = new StringBuilder();
+
+        if (ObjectUtils.notNull(wantedAnnotations)) {
+            for (String annotationName : wantedAnnotations) {
+                signature.append(annotationName).append(FILE_SEPARATOR_CHAR);
+            }
+        }
+        signature.append(FILE_EXTENTION_DELIM);
+        for (String ignored : ignoredPackages) {
+            signature.append(ignored).append(FILE_SEPARATOR_CHAR);
+        }
+
+        return signature.toString();
+    }
+
+    /**
+     * Initializes cache of scanning results if index directory is set and
+     * annotations of classes are scanned
+     */
+    private void initScanIndex() {
+
+        boolean indexed = ObjectUtils.notNull(indexDirectory) && scanClassAnnotations
+                && Boolean.FALSE.equals(scanMethodAnnotations || scanParameterAnnotations || scanFieldAnnotations);
+        if (indexed) {
+            scanIndex = new ScanIndex(indexDirectory, getSignature());
+        } else {
+            scanIndex = null;
+        }
+    }
+
     /**
      * Gets file name from passed {@link URL} instance
      * 
@@ -150,37 +603,108 @@ public class AnnotationFinder extends AnnotationDB {
     }
 
     /**
-     * caches scanned file information
+     * Gets or creates concurrent {@link Set} from passed index for key
+     * 
+     * @param index
+     * @param key
+     * @return {@link Set} of {@link String}s
+     */
+    private static Set<String> getOrCreate(Map<String, Set<String>> index, String key) {
+
+        Set<String> values = index.get(key);
+
+        if (values == null) {
+            Set<String> created = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            if (index instanceof ConcurrentMap) {
+                values = ((ConcurrentMap<String, Set<String>>) index).putIfAbsent(key, created);
+            } else {
+                synchronized (index) {
+                    values = index.get(key);
+                    if (values == null) {
+                        index.put(key, created);
+                    }
+                }
+            }
+            if (values == null) {
+                values = created;
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Indexes passed annotations for class name
      * 
      * @param annotations
      * @param className
+     */
+    private void index(Annotation[] annotations, String className) {
+
+        Set<String> classAnnotations = getOrCreate(classIndex, className);
+        for (Annotation ann : annotations) {
+            getOrCreate(annotationIndex, ann.getTypeName()).add(className);
+            classAnnotations.add(ann.getTypeName());
+        }
+    }
+
+    /**
+     * Caches archive {@link URL} and file name for class name
+     * 
+     * @param className
      * @param url
      */
-    protected void populate(Annotation[] annotations, String className, URL url) {
+    private void cacheOwner(String className, URL url) {
+        classOwnersURLs.putIfAbsent(className, url);
+        classOwnersFiles.putIfAbsent(className, getFileName(url));
+    }
 
-        if (ObjectUtils.notNull(annotations)) {
-            Set<String> classAnnotations = classIndex.get(className);
-            String fileName;
-            boolean contained;
-
-            for (Annotation ann : annotations) {
-                Set<String> classes = annotationIndex.get(ann.getTypeName());
-                if (classes == null) {
-                    classes = new HashSet<String>();
-                    annotationIndex.put(ann.getTypeName(), classes);
-                }
+    /**
+     * Indexes annotated classes loaded from cached index of archive
+     * 
+     * @param classes
+     * @param url
+     */
+    private void index(Map<String, Set<String>> classes, URL url) {
+
+        for (Map.Entry<String, Set<String>> entry : classes.entrySet()) {
+            String className = entry.getKey();
+            Set<String> classAnnotations = getOrCreate(classIndex, className);
+            for (String annotationName : entry.getValue()) {
+                getOrCreate(annotationIndex, annotationName).add(className);
+                classAnnotations.add(annotationName);
+            }
+            cacheOwner(className, url);
+        }
+    }
 
-                classes.add(className);
+    @Override
+    protected void populate(Annotation[] annotations, String className) {
 
-                CollectionUtils.putIfAbscent(classOwnersURLs, className, url);
+        if (ObjectUtils.notNull(annotations)) {
+            index(annotations, className);
+        }
+    }
 
-                contained = classOwnersFiles.containsKey(className);
-                if (Boolean.FALSE.equals(contained)) {
-                    fileName = getFileName(url);
-                    classOwnersFiles.put(className, fileName);
-                }
+    /**
+     * caches scanned file information
+     * 
+     * @param annotations
+     * @param className
+     * @param url
+     */
+    protected void populate(Annotation[] annotations, String className, URL url) {
 
-                classAnnotations.add(ann.getTypeName());
+        if (CollectionUtils.valid(annotations)) {
+            index(annotations, className);
+            cacheOwner(className, url);
+            // Records annotated class of archive which is being indexed
+            Map<String, Set<String>> classes = archiveIndexes.get(url);
+            if (ObjectUtils.notNull(classes)) {
+                Set<String> classAnnotations = getOrCreate(classes, className);
+                for (Annotation ann : annotations) {
+                    classAnnotations.add(ann.getTypeName());
+                }
             }
         }
     }
@@ -208,20 +732,19 @@ public class AnnotationFinder extends AnnotationDB {
     }
 
     /**
-     * Scans passed {@link InputStream} instance for specific annotations
+     * Scans passed class file content for specific annotations, content is
+     * not parsed if it's constant pool does not contain wanted annotations
      * 
      * @param bits
      * @param url
      * @throws IOException
      */
-    public void scanClass(InputStream bits, URL url) throws IOException {
+    public void scanClass(byte[] bits, URL url) throws IOException {
 
-        DataInputStream dstream = new DataInputStream(new BufferedInputStream(bits));
-        ClassFile cf = null;
-        try {
-            cf = new ClassFile(dstream);
+        if (poolFilter == null || poolFilter.accepts(bits)) {
+            ClassFile cf = new ClassFile(new DataInputStream(new ByteArrayInputStream(bits)));
             String classFileName = cf.getName();
-            classIndex.put(classFileName, new HashSet<String>());
+            getOrCreate(classIndex, classFileName);
 
             if (scanClassAnnotations) {
                 scanClass(cf, url);
@@ -238,35 +761,85 @@ public class AnnotationFinder extends AnnotationDB {
             // create an index of interfaces the class implements
             String[] interfaces = cf.getInterfaces();
             if (ObjectUtils.notNull(interfaces)) {
-                Set<String> intfs = new HashSet<String>();
-                for (String intf : interfaces) {
-                    intfs.add(intf);
-                }
-                implementsIndex.put(classFileName, intfs);
+                Set<String> intfs = getOrCreate(implementsIndex, classFileName);
+                intfs.addAll(Arrays.asList(interfaces));
             }
-        } finally {
-            IOUtils.closeAll(dstream, bits);
         }
     }
 
-    @Override
-    public void scanArchives(URL... urls) throws IOException {
+    /**
+     * Scans passed {@link InputStream} instance for specific annotations
+     * 
+     * @param bits
+     * @param url
+     * @throws IOException
+     */
+    public void scanClass(InputStream bits, URL url) throws IOException {
 
-        LOG.info(SCANNING_STARTED_MESSAGE);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        IOUtils.write(bits, content);
+        scanClass(content.toByteArray(), url);
+    }
+
+    /**
+     * Cancels tasks of passed pool and waits until running ones are finished
+     * so they do not fill indexes after scanning failed
+     * 
+     * @param pool
+     */
+    private static void stop(ForkJoinPool pool) {
+
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Scans passed archives in parallel by {@link ForkJoinPool}, if any
+     * archive fails other tasks are stopped before error is thrown
+     * 
+     * @param urls
+     * @throws IOException
+     */
+    private void scanParallel(URL... urls) throws IOException {
+
+        List<ArchiveTask> tasks = new ArrayList<ArchiveTask>();
         for (URL url : urls) {
-            Filter filter = new ArchiveFilter();
-            LOG.info(StringUtils.concat(SCANNING_URL_MESSAGE, url));
+            tasks.add(new ArchiveTask(url));
+        }
 
-            StreamIterator it = IteratorFactory.create(url, filter);
-            InputStream stream = it.next();
-            while (ObjectUtils.notNull(stream)) {
-                scanClass(stream, url);
-                stream = it.next();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(CollectionUtils.SINGLTON_LENGTH, parallelism));
+        boolean completed = Boolean.FALSE;
+        try {
+            for (ArchiveTask task : tasks) {
+                pool.execute(task);
+            }
+            for (ArchiveTask task : tasks) {
+                task.join();
+            }
+            completed = Boolean.TRUE;
+        } catch (ScanException ex) {
+            throw ex.getCause();
+        } finally {
+            if (completed) {
+                pool.shutdown();
+            } else {
+                stop(pool);
             }
-
-            LOG.info(StringUtils.concat(FINISHED_URL_MESSAGE, url));
         }
+    }
+
+    @Override
+    public void scanArchives(URL... urls) throws IOException {
 
+        LOG.info(SCANNING_STARTED_MESSAGE);
+        if (CollectionUtils.valid(urls)) {
+            initScanIndex();
+            scanParallel(urls);
+        }
         LOG.info(SCANNING_FINISHED_MESSAGE);
     }
 
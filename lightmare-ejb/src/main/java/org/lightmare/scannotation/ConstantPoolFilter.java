@@ -0,0 +1,210 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.scannotation;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.lightmare.utils.StringUtils;
+
+/**
+ * Pre-filters class files by constant pool, class which is annotated by any of
+ * wanted annotations contains descriptor of this annotation in it's constant
+ * pool, so classes without such descriptors are not parsed at all
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+class ConstantPoolFilter {
+
+    // Offset of constant pool count in class file
+    private static final int POOL_COUNT_OFFSET = 8;
+
+    // Constant pool tags
+    private static final int UTF8 = 1;
+
+    private static final int INTEGER = 3;
+
+    private static final int FLOAT = 4;
+
+    private static final int LONG = 5;
+
+    private static final int DOUBLE = 6;
+
+    private static final int CLASS = 7;
+
+    private static final int STRING = 8;
+
+    private static final int FIELD_REF = 9;
+
+    private static final int METHOD_REF = 10;
+
+    private static final int INTERFACE_METHOD_REF = 11;
+
+    private static final int NAME_AND_TYPE = 12;
+
+    private static final int METHOD_HANDLE = 15;
+
+    private static final int METHOD_TYPE = 16;
+
+    private static final int DYNAMIC = 17;
+
+    private static final int INVOKE_DYNAMIC = 18;
+
+    private static final int MODULE = 19;
+
+    private static final int PACKAGE = 20;
+
+    private static final Charset DESCRIPTOR_CHARSET = Charset.forName("UTF-8");
+
+    private static final char DESCRIPTOR_PREFIX = 'L';
+
+    private static final char DESCRIPTOR_SUFFIX = ';';
+
+    private static final char NAME_SEPARATOR = '/';
+
+    // Type descriptors of wanted annotations
+    private final byte[][] descriptors;
+
+    public ConstantPoolFilter(Collection<String> annotationNames) {
+
+        descriptors = new byte[annotationNames.size()][];
+        int i = 0;
+        for (String annotationName : annotationNames) {
+            String internalName = annotationName.replace(StringUtils.DOT, NAME_SEPARATOR);
+            String descriptor = StringUtils.concat(DESCRIPTOR_PREFIX, internalName, DESCRIPTOR_SUFFIX);
+            descriptors[i++] = descriptor.getBytes(DESCRIPTOR_CHARSET);
+        }
+    }
+
+    /**
+     * Checks if UTF8 constant at passed position equals to any wanted
+     * descriptor
+     *
+     * @param bytes
+     * @param position
+     * @param length
+     * @return <code>boolean</code>
+     */
+    private boolean wanted(byte[] bytes, int position, int length) {
+
+        boolean wanted = Boolean.FALSE;
+
+        for (int i = 0; i < descriptors.length && Boolean.FALSE.equals(wanted); i++) {
+            byte[] descriptor = descriptors[i];
+            wanted = descriptor.length == length
+                    && Arrays.equals(descriptor, Arrays.copyOfRange(bytes, position, position + length));
+        }
+
+        return wanted;
+    }
+
+    /**
+     * Gets size of constant (after tag) for passed tag or negative value for
+     * unknown tag
+     *
+     * @param tag
+     * @return <code>int</code> size
+     */
+    private static int getSize(int tag) {
+
+        int size;
+
+        switch (tag) {
+        case CLASS:
+        case STRING:
+        case METHOD_TYPE:
+        case MODULE:
+        case PACKAGE:
+            size = 2;
+            break;
+        case METHOD_HANDLE:
+            size = 3;
+            break;
+        case INTEGER:
+        case FLOAT:
+        case FIELD_REF:
+        case METHOD_REF:
+        case INTERFACE_METHOD_REF:
+        case NAME_AND_TYPE:
+        case DYNAMIC:
+        case INVOKE_DYNAMIC:
+            size = 4;
+            break;
+        case LONG:
+        case DOUBLE:
+            size = 8;
+            break;
+        default:
+            size = -1;
+            break;
+        }
+
+        return size;
+    }
+
+    /**
+     * Walks through constant pool of passed class file and checks if it
+     * contains any of wanted annotation descriptors, malformed or unknown
+     * class files are accepted to be processed by parser
+     *
+     * @param bytes
+     * @return <code>boolean</code> true if class should be parsed
+     */
+    public boolean accepts(byte[] bytes) {
+
+        boolean accepts = Boolean.FALSE;
+        boolean known = Boolean.TRUE;
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int count = buffer.getShort(POOL_COUNT_OFFSET) & 0xFFFF;
+            buffer.position(POOL_COUNT_OFFSET + 2);
+            for (int i = 1; i < count && known && Boolean.FALSE.equals(accepts); i++) {
+                int tag = buffer.get() & 0xFF;
+                if (tag == UTF8) {
+                    int length = buffer.getShort() & 0xFFFF;
+                    int position = buffer.position();
+                    accepts = wanted(bytes, position, length);
+                    buffer.position(position + length);
+                } else {
+                    int size = getSize(tag);
+                    known = size > 0;
+                    if (known) {
+                        buffer.position(buffer.position() + size);
+                    }
+                    // Long and double constants take two entries
+                    if (tag == LONG || tag == DOUBLE) {
+                        i++;
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            known = Boolean.FALSE;
+        }
+
+        return accepts || Boolean.FALSE.equals(known);
+    }
+}
@@ -0,0 +1,409 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.scannotation;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.collections.CollectionUtils;
+import org.lightmare.utils.io.IOUtils;
+
+/**
+ * Reads entries of ZIP (JAR) file through memory mapped {@link ByteBuffer}
+ * without opening stream for each entry, mapped buffer is shared between
+ * scanning threads, nested archives are read from in memory buffer
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class MappedArchive implements Closeable {
+
+    // End of central directory record signature and sizes
+    private static final int END_SIGNATURE = 0x06054b50;
+
+    private static final int END_SIZE = 22;
+
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    // Central directory header signature and size
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+
+    private static final int CENTRAL_SIZE = 46;
+
+    // Local file header signature and size
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+
+    private static final int LOCAL_SIZE = 30;
+
+    // Values which mean that archive is in ZIP64 format
+    private static final int ZIP64_ENTRIES = 0xFFFF;
+
+    private static final long ZIP64_VALUE = 0xFFFFFFFFL;
+
+    // Compression methods
+    private static final int STORED = 0;
+
+    private static final int DEFLATED = 8;
+
+    private static final Charset NAME_CHARSET = Charset.forName("UTF-8");
+
+    // Bytes of central directory copied at once for checksum
+    private static final int CHECKSUM_CHUNK_SIZE = 8192;
+
+    private final RandomAccessFile file;
+
+    private final ByteBuffer buffer;
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    // Entries by their names
+    private final Map<String, Entry> names = new HashMap<String, Entry>();
+
+    // Location of central directory
+    private int centralOffset;
+
+    private int centralSize;
+
+    /**
+     * Entry of archive from central directory
+     *
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    public static class Entry {
+
+        final String name;
+
+        final int method;
+
+        final int compressedSize;
+
+        final int size;
+
+        final int localOffset;
+
+        Entry(String name, int method, int compressedSize, int size, int localOffset) {
+            this.name = name;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localOffset = localOffset;
+        }
+    }
+
+    private MappedArchive(RandomAccessFile file, ByteBuffer buffer) {
+        this.file = file;
+        this.buffer = buffer;
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Finds position of end of central directory record
+     *
+     * @return <code>int</code> position or negative value if record not found
+     */
+    private int findEnd() {
+
+        int position = IOUtils.NOT_EXISTING_INDEX;
+
+        int last = buffer.limit() - END_SIZE;
+        int first = Math.max(IOUtils.ZERO_OFFSET, last - MAX_COMMENT_SIZE);
+        for (int i = last; i >= first && position < IOUtils.ZERO_OFFSET; i--) {
+            if (buffer.getInt(i) == END_SIGNATURE) {
+                position = i;
+            }
+        }
+
+        return position;
+    }
+
+    /**
+     * Gets unsigned short value from passed position
+     *
+     * @param position
+     * @return <code>int</code> value
+     */
+    private int getShort(int position) {
+        return buffer.getShort(position) & 0xFFFF;
+    }
+
+    /**
+     * Gets unsigned integer value from passed position
+     *
+     * @param position
+     * @return <code>long</code> value
+     */
+    private long getInt(int position) {
+        return buffer.getInt(position) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Reads entry name from passed position
+     *
+     * @param position
+     * @param length
+     * @return {@link String} entry name
+     */
+    private String getName(int position, int length) {
+
+        byte[] bytes = new byte[length];
+        ByteBuffer name = buffer.duplicate();
+        name.position(position);
+        name.get(bytes);
+
+        return new String(bytes, NAME_CHARSET);
+    }
+
+    /**
+     * Reads central directory of archive
+     *
+     * @return <code>boolean</code> validation result, <code>false</code> if
+     *         archive format is not supported
+     */
+    private boolean readEntries() {
+
+        boolean valid;
+
+        int end = findEnd();
+        valid = end >= IOUtils.ZERO_OFFSET;
+        if (valid) {
+            int count = getShort(end + 10);
+            long centralLength = getInt(end + 12);
+            long offset = getInt(end + 16);
+            valid = count != ZIP64_ENTRIES && offset != ZIP64_VALUE && centralLength != ZIP64_VALUE;
+            int position = (int) offset;
+            centralOffset = position;
+            centralSize = (int) centralLength;
+            for (int i = IOUtils.ZERO_OFFSET; valid && i < count; i++) {
+                valid = buffer.getInt(position) == CENTRAL_SIGNATURE;
+                if (valid) {
+                    int method = getShort(position + 10);
+                    long compressedSize = getInt(position + 20);
+                    long size = getInt(position + 24);
+                    int nameLength = getShort(position + 28);
+                    int extraLength = getShort(position + 30);
+                    int commentLength = getShort(position + 32);
+                    long localOffset = getInt(position + 42);
+                    valid = compressedSize != ZIP64_VALUE && size != ZIP64_VALUE && localOffset != ZIP64_VALUE;
+                    String name = getName(position + CENTRAL_SIZE, nameLength);
+                    Entry entry = new Entry(name, method, (int) compressedSize, (int) size, (int) localOffset);
+                    entries.add(entry);
+                    names.put(name, entry);
+                    position += CENTRAL_SIZE + nameLength + extraLength + commentLength;
+                }
+            }
+        }
+
+        return valid;
+    }
+
+    /**
+     * Maps passed archive file to memory and reads it's central directory
+     *
+     * @param archive
+     * @return {@link MappedArchive} or <code>null</code> if archive can not be
+     *         mapped (too large or in ZIP64 format)
+     * @throws IOException
+     */
+    public static MappedArchive open(File archive) throws IOException {
+
+        MappedArchive mapped = null;
+
+        RandomAccessFile file = new RandomAccessFile(archive, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            long size = channel.size();
+            if (size > END_SIZE && size <= Integer.MAX_VALUE) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, IOUtils.ZERO_OFFSET, size);
+                mapped = new MappedArchive(file, buffer);
+                if (Boolean.FALSE.equals(mapped.readEntries())) {
+                    mapped = null;
+                }
+            }
+        } finally {
+            if (mapped == null) {
+                file.close();
+            }
+        }
+
+        return mapped;
+    }
+
+    /**
+     * Reads central directory of archive from passed content, used for
+     * archives nested in other archives
+     *
+     * @param content
+     * @return {@link MappedArchive} or <code>null</code> if archive format is
+     *         not supported
+     */
+    public static MappedArchive wrap(byte[] content) {
+
+        MappedArchive archive;
+
+        if (content.length > END_SIZE) {
+            archive = new MappedArchive(null, ByteBuffer.wrap(content));
+            if (Boolean.FALSE.equals(archive.readEntries())) {
+                archive = null;
+            }
+        } else {
+            archive = null;
+        }
+
+        return archive;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets entry by name from central directory
+     *
+     * @param name
+     * @return {@link Entry} or <code>null</code> if there is no such entry
+     */
+    public Entry getEntry(String name) {
+        return names.get(name);
+    }
+
+    /**
+     * Calculates checksum of archive's central directory, it contains names,
+     * sizes and CRC values of all entries so it changes with any entry
+     *
+     * @return <code>long</code> checksum
+     */
+    public long getChecksum() {
+
+        CRC32 crc = new CRC32();
+        ByteBuffer central = buffer.duplicate();
+        central.position(centralOffset);
+        central.limit(centralOffset + centralSize);
+        byte[] chunk = new byte[Math.min(CHECKSUM_CHUNK_SIZE, centralSize)];
+        while (central.hasRemaining()) {
+            int length = Math.min(chunk.length, central.remaining());
+            central.get(chunk, 0, length);
+            crc.update(chunk, 0, length);
+        }
+
+        return crc.getValue();
+    }
+
+    public long getSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Inflates compressed entry content
+     *
+     * @param compressed
+     * @param size
+     * @param inflater
+     * @return <code>byte[]</code> entry content
+     * @throws IOException
+     */
+    private static byte[] inflate(byte[] compressed, int size, Inflater inflater) throws IOException {
+
+        byte[] content = new byte[size];
+
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int offset = IOUtils.ZERO_OFFSET;
+            boolean padded = Boolean.FALSE;
+            while (offset < size && Boolean.FALSE.equals(inflater.finished())) {
+                int inflated = inflater.inflate(content, offset, size - offset);
+                // Inflater without ZLIB header may need extra dummy byte
+                if (inflated == IOUtils.ZERO_OFFSET && inflater.needsInput()) {
+                    if (padded) {
+                        throw new IOException("Unexpected end of compressed entry");
+                    }
+                    inflater.setInput(new byte[CollectionUtils.SINGLTON_LENGTH]);
+                    padded = Boolean.TRUE;
+                }
+                offset += inflated;
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException(ex);
+        }
+
+        return content;
+    }
+
+    /**
+     * Reads content of passed entry, each scanning thread should pass it's own
+     * {@link Inflater} instance (created with <code>nowrap</code> option)
+     *
+     * @param entry
+     * @param inflater
+     * @return <code>byte[]</code> entry content
+     * @throws IOException
+     */
+    public byte[] read(Entry entry, Inflater inflater) throws IOException {
+
+        byte[] content;
+
+        int local = entry.localOffset;
+        if (buffer.getInt(local) != LOCAL_SIGNATURE) {
+            throw new IOException(String.format("Invalid local header of entry %s", entry.name));
+        }
+        int position = local + LOCAL_SIZE + getShort(local + 26) + getShort(local + 28);
+        byte[] data = new byte[entry.compressedSize];
+        ByteBuffer source = buffer.duplicate();
+        source.position(position);
+        source.get(data);
+        if (entry.method == STORED) {
+            content = data;
+        } else if (entry.method == DEFLATED) {
+            content = inflate(data, entry.size, inflater);
+        } else {
+            throw new IOException(
+                    String.format("Unsupported compression method %s of entry %s", entry.method, entry.name));
+        }
+
+        return content;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        if (ObjectUtils.notNull(file)) {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.scannotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.StringUtils;
+import org.lightmare.utils.collections.CollectionUtils;
+import org.lightmare.utils.fs.FileUtils;
+
+/**
+ * On disk cache of annotated class names found in archives, index file is
+ * identified by size and central directory checksum of archive (not by it's
+ * path) so unchanged archives extracted to different temporary locations are
+ * not scanned again, index files are trusted only in directory which is owned
+ * by current user and is not writable by other users
+ *
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+class ScanIndex {
+
+    // Directory of index files
+    private final File directory;
+
+    // Scanning options which index was created with
+    private final String signature;
+
+    // Index file header
+    private static final int MAGIC = 0x4C4D5349;
+
+    private static final int VERSION = 1;
+
+    private static final String INDEX_FILE_FORMAT = "%016x%08x%08x.idx";
+
+    private static final String TEMP_PREFIX = "index";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String USER_NAME = System.getProperty("user.name");
+
+    // Separates domain and user name in owner names of some file systems
+    private static final char DOMAIN_SEPARATOR = '\\';
+
+    private static final String POSIX_VIEW = "posix";
+
+    private static final Logger LOG = Logger.getLogger(ScanIndex.class);
+
+    public ScanIndex(File directory, String signature) {
+        this.directory = directory;
+        this.signature = signature;
+    }
+
+    /**
+     * Checks if passed file is owned by current user
+     *
+     * @param path
+     * @return <code>boolean</code>
+     * @throws IOException
+     */
+    private static boolean isOwned(Path path) throws IOException {
+
+        boolean valid;
+
+        String owner = Files.getOwner(path).getName();
+        valid = owner.equals(USER_NAME) || owner.endsWith(DOMAIN_SEPARATOR + USER_NAME);
+
+        return valid;
+    }
+
+    /**
+     * Checks if passed file is owned by current user and other users can not
+     * write to it
+     *
+     * @param file
+     * @return <code>boolean</code>
+     */
+    private static boolean isTrusted(File file) {
+
+        boolean valid;
+
+        Path path = file.toPath();
+        try {
+            valid = isOwned(path);
+            if (valid && path.getFileSystem().supportedFileAttributeViews().contains(POSIX_VIEW)) {
+                Set<PosixFilePermission> permissions = Files.getFileAttributeView(path, PosixFileAttributeView.class)
+                        .readAttributes().permissions();
+                valid = Boolean.FALSE.equals(permissions.contains(PosixFilePermission.GROUP_WRITE)
+                        || permissions.contains(PosixFilePermission.OTHERS_WRITE));
+            }
+        } catch (IOException ex) {
+            LOG.warn(StringUtils.concat("Could not check owner of ", file), ex);
+            valid = Boolean.FALSE;
+        }
+
+        if (Boolean.FALSE.equals(valid)) {
+            LOG.warn(StringUtils.concat("Scan index is not used from untrusted location ", file));
+        }
+
+        return valid;
+    }
+
+    /**
+     * Creates index directory accessible only by current user if it does not
+     * exist
+     *
+     * @throws IOException
+     */
+    private void createDirectory() throws IOException {
+
+        if (Boolean.FALSE.equals(directory.isDirectory())) {
+            if (directory.mkdirs()) {
+                boolean restricted = directory.setReadable(Boolean.FALSE, Boolean.FALSE)
+                        && directory.setWritable(Boolean.FALSE, Boolean.FALSE)
+                        && directory.setExecutable(Boolean.FALSE, Boolean.FALSE)
+                        && directory.setReadable(Boolean.TRUE, Boolean.TRUE)
+                        && directory.setWritable(Boolean.TRUE, Boolean.TRUE)
+                        && directory.setExecutable(Boolean.TRUE, Boolean.TRUE);
+                if (Boolean.FALSE.equals(restricted)) {
+                    LOG.warn(StringUtils.concat("Could not restrict access to directory ", directory));
+                }
+            } else if (Boolean.FALSE.equals(directory.isDirectory())) {
+                throw new IOException(StringUtils.concat("Could not create directory ", directory));
+            }
+        }
+    }
+
+    /**
+     * Gets index file for archive with passed size and checksum
+     *
+     * @param size
+     * @param checksum
+     * @return {@link File}
+     */
+    private File getIndexFile(long size, long checksum) {
+
+        String name = String.format(INDEX_FILE_FORMAT, size, checksum, signature.hashCode());
+
+        return new File(directory, name);
+    }
+
+    /**
+     * Reads class names and their annotations from index file
+     *
+     * @param in
+     * @param size
+     * @param checksum
+     * @return {@link Map} of class names and annotation names or
+     *         <code>null</code> if index was created for other archive or
+     *         other scanning options
+     * @throws IOException
+     */
+    private Map<String, Set<String>> read(DataInputStream in, long size, long checksum) throws IOException {
+
+        Map<String, Set<String>> classes;
+
+        boolean valid = in.readInt() == MAGIC && in.readInt() == VERSION && signature.equals(in.readUTF())
+                && in.readLong() == size && in.readLong() == checksum;
+        if (valid) {
+            int count = in.readInt();
+            classes = new HashMap<String, Set<String>>(count);
+            for (int i = CollectionUtils.FIRST_INDEX; i < count; i++) {
+                String className = in.readUTF();
+                int length = in.readInt();
+                Set<String> annotations = new HashSet<String>(length);
+                for (int j = CollectionUtils.FIRST_INDEX; j < length; j++) {
+                    annotations.add(in.readUTF());
+                }
+                classes.put(className, annotations);
+            }
+        } else {
+            classes = null;
+        }
+
+        return classes;
+    }
+
+    /**
+     * Loads cached class names and their annotations for archive with passed
+     * size and checksum
+     *
+     * @param size
+     * @param checksum
+     * @return {@link Map} of class names and annotation names or
+     *         <code>null</code> if archive is not indexed yet
+     */
+    public Map<String, Set<String>> load(long size, long checksum) {
+
+        Map<String, Set<String>> classes;
+
+        File file = getIndexFile(size, checksum);
+        if (file.isFile() && isTrusted(directory) && isTrusted(file)) {
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                try {
+                    classes = read(in, size, checksum);
+                } finally {
+                    in.close();
+                }
+            } catch (IOException ex) {
+                // Damaged index is ignored and archive is scanned again
+                LOG.warn(StringUtils.concat("Could not read scan index ", file), ex);
+                classes = null;
+            }
+        } else {
+            classes = null;
+        }
+
+        return classes;
+    }
+
+    /**
+     * Writes class names and their annotations to index file
+     *
+     * @param out
+     * @param size
+     * @param checksum
+     * @param classes
+     * @throws IOException
+     */
+    private void write(DataOutputStream out, long size, long checksum, Map<String, Set<String>> classes)
+            throws IOException {
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(signature);
+        out.writeLong(size);
+        out.writeLong(checksum);
+        out.writeInt(classes.size());
+        for (Map.Entry<String, Set<String>> entry : classes.entrySet()) {
+            Set<String> annotations = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeInt(annotations.size());
+            for (String annotation : annotations) {
+                out.writeUTF(annotation);
+            }
+        }
+    }
+
+    /**
+     * Caches class names and their annotations for archive with passed size
+     * and checksum, index file is written to temporary file first and then
+     * moved so concurrent readers never see partially written index
+     *
+     * @param size
+     * @param checksum
+     * @param classes
+     */
+    public void store(long size, long checksum, Map<String, Set<String>> classes) {
+
+        File file = getIndexFile(size, checksum);
+        File temp = null;
+        try {
+            createDirectory();
+            if (isTrusted(directory)) {
+                temp = File.createTempFile(TEMP_PREFIX, TEMP_SUFFIX, directory);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+                try {
+                    write(out, size, checksum, classes);
+                } finally {
+                    out.close();
+                }
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException ex) {
+            LOG.warn(StringUtils.concat("Could not write scan index ", file), ex);
+            if (ObjectUtils.notNull(temp)) {
+                FileUtils.deleteFile(temp);
+            }
+        }
+    }
+}
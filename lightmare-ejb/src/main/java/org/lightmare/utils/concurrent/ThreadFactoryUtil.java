@@ -42,6 +42,9 @@ public class ThreadFactoryUtil implements ThreadFactory {
     // Thread priority
     private Integer priority;
 
+    // Daemon flag for created threads
+    private boolean daemon;
+
     public ThreadFactoryUtil(String name) {
 	this.name = name;
     }
@@ -51,6 +54,11 @@ public class ThreadFactoryUtil implements ThreadFactory {
 	this.priority = priority;
     }
 
+    public ThreadFactoryUtil(String name, Integer priority, boolean daemon) {
+	this(name, priority);
+	this.daemon = daemon;
+    }
+
     @Override
     public Thread newThread(Runnable runnable) {
 
@@ -60,6 +68,10 @@ public class ThreadFactoryUtil implements ThreadFactory {
 	    thread.setPriority(priority);
 	}
 
+	if (daemon) {
+	    thread.setDaemon(daemon);
+	}
+
 	String threadName = StringUtils.concat(name, StringUtils.HYPHEN, thread.getId());
 	thread.setName(threadName);
 
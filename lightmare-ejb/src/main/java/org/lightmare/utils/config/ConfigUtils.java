@@ -68,6 +68,47 @@ public class ConfigUtils {
 	return answer;
     }
 
+    /**
+     * Converts data to <code>long</code> from several java types or returns
+     * passed default value if conversion is not possible
+     *
+     * @param value
+     * @param defaultValue
+     * @return <code>long</code>
+     */
+    public static long getLong(Object value, long defaultValue) {
+
+	long answer;
+
+	if (value instanceof Number) {
+	    Number number = ObjectUtils.cast(value, Number.class);
+	    answer = number.longValue();
+	} else if (value instanceof String && StringUtils.valid((String) value)) {
+	    String text = ObjectUtils.cast(value, String.class);
+	    try {
+		answer = Long.parseLong(text.trim());
+	    } catch (NumberFormatException ex) {
+		answer = defaultValue;
+	    }
+	} else {
+	    answer = defaultValue;
+	}
+
+	return answer;
+    }
+
+    /**
+     * Converts data to <code>int</code> from several java types or returns
+     * passed default value if conversion is not possible
+     *
+     * @param value
+     * @param defaultValue
+     * @return <code>int</code>
+     */
+    public static int getInt(Object value, int defaultValue) {
+	return (int) getLong(value, defaultValue);
+    }
+
     /**
      * Converts data to {@link String} from several java types
      *
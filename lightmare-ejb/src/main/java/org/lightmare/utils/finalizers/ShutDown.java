@@ -32,6 +32,7 @@ import org.lightmare.cache.ConnectionContainer;
 import org.lightmare.cache.MetaContainer;
 import org.lightmare.cache.RestContainer;
 import org.lightmare.cache.TmpResources;
+import org.lightmare.deploy.BootstrapPoolManager;
 import org.lightmare.deploy.LoaderPoolManager;
 import org.lightmare.utils.StringUtils;
 import org.lightmare.utils.collections.CollectionUtils;
@@ -106,6 +107,7 @@ public class ShutDown implements Runnable {
 	MetaContainer.clear();
 	RestContainer.clear();
 	LoaderPoolManager.reload();
+	BootstrapPoolManager.reload();
     }
 
     /**
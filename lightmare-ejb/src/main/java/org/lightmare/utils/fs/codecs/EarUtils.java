@@ -23,23 +23,19 @@
 package org.lightmare.utils.fs.codecs;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Enumeration;
 import java.util.Set;
-import java.util.UUID;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
-import java.util.zip.ZipInputStream;
 
 import org.lightmare.jpa.XMLInitializer;
 import org.lightmare.utils.ObjectUtils;
 import org.lightmare.utils.StringUtils;
 import org.lightmare.utils.collections.CollectionUtils;
 import org.lightmare.utils.fs.FileType;
-import org.lightmare.utils.io.IOUtils;
 
 /**
  * Utility class for checking jar, ear and zip files read contents and etc.
@@ -106,54 +102,23 @@ public class EarUtils extends ArchiveUtils {
     }
 
     /**
-     * Writes EJB jar {@link File} to temporal file to keep {@link URL} from
-     * persistence.xml
+     * Gets {@link URL} of persistence.xml in EJB jar which is read in place
+     * from ear file by {@link NestedJarHandler} (without extracting EJB jar
+     * to temporal file)
      * 
      * @param entry
      * @return {@link URL}
      * @throws IOException
      */
     public URL extractEjbJar(ZipEntry entry) throws IOException {
-
-	URL url;
-
-	InputStream jarStream = getEarFile().getInputStream(entry);
-	if (ObjectUtils.notNull(jarStream)) {
-	    File tmpFile = File.createTempFile(UUID.randomUUID().toString(),
-		    JAR_FILE_EXT);
-	    tmpFile.deleteOnExit();
-	    FileOutputStream output = new FileOutputStream(tmpFile);
-	    IOUtils.write(jarStream, output);
-	    URL jarURL = tmpFile.toURI().toURL();
-	    String jarPath = StringUtils.concat(jarURL.toString(),
-		    ARCHIVE_URL_DELIM, FILE_SEPARATOR, XMLInitializer.XML_PATH);
-	    url = new URL(JAR, StringUtils.EMPTY_STRING, jarPath);
-	} else {
-	    url = null;
-	}
-
-	return url;
+	return NestedJarHandler.getURL(realFile, entry.getName(),
+		XMLInitializer.XML_PATH);
     }
 
     @Override
     public boolean checkOnOrm(String jarName) throws IOException {
-
-	boolean check = Boolean.FALSE;
-
-	ZipFile zipFile = getEarFile();
-	ZipEntry jarEntry = zipFile.getEntry(jarName);
-	InputStream stream = zipFile.getInputStream(jarEntry);
-	ZipInputStream zipStream = new ZipInputStream(stream);
-	ZipEntry xmlEntry = zipStream.getNextEntry();
-
-	while (ObjectUtils.notNull(xmlEntry) && Boolean.FALSE.equals(check)) {
-	    check = xmlEntry.getName().equals(XMLInitializer.XML_PATH);
-	    if (Boolean.FALSE.equals(check)) {
-		xmlEntry = zipStream.getNextEntry();
-	    }
-	}
-
-	return check;
+	return NestedJarHandler.containsEntry(getEarFile(), jarName,
+		XMLInitializer.XML_PATH);
     }
 
     @Override
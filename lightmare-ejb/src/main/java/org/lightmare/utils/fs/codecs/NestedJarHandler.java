@@ -0,0 +1,556 @@
+/*
+ * Lightmare, Lightweight embedded EJB container (works for stateless session beans) with JPA / Hibernate support
+ *
+ * Copyright (c) 2013, Levan Tsinadze, or third-party contributors as
+ * indicated by the @author tags or express copyright attribution
+ * statements applied by the authors.
+ *
+ * This copyrighted material is made available to anyone wishing to use, modify,
+ * copy, or redistribute it subject to the terms and conditions of the GNU
+ * Lesser General Public License, as published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this distribution; if not, write to:
+ * Free Software Foundation, Inc.
+ * 51 Franklin Street, Fifth Floor
+ * Boston, MA  02110-1301  USA
+ */
+package org.lightmare.utils.fs.codecs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.lightmare.scannotation.MappedArchive;
+import org.lightmare.utils.ObjectUtils;
+import org.lightmare.utils.StringUtils;
+import org.lightmare.utils.collections.CollectionUtils;
+import org.lightmare.utils.io.IOUtils;
+
+/**
+ * {@link URLStreamHandler} for entries of jar files nested in other archive
+ * (e.g. <code>jar:file:/app.ear!/module.jar!/META-INF/persistence.xml</code>),
+ * nested jar is read in place from archive and it's entries are found by
+ * central directory without extracting it to temporary file, nested jars which
+ * contain looked up entry are softly cached until archive is changed or
+ * released by {@link NestedJarHandler#release(URL)}
+ * 
+ * @author Levan Tsinadze
+ * @since 0.1.5
+ */
+public class NestedJarHandler extends URLStreamHandler {
+
+    // Delimiter of archive and entry in URL
+    public static final String ENTRY_DELIM = "!/";
+
+    // Parts of nested entry URL (archive, nested jar and entry)
+    private static final int NESTED_PARTS = 3;
+
+    private static final int JAR_INDEX = 1;
+
+    private static final int ENTRY_INDEX = 2;
+
+    private static final int DEFAULT_PORT = -1;
+
+    private static final String FILE_PROTOCOL = "file";
+
+    // Content of existing entry when it is not read
+    private static final byte[] EMPTY_CONTENT = new byte[IOUtils.ZERO_OFFSET];
+
+    private static final NestedJarHandler HANDLER = new NestedJarHandler();
+
+    // Read nested jars by normalized archive path and jar name
+    private static final ConcurrentMap<String, SoftReference<NestedJar>> JARS =
+	    new ConcurrentHashMap<String, SoftReference<NestedJar>>();
+
+    /**
+     * Content and central directory of nested jar file read from archive
+     * 
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class NestedJar {
+
+	// Modification time and length of archive when jar was read
+	private final long modified;
+
+	private final long length;
+
+	private final byte[] content;
+
+	// Central directory or null for archives in ZIP64 format
+	private final MappedArchive archive;
+
+	public NestedJar(long modified, long length, byte[] content) {
+	    this.modified = modified;
+	    this.length = length;
+	    this.content = content;
+	    this.archive = MappedArchive.wrap(content);
+	}
+
+	/**
+	 * Checks if archive was not changed since nested jar was read
+	 * 
+	 * @param file
+	 * @return <code>boolean</code>
+	 */
+	public boolean isCurrent(File file) {
+	    return modified == file.lastModified() && length == file.length();
+	}
+    }
+
+    /**
+     * Connection to entry of nested jar file
+     * 
+     * @author Levan Tsinadze
+     * @since 0.1.5
+     */
+    private static class NestedJarConnection extends URLConnection {
+
+	private byte[] content;
+
+	public NestedJarConnection(URL url) {
+	    super(url);
+	}
+
+	@Override
+	public void connect() throws IOException {
+
+	    if (Boolean.FALSE.equals(connected)) {
+		content = readEntry(url);
+		connected = Boolean.TRUE;
+	    }
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+	    connect();
+	    return new ByteArrayInputStream(content);
+	}
+
+	@Override
+	public int getContentLength() {
+
+	    int length;
+
+	    try {
+		connect();
+		length = content.length;
+	    } catch (IOException ex) {
+		length = IOUtils.NOT_EXISTING_INDEX;
+	    }
+
+	    return length;
+	}
+    }
+
+    @Override
+    protected URLConnection openConnection(URL url) throws IOException {
+	return new NestedJarConnection(url);
+    }
+
+    /**
+     * Creates {@link URL} of entry in jar file nested in passed archive
+     * 
+     * @param archive
+     * @param jarName
+     * @param entryName
+     * @return {@link URL}
+     * @throws IOException
+     */
+    public static URL getURL(File archive, String jarName, String entryName)
+	    throws IOException {
+
+	URL url;
+
+	String path = StringUtils.concat(archive.toURI().toURL(), ENTRY_DELIM,
+		jarName, ENTRY_DELIM, entryName);
+	url = new URL(ArchiveUtils.JAR, StringUtils.EMPTY_STRING, DEFAULT_PORT,
+		path, HANDLER);
+
+	return url;
+    }
+
+    /**
+     * Splits passed {@link URL} to archive, nested jar and entry names
+     * 
+     * @param url
+     * @return {@link String}[] parts or <code>null</code> if it is not URL
+     *         of entry in nested jar
+     */
+    private static String[] split(URL url) {
+
+	String[] parts;
+
+	if (ArchiveUtils.JAR.equals(url.getProtocol())) {
+	    parts = url.getFile().split(ENTRY_DELIM, NESTED_PARTS);
+	    if (parts.length < NESTED_PARTS) {
+		parts = null;
+	    }
+	} else {
+	    parts = null;
+	}
+
+	return parts;
+    }
+
+    /**
+     * Checks if passed {@link URL} points to entry of nested jar file
+     * 
+     * @param url
+     * @return <code>boolean</code>
+     */
+    public static boolean isNested(URL url) {
+	return ObjectUtils.notNull(split(url));
+    }
+
+    /**
+     * Gets {@link URL} of nested jar file itself (e.g.
+     * <code>jar:file:/app.ear!/module.jar</code>) from URL of it's entry
+     * 
+     * @param url
+     * @return {@link URL}
+     * @throws IOException
+     */
+    public static URL getJarURL(URL url) throws IOException {
+
+	String file = url.getFile();
+	int index = file.lastIndexOf(ENTRY_DELIM);
+	String path = file.substring(IOUtils.ZERO_OFFSET, index);
+
+	return new URL(ArchiveUtils.JAR, StringUtils.EMPTY_STRING, path);
+    }
+
+    /**
+     * Reads content of nested jar file from archive
+     * 
+     * @param zipFile
+     * @param jarEntry
+     * @return <code>byte[]</code>
+     * @throws IOException
+     */
+    private static byte[] readContent(ZipFile zipFile, ZipEntry jarEntry)
+	    throws IOException {
+
+	byte[] content;
+
+	InputStream stream = zipFile.getInputStream(jarEntry);
+	long size = jarEntry.getSize();
+	if (size > IOUtils.NOT_EXISTING_INDEX && size <= Integer.MAX_VALUE) {
+	    content = new byte[(int) size];
+	    DataInputStream input = new DataInputStream(stream);
+	    try {
+		input.readFully(content);
+	    } finally {
+		input.close();
+	    }
+	} else {
+	    ByteArrayOutputStream output = new ByteArrayOutputStream();
+	    IOUtils.write(stream, output);
+	    content = output.toByteArray();
+	}
+
+	return content;
+    }
+
+    /**
+     * Finds entry in nested jar which central directory could not be read by
+     * sequential reading of it's content
+     * 
+     * @param content
+     * @param entryName
+     * @return {@link ZipInputStream} positioned on entry or <code>null</code>
+     *         if there is not such entry
+     * @throws IOException
+     */
+    private static ZipInputStream seek(byte[] content, String entryName)
+	    throws IOException {
+
+	ZipInputStream stream = new ZipInputStream(new ByteArrayInputStream(
+		content));
+
+	ZipEntry entry = stream.getNextEntry();
+	while (ObjectUtils.notNull(entry)
+		&& Boolean.FALSE.equals(entry.getName().equals(entryName))) {
+	    entry = stream.getNextEntry();
+	}
+	if (entry == null) {
+	    stream.close();
+	    stream = null;
+	}
+
+	return stream;
+    }
+
+    /**
+     * Gets absolute and normalized {@link File} of archive so same archive
+     * has same key however it's path or {@link URL} is spelled
+     * 
+     * @param file
+     * @return {@link File}
+     */
+    private static File normalize(File file) {
+	return file.toPath().toAbsolutePath().normalize().toFile();
+    }
+
+    /**
+     * Gets key of nested jar in cache
+     * 
+     * @param file
+     * @param jarName
+     * @return {@link String}
+     */
+    private static String getKey(File file, String jarName) {
+	return StringUtils.concat(normalize(file).getPath(), ENTRY_DELIM,
+		jarName);
+    }
+
+    /**
+     * Gets cached nested jar if archive was not changed since it was read
+     * 
+     * @param file
+     * @param jarName
+     * @return {@link NestedJar} or <code>null</code> if it is not cached
+     */
+    private static NestedJar getCached(File file, String jarName) {
+
+	NestedJar jar;
+
+	SoftReference<NestedJar> reference = JARS.get(getKey(file, jarName));
+	if (reference == null) {
+	    jar = null;
+	} else {
+	    jar = reference.get();
+	}
+
+	if (ObjectUtils.notNull(jar)
+		&& Boolean.FALSE.equals(jar.isCurrent(file))) {
+	    jar = null;
+	}
+
+	return jar;
+    }
+
+    /**
+     * Caches nested jar if looked up entry was found in it, jars without
+     * wanted entries (e.g. EJB modules without persistence.xml) are not kept
+     * 
+     * @param file
+     * @param jarName
+     * @param jar
+     * @param value
+     */
+    private static void cache(File file, String jarName, NestedJar jar,
+	    byte[] value) {
+
+	if (ObjectUtils.notNull(jar) && ObjectUtils.notNull(value)) {
+	    JARS.put(getKey(file, jarName), new SoftReference<NestedJar>(jar));
+	}
+    }
+
+    /**
+     * Reads nested jar from archive
+     * 
+     * @param zipFile
+     * @param file
+     * @param jarName
+     * @return {@link NestedJar} or <code>null</code> if there is no such jar
+     *         in archive
+     * @throws IOException
+     */
+    private static NestedJar read(ZipFile zipFile, File file, String jarName)
+	    throws IOException {
+
+	NestedJar jar;
+
+	ZipEntry jarEntry = zipFile.getEntry(jarName);
+	if (ObjectUtils.notNull(jarEntry)) {
+	    long modified = file.lastModified();
+	    long length = file.length();
+	    byte[] content = readContent(zipFile, jarEntry);
+	    jar = new NestedJar(modified, length, content);
+	} else {
+	    jar = null;
+	}
+
+	return jar;
+    }
+
+    /**
+     * Checks if jar nested in passed archive is cached
+     * 
+     * @param file
+     * @param jarName
+     * @return <code>boolean</code>
+     */
+    static boolean isCached(File file, String jarName) {
+	return ObjectUtils.notNull(getCached(file, jarName));
+    }
+
+    /**
+     * Reads entry of nested jar, reads whole entry content if passed flag is
+     * <code>true</code> or returns empty array for existing entry otherwise
+     * 
+     * @param jar
+     * @param entryName
+     * @param read
+     * @return <code>byte[]</code> or <code>null</code> if there is no such
+     *         entry
+     * @throws IOException
+     */
+    private static byte[] findEntry(NestedJar jar, String entryName,
+	    boolean read) throws IOException {
+
+	byte[] value = null;
+
+	if (ObjectUtils.notNull(jar)) {
+	    byte[] content = jar.content;
+	    MappedArchive archive = jar.archive;
+	    if (ObjectUtils.notNull(archive)) {
+		MappedArchive.Entry entry = archive.getEntry(entryName);
+		if (ObjectUtils.notNull(entry) && read) {
+		    Inflater inflater = new Inflater(Boolean.TRUE);
+		    try {
+			value = archive.read(entry, inflater);
+		    } finally {
+			inflater.end();
+		    }
+		} else if (ObjectUtils.notNull(entry)) {
+		    value = EMPTY_CONTENT;
+		}
+	    } else {
+		// Archives which are not supported by central directory
+		// reader (ZIP64) are read sequentially
+		ZipInputStream stream = seek(content, entryName);
+		if (ObjectUtils.notNull(stream) && read) {
+		    ByteArrayOutputStream output = new ByteArrayOutputStream();
+		    IOUtils.write(stream, output);
+		    value = output.toByteArray();
+		} else if (ObjectUtils.notNull(stream)) {
+		    stream.close();
+		    value = EMPTY_CONTENT;
+		}
+	    }
+	}
+
+	return value;
+    }
+
+    /**
+     * Checks if jar file nested in passed archive contains entry
+     * 
+     * @param zipFile
+     * @param jarName
+     * @param entryName
+     * @return <code>boolean</code>
+     * @throws IOException
+     */
+    public static boolean containsEntry(ZipFile zipFile, String jarName,
+	    String entryName) throws IOException {
+
+	boolean contains;
+
+	File file = new File(zipFile.getName());
+	NestedJar jar = getCached(file, jarName);
+	if (jar == null) {
+	    jar = read(zipFile, file, jarName);
+	    byte[] value = findEntry(jar, entryName, Boolean.FALSE);
+	    cache(file, jarName, jar, value);
+	    contains = ObjectUtils.notNull(value);
+	} else {
+	    contains = ObjectUtils.notNull(findEntry(jar, entryName,
+		    Boolean.FALSE));
+	}
+
+	return contains;
+    }
+
+    /**
+     * Reads content of entry in nested jar file by it's {@link URL}
+     * 
+     * @param url
+     * @return <code>byte[]</code>
+     * @throws IOException
+     */
+    private static byte[] readEntry(URL url) throws IOException {
+
+	byte[] content;
+
+	String[] parts = split(url);
+	if (parts == null) {
+	    throw new FileNotFoundException(url.toString());
+	}
+	File archive;
+	try {
+	    URL archiveURL = new URL(CollectionUtils.getFirst(parts));
+	    archive = new File(archiveURL.toURI());
+	} catch (URISyntaxException ex) {
+	    throw new IOException(ex);
+	}
+	String jarName = parts[JAR_INDEX];
+	NestedJar jar = getCached(archive, jarName);
+	if (jar == null) {
+	    ZipFile zipFile = new ZipFile(archive);
+	    try {
+		jar = read(zipFile, archive, jarName);
+	    } finally {
+		zipFile.close();
+	    }
+	    content = findEntry(jar, parts[ENTRY_INDEX], Boolean.TRUE);
+	    cache(archive, jarName, jar, content);
+	} else {
+	    content = findEntry(jar, parts[ENTRY_INDEX], Boolean.TRUE);
+	}
+	if (content == null) {
+	    throw new FileNotFoundException(url.toString());
+	}
+
+	return content;
+    }
+
+    /**
+     * Removes cached jar files nested in archive with passed {@link URL}
+     * (e.g. on undeployment of this archive)
+     * 
+     * @param archiveURL
+     */
+    public static void release(URL archiveURL) {
+
+	if (FILE_PROTOCOL.equals(archiveURL.getProtocol())) {
+	    File file;
+	    try {
+		file = new File(archiveURL.toURI());
+	    } catch (URISyntaxException ex) {
+		file = new File(archiveURL.getFile());
+	    }
+	    String prefix = getKey(file, StringUtils.EMPTY_STRING);
+	    Iterator<String> keys = JARS.keySet().iterator();
+	    while (keys.hasNext()) {
+		if (keys.next().startsWith(prefix)) {
+		    keys.remove();
+		}
+	    }
+	}
+    }
+}
@@ -25,8 +25,10 @@ package org.lightmare.utils.io.serialization;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 
 import org.lightmare.utils.io.IOUtils;
 
@@ -64,6 +66,46 @@ public abstract class NativeSerializer {
 	return data;
     }
 
+    /**
+     * Serializes java type ({@link Object}) directly to passed
+     * {@link OutputStream} with java native serialization API (passed stream
+     * is flushed but not closed)
+     * 
+     * @param value
+     * @param stream
+     * @throws IOException
+     */
+    public static void serialize(Object value, OutputStream stream)
+	    throws IOException {
+
+	ObjectOutputStream objectStream = new ObjectOutputStream(stream);
+	objectStream.writeObject(value);
+	objectStream.flush();
+    }
+
+    /**
+     * For deserialization of java type ({@link Object}) directly from passed
+     * {@link InputStream} with java native serialization API (passed stream is
+     * not closed)
+     * 
+     * @param stream
+     * @return {@link Object}
+     * @throws IOException
+     */
+    public static Object deserialize(InputStream stream) throws IOException {
+
+	Object value;
+
+	ObjectInputStream objectStream = new ObjectInputStream(stream);
+	try {
+	    value = objectStream.readObject();
+	} catch (ClassNotFoundException ex) {
+	    throw new IOException(ex);
+	}
+
+	return value;
+    }
+
     /**
      * For deserialization of byte array in java type ({@link Object}) with java
      * native serialization API
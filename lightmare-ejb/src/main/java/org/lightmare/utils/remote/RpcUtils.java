@@ -24,11 +24,16 @@ package org.lightmare.utils.remote;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.lightmare.ejb.EjbConnector;
 import org.lightmare.remote.rcp.wrappers.RcpWrapper;
 import org.lightmare.remote.rpc.RPCall;
+import org.lightmare.remote.rpc.RpcFuture;
+import org.lightmare.remote.rpc.RpcMethods;
 import org.lightmare.remote.rpc.wrappers.RpcWrapper;
+import org.lightmare.utils.collections.CollectionUtils;
 import org.lightmare.utils.reflect.ClassUtils;
 
 /**
@@ -46,49 +51,166 @@ public class RpcUtils {
     // Error message
     public static final String RPC_ARGS_ERROR = "Could not resolve host and port arguments";
 
-    // Size checks for protocol
-    public static final int PROTOCOL_SIZE = 20;
+    // Method identifier of handshake request (requests table of bean methods)
+    public static final int HANDSHAKE_METHOD_ID = -1;
 
-    // Integer data type size
-    public static final int INT_SIZE = 4;
+    // Method identifier of request which is not resolved by handshake
+    public static final int UNRESOLVED_METHOD_ID = 0;
 
-    // Byte data type size
-    public static final int BYTE_SIZE = 1;
+    private static final char SIGNATURE_BEGIN = '(';
+
+    private static final char SIGNATURE_DELIMITER = ',';
+
+    private static final char SIGNATURE_END = ')';
+
+    /**
+     * Generates signature (name and parameter types) of bean method to
+     * identify it in handshake table
+     * 
+     * @param methodName
+     * @param paramTypes
+     * @return {@link String}
+     */
+    public static String getSignature(String methodName, Class<?>[] paramTypes) {
+
+	String signature;
+
+	StringBuilder builder = new StringBuilder(methodName);
+	builder.append(SIGNATURE_BEGIN);
+	if (paramTypes != null) {
+	    for (int i = CollectionUtils.FIRST_INDEX; i < paramTypes.length; i++) {
+		if (i > CollectionUtils.FIRST_INDEX) {
+		    builder.append(SIGNATURE_DELIMITER);
+		}
+		builder.append(paramTypes[i].getName());
+	    }
+	}
+	builder.append(SIGNATURE_END);
+	signature = builder.toString();
+
+	return signature;
+    }
+
+    /**
+     * Generates signature (name and parameter types) of bean method
+     * 
+     * @param method
+     * @return {@link String}
+     */
+    public static String getSignature(Method method) {
+	return getSignature(method.getName(), method.getParameterTypes());
+    }
+
+    /**
+     * Initializes {@link RpcWrapper} for remote method call
+     * 
+     * @param beanName
+     * @param method
+     * @param arguments
+     * @return {@link RpcWrapper}
+     */
+    private static RpcWrapper createWrapper(String beanName, Method method,
+	    Object[] arguments) {
+
+	RpcWrapper wrapper = new RpcWrapper();
+
+	wrapper.setBeanName(beanName);
+	wrapper.setMethodName(method.getName());
+	wrapper.setParamTypes(method.getParameterTypes());
+	wrapper.setInterfaceClass(method.getDeclaringClass());
+	wrapper.setParams(arguments);
+
+	return wrapper;
+    }
+
+    /**
+     * Checks if passed {@link Method} should be called asynchronously (returns
+     * {@link Future})
+     * 
+     * @param method
+     * @return <code>boolean</code>
+     */
+    public static boolean isAsync(Method method) {
+	return Future.class.isAssignableFrom(method.getReturnType());
+    }
 
     /**
      * Calls remote method for java RPC api
      * 
-     * @param proxy
+     * @param beanName
      * @param method
      * @param arguments
+     * @param rpCall
+     * @param timeout
      * @return {@link Object}
      * @throws IOException
      */
-    public static Object callRemoteMethod(Object proxy, Method method,
-	    Object[] arguments, RPCall rpCall) throws IOException {
+    public static Object callRemoteMethod(String beanName, Method method,
+	    Object[] arguments, RPCall rpCall, long timeout) throws IOException {
 
 	Object value;
 
-	RpcWrapper wrapper = new RpcWrapper();
-	wrapper.setBeanName(proxy.getClass().getSimpleName());
-	wrapper.setMethodName(method.getName());
-	wrapper.setParamTypes(method.getParameterTypes());
-	wrapper.setInterfaceClass(proxy.getClass());
-	wrapper.setParams(arguments);
-	value = rpCall.call(wrapper);
+	RpcWrapper wrapper = createWrapper(beanName, method, arguments);
+	value = rpCall.call(wrapper, timeout);
 
 	return value;
     }
 
     /**
-     * Calls {@link javax.ejb.Stateless} bean method by {@link RcpWrapper} for
-     * java RPC calls
+     * Calls remote method for java RPC api asynchronously
+     * 
+     * @param beanName
+     * @param method
+     * @param arguments
+     * @param rpCall
+     * @param timeout
+     * @return {@link RpcFuture}
+     * @throws IOException
+     */
+    public static <V> RpcFuture<V> callRemoteMethodAsync(String beanName,
+	    Method method, Object[] arguments, RPCall rpCall, long timeout)
+	    throws IOException {
+
+	RpcFuture<V> future;
+
+	RpcWrapper wrapper = createWrapper(beanName, method, arguments);
+	future = rpCall.callAsync(wrapper, timeout);
+
+	return future;
+    }
+
+    /**
+     * Waits for value of {@link Future} returned from asynchronous bean method
+     * 
+     * @param future
+     * @return {@link Object}
+     * @throws IOException
+     */
+    private static Object getFutureValue(Future<?> future) throws IOException {
+
+	Object value;
+
+	try {
+	    value = future.get();
+	} catch (InterruptedException ex) {
+	    throw new IOException(ex);
+	} catch (ExecutionException ex) {
+	    throw new IOException(ex.getCause());
+	}
+
+	return value;
+    }
+
+    /**
+     * Calls bean method by names and parameter types from request (when
+     * method is not resolved by handshake)
      * 
      * @param wrapper
      * @return {@link Object}
      * @throws IOException
      */
-    public static Object callBeanMethod(RpcWrapper wrapper) throws IOException {
+    private static Object callUnresolved(RpcWrapper wrapper)
+	    throws IOException {
 
 	Object value;
 
@@ -107,4 +229,32 @@ public class RpcUtils {
 
 	return value;
     }
+
+    /**
+     * Calls {@link javax.ejb.Stateless} bean method by {@link RcpWrapper} for
+     * java RPC calls, answers handshake requests with table of bean methods
+     * 
+     * @param wrapper
+     * @return {@link Object}
+     * @throws IOException
+     */
+    public static Object callBeanMethod(RpcWrapper wrapper) throws IOException {
+
+	Object value;
+
+	int methodId = wrapper.getMethodId();
+	if (methodId == HANDSHAKE_METHOD_ID) {
+	    value = RpcMethods.describe(wrapper.getBeanName());
+	} else if (methodId > UNRESOLVED_METHOD_ID) {
+	    value = RpcMethods.invoke(methodId, wrapper.getParams());
+	} else {
+	    value = callUnresolved(wrapper);
+	}
+	// Resolves result of asynchronous bean method
+	if (value instanceof Future) {
+	    value = getFutureValue((Future<?>) value);
+	}
+
+	return value;
+    }
 }
@@ -0,0 +1,109 @@
+package org.lightmare.deploy;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.lightmare.cache.ConnectionContainer;
+import org.lightmare.cache.ConnectionSemaphore;
+
+public class BootstrapPoolManagerTest {
+
+    private static final String FIRST_UNIT = "firstBootstrapUnit";
+
+    private static final String SECOND_UNIT = "secondBootstrapUnit";
+
+    private static final String FAILED_UNIT = "failedBootstrapUnit";
+
+    private static EntityManagerFactory createEmf() {
+	return (EntityManagerFactory) Proxy.newProxyInstance(EntityManagerFactory.class.getClassLoader(),
+		new Class<?>[] { EntityManagerFactory.class }, new InvocationHandler() {
+
+		    @Override
+		    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			return method.getName().equals("isOpen") ? Boolean.FALSE : null;
+		    }
+		});
+    }
+
+    private static Callable<Boolean> createInitializer(final ConnectionSemaphore semaphore,
+	    final EntityManagerFactory emf, final CyclicBarrier barrier) {
+
+	return new Callable<Boolean>() {
+
+	    @Override
+	    public Boolean call() throws Exception {
+		// Both units should be bootstrapped concurrently
+		barrier.await(5, TimeUnit.SECONDS);
+		semaphore.setEmf(emf);
+		semaphore.complete();
+		return Boolean.TRUE;
+	    }
+	};
+    }
+
+    @After
+    public void clear() {
+	ConnectionContainer.removeConnection(FIRST_UNIT);
+	ConnectionContainer.removeConnection(SECOND_UNIT);
+	ConnectionContainer.removeConnection(FAILED_UNIT);
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+
+	ConnectionSemaphore first = ConnectionContainer.cacheSemaphore(FIRST_UNIT, null);
+	ConnectionSemaphore second = ConnectionContainer.cacheSemaphore(SECOND_UNIT, null);
+	EntityManagerFactory firstEmf = createEmf();
+	EntityManagerFactory secondEmf = createEmf();
+	CyclicBarrier barrier = new CyclicBarrier(2);
+	ClassLoader loader = Thread.currentThread().getContextClassLoader();
+	BootstrapPoolManager.submit(first, createInitializer(first, firstEmf, barrier), loader);
+	BootstrapPoolManager.submit(second, createInitializer(second, secondEmf, barrier), loader);
+
+	Assert.assertSame(firstEmf, ConnectionContainer.getEntityManagerFactory(FIRST_UNIT));
+	Assert.assertSame(secondEmf, ConnectionContainer.getEntityManagerFactory(SECOND_UNIT));
+	Assert.assertFalse(first.isInProgress());
+    }
+
+    @Test
+    public void failedTest() throws Exception {
+
+	ConnectionSemaphore semaphore = ConnectionContainer.cacheSemaphore(FAILED_UNIT, null);
+	final CountDownLatch latch = new CountDownLatch(1);
+	BootstrapPoolManager.submit(semaphore, new Callable<Boolean>() {
+
+	    @Override
+	    public Boolean call() throws Exception {
+		latch.await();
+		throw new IOException("Could not bootstrap");
+	    }
+	}, Thread.currentThread().getContextClassLoader());
+	latch.countDown();
+
+	try {
+	    ConnectionContainer.getEntityManagerFactory(FAILED_UNIT);
+	    Assert.fail("Failed bootstrap should not be awaited forever");
+	} catch (IOException ex) {
+	    Assert.assertEquals("Could not bootstrap", ex.getCause().getMessage());
+	}
+
+	// Beans of failed unit get error instead of connection without factory
+	try {
+	    ConnectionContainer.getConnection(FAILED_UNIT);
+	    Assert.fail("Failed bootstrap should be propagated");
+	} catch (IOException ex) {
+	    Assert.assertEquals("Could not bootstrap", ex.getCause().getMessage());
+	}
+    }
+}
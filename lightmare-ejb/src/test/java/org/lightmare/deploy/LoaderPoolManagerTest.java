@@ -0,0 +1,60 @@
+package org.lightmare.deploy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LoaderPoolManagerTest {
+
+    private static final int POOL_SIZE = 3;
+
+    private int defaultSize;
+
+    @Before
+    public void configure() throws Exception {
+	defaultSize = LoaderPoolManager.getPoolSize();
+	LoaderPoolManager.setPoolSize(POOL_SIZE);
+    }
+
+    @After
+    public void restore() throws Exception {
+	LoaderPoolManager.setPoolSize(defaultSize);
+    }
+
+    @Test
+    public void parallelTest() throws Exception {
+
+	Assert.assertEquals(POOL_SIZE, LoaderPoolManager.getPoolSize());
+	// Each task waits for others so all of them should run concurrently
+	final CyclicBarrier barrier = new CyclicBarrier(POOL_SIZE);
+	List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+	for (int i = 0; i < POOL_SIZE; i++) {
+	    futures.add(LoaderPoolManager.submit(new Callable<Integer>() {
+
+		@Override
+		public Integer call() throws Exception {
+		    return Integer.valueOf(barrier.await(5, TimeUnit.SECONDS));
+		}
+	    }));
+	}
+
+	for (Future<Integer> future : futures) {
+	    Assert.assertNotNull(future.get(10, TimeUnit.SECONDS));
+	}
+    }
+
+    @Test
+    public void defaultSizeTest() throws Exception {
+
+	LoaderPoolManager.setPoolSize(0);
+	Assert.assertTrue(LoaderPoolManager.getPoolSize() >= Runtime.getRuntime().availableProcessors());
+    }
+}
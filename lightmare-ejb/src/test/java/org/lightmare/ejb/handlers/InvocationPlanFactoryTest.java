@@ -0,0 +1,51 @@
+package org.lightmare.ejb.handlers;
+
+import java.lang.reflect.Method;
+
+import javax.ejb.TransactionAttributeType;
+import javax.ejb.TransactionManagementType;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightmare.bean.LightMareFalseBean;
+import org.lightmare.bean.LightMareFalseBeanRemote;
+import org.lightmare.cache.InvocationPlan;
+import org.lightmare.cache.MetaData;
+
+public class InvocationPlanFactoryTest {
+
+    private MetaData metaData;
+
+    @Before
+    public void configure() {
+
+	metaData = new MetaData();
+	metaData.setBeanClass(LightMareFalseBean.class);
+	metaData.setRemoteInterfaces(new Class<?>[] { LightMareFalseBeanRemote.class });
+	metaData.setTransactionAttrType(TransactionAttributeType.NOT_SUPPORTED);
+	metaData.setTransactionManType(TransactionManagementType.CONTAINER);
+    }
+
+    @Test
+    public void prepareTest() throws Exception {
+
+	InvocationPlanFactory.prepare(metaData);
+	Method method = LightMareFalseBeanRemote.class.getMethod("isFalse");
+	InvocationPlan plan = metaData.getInvocationPlan(method);
+	Assert.assertNotNull("Invocation plan was not prepared", plan);
+	Assert.assertEquals(LightMareFalseBean.class, plan.getBeanMethod().getDeclaringClass());
+	Assert.assertEquals(TransactionAttributeType.NOT_SUPPORTED, plan.getTransactionType());
+	Assert.assertEquals(0, plan.getInterceptors().length);
+	Assert.assertSame(plan, InvocationPlanFactory.get(metaData, method));
+    }
+
+    @Test
+    public void invokeTest() throws Exception {
+
+	Method method = LightMareFalseBeanRemote.class.getMethod("isFalse");
+	InvocationPlan plan = InvocationPlanFactory.get(metaData, method);
+	Object value = plan.invoke(new LightMareFalseBean(), null);
+	Assert.assertEquals(Boolean.TRUE, value);
+    }
+}
@@ -0,0 +1,137 @@
+package org.lightmare.ejb.handlers;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.ejb.EJBException;
+import javax.ejb.TransactionAttributeType;
+import javax.ejb.TransactionManagementType;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightmare.bean.LightMareFalseBean;
+import org.lightmare.bean.LightMareFalseBeanRemote;
+import org.lightmare.cache.InvocationPlan;
+import org.lightmare.cache.MetaData;
+import org.lightmare.cache.TransactionHolder;
+import org.lightmare.jpa.jta.BeanTransactions;
+
+public class LazyEntityManagerHandlerTest {
+
+    private int created;
+
+    private BeanHandler handler;
+
+    private InvocationPlan plan;
+
+    private EntityManagerFactory emf;
+
+    private Object proxy(Class<?> type, InvocationHandler invocationHandler) {
+	return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, invocationHandler);
+    }
+
+    private static MetaData createMetaData(TransactionAttributeType type) {
+
+	MetaData metaData = new MetaData();
+	metaData.setBeanClass(LightMareFalseBean.class);
+	metaData.setTransactionAttrType(type);
+	metaData.setTransactionManType(TransactionManagementType.CONTAINER);
+
+	return metaData;
+    }
+
+    private static InvocationPlan getPlan(MetaData metaData) throws Exception {
+	Method method = LightMareFalseBeanRemote.class.getMethod("isFalse");
+	return InvocationPlanFactory.get(metaData, method);
+    }
+
+    @Before
+    public void configure() throws Exception {
+
+	MetaData metaData = createMetaData(TransactionAttributeType.NOT_SUPPORTED);
+	handler = BeanHandlerFactory.create(metaData);
+	plan = getPlan(metaData);
+
+	final EntityManager em = (EntityManager) proxy(EntityManager.class, new InvocationHandler() {
+
+	    @Override
+	    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		return method.getName().equals("isOpen") ? Boolean.FALSE : null;
+	    }
+	});
+	emf = (EntityManagerFactory) proxy(EntityManagerFactory.class, new InvocationHandler() {
+
+	    @Override
+	    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		created++;
+		return em;
+	    }
+	});
+    }
+
+    @After
+    public void clear() {
+	TransactionHolder.removeTransaction();
+    }
+
+    @Test
+    public void lazyCreationTest() {
+
+	EntityManager em = LazyEntityManagerHandler.get(handler, plan, emf);
+	Assert.assertTrue(em.isOpen());
+	Assert.assertSame(emf, em.getEntityManagerFactory());
+	em.close();
+	Assert.assertEquals(0, created);
+
+	em.clear();
+	Assert.assertEquals(1, created);
+	Assert.assertFalse(em.isOpen());
+	em.flush();
+	Assert.assertEquals(1, created);
+    }
+
+    @Test
+    public void scopeWithoutEntityManagerTest() throws Exception {
+
+	MetaData requiredData = createMetaData(TransactionAttributeType.REQUIRED);
+	BeanHandler required = BeanHandlerFactory.create(requiredData);
+	InvocationPlan requiredPlan = getPlan(requiredData);
+	MetaData mandatoryData = createMetaData(TransactionAttributeType.MANDATORY);
+	BeanHandler mandatory = BeanHandlerFactory.create(mandatoryData);
+	InvocationPlan mandatoryPlan = getPlan(mandatoryData);
+	MetaData neverData = createMetaData(TransactionAttributeType.NEVER);
+	BeanHandler never = BeanHandlerFactory.create(neverData);
+	InvocationPlan neverPlan = getPlan(neverData);
+
+	// Outer REQUIRED call did not create EntityManager yet
+	BeanTransactions.addTransaction(required, requiredPlan, null);
+	BeanTransactions.addTransaction(mandatory, mandatoryPlan, null);
+	BeanTransactions.commitTransaction(mandatory, mandatoryPlan);
+	BeanTransactions.remove(mandatory, mandatoryPlan);
+	try {
+	    BeanTransactions.addTransaction(never, neverPlan, null);
+	    Assert.fail("NEVER method was called within transaction");
+	} catch (EJBException ex) {
+	    BeanTransactions.remove(never, neverPlan);
+	}
+	BeanTransactions.commitTransaction(required, requiredPlan);
+	BeanTransactions.remove(required, requiredPlan);
+	Assert.assertNull(TransactionHolder.getTransaction());
+
+	// Without outer transaction scope NEVER passes and MANDATORY fails
+	BeanTransactions.addTransaction(never, neverPlan, null);
+	BeanTransactions.commitTransaction(never, neverPlan);
+	BeanTransactions.remove(never, neverPlan);
+	try {
+	    BeanTransactions.addTransaction(mandatory, mandatoryPlan, null);
+	    Assert.fail("MANDATORY method was called without transaction");
+	} catch (EJBException ex) {
+	    BeanTransactions.remove(mandatory, mandatoryPlan);
+	}
+    }
+}
@@ -0,0 +1,87 @@
+package org.lightmare.ejb.interceptors;
+
+import java.lang.reflect.Method;
+
+import javax.ejb.TransactionAttributeType;
+import javax.ejb.TransactionManagementType;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.InvocationContext;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightmare.bean.LightMareFalseBean;
+import org.lightmare.bean.LightMareFalseBeanRemote;
+import org.lightmare.cache.InterceptorData;
+import org.lightmare.cache.InvocationPlan;
+import org.lightmare.cache.MetaData;
+import org.lightmare.ejb.handlers.InvocationPlanFactory;
+
+public class InterceptorHandlerTest {
+
+    private MetaData metaData;
+
+    private Method method;
+
+    public static class CountingInterceptor {
+
+	private static int instances;
+
+	private int calls;
+
+	public CountingInterceptor() {
+	    instances++;
+	}
+
+	@AroundInvoke
+	public Object count(InvocationContext context) throws Exception {
+	    calls++;
+	    Object[] parameters = { Integer.valueOf(calls) };
+	    context.setParameters(parameters);
+	    return context.proceed();
+	}
+    }
+
+    @Before
+    public void configure() throws Exception {
+
+	method = LightMareFalseBeanRemote.class.getMethod("isFalse");
+	metaData = new MetaData();
+	metaData.setBeanClass(LightMareFalseBean.class);
+	metaData.setTransactionAttrType(TransactionAttributeType.NOT_SUPPORTED);
+	metaData.setTransactionManType(TransactionManagementType.CONTAINER);
+	InterceptorData data = new InterceptorData();
+	data.setBeanClass(LightMareFalseBean.class);
+	data.setInterceptorClass(CountingInterceptor.class);
+	data.setInterceptorMethod(CountingInterceptor.class.getMethod("count", InvocationContext.class));
+	metaData.addInterceptor(data);
+	CountingInterceptor.instances = 0;
+    }
+
+    @Test
+    public void reuseInterceptorTest() throws Exception {
+
+	InvocationPlan plan = InvocationPlanFactory.get(metaData, method);
+	Assert.assertEquals(1, plan.getInterceptors().length);
+
+	InterceptorHandler handler = new InterceptorHandler(metaData);
+	Object[] intercepteds = handler.callInterceptors(plan, null);
+	Assert.assertEquals(Integer.valueOf(1), intercepteds[0]);
+	intercepteds = handler.callInterceptors(plan, null);
+	Assert.assertEquals(Integer.valueOf(2), intercepteds[0]);
+	Assert.assertEquals(1, CountingInterceptor.instances);
+
+	new InterceptorHandler(metaData).callInterceptors(plan, null);
+	Assert.assertEquals(2, CountingInterceptor.instances);
+    }
+
+    @Test
+    public void sharedInterceptorTest() throws Exception {
+
+	metaData.setSharedInterceptors(Boolean.TRUE);
+	InvocationPlan plan = InvocationPlanFactory.get(metaData, method);
+	new InterceptorHandler(metaData).callInterceptors(plan, null);
+	new InterceptorHandler(metaData).callInterceptors(plan, null);
+	Assert.assertEquals(1, CountingInterceptor.instances);
+    }
+}
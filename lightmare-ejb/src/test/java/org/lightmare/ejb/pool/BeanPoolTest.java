@@ -0,0 +1,132 @@
+package org.lightmare.ejb.pool;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+
+import javax.ejb.ConcurrentAccessTimeoutException;
+import javax.ejb.TransactionAttributeType;
+import javax.ejb.TransactionManagementType;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightmare.bean.LightMareFalseBean;
+import org.lightmare.cache.MetaData;
+
+public class BeanPoolTest {
+
+    private MetaData metaData;
+
+    @Before
+    public void configure() {
+
+	metaData = new MetaData();
+	metaData.setBeanClass(LightMareFalseBean.class);
+	metaData.setTransactionAttrType(TransactionAttributeType.NOT_SUPPORTED);
+	metaData.setTransactionManType(TransactionManagementType.CONTAINER);
+    }
+
+    @Test
+    public void reuseTest() throws Exception {
+
+	BeanPool pool = new BeanPool("reuseBean", metaData, 1, 2, 0L, 10L);
+	PooledBean first = pool.borrow();
+	Assert.assertEquals(1, pool.getSize());
+	pool.release(first);
+	PooledBean second = pool.borrow();
+	Assert.assertSame(first, second);
+	Assert.assertEquals(1L, pool.getCreatedCount());
+	pool.release(second);
+	pool.close();
+	Assert.assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    public void boundTest() throws Exception {
+
+	BeanPool pool = new BeanPool("boundBean", metaData, 0, 1, 0L, 10L);
+	PooledBean pooled = pool.borrow();
+	try {
+	    pool.borrow();
+	    Assert.fail("Pool should be bounded");
+	} catch (ConcurrentAccessTimeoutException ex) {
+	    Assert.assertEquals(1L, pool.getTimeoutCount());
+	} finally {
+	    pool.release(pooled);
+	    pool.close();
+	}
+    }
+
+    @Test
+    public void evictTest() throws Exception {
+
+	BeanPool pool = new BeanPool("evictBean", metaData, 0, 2, 1L, 10L);
+	PooledBean pooled = pool.borrow();
+	pool.release(pooled);
+	Thread.sleep(5L);
+	pool.evict();
+	Assert.assertEquals(0, pool.getSize());
+	Assert.assertEquals(1L, pool.getEvictedCount());
+	pool.close();
+    }
+
+    @Test
+    public void prewarmTest() throws Exception {
+
+	BeanPool pool = new BeanPool("prewarmBean", metaData, 2, 4, 0L, 10L);
+	pool.prewarm();
+	Assert.assertEquals(2, pool.getSize());
+	Assert.assertEquals(2, pool.getIdleCount());
+	pool.close();
+    }
+
+    @Test
+    public void registerTest() throws Exception {
+
+	BeanPool first = new BeanPool("registeredBean", metaData, 0, 1, 0L, 10L);
+	BeanPool second = new BeanPool("registeredBean", metaData, 0, 1, 0L, 10L);
+	MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+	ObjectName pattern = new ObjectName("org.lightmare:type=BeanPool,name=\"registeredBean\",*");
+	try {
+	    first.start();
+	    second.start();
+	    // Pool of bean with same name does not replace registered one
+	    Assert.assertEquals(2, server.queryNames(pattern, null).size());
+	} finally {
+	    first.close();
+	    second.close();
+	}
+	Assert.assertTrue(server.queryNames(pattern, null).isEmpty());
+    }
+
+    @Test
+    public void closeRaceTest() throws Exception {
+
+	for (int i = 0; i < 200; i++) {
+	    final BeanPool pool = new BeanPool("closedBean", metaData, 0, 1, 0L, 10L);
+	    final PooledBean pooled = pool.borrow();
+	    final CountDownLatch start = new CountDownLatch(1);
+	    Thread releaser = new Thread(new Runnable() {
+
+		@Override
+		public void run() {
+		    try {
+			start.await();
+			pool.release(pooled);
+		    } catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		    }
+		}
+	    });
+	    releaser.start();
+	    start.countDown();
+	    pool.close();
+	    releaser.join();
+	    // Instance released concurrently with closing is not kept in pool
+	    Assert.assertEquals(0, pool.getSize());
+	    Assert.assertEquals(0, pool.getIdleCount());
+	}
+    }
+}
@@ -0,0 +1,138 @@
+package org.lightmare.remote.codecs;
+
+import java.util.Date;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.lightmare.remote.rcp.wrappers.RcpWrapper;
+import org.lightmare.remote.rpc.wrappers.RpcWrapper;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+
+public class RpcCodecTest {
+
+    private static RpcWrapper createRequest() {
+
+	RpcWrapper wrapper = new RpcWrapper();
+	wrapper.setId(42L);
+	wrapper.setBeanName("LightMareBean");
+	wrapper.setMethodName("getName");
+	wrapper.setParamTypes(new Class<?>[] { String.class, int.class, Object[].class });
+	wrapper.setInterfaceClass(Runnable.class);
+	wrapper.setParams(new Object[] { "name", Integer.valueOf(7),
+		new Object[] { Long.valueOf(1L), null, new Date(0L), Boolean.TRUE } });
+
+	return wrapper;
+    }
+
+    private static ByteBuf encode(RpcCodec codec, RpcWrapper wrapper) throws Exception {
+
+	ByteBuf buffer = Unpooled.buffer();
+	int lengthIndex = RpcCodecs.startFrame(codec, buffer);
+	codec.encodeRequest(wrapper, buffer);
+	RpcCodecs.endFrame(buffer, lengthIndex);
+
+	return buffer;
+    }
+
+    private static RpcWrapper decode(ByteBuf buffer) throws Exception {
+
+	ByteBuf frame = RpcCodecs.readFrame(buffer);
+	RpcCodec codec = RpcCodecs.get(frame.readByte());
+
+	return codec.decodeRequest(frame);
+    }
+
+    private static void assertRequest(RpcWrapper expected, RpcWrapper actual) {
+
+	Assert.assertEquals(expected.getId(), actual.getId());
+	Assert.assertEquals(expected.getBeanName(), actual.getBeanName());
+	Assert.assertEquals(expected.getMethodName(), actual.getMethodName());
+	Assert.assertArrayEquals(expected.getParamTypes(), actual.getParamTypes());
+	Assert.assertEquals(expected.getInterfaceClass(), actual.getInterfaceClass());
+	Assert.assertEquals(expected.getParams()[0], actual.getParams()[0]);
+	Assert.assertEquals(expected.getParams()[1], actual.getParams()[1]);
+	Assert.assertArrayEquals((Object[]) expected.getParams()[2], (Object[]) actual.getParams()[2]);
+    }
+
+    @Test
+    public void requestTest() throws Exception {
+
+	RpcWrapper wrapper = createRequest();
+
+	ByteBuf nativeFrame = encode(RpcCodecs.get(NativeRpcCodec.VERSION), wrapper);
+	int nativeSize = nativeFrame.readableBytes();
+	assertRequest(wrapper, decode(nativeFrame));
+
+	ByteBuf binaryFrame = encode(RpcCodecs.get(BinaryRpcCodec.VERSION), wrapper);
+	int binarySize = binaryFrame.readableBytes();
+	assertRequest(wrapper, decode(binaryFrame));
+
+	Assert.assertTrue(binarySize < nativeSize);
+    }
+
+    @Test
+    public void resolvedRequestTest() throws Exception {
+
+	RpcWrapper wrapper = createRequest();
+	int fullSize = encode(RpcCodecs.get(BinaryRpcCodec.VERSION), wrapper).readableBytes();
+
+	// Method resolved by handshake is sent only by identifier and parameters
+	wrapper.setMethodId(3);
+	ByteBuf frame = encode(RpcCodecs.get(BinaryRpcCodec.VERSION), wrapper);
+	Assert.assertTrue(frame.readableBytes() < fullSize);
+
+	RpcWrapper decoded = decode(frame);
+	Assert.assertEquals(3, decoded.getMethodId());
+	Assert.assertEquals(wrapper.getId(), decoded.getId());
+	Assert.assertNull(decoded.getBeanName());
+	Assert.assertEquals(wrapper.getParams()[0], decoded.getParams()[0]);
+    }
+
+    @Test
+    public void pooledBufferTest() throws Exception {
+
+	String text = "ascii \u00e9\u0436 \u4e2d \ud83d\ude00";
+	Date date = new Date(42L);
+	ByteBuf buffer = PooledByteBufAllocator.DEFAULT.ioBuffer();
+	try {
+	    RpcCodecs.writeString(text, buffer);
+	    RpcCodecs.writeObject(date, buffer);
+	    RpcCodecs.writeString(null, buffer);
+	    Assert.assertEquals(text.getBytes(RpcCodecs.CHARSET).length, buffer.getInt(0));
+
+	    Assert.assertEquals(text, RpcCodecs.readString(buffer));
+	    Assert.assertEquals(date, RpcCodecs.readObject(buffer));
+	    Assert.assertNull(RpcCodecs.readString(buffer));
+	    Assert.assertFalse(buffer.isReadable());
+	} finally {
+	    buffer.release();
+	}
+    }
+
+    @Test
+    public void responseTest() throws Exception {
+
+	RpcCodec codec = RpcCodecs.get("binary");
+	RcpWrapper wrapper = new RcpWrapper();
+	wrapper.setId(3L);
+	wrapper.setValid(Boolean.TRUE);
+	wrapper.setValue(new byte[] { 1, 2, 3 });
+
+	ByteBuf buffer = Unpooled.buffer();
+	int lengthIndex = RpcCodecs.startFrame(codec, buffer);
+	codec.encodeResponse(wrapper, buffer);
+	RpcCodecs.endFrame(buffer, lengthIndex);
+
+	// Frame is not decoded until it is completely received
+	Assert.assertNull(RpcCodecs.readFrame(buffer.slice(0, buffer.readableBytes() - 1)));
+
+	ByteBuf frame = RpcCodecs.readFrame(buffer);
+	RcpWrapper decoded = RpcCodecs.get(frame.readByte()).decodeResponse(frame);
+	Assert.assertEquals(3L, decoded.getId());
+	Assert.assertTrue(decoded.isValid());
+	Assert.assertArrayEquals(new byte[] { 1, 2, 3 }, (byte[]) decoded.getValue());
+    }
+}
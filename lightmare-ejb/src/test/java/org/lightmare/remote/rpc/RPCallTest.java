@@ -0,0 +1,276 @@
+package org.lightmare.remote.rpc;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightmare.config.ConfigKeys;
+import org.lightmare.config.Configuration;
+import org.lightmare.remote.rcp.decoders.RcpEncoder;
+import org.lightmare.remote.rcp.wrappers.RcpWrapper;
+import org.lightmare.remote.rpc.decoders.RpcDecoder;
+import org.lightmare.remote.rpc.wrappers.RpcWrapper;
+import org.lightmare.utils.remote.RpcUtils;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+
+public class RPCallTest {
+
+    private EventLoopGroup group;
+
+    private Channel server;
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final AtomicInteger handshakes = new AtomicInteger();
+
+    private final List<RpcWrapper> requests = new CopyOnWriteArrayList<RpcWrapper>();
+
+    private static final int ECHO_METHOD_ID = 5;
+
+    // Publishes echo method on handshake and echoes first parameter of request
+    // as response value
+    private class EchoHandler extends ChannelInboundHandlerAdapter {
+
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) {
+
+	    RpcWrapper wrapper = (RpcWrapper) msg;
+	    RcpWrapper rcp = new RcpWrapper();
+	    rcp.setId(wrapper.getId());
+	    rcp.setValid(Boolean.TRUE);
+	    if (wrapper.getMethodId() == RpcUtils.HANDSHAKE_METHOD_ID) {
+		handshakes.incrementAndGet();
+		rcp.setValue(new Object[] { "echo(java.lang.Integer)", Integer.valueOf(ECHO_METHOD_ID) });
+		ctx.writeAndFlush(rcp);
+		return;
+	    }
+	    requests.add(wrapper);
+	    // Negative parameters are never answered
+	    if (((Integer) wrapper.getParams()[0]).intValue() < 0) {
+		return;
+	    }
+	    rcp.setValue(wrapper.getParams()[0]);
+	    ctx.writeAndFlush(rcp);
+	}
+    }
+
+    @Before
+    public void start() throws Exception {
+
+	group = new NioEventLoopGroup(1);
+	ServerBootstrap bootstrap = new ServerBootstrap();
+	bootstrap.group(group).channel(NioServerSocketChannel.class)
+		.childHandler(new ChannelInitializer<SocketChannel>() {
+
+		    @Override
+		    protected void initChannel(SocketChannel ch) {
+			connections.incrementAndGet();
+			ch.pipeline().addLast(new RcpEncoder(), new RpcDecoder(), new EchoHandler());
+		    }
+		});
+	server = bootstrap.bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+
+	Configuration config = new Configuration();
+	config.putValue(ConfigKeys.WORKER_POOL.key, "2");
+	// Default connection timeout, response timeout is configured separately
+	config.putValue(ConfigKeys.CONNECTION_TIMEOUT.key, "1000");
+	RPCall.configure(config);
+    }
+
+    @After
+    public void stop() throws Exception {
+	RPCall.shutdown();
+	server.close().sync();
+	group.shutdownGracefully();
+    }
+
+    private static RpcWrapper createWrapper(Integer param) {
+
+	RpcWrapper wrapper = new RpcWrapper();
+	wrapper.setBeanName("echo");
+	wrapper.setMethodName("echo");
+	wrapper.setParamTypes(new Class<?>[] { Integer.class });
+	wrapper.setInterfaceClass(Integer.class);
+	wrapper.setParams(new Object[] { param });
+
+	return wrapper;
+    }
+
+    private RPCall createCall() {
+	int port = ((InetSocketAddress) server.localAddress()).getPort();
+	return new RPCall("127.0.0.1", port);
+    }
+
+    @Test
+    public void multiplexTest() throws Exception {
+
+	final RPCall call = createCall();
+	ExecutorService executor = Executors.newFixedThreadPool(4);
+	try {
+	    List<Future<Object>> futures = new ArrayList<Future<Object>>();
+	    for (int i = 0; i < 20; i++) {
+		final Integer param = Integer.valueOf(i);
+		futures.add(executor.submit(new Callable<Object>() {
+
+		    @Override
+		    public Object call() throws Exception {
+			return call.call(createWrapper(param));
+		    }
+		}));
+	    }
+
+	    for (int i = 0; i < futures.size(); i++) {
+		Assert.assertEquals(Integer.valueOf(i), futures.get(i).get());
+	    }
+	} finally {
+	    executor.shutdown();
+	}
+
+	Assert.assertEquals(1, connections.get());
+    }
+
+    @Test
+    public void handshakeTest() throws Exception {
+
+	RPCall call = createCall();
+	Assert.assertEquals(Integer.valueOf(1), call.call(createWrapper(Integer.valueOf(1))));
+	Assert.assertEquals(Integer.valueOf(2), call.call(createWrapper(Integer.valueOf(2))));
+
+	Assert.assertEquals(1, handshakes.get());
+	for (RpcWrapper request : requests) {
+	    Assert.assertEquals(ECHO_METHOD_ID, request.getMethodId());
+	    Assert.assertNull(request.getMethodName());
+	    Assert.assertNull(request.getBeanName());
+	}
+    }
+
+    @Test
+    public void asyncTest() throws Exception {
+
+	RPCall call = createCall();
+	final CountDownLatch latch = new CountDownLatch(1);
+	final AtomicReference<Object> result = new AtomicReference<Object>();
+	RpcFuture<Integer> future = call.callAsync(createWrapper(Integer.valueOf(7)), 5000L);
+	future.addCallback(new RpcCallback<Integer>() {
+
+	    @Override
+	    public void completed(Integer value) {
+		result.set(value);
+		latch.countDown();
+	    }
+
+	    @Override
+	    public void failed(Throwable cause) {
+		result.set(cause);
+		latch.countDown();
+	    }
+	});
+
+	Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+	Assert.assertEquals(Integer.valueOf(7), result.get());
+	Assert.assertEquals(Integer.valueOf(7), future.get());
+    }
+
+    @Test
+    public void eventLoopCallTest() throws Exception {
+
+	final RPCall call = createCall();
+	final CountDownLatch latch = new CountDownLatch(1);
+	final AtomicReference<Object> result = new AtomicReference<Object>();
+	call.<Integer> callAsync(createWrapper(Integer.valueOf(1)), 0L).addCallback(new RpcCallback<Integer>() {
+
+	    @Override
+	    public void completed(Integer value) {
+
+		// Called from network event loop, handshake of new bean must not
+		// block it
+		RpcWrapper wrapper = createWrapper(Integer.valueOf(2));
+		wrapper.setBeanName("echo2");
+		try {
+		    call.<Integer> callAsync(wrapper, 0L).addCallback(new RpcCallback<Integer>() {
+
+			@Override
+			public void completed(Integer nested) {
+			    result.set(nested);
+			    latch.countDown();
+			}
+
+			@Override
+			public void failed(Throwable cause) {
+			    result.set(cause);
+			    latch.countDown();
+			}
+		    });
+		} catch (Exception ex) {
+		    result.set(ex);
+		    latch.countDown();
+		}
+	    }
+
+	    @Override
+	    public void failed(Throwable cause) {
+		result.set(cause);
+		latch.countDown();
+	    }
+	});
+
+	Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+	Assert.assertEquals(Integer.valueOf(2), result.get());
+	Assert.assertEquals(2, handshakes.get());
+	for (RpcWrapper request : requests) {
+	    Assert.assertEquals(ECHO_METHOD_ID, request.getMethodId());
+	}
+    }
+
+    @Test
+    public void timeoutTest() throws Exception {
+
+	RpcFuture<Integer> future = createCall().callAsync(createWrapper(Integer.valueOf(-1)), 50L);
+	try {
+	    future.get();
+	    Assert.fail("Call should time out");
+	} catch (ExecutionException ex) {
+	    Assert.assertTrue(ex.getCause() instanceof TimeoutException);
+	}
+    }
+
+    @Test
+    public void callTimeoutTest() throws Exception {
+
+	// Connection timeout is not used as response timeout
+	Assert.assertEquals(0L, RPCall.getTimeout());
+	Assert.assertEquals(Integer.valueOf(3), createCall().call(createWrapper(Integer.valueOf(3))));
+    }
+
+    @Test
+    public void cancelTest() throws Exception {
+
+	RpcFuture<Integer> future = createCall().callAsync(createWrapper(Integer.valueOf(-1)), 0L);
+	Assert.assertTrue(future.cancel(Boolean.FALSE));
+	Assert.assertTrue(future.isCancelled());
+    }
+}
@@ -0,0 +1,120 @@
+package org.lightmare.remote.rpc;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.lightmare.config.Configuration;
+import org.lightmare.remote.rcp.wrappers.RcpWrapper;
+import org.lightmare.remote.rpc.wrappers.RpcWrapper;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class RpcHandlerTest {
+
+    private static final long REQUEST_ID = 7L;
+
+    // Fails passed amount of first writes as encoder of not serializable
+    // value does
+    private static class FailingEncoder extends ChannelOutboundHandlerAdapter {
+
+	private final AtomicInteger failures;
+
+	public FailingEncoder(int failures) {
+	    this.failures = new AtomicInteger(failures);
+	}
+
+	@Override
+	public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+
+	    if (failures.getAndDecrement() > 0) {
+		promise.setFailure(new IOException("Could not encode response"));
+	    } else {
+		ctx.write(msg, promise);
+	    }
+	}
+    }
+
+    private static RpcWrapper createRequest() {
+
+	RpcWrapper wrapper = new RpcWrapper();
+	wrapper.setId(REQUEST_ID);
+	wrapper.setBeanName("notDeployedBean");
+	wrapper.setParams(new Object[0]);
+
+	return wrapper;
+    }
+
+    @Test
+    public void responseFailureTest() {
+
+	EmbeddedChannel channel = new EmbeddedChannel(new FailingEncoder(1), new RpcHandler());
+	channel.writeInbound(createRequest());
+
+	// Error response is sent for request instead of failed one
+	RcpWrapper response = (RcpWrapper) channel.readOutbound();
+	Assert.assertNotNull(response);
+	Assert.assertEquals(REQUEST_ID, response.getId());
+	Assert.assertFalse(response.isValid());
+	Assert.assertTrue(response.getValue() instanceof IOException);
+	Assert.assertTrue(channel.isOpen());
+	channel.finish();
+    }
+
+    @Test
+    public void errorFailureTest() {
+
+	EmbeddedChannel channel = new EmbeddedChannel(new FailingEncoder(2), new RpcHandler());
+	channel.writeInbound(createRequest());
+
+	// Connection is closed if error response could not be sent either
+	Assert.assertNull(channel.readOutbound());
+	Assert.assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void rejectionTest() {
+
+	Configuration config = new Configuration();
+	config.setRpcExecutorPoolSize(1);
+	config.setRpcExecutorQueueSize(1);
+	ExecutorService executor = RpcTransport.createExecutor(config);
+	final CountDownLatch latch = new CountDownLatch(1);
+	Runnable task = new Runnable() {
+
+	    @Override
+	    public void run() {
+		try {
+		    latch.await();
+		} catch (InterruptedException ex) {
+		    Thread.currentThread().interrupt();
+		}
+	    }
+	};
+	EmbeddedChannel channel = new EmbeddedChannel(new RpcHandler(executor));
+	try {
+	    // One running and one queued invocation
+	    executor.execute(task);
+	    executor.execute(task);
+	    channel.writeInbound(createRequest());
+
+	    // Request over queue size gets error response on open connection
+	    RcpWrapper response = (RcpWrapper) channel.readOutbound();
+	    Assert.assertNotNull(response);
+	    Assert.assertEquals(REQUEST_ID, response.getId());
+	    Assert.assertFalse(response.isValid());
+	    Assert.assertTrue(response.getValue() instanceof IOException);
+	    Assert.assertTrue(channel.isOpen());
+	} finally {
+	    latch.countDown();
+	    executor.shutdown();
+	    channel.finish();
+	}
+    }
+}
@@ -0,0 +1,59 @@
+package org.lightmare.remote.rpc;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.lightmare.config.Configuration;
+import org.lightmare.utils.concurrent.ThreadFactoryUtil;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+
+public class RpcTransportTest {
+
+    @Test
+    public void nioTest() {
+
+	Configuration config = new Configuration();
+	config.setRpcEpoll(Boolean.FALSE);
+	config.setWriteBufferWaterMarks(1024, 4096);
+	Assert.assertFalse(RpcTransport.isEpoll(config));
+
+	EventLoopGroup group = RpcTransport.createEventLoopGroup(config, 1, new ThreadFactoryUtil("rpc-test-thread"));
+	try {
+	    Assert.assertTrue(group instanceof NioEventLoopGroup);
+	    Bootstrap bootstrap = new Bootstrap();
+	    bootstrap.group(group).handler(new ChannelInboundHandlerAdapter());
+	    RpcTransport.configure(bootstrap, config);
+	    Channel channel = bootstrap.register().syncUninterruptibly().channel();
+	    Assert.assertEquals(Boolean.TRUE, channel.config().getOption(ChannelOption.TCP_NODELAY));
+	    Assert.assertEquals(Integer.valueOf(4096),
+		    channel.config().getOption(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK));
+	    channel.close();
+	} finally {
+	    group.shutdownGracefully();
+	}
+    }
+
+    @Test
+    public void executorTest() {
+
+	Configuration config = new Configuration();
+	config.setRpcExecutorPoolSize(0);
+	Assert.assertNull(RpcTransport.createExecutor(config));
+
+	config.setRpcExecutorPoolSize(2);
+	ExecutorService executor = RpcTransport.createExecutor(config);
+	try {
+	    Assert.assertEquals(2, ((ThreadPoolExecutor) executor).getMaximumPoolSize());
+	} finally {
+	    executor.shutdown();
+	}
+    }
+}
@@ -0,0 +1,243 @@
+package org.lightmare.scannotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.ejb.Stateless;
+import javax.persistence.Entity;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightmare.bean.LightMareBean;
+import org.lightmare.bean.LightMareBeanRemote;
+import org.lightmare.bean.LightMareFalseBean;
+import org.lightmare.entities.Person;
+import org.lightmare.utils.fs.FileUtils;
+
+import javassist.bytecode.annotation.Annotation;
+
+public class ParallelAnnotationFinderTest {
+
+    private static final Class<?>[] CLASSES = { LightMareBean.class, LightMareFalseBean.class,
+	    LightMareBeanRemote.class, Person.class, ParallelAnnotationFinderTest.class };
+
+    private File directory;
+
+    private static String getEntryName(Class<?> type) {
+	return type.getName().replace('.', '/').concat(".class");
+    }
+
+    private static byte[] read(Class<?> type) throws IOException {
+
+	InputStream stream = type.getClassLoader().getResourceAsStream(getEntryName(type));
+	try {
+	    byte[] buffer = new byte[stream.available()];
+	    int offset = 0;
+	    while (offset < buffer.length) {
+		offset += stream.read(buffer, offset, buffer.length - offset);
+	    }
+	    return buffer;
+	} finally {
+	    stream.close();
+	}
+    }
+
+    // Writes test classes with both stored and deflated entries
+    private File createJar() throws IOException {
+
+	File jar = new File(directory, "scanned.jar");
+	ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(jar));
+	try {
+	    boolean stored = Boolean.FALSE;
+	    for (Class<?> type : CLASSES) {
+		byte[] content = read(type);
+		ZipEntry entry = new ZipEntry(getEntryName(type));
+		if (stored) {
+		    CRC32 crc = new CRC32();
+		    crc.update(content);
+		    entry.setMethod(ZipEntry.STORED);
+		    entry.setSize(content.length);
+		    entry.setCrc(crc.getValue());
+		}
+		zip.putNextEntry(entry);
+		zip.write(content);
+		zip.closeEntry();
+		stored = !stored;
+	    }
+	} finally {
+	    zip.close();
+	}
+
+	return jar;
+    }
+
+    private File createDirectory() throws IOException {
+
+	File classes = new File(directory, "classes");
+	for (Class<?> type : CLASSES) {
+	    File file = new File(classes, getEntryName(type));
+	    file.getParentFile().mkdirs();
+	    Files.write(file.toPath(), read(type));
+	}
+
+	return classes;
+    }
+
+    private static AnnotationFinder scan(File indexDirectory, URL... urls) throws IOException {
+
+	AnnotationFinder finder = new AnnotationFinder();
+	finder.setScanFieldAnnotations(Boolean.FALSE);
+	finder.setScanParameterAnnotations(Boolean.FALSE);
+	finder.setScanMethodAnnotations(Boolean.FALSE);
+	finder.setWantedAnnotations(Stateless.class.getName(), Entity.class.getName());
+	finder.setParallelism(2);
+	finder.setIndexDirectory(indexDirectory);
+	finder.scanArchives(urls);
+
+	return finder;
+    }
+
+    private static AnnotationFinder scan(URL... urls) throws IOException {
+	return scan(null, urls);
+    }
+
+    private static void assertIndex(AnnotationFinder finder, String fileName) {
+
+	Set<String> beans = finder.getAnnotationIndex().get(Stateless.class.getName());
+	Assert.assertEquals(2, beans.size());
+	Assert.assertTrue(beans.contains(LightMareBean.class.getName()));
+	Assert.assertTrue(finder.getAnnotationIndex().get(Entity.class.getName()).contains(Person.class.getName()));
+	// Classes without wanted annotations are not parsed
+	Map<String, Set<String>> classIndex = finder.getClassIndex();
+	Assert.assertFalse(classIndex.containsKey(LightMareBeanRemote.class.getName()));
+	Assert.assertFalse(classIndex.containsKey(ParallelAnnotationFinderTest.class.getName()));
+	Assert.assertEquals(fileName, finder.getClassOwnersFiles().get(LightMareBean.class.getName()));
+    }
+
+    @Before
+    public void create() throws IOException {
+	directory = Files.createTempDirectory("scanned").toFile();
+    }
+
+    @After
+    public void delete() throws IOException {
+	FileUtils.deleteFile(directory);
+    }
+
+    @Test
+    public void mappedArchiveTest() throws IOException {
+
+	URL url = createJar().toURI().toURL();
+	assertIndex(scan(url), "scanned.jar");
+    }
+
+    @Test
+    public void scanIndexTest() throws IOException {
+
+	File index = new File(directory, "index");
+	File jar = createJar();
+	assertIndex(scan(index, jar.toURI().toURL()), "scanned.jar");
+	File[] indexFiles = index.listFiles();
+	Assert.assertEquals(1, indexFiles.length);
+	Assert.assertTrue(indexFiles[0].setLastModified(0L));
+
+	// Same archive on other location is loaded from index
+	File copy = new File(directory, "copied.jar");
+	Files.copy(jar.toPath(), copy.toPath());
+	AnnotationFinder finder = scan(index, copy.toURI().toURL());
+	Set<String> beans = finder.getAnnotationIndex().get(Stateless.class.getName());
+	Assert.assertEquals(2, beans.size());
+	Assert.assertTrue(finder.getAnnotationIndex().get(Entity.class.getName()).contains(Person.class.getName()));
+	Assert.assertEquals("copied.jar", finder.getClassOwnersFiles().get(LightMareBean.class.getName()));
+	Assert.assertEquals(copy.toURI().toURL(), finder.getClassOwnersURLs().get(Person.class.getName()));
+	Assert.assertEquals(0L, indexFiles[0].lastModified());
+	Assert.assertEquals(1, index.listFiles().length);
+
+	// Changed archive is scanned and indexed again
+	File changed = new File(directory, "changed.jar");
+	ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(changed));
+	try {
+	    zip.putNextEntry(new ZipEntry(getEntryName(Person.class)));
+	    zip.write(read(Person.class));
+	    zip.closeEntry();
+	} finally {
+	    zip.close();
+	}
+	finder = scan(index, changed.toURI().toURL());
+	Assert.assertNull(finder.getAnnotationIndex().get(Stateless.class.getName()));
+	Assert.assertTrue(finder.getAnnotationIndex().get(Entity.class.getName()).contains(Person.class.getName()));
+	Assert.assertEquals(2, index.listFiles().length);
+    }
+
+    @Test
+    public void untrustedIndexTest() throws IOException {
+
+	File index = new File(directory, "shared");
+	Assert.assertTrue(index.mkdirs());
+	Assume.assumeTrue(index.setWritable(Boolean.TRUE, Boolean.FALSE));
+	Assume.assumeTrue(Files.getPosixFilePermissions(index.toPath()).contains(PosixFilePermission.OTHERS_WRITE));
+
+	// Index directory writable by other users is neither read nor written
+	File jar = createJar();
+	assertIndex(scan(index, jar.toURI().toURL()), "scanned.jar");
+	Assert.assertEquals(0, index.listFiles().length);
+    }
+
+    @Test
+    public void failureTest() throws Exception {
+
+	final URL delayed = createJar().toURI().toURL();
+	URL missing = new File(directory, "missing.jar").toURI().toURL();
+	// Scanning of archive continues after other archive failed
+	AnnotationFinder finder = new AnnotationFinder() {
+
+	    private static final long serialVersionUID = 1L;
+
+	    @Override
+	    protected void populate(Annotation[] annotations, String className, URL url) {
+
+		if (delayed.equals(url)) {
+		    try {
+			Thread.sleep(50L);
+		    } catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		    }
+		}
+		super.populate(annotations, className, url);
+	    }
+	};
+	finder.setParallelism(2);
+	try {
+	    finder.scanArchives(missing, delayed);
+	    Assert.fail("Scanning of missing archive should fail");
+	} catch (IOException ex) {
+	    // Archives are not scanned after error is thrown
+	    int size = finder.getClassOwnersURLs().size();
+	    Thread.sleep(500L);
+	    Assert.assertEquals(size, finder.getClassOwnersURLs().size());
+	}
+    }
+
+    @Test
+    public void directoryTest() throws IOException {
+
+	File classes = createDirectory();
+	URL url = classes.toURI().toURL();
+	AnnotationFinder finder = scan(url);
+	Assert.assertEquals(2, finder.getAnnotationIndex().get(Stateless.class.getName()).size());
+	Assert.assertFalse(finder.getClassIndex().containsKey(LightMareBeanRemote.class.getName()));
+    }
+}
@@ -0,0 +1,168 @@
+package org.lightmare.utils.fs.codecs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.lightmare.jpa.XMLInitializer;
+import org.lightmare.utils.fs.FileUtils;
+
+public class NestedJarHandlerTest {
+
+    private static final String JAR_NAME = "module.jar";
+
+    private static final String XML_CONTENT = "<persistence/>";
+
+    private File directory;
+
+    private static byte[] createJar() throws IOException {
+	return createJar(XML_CONTENT);
+    }
+
+    private static byte[] createJar(String xml) throws IOException {
+
+	ByteArrayOutputStream content = new ByteArrayOutputStream();
+	ZipOutputStream zip = new ZipOutputStream(content);
+	try {
+	    zip.putNextEntry(new ZipEntry("org/lightmare/Bean.class"));
+	    zip.write(new byte[128]);
+	    zip.closeEntry();
+	    zip.putNextEntry(new ZipEntry(XMLInitializer.XML_PATH));
+	    zip.write(xml.getBytes("UTF-8"));
+	    zip.closeEntry();
+	} finally {
+	    zip.close();
+	}
+
+	return content.toByteArray();
+    }
+
+    private File createEar() throws IOException {
+	return createEar(XML_CONTENT);
+    }
+
+    private File createEar(String xml) throws IOException {
+
+	File ear = new File(directory, "application.ear");
+	ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(ear));
+	try {
+	    zip.putNextEntry(new ZipEntry(JAR_NAME));
+	    zip.write(createJar(xml));
+	    zip.closeEntry();
+	} finally {
+	    zip.close();
+	}
+
+	return ear;
+    }
+
+    @Before
+    public void create() throws IOException {
+	directory = Files.createTempDirectory("nested").toFile();
+    }
+
+    @After
+    public void delete() throws IOException {
+	FileUtils.deleteFile(directory);
+    }
+
+    private static String read(URL url) throws IOException {
+
+	InputStream stream = url.openStream();
+	ByteArrayOutputStream content = new ByteArrayOutputStream();
+	try {
+	    byte[] buffer = new byte[64];
+	    int length = stream.read(buffer);
+	    while (length > 0) {
+		content.write(buffer, 0, length);
+		length = stream.read(buffer);
+	    }
+	} finally {
+	    stream.close();
+	}
+
+	return content.toString("UTF-8");
+    }
+
+    @Test
+    public void readEntryTest() throws IOException {
+
+	File ear = createEar();
+	ZipFile zipFile = new ZipFile(ear);
+	try {
+	    Assert.assertTrue(NestedJarHandler.containsEntry(zipFile, JAR_NAME,
+		    XMLInitializer.XML_PATH));
+	    Assert.assertFalse(NestedJarHandler.containsEntry(zipFile,
+		    JAR_NAME, "META-INF/orm.xml"));
+	} finally {
+	    zipFile.close();
+	}
+
+	URL url = NestedJarHandler.getURL(ear, JAR_NAME,
+		XMLInitializer.XML_PATH);
+	Assert.assertTrue(NestedJarHandler.isNested(url));
+	Assert.assertEquals(XML_CONTENT, read(url));
+
+	// Nested jar itself is addressed by standard jar URL
+	URL jarURL = NestedJarHandler.getJarURL(url);
+	Assert.assertFalse(NestedJarHandler.isNested(jarURL));
+	Assert.assertTrue(jarURL.toString().endsWith("application.ear!/"
+		+ JAR_NAME));
+	// No temporary copy of nested jar is created
+	Assert.assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void changedArchiveTest() throws IOException {
+
+	File ear = createEar();
+	URL url = NestedJarHandler.getURL(ear, JAR_NAME,
+		XMLInitializer.XML_PATH);
+	Assert.assertEquals(XML_CONTENT, read(url));
+	// Cached nested jar is used for following lookups
+	Assert.assertEquals(XML_CONTENT, read(url));
+
+	// Changed archive is read again
+	String changed = "<persistence version=\"2.0\"/>";
+	createEar(changed);
+	Assert.assertTrue(ear.setLastModified(ear.lastModified() - 2000L));
+	Assert.assertEquals(changed, read(url));
+
+	NestedJarHandler.release(ear.toURI().toURL());
+	Assert.assertEquals(changed, read(url));
+    }
+
+    @Test
+    public void cacheTest() throws IOException {
+
+	File ear = createEar();
+	ZipFile zipFile = new ZipFile(ear);
+	try {
+	    // Jar without looked up entry is not kept
+	    Assert.assertFalse(NestedJarHandler.containsEntry(zipFile,
+		    JAR_NAME, "META-INF/orm.xml"));
+	    Assert.assertFalse(NestedJarHandler.isCached(ear, JAR_NAME));
+	    Assert.assertTrue(NestedJarHandler.containsEntry(zipFile, JAR_NAME,
+		    XMLInitializer.XML_PATH));
+	    Assert.assertTrue(NestedJarHandler.isCached(ear, JAR_NAME));
+	} finally {
+	    zipFile.close();
+	}
+
+	// Archive URL spelled other way releases same cached jars
+	File spelled = new File(new File(directory, "."), ear.getName());
+	NestedJarHandler.release(spelled.toURI().toURL());
+	Assert.assertFalse(NestedJarHandler.isCached(ear, JAR_NAME));
+    }
+}